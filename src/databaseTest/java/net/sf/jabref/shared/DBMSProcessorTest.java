@@ -3,12 +3,17 @@ package net.sf.jabref.shared;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.shared.exception.OfflineLockException;
@@ -154,6 +159,64 @@ public class DBMSProcessorTest {
         }
     }
 
+    @Test
+    public void testInsertEntries() {
+        BibEntry firstEntry = getBibEntryExample();
+        BibEntry secondEntry = getBibEntryExample();
+        secondEntry.setField("year", "1995");
+        BibEntry emptyEntry = new BibEntry();
+
+        dbmsProcessor.insertEntries(Arrays.asList(firstEntry, secondEntry, emptyEntry));
+
+        Assert.assertEquals(Arrays.asList(firstEntry, secondEntry, emptyEntry), dbmsProcessor.getSharedEntries());
+        Assert.assertEquals(3, dbmsProcessor.getSharedIDVersionMapping().size());
+    }
+
+    @Test
+    public void testInsertEntriesSkipsPresentEntries() {
+        BibEntry bibEntry = getBibEntryExample();
+        dbmsProcessor.insertEntry(bibEntry);
+
+        BibEntry newEntry = getBibEntryExample();
+        newEntry.setField("year", "1995");
+        dbmsProcessor.insertEntries(Arrays.asList(bibEntry, newEntry));
+
+        Assert.assertEquals(Arrays.asList(bibEntry, newEntry), dbmsProcessor.getSharedEntries());
+    }
+
+    @Test
+    public void testUpdateEntries() throws SQLException {
+        BibEntry updatedEntry = getBibEntryExample();
+        BibEntry outdatedEntry = getBibEntryExample();
+        BibEntry notPresentEntry = getBibEntryExample();
+        dbmsProcessor.insertEntries(Arrays.asList(updatedEntry, outdatedEntry));
+        notPresentEntry.getSharedBibEntryData().setSharedID(4711);
+
+        updatedEntry.setType("book");
+        updatedEntry.setField("author", "Michael J and Hutchings");
+        updatedEntry.setField("customField", "custom value");
+        updatedEntry.clearField("booktitle");
+        outdatedEntry.getSharedBibEntryData().setVersion(0); // simulate older version
+        outdatedEntry.setField("year", "1993");
+
+        List<OfflineLockException> offlineLockExceptions = new ArrayList<>();
+        List<SharedEntryNotPresentException> notPresentExceptions = new ArrayList<>();
+        dbmsProcessor.updateEntries(Arrays.asList(updatedEntry, outdatedEntry, notPresentEntry),
+                offlineLockExceptions::add, notPresentExceptions::add);
+
+        Assert.assertEquals(updatedEntry,
+                dbmsProcessor.getSharedEntry(updatedEntry.getSharedBibEntryData().getSharedID()).get());
+        Assert.assertEquals(2, dbmsProcessor.getSharedIDVersionMapping()
+                .get(updatedEntry.getSharedBibEntryData().getSharedID()).intValue());
+        Assert.assertEquals("1994", dbmsProcessor.getSharedEntry(outdatedEntry.getSharedBibEntryData().getSharedID())
+                .get().getFieldOptional("year").get());
+
+        Assert.assertEquals(1, offlineLockExceptions.size());
+        Assert.assertSame(outdatedEntry, offlineLockExceptions.get(0).getLocalBibEntry());
+        Assert.assertEquals(1, notPresentExceptions.size());
+        Assert.assertSame(notPresentEntry, notPresentExceptions.get(0).getNonPresentBibEntry());
+    }
+
     @Test
     public void testRemoveEntry() throws SQLException {
         BibEntry bibEntry = getBibEntryExample();
@@ -193,6 +256,23 @@ public class DBMSProcessorTest {
         }
     }
 
+    @Test
+    public void testGetSharedEntriesByIDs() {
+        BibEntry firstEntry = getBibEntryExample();
+        BibEntry secondEntry = getBibEntryExampleWithEmptyFields();
+        BibEntry thirdEntry = getBibEntryExample();
+
+        dbmsProcessor.insertEntry(firstEntry);
+        dbmsProcessor.insertEntry(secondEntry);
+        dbmsProcessor.insertEntry(thirdEntry);
+
+        List<BibEntry> actualEntries = dbmsProcessor.getSharedEntries(
+                Arrays.asList(firstEntry.getSharedBibEntryData().getSharedID(),
+                        thirdEntry.getSharedBibEntryData().getSharedID()));
+
+        Assert.assertEquals(Arrays.asList(firstEntry, thirdEntry), actualEntries);
+    }
+
     @Test
     public void testGetNotExistingSharedEntry() {
         Optional<BibEntry> actualBibEntryOptional = dbmsProcessor.getSharedEntry(1);
@@ -242,6 +322,30 @@ public class DBMSProcessorTest {
         Assert.assertEquals(expectedMetaData, actualMetaData);
     }
 
+    @Test
+    public void testNotificationListenerReportsChanges()
+            throws ClassNotFoundException, SQLException, InterruptedException, OfflineLockException,
+            SharedEntryNotPresentException {
+        BlockingQueue<Map<Integer, Integer>> changes = new LinkedBlockingQueue<>();
+        // the listener opens a connection of its own
+        dbmsProcessor.startNotificationListener(TestConnector.getConnectionProperties(dbmsType), changes::add);
+        try {
+            BibEntry bibEntry = getBibEntryExample();
+            dbmsProcessor.insertEntry(bibEntry);
+            int sharedID = bibEntry.getSharedBibEntryData().getSharedID();
+            Assert.assertEquals(Collections.singletonMap(sharedID, 1), changes.poll(5, TimeUnit.SECONDS));
+
+            bibEntry.setField("year", "1995");
+            dbmsProcessor.updateEntry(bibEntry);
+            Assert.assertEquals(Collections.singletonMap(sharedID, 2), changes.poll(5, TimeUnit.SECONDS));
+
+            dbmsProcessor.removeEntry(bibEntry);
+            Assert.assertEquals(Collections.singletonMap(sharedID, 0), changes.poll(5, TimeUnit.SECONDS));
+        } finally {
+            dbmsProcessor.stopNotificationListener();
+        }
+    }
+
     private Map<String, String> getMetaDataExample() {
         Map<String, String> expectedMetaData = new HashMap<>();
 
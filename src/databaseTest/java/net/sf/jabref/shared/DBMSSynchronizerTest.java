@@ -5,6 +5,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -180,6 +181,45 @@ public class DBMSSynchronizerTest {
         Assert.assertEquals(bibDatabase.getEntries(), dbmsProcessor.getSharedEntries());
     }
 
+    @Test
+    public void testSynchronizeLocalEntries() throws OfflineLockException, SharedEntryNotPresentException, SQLException {
+        BibEntry bibEntry = getBibEntryExample(1);
+        BibEntry otherBibEntry = getBibEntryExample(2);
+        dbmsProcessor.insertEntry(bibEntry);
+        dbmsProcessor.insertEntry(otherBibEntry);
+
+        Map<Integer, Integer> changes = new HashMap<>();
+        changes.put(bibEntry.getSharedBibEntryData().getSharedID(), 1);
+        dbmsSynchronizer.synchronizeLocalEntries(changes);
+
+        // only the reported entry is fetched
+        Assert.assertEquals(Arrays.asList(bibEntry), bibDatabase.getEntries());
+
+        bibEntry.setField("custom", "custom value");
+        dbmsProcessor.updateEntry(bibEntry);
+        changes.put(bibEntry.getSharedBibEntryData().getSharedID(), 2);
+        changes.put(otherBibEntry.getSharedBibEntryData().getSharedID(), 1);
+        dbmsSynchronizer.synchronizeLocalEntries(changes);
+
+        Assert.assertEquals(dbmsProcessor.getSharedEntries(), bibDatabase.getEntries());
+
+        changes.clear();
+        changes.put(bibEntry.getSharedBibEntryData().getSharedID(), 0);
+        dbmsSynchronizer.synchronizeLocalEntries(changes);
+
+        Assert.assertEquals(Arrays.asList(otherBibEntry), bibDatabase.getEntries());
+    }
+
+    @Test
+    public void testInsertEntries() {
+        List<BibEntry> expectedBibEntries = Arrays.asList(getBibEntryExample(1), getBibEntryExample(2));
+
+        dbmsSynchronizer.insertEntries(expectedBibEntries);
+
+        Assert.assertEquals(expectedBibEntries, bibDatabase.getEntries());
+        Assert.assertEquals(expectedBibEntries, dbmsProcessor.getSharedEntries());
+    }
+
     @Test
     public void testApplyMetaData() {
         BibEntry bibEntry = getBibEntryExample(1);
@@ -1,5 +1,6 @@
 package net.sf.jabref.benchmarks;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
@@ -11,6 +12,7 @@ import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.Defaults;
 import net.sf.jabref.Globals;
 import net.sf.jabref.MetaData;
+import net.sf.jabref.logic.bst.VM;
 import net.sf.jabref.logic.exporter.BibtexDatabaseWriter;
 import net.sf.jabref.logic.exporter.SavePreferences;
 import net.sf.jabref.logic.exporter.StringSaveSession;
@@ -27,6 +29,7 @@ import net.sf.jabref.logic.search.SearchQuery;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.database.BibDatabaseModeDetection;
+import net.sf.jabref.model.entry.AuthorList;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.preferences.JabRefPreferences;
 
@@ -35,6 +38,7 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.runner.RunnerException;
 
 @State(Scope.Thread)
@@ -44,6 +48,8 @@ public class Benchmarks {
     private final BibDatabase database = new BibDatabase();
     private String latexConversionString;
     private String htmlConversionString;
+    private VM bstVM;
+    private final List<String> authorFields = new ArrayList<>();
 
     @Setup
     public void init() throws Exception {
@@ -54,12 +60,14 @@ public class Benchmarks {
             BibEntry entry = new BibEntry();
             entry.setCiteKey("id" + i);
             entry.setField("title", "This is my title " + i);
-            entry.setField("author", "Firstname Lastname and FirstnameA LastnameA and FirstnameB LastnameB" + i);
+            String author = "Firstname Lastname and FirstnameA LastnameA and FirstnameB LastnameB" + i;
+            entry.setField("author", author);
             entry.setField("journal", "Journal Title " + i);
             entry.setField("keyword", "testkeyword");
             entry.setField("year", "1" + i);
             entry.setField("rnd", "2" + randomizer.nextInt());
             database.insertEntry(entry);
+            authorFields.add(author);
         }
         BibtexDatabaseWriter<StringSaveSession> databaseWriter = new BibtexDatabaseWriter<>(StringSaveSession::new);
         StringSaveSession saveSession = databaseWriter.savePartOfDatabase(
@@ -70,6 +78,9 @@ public class Benchmarks {
         latexConversionString = "{A} \\textbf{bold} approach {\\it to} ${{\\Sigma}}{\\Delta}$ modulator \\textsuperscript{2} \\$";
 
         htmlConversionString = "<b>&Ouml;sterreich</b> &#8211; &amp; characters &#x2aa2; <i>italic</i>";
+
+        // abbrv.bst is plain.bst with abbreviated names, the style is compiled once and run for each invocation
+        bstVM = new VM(new File("src/test/resources/net/sf/jabref/logic/bst/abbrv.bst"));
     }
 
     @Benchmark
@@ -80,6 +91,16 @@ public class Benchmarks {
         return parser.parse();
     }
 
+    @Benchmark
+    public int parseStreaming() throws IOException {
+        StringReader bibtexStringReader = new StringReader(bibtexString);
+        BibtexParser parser = new BibtexParser(bibtexStringReader,
+                ImportFormatPreferences.fromPreferences(Globals.prefs));
+        List<BibEntry> parsedEntries = new ArrayList<>();
+        parser.parse(parsedEntries::add);
+        return parsedEntries.size();
+    }
+
     @Benchmark
     public String write() throws Exception {
         BibtexDatabaseWriter<StringSaveSession> databaseWriter = new BibtexDatabaseWriter<>(StringSaveSession::new);
@@ -89,6 +110,26 @@ public class Benchmarks {
         return saveSession.getStringValue();
     }
 
+    @Benchmark
+    public String writeAfterChangingOneEntry() throws Exception {
+        // only the changed entry is serialized again, all others are written as they were written before
+        database.getEntries().get(500).setField("rnd", "3" + System.nanoTime());
+        BibtexDatabaseWriter<StringSaveSession> databaseWriter = new BibtexDatabaseWriter<>(StringSaveSession::new);
+        StringSaveSession saveSession = databaseWriter.savePartOfDatabase(
+                new BibDatabaseContext(database, new MetaData(), new Defaults()), database.getEntries(),
+                new SavePreferences().withUpdateParsedSerialization(true));
+        return saveSession.getStringValue();
+    }
+
+    @Benchmark
+    public String writeReformatted() throws Exception {
+        BibtexDatabaseWriter<StringSaveSession> databaseWriter = new BibtexDatabaseWriter<>(StringSaveSession::new);
+        StringSaveSession saveSession = databaseWriter.savePartOfDatabase(
+                new BibDatabaseContext(database, new MetaData(), new Defaults()), database.getEntries(),
+                new SavePreferences().withReformatFile(true));
+        return saveSession.getStringValue();
+    }
+
     @Benchmark
     public List<BibEntry> search() {
         // FIXME: Reuse SearchWorker here
@@ -121,6 +162,11 @@ public class Benchmarks {
         return f.format(htmlConversionString);
     }
 
+    @Benchmark
+    public String formatWithBstStyle() {
+        return bstVM.run(database);
+    }
+
     @Benchmark
     public boolean keywordGroupContains() throws ParseException {
         KeywordGroup group = new KeywordGroup("testGroup", "keyword", "testkeyword", false, false,
@@ -133,6 +179,16 @@ public class Benchmarks {
         return KeywordGroup.containsWord("testWord", "Some longer test string containing testWord the test word");
     }
 
+    @Benchmark
+    @Threads(4)
+    public int parseAuthorsConcurrently() {
+        int numberOfAuthors = 0;
+        for (String authorField : authorFields) {
+            numberOfAuthors += AuthorList.parse(authorField).getNumberOfAuthors();
+        }
+        return numberOfAuthors;
+    }
+
     public static void main(String[] args) throws IOException, RunnerException {
         Main.main(args);
     }
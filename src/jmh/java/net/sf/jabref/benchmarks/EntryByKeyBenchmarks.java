@@ -0,0 +1,48 @@
+package net.sf.jabref.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks looking up entries by their cite keys on databases of different sizes. The lookups are served from the
+ * key index, so they should not depend on the size of the database.
+ */
+@State(Scope.Thread)
+public class EntryByKeyBenchmarks {
+
+    @Param({"1000", "10000", "100000"})
+    private int numberOfEntries;
+
+    private final BibDatabase database = new BibDatabase();
+
+
+    @Setup
+    public void init() {
+        for (int i = 0; i < numberOfEntries; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setCiteKey("id" + i);
+            entry.setField("title", "This is my title " + i);
+            entry.setField("journal", "Journal Title " + i);
+            database.insertEntry(entry);
+        }
+    }
+
+    @Benchmark
+    public Optional<BibEntry> getEntryByKey() {
+        return database.getEntryByKey("id500");
+    }
+
+    @Benchmark
+    public List<BibEntry> getEntriesByKey() {
+        return database.getEntriesByKey("id500");
+    }
+}
@@ -0,0 +1,74 @@
+package net.sf.jabref.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.logic.search.SearchIndex;
+import net.sf.jabref.logic.search.SearchQuery;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.preferences.JabRefPreferences;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the search of {@link Benchmarks#search()} on larger databases, with and without a {@link SearchIndex}.
+ */
+@State(Scope.Thread)
+public class SearchBenchmarks {
+
+    @Param({"10000", "100000"})
+    private int numberOfEntries;
+
+    private final BibDatabase database = new BibDatabase();
+    private SearchIndex searchIndex;
+    private final SearchQuery containBasedQuery = new SearchQuery("Journal Title 500", false, false);
+    private final SearchQuery grammarBasedQuery = new SearchQuery("journal=\"Title 500\" and keyword=testkeyword",
+            false, false);
+
+
+    @Setup
+    public void init() {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        Random randomizer = new Random();
+        for (int i = 0; i < numberOfEntries; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setCiteKey("id" + i);
+            entry.setField("title", "This is my title " + i);
+            entry.setField("author", "Firstname Lastname and FirstnameA LastnameA and FirstnameB LastnameB" + i);
+            entry.setField("journal", "Journal Title " + i);
+            entry.setField("keyword", "testkeyword");
+            entry.setField("year", "1" + i);
+            entry.setField("rnd", "2" + randomizer.nextInt());
+            database.insertEntry(entry);
+        }
+        searchIndex = SearchIndex.forDatabase(database);
+    }
+
+    @Benchmark
+    public List<BibEntry> search() {
+        return database.getEntries().stream().filter(containBasedQuery::isMatch).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BibEntry> searchWithIndex() {
+        return containBasedQuery.getMatches(database.getEntries(), searchIndex);
+    }
+
+    @Benchmark
+    public List<BibEntry> grammarBasedSearch() {
+        return database.getEntries().stream().filter(grammarBasedQuery::isMatch).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BibEntry> grammarBasedSearchWithIndex() {
+        return grammarBasedQuery.getMatches(database.getEntries(), searchIndex);
+    }
+}
@@ -0,0 +1,92 @@
+package net.sf.jabref.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.Defaults;
+import net.sf.jabref.Globals;
+import net.sf.jabref.MetaData;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.preferences.JabRefPreferences;
+import net.sf.jabref.shared.DBMSProcessor;
+import net.sf.jabref.shared.DBMSSynchronizer;
+import net.sf.jabref.shared.DBMSType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the synchronization of a shared database. An in-memory H2 database running in PostgreSQL mode stands in
+ * for the shared database server.
+ */
+@State(Scope.Thread)
+public class SharedDatabaseBenchmarks {
+
+    private static final int CHANGED_ENTRIES = 50;
+
+    @Param({"1000", "10000"})
+    private int numberOfEntries;
+
+    private Connection connection;
+    private DBMSProcessor remoteProcessor;
+    private DBMSSynchronizer localSynchronizer;
+    private List<BibEntry> remoteEntries;
+    private int round;
+
+
+    @Setup
+    public void init() throws Exception {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:jabref" + numberOfEntries + ";MODE=PostgreSQL");
+        remoteProcessor = DBMSProcessor.getProcessorInstance(connection, DBMSType.POSTGRESQL);
+        remoteProcessor.setupSharedDatabase();
+        for (int i = 0; i < numberOfEntries; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setCiteKey("id" + i);
+            entry.setField("title", "This is my title " + i);
+            entry.setField("author", "Firstname Lastname and FirstnameA LastnameA and FirstnameB LastnameB" + i);
+            entry.setField("journal", "Journal Title " + i);
+            entry.setField("year", "1" + i);
+            remoteProcessor.insertEntry(entry);
+        }
+        remoteEntries = remoteProcessor.getSharedEntries();
+
+        BibDatabase localDatabase = new BibDatabase();
+        localSynchronizer = new DBMSSynchronizer(
+                new BibDatabaseContext(localDatabase, new MetaData(), new Defaults()));
+        localSynchronizer.openSharedDatabase(connection, DBMSType.POSTGRESQL, "jabref");
+    }
+
+    /**
+     * Simulates another client changing some entries on the shared database.
+     */
+    @Setup(Level.Invocation)
+    public void changeRemoteEntries() throws Exception {
+        round++;
+        for (int i = 0; i < CHANGED_ENTRIES; i++) {
+            BibEntry entry = remoteEntries.get((round * CHANGED_ENTRIES + i) % remoteEntries.size());
+            entry.setField("note", "changed in round " + round);
+            remoteProcessor.updateEntry(entry);
+            entry.getSharedBibEntryData().setVersion(entry.getSharedBibEntryData().getVersion() + 1);
+        }
+    }
+
+    @TearDown
+    public void closeConnection() throws Exception {
+        connection.close();
+    }
+
+    @Benchmark
+    public void synchronizeLocalDatabase() {
+        localSynchronizer.synchronizeLocalDatabase();
+    }
+}
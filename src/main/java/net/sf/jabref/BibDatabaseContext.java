@@ -7,10 +7,12 @@ import java.util.Objects;
 import java.util.Optional;
 
 import net.sf.jabref.logic.layout.format.FileLinkPreferences;
+import net.sf.jabref.logic.util.io.FileLinkCatalog;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.database.BibDatabaseModeDetection;
 import net.sf.jabref.model.database.DatabaseLocation;
+import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
 import net.sf.jabref.preferences.JabRefPreferences;
 import net.sf.jabref.shared.DBMSSynchronizer;
@@ -29,6 +31,7 @@ public class BibDatabaseContext {
     private File file;
     private DBMSSynchronizer dbmsSynchronizer;
     private DatabaseLocation location;
+    private FileLinkCatalog fileLinkCatalog;
 
     public BibDatabaseContext() {
         this(new Defaults());
@@ -106,6 +109,10 @@ public class BibDatabaseContext {
 
     public void setDatabaseFile(File file) {
         this.file = file;
+        // the directory of the database file is one of the file directories
+        if (fileLinkCatalog != null) {
+            fileLinkCatalog.invalidateAll();
+        }
     }
 
     public BibDatabase getDatabase() {
@@ -196,6 +203,31 @@ public class BibDatabaseContext {
         return getFileDirectory(FieldName.FILE);
     }
 
+    /**
+     * Returns the catalog of the files linked in this database. It is created on first use, but only answers from
+     * memory while it is running, see {@link FileLinkCatalog#run()}.
+     */
+    public synchronized FileLinkCatalog getFileLinkCatalog() {
+        if (fileLinkCatalog == null) {
+            fileLinkCatalog = new FileLinkCatalog(this);
+        }
+        return fileLinkCatalog;
+    }
+
+    /**
+     * Inserts the given entries into the database. For a shared database, all entries are written to the server at
+     * once instead of one by one.
+     */
+    public void insertEntries(List<BibEntry> entries) {
+        if (location == DatabaseLocation.SHARED) {
+            dbmsSynchronizer.insertEntries(entries);
+        } else {
+            for (BibEntry entry : entries) {
+                database.insertEntry(entry);
+            }
+        }
+    }
+
     public DBMSSynchronizer getDBSynchronizer() {
         return this.dbmsSynchronizer;
     }
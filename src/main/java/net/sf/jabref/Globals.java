@@ -10,6 +10,7 @@ import net.sf.jabref.gui.keyboard.KeyBindingPreferences;
 import net.sf.jabref.logic.error.StreamEavesdropper;
 import net.sf.jabref.logic.importer.ImportFormatReader;
 import net.sf.jabref.logic.journals.JournalAbbreviationLoader;
+import net.sf.jabref.logic.net.HttpResponseCache;
 import net.sf.jabref.logic.protectedterms.ProtectedTermsLoader;
 import net.sf.jabref.logic.remote.server.RemoteListenerServerLifecycle;
 import net.sf.jabref.logic.util.BuildInfo;
@@ -52,6 +53,9 @@ public class Globals {
     // Autosave manager
     private static AutoSaveManager autoSaveManager;
 
+    // HTTP response cache, if it could be opened
+    private static HttpResponseCache httpResponseCache;
+
     // Key binding preferences
     public static KeyBindingPreferences getKeyPrefs() {
         if (keyPrefs == null) {
@@ -102,4 +106,13 @@ public class Globals {
     public static Optional<AutoSaveManager> getAutoSaveManager() {
         return Optional.ofNullable(Globals.autoSaveManager);
     }
+
+    // HTTP response cache
+    public static void setHttpResponseCache(HttpResponseCache cache) {
+        Globals.httpResponseCache = cache;
+    }
+
+    public static Optional<HttpResponseCache> getHttpResponseCache() {
+        return Optional.ofNullable(Globals.httpResponseCache);
+    }
 }
@@ -1,6 +1,9 @@
 package net.sf.jabref;
 
+import java.io.IOException;
 import java.net.Authenticator;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.Map;
 
 import javax.swing.SwingUtilities;
@@ -16,6 +19,7 @@ import net.sf.jabref.logic.importer.ImportFormatPreferences;
 import net.sf.jabref.logic.journals.JournalAbbreviationLoader;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.layout.LayoutFormatterPreferences;
+import net.sf.jabref.logic.net.HttpResponseCache;
 import net.sf.jabref.logic.net.ProxyAuthenticator;
 import net.sf.jabref.logic.net.ProxyPreferences;
 import net.sf.jabref.logic.net.ProxyRegisterer;
@@ -49,6 +53,15 @@ public class JabRefMain {
         if (proxyPreferences.isUseProxy() && proxyPreferences.isUseAuthentication()) {
             Authenticator.setDefault(new ProxyAuthenticator());
         }
+        try {
+            HttpResponseCache cache = HttpResponseCache.install(
+                    Paths.get(preferences.get(JabRefPreferences.HTTP_CACHE_DIRECTORY)),
+                    preferences.getInt(JabRefPreferences.HTTP_CACHE_SIZE) * 1024L * 1024L);
+            cache.setOffline(preferences.getBoolean(JabRefPreferences.HTTP_CACHE_OFFLINE));
+            Globals.setHttpResponseCache(cache);
+        } catch (IOException | InvalidPathException e) {
+            LOGGER.warn("Cannot open HTTP cache, downloading without it", e);
+        }
 
         Globals.startBackgroundTasks();
         Globals.prefs = preferences;
@@ -6,7 +6,6 @@ import java.io.StringReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +14,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.jabref.event.GroupUpdatedEvent;
 import net.sf.jabref.event.MetaDataChangedEvent;
@@ -51,8 +51,10 @@ public class MetaData implements Iterable<String> {
     private static final String FILE_DIRECTORY = FieldName.FILE + FileLinkPreferences.DIR_SUFFIX;
     public static final String SELECTOR_META_PREFIX = "selector_";
     private static final String PROTECTED_FLAG_META = "protectedFlag";
+    private static final String FILE_FINGERPRINTS = "fileFingerprints";
 
-    private final Map<String, List<String>> metaData = new HashMap<>();
+    // the fingerprints of the linked files are stored from a background thread
+    private final Map<String, List<String>> metaData = new ConcurrentHashMap<>();
     private GroupTreeNode groupsRoot;
     private final EventBus eventBus = new EventBus();
 
@@ -424,6 +426,17 @@ public class MetaData implements Iterable<String> {
         remove(FILE_DIRECTORY);
     }
 
+    /**
+     * Returns the fingerprints of the linked files, see {@link net.sf.jabref.logic.util.io.FileLinkCatalog}.
+     */
+    public List<String> getFileFingerprints() {
+        return metaData.getOrDefault(FILE_FINGERPRINTS, Collections.emptyList());
+    }
+
+    public void setFileFingerprints(List<String> fingerprints) {
+        metaData.put(FILE_FINGERPRINTS, fingerprints); // Without MetaDataChangedEvent, as no setting has changed
+    }
+
     public void setUserFileDirectory(String user, String path) {
         putData(FILE_DIRECTORY + '-' + user, Collections.singletonList(path.trim()));
     }
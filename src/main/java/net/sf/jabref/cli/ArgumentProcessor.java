@@ -1,12 +1,12 @@
 package net.sf.jabref.cli;
 
 import java.io.File;
-import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -22,8 +22,8 @@ import net.sf.jabref.external.AutoSetLinks;
 import net.sf.jabref.gui.importer.fetcher.EntryFetcher;
 import net.sf.jabref.gui.importer.fetcher.EntryFetchers;
 import net.sf.jabref.logic.CustomEntryTypesManager;
+import net.sf.jabref.logic.bibtexkeypattern.BibtexKeyGenerator;
 import net.sf.jabref.logic.bibtexkeypattern.BibtexKeyPatternPreferences;
-import net.sf.jabref.logic.bibtexkeypattern.BibtexKeyPatternUtil;
 import net.sf.jabref.logic.exporter.BibDatabaseWriter;
 import net.sf.jabref.logic.exporter.BibtexDatabaseWriter;
 import net.sf.jabref.logic.exporter.ExportFormat;
@@ -34,16 +34,18 @@ import net.sf.jabref.logic.exporter.SaveException;
 import net.sf.jabref.logic.exporter.SavePreferences;
 import net.sf.jabref.logic.exporter.SaveSession;
 import net.sf.jabref.logic.importer.ImportFormatPreferences;
-import net.sf.jabref.logic.importer.ImportFormatReader;
+import net.sf.jabref.logic.importer.MultipleFileImporter;
 import net.sf.jabref.logic.importer.OpenDatabase;
 import net.sf.jabref.logic.importer.OutputPrinter;
 import net.sf.jabref.logic.importer.ParserResult;
+import net.sf.jabref.logic.importer.fileformat.ImportFormat;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.layout.LayoutFormatterPreferences;
 import net.sf.jabref.logic.logging.JabRefLogger;
 import net.sf.jabref.logic.search.DatabaseSearcher;
 import net.sf.jabref.logic.search.SearchQuery;
 import net.sf.jabref.logic.util.OS;
+import net.sf.jabref.logic.util.io.FileNameIndex;
 import net.sf.jabref.logic.util.strings.StringUtil;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
@@ -267,9 +269,7 @@ public class ArgumentProcessor {
             toImport.add(cli.getFileImport());
         }
 
-        for (String filenameString : toImport) {
-            importFile(filenameString).ifPresent(loaded::add);
-        }
+        loaded.addAll(importFiles(toImport));
 
         if (!cli.isBlank() && cli.isImportToOpenBase()) {
             importToOpenBase(cli.getImportToOpenBase()).ifPresent(loaded::add);
@@ -431,10 +431,12 @@ public class ArgumentProcessor {
     }
 
     private void automaticallySetFileLinks(List<ParserResult> loaded) {
+        // databases sharing their file directories share the walk of these directories
+        FileNameIndex.Cache fileIndexes = new FileNameIndex.Cache();
         for (ParserResult parserResult : loaded) {
             BibDatabase database = parserResult.getDatabase();
             LOGGER.info(Localization.lang("Automatically setting file links"));
-            AutoSetLinks.autoSetLinks(database.getEntries(), parserResult.getDatabaseContext());
+            AutoSetLinks.autoSetLinks(database.getEntries(), parserResult.getDatabaseContext(), fileIndexes);
         }
     }
 
@@ -445,10 +447,13 @@ public class ArgumentProcessor {
             MetaData metaData = parserResult.getMetaData();
             if (metaData != null) {
                 LOGGER.info(Localization.lang("Regenerating BibTeX keys according to metadata"));
-                for (BibEntry entry : database.getEntries()) {
-                    // try to make a new label
-                    BibtexKeyPatternUtil.makeLabel(metaData, database, entry,
-                            BibtexKeyPatternPreferences.fromPreferences(Globals.prefs));
+                List<BibEntry> entries = database.getEntries();
+                List<String> newKeys = new BibtexKeyGenerator(metaData, database,
+                        BibtexKeyPatternPreferences.fromPreferences(Globals.prefs)).generateUniqueKeys(entries);
+                for (int i = 0; i < entries.size(); i++) {
+                    if (!newKeys.get(i).equals(entries.get(i).getCiteKeyOptional().orElse(null))) {
+                        database.setCiteKeyForEntry(entries.get(i), newKeys.get(i));
+                    }
                 }
             } else {
                 LOGGER.info(Localization.lang("No meta data present in BIB_file. Cannot regenerate BibTeX keys"));
@@ -528,55 +533,69 @@ public class ArgumentProcessor {
     }
 
     private static Optional<ParserResult> importFile(String argument) {
-        String[] data = argument.split(",");
-        OutputPrinter printer = new SystemOutputPrinter();
-
-        try {
-            if ((data.length > 1) && !"*".equals(data[1])) {
-                System.out.println(Localization.lang("Importing") + ": " + data[0]);
-                try {
-                    Path file;
-                    if (OS.WINDOWS) {
-                        file = Paths.get(data[0]);
-                    } else {
-                        file = Paths.get(data[0].replace("~", System.getProperty("user.home")));
-                    }
-                    ParserResult result = Globals.IMPORT_FORMAT_READER.importFromFile(data[1], file);
+        return importFiles(Collections.singletonList(argument)).stream().findFirst();
+    }
 
-                    if(result.hasWarnings()) {
-                        printer.showMessage(result.getErrorMessage());
-                    }
+    /**
+     * Imports the given files in parallel. Each argument is a file name, optionally followed by a comma and the
+     * CLI id of the import format to use ("*" means "guess the format").
+     *
+     * @return the successfully imported files in the order of the arguments
+     */
+    private static List<ParserResult> importFiles(List<String> arguments) {
+        List<Path> files = new ArrayList<>();
+        Map<Path, Optional<ImportFormat>> importFormats = new HashMap<>();
+        for (String argument : arguments) {
+            String[] data = argument.split(",");
+            Path file;
+            if (OS.WINDOWS) {
+                file = Paths.get(data[0]);
+            } else {
+                file = Paths.get(data[0].replace("~", System.getProperty("user.home")));
+            }
 
-                    return Optional.of(result);
-                } catch (IllegalArgumentException ex) {
+            if ((data.length > 1) && !"*".equals(data[1])) {
+                Optional<ImportFormat> importFormat = Globals.IMPORT_FORMAT_READER.getByCliId(data[1]);
+                if (!importFormat.isPresent()) {
                     System.err.println(Localization.lang("Unknown import format") + ": " + data[1]);
-                    return Optional.empty();
+                    continue;
                 }
+                System.out.println(Localization.lang("Importing") + ": " + data[0]);
+                importFormats.put(file, importFormat);
             } else {
                 // * means "guess the format":
                 System.out.println(Localization.lang("Importing in unknown format") + ": " + data[0]);
+                importFormats.put(file, Optional.empty());
+            }
+            files.add(file);
+        }
 
-                ImportFormatReader.UnknownFormatImport importResult;
-                if (OS.WINDOWS) {
-                    importResult = Globals.IMPORT_FORMAT_READER.importUnknownFormat(data[0]);
-                } else {
-                    importResult = Globals.IMPORT_FORMAT_READER
-                            .importUnknownFormat(data[0].replace("~", System.getProperty("user.home")));
-                }
-
-                if (importResult == null) {
-                    System.out.println(Localization.lang("Could not find a suitable import format."));
-                } else {
-                    System.out.println(Localization.lang("Format used") + ": " + importResult.format);
+        List<MultipleFileImporter.ImportResult> results = new MultipleFileImporter(Globals.IMPORT_FORMAT_READER)
+                .importFiles(files, importFormats::get, (current, max) -> {
+                    // no progress output on the command line
+                });
 
-                    return Optional.of(importResult.parserResult);
+        // report in the order of the arguments, so the output does not depend on which import finishes first
+        OutputPrinter printer = new SystemOutputPrinter();
+        List<ParserResult> loaded = new ArrayList<>();
+        for (MultipleFileImporter.ImportResult result : results) {
+            if (result.getError().isPresent()) {
+                System.err.println(Localization.lang("Error opening file") + " '" + result.getFile() + "': "
+                        + result.getError().get().getLocalizedMessage());
+            } else if (importFormats.get(result.getFile()).isPresent()) {
+                ParserResult parserResult = result.getImportResult().get().parserResult;
+                if (parserResult.hasWarnings()) {
+                    printer.showMessage(parserResult.getErrorMessage());
                 }
+                loaded.add(parserResult);
+            } else if (result.getImportResult().isPresent()) {
+                System.out.println(Localization.lang("Format used") + ": " + result.getImportResult().get().format);
+                loaded.add(result.getImportResult().get().parserResult);
+            } else {
+                System.out.println(Localization.lang("Could not find a suitable import format."));
             }
-        } catch (IOException ex) {
-            System.err.println(
-                    Localization.lang("Error opening file") + " '" + data[0] + "': " + ex.getLocalizedMessage());
         }
-        return Optional.empty();
+        return loaded;
     }
 
     public boolean shouldShutDown() {
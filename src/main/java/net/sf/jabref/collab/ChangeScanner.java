@@ -4,11 +4,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -21,7 +26,6 @@ import net.sf.jabref.JabRefExecutorService;
 import net.sf.jabref.MetaData;
 import net.sf.jabref.gui.BasePanel;
 import net.sf.jabref.gui.JabRefFrame;
-import net.sf.jabref.logic.bibtex.comparator.EntryComparator;
 import net.sf.jabref.logic.exporter.BibDatabaseWriter;
 import net.sf.jabref.logic.exporter.BibtexDatabaseWriter;
 import net.sf.jabref.logic.exporter.FileSaveSession;
@@ -33,13 +37,10 @@ import net.sf.jabref.logic.importer.ImportFormatPreferences;
 import net.sf.jabref.logic.importer.OpenDatabase;
 import net.sf.jabref.logic.importer.ParserResult;
 import net.sf.jabref.logic.l10n.Localization;
-import net.sf.jabref.model.DuplicateCheck;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
-import net.sf.jabref.model.database.EntrySorter;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.BibtexString;
-import net.sf.jabref.model.entry.FieldName;
 import net.sf.jabref.preferences.JabRefPreferences;
 
 import org.apache.commons.logging.Log;
@@ -47,8 +48,6 @@ import org.apache.commons.logging.LogFactory;
 
 public class ChangeScanner implements Runnable {
 
-    private static final String[] SORT_BY = new String[] {FieldName.YEAR, FieldName.AUTHOR, FieldName.TITLE};
-
     private final File f;
 
     private final BibDatabase inMem;
@@ -83,38 +82,30 @@ public class ChangeScanner implements Runnable {
     @Override
     public void run() {
         try {
+            ImportFormatPreferences importFormatPreferences = ImportFormatPreferences.fromPreferences(Globals.prefs);
+
+            // Parse the modified file, while the temporary file is parsed and the entries in memory are indexed.
+            FutureTask<ParserResult> parseOnDisk = new FutureTask<>(
+                    () -> OpenDatabase.loadDatabase(f, importFormatPreferences));
+            JabRefExecutorService.INSTANCE.execute(parseOnDisk);
 
             // Parse the temporary file.
             Path tempFile = Globals.getFileUpdateMonitor().getTempFile(panel.fileMonitorHandle());
-            ImportFormatPreferences importFormatPreferences = ImportFormatPreferences.fromPreferences(Globals.prefs);
             ParserResult pr = OpenDatabase.loadDatabase(tempFile.toFile(), importFormatPreferences);
             inTemp = pr.getDatabase();
             mdInTemp = pr.getMetaData();
-            // Parse the modified file.
-            pr = OpenDatabase.loadDatabase(f, importFormatPreferences);
+            EntryMatcher entriesInMem = new EntryMatcher(inMem.getEntries());
+
+            pr = getResult(parseOnDisk);
             BibDatabase onDisk = pr.getDatabase();
             MetaData mdOnDisk = pr.getMetaData();
 
-            // Sort both databases according to a common sort key.
-            EntryComparator comp = new EntryComparator(false, true, SORT_BY[2]);
-            comp = new EntryComparator(false, true, SORT_BY[1], comp);
-            comp = new EntryComparator(false, true, SORT_BY[0], comp);
-            EntrySorter sInTemp = inTemp.getSorter(comp);
-            comp = new EntryComparator(false, true, SORT_BY[2]);
-            comp = new EntryComparator(false, true, SORT_BY[1], comp);
-            comp = new EntryComparator(false, true, SORT_BY[0], comp);
-            EntrySorter sOnDisk = onDisk.getSorter(comp);
-            comp = new EntryComparator(false, true, SORT_BY[2]);
-            comp = new EntryComparator(false, true, SORT_BY[1], comp);
-            comp = new EntryComparator(false, true, SORT_BY[0], comp);
-            EntrySorter sInMem = inMem.getSorter(comp);
-
             // Start looking at changes.
             scanMetaData(mdInMem, mdInTemp, mdOnDisk);
             scanPreamble(inMem, inTemp, onDisk);
             scanStrings(inMem, inTemp, onDisk);
 
-            scanEntries(sInMem, sInTemp, sOnDisk);
+            scanEntries(entriesInMem, inTemp.getEntries(), new EntryMatcher(onDisk.getEntries()));
 
             scanGroups(mdInTemp, mdOnDisk);
 
@@ -123,6 +114,20 @@ public class ChangeScanner implements Runnable {
         }
     }
 
+    private static ParserResult getResult(FutureTask<ParserResult> parse) throws IOException {
+        try {
+            return parse.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
     public boolean changesFound() {
         return changes.getChildCount() > 0;
     }
@@ -198,149 +203,33 @@ public class ChangeScanner implements Runnable {
         }
     }
 
-    private void scanEntries(EntrySorter mem, EntrySorter tmp, EntrySorter disk) {
-
-        // Create pointers that are incremented as the entries of each base are used in
-        // successive order from the beginning. Entries "further down" in the "disk" base
-        // can also be matched.
-        int piv1;
-        int piv2 = 0;
-
-        // Create a HashSet where we can put references to entry numbers in the "disk"
-        // database that we have matched. This is to avoid matching them twice.
-        Set<String> used = new HashSet<>(disk.getEntryCount());
-        Set<Integer> notMatched = new HashSet<>(tmp.getEntryCount());
-
-        // Loop through the entries of the "tmp" database, looking for exact matches in the "disk" one.
-        // We must finish scanning for exact matches before looking for near matches, to avoid an exact
-        // match being "stolen" from another entry.
-        mainLoop:
-        for (piv1 = 0; piv1 < tmp.getEntryCount(); piv1++) {
-
-            // First check if the similarly placed entry in the other base matches exactly.
-            double comp = -1;
-            // (if there are not any entries left in the "disk" database, comp will stay at -1,
-            // and this entry will be marked as nonmatched).
-            if (!used.contains(String.valueOf(piv2)) && (piv2 < disk.getEntryCount())) {
-                comp = DuplicateCheck.compareEntriesStrictly(tmp.getEntryAt(piv1), disk.getEntryAt(piv2));
-            }
-            if (comp > 1) {
-                used.add(String.valueOf(piv2));
-                piv2++;
-                continue;
-            }
-
-            // No? Then check if another entry matches exactly.
-            if (piv2 < (disk.getEntryCount() - 1)) {
-                for (int i = piv2 + 1; i < disk.getEntryCount(); i++) {
-                    if (used.contains(String.valueOf(i))) {
-                        comp = -1;
-                    } else {
-                        comp = DuplicateCheck.compareEntriesStrictly(tmp.getEntryAt(piv1), disk.getEntryAt(i));
-                    }
-
-                    if (comp > 1) {
-                        used.add(String.valueOf(i));
-                        continue mainLoop;
-                    }
-                }
+    private void scanEntries(EntryMatcher mem, List<BibEntry> tmp, EntryMatcher disk) {
+        // Look for exact matches in the "disk" database first. We must finish scanning for exact matches before
+        // looking for near matches, to avoid an exact match being "stolen" from another entry.
+        List<BibEntry> notMatched = new ArrayList<>();
+        for (BibEntry entry : tmp) {
+            if (!disk.takeIdentical(entry).isPresent()) {
+                notMatched.add(entry);
             }
-
-            // No? Add this entry to the list of nonmatched entries.
-            notMatched.add(piv1);
         }
 
-        // Now we've found all exact matches, look through the remaining entries, looking
-        // for close matches.
-        if (!notMatched.isEmpty()) {
-
-            for (Iterator<Integer> it = notMatched.iterator(); it.hasNext(); ) {
-
-                piv1 = it.next();
-
-                // These two variables will keep track of which entry most closely matches the
-                // one we're looking at, in case none matches completely.
-                int bestMatchI = -1;
-                double bestMatch = 0;
-                double comp;
-
-                if (piv2 < (disk.getEntryCount() - 1)) {
-                    for (int i = piv2; i < disk.getEntryCount(); i++) {
-                        if (used.contains(String.valueOf(i))) {
-                            comp = -1;
-                        } else {
-                            comp = DuplicateCheck.compareEntriesStrictly(tmp.getEntryAt(piv1), disk.getEntryAt(i));
-                        }
-
-                        if (comp > bestMatch) {
-                            bestMatch = comp;
-                            bestMatchI = i;
-                        }
-                    }
-                }
-
-                if (bestMatch > MATCH_THRESHOLD) {
-                    used.add(String.valueOf(bestMatchI));
-                    it.remove();
-
-                    EntryChange ec = new EntryChange(bestFit(tmp, mem, piv1), tmp.getEntryAt(piv1),
-                            disk.getEntryAt(bestMatchI));
-                    changes.add(ec);
-                } else {
-                    EntryDeleteChange ec = new EntryDeleteChange(bestFit(tmp, mem, piv1), tmp.getEntryAt(piv1));
-                    changes.add(ec);
-                }
-
-            }
-
-        }
-
-        // Finally, look if there are still untouched entries in the disk database. These
-        // may have been added.
-        if (used.size() < disk.getEntryCount()) {
-            for (int i = 0; i < disk.getEntryCount(); i++) {
-                if (!used.contains(String.valueOf(i))) {
-
-                    // See if there is an identical dupe in the mem database:
-                    boolean hasAlready = false;
-                    for (int j = 0; j < mem.getEntryCount(); j++) {
-                        if (DuplicateCheck.compareEntriesStrictly(mem.getEntryAt(j), disk.getEntryAt(i)) >= 1) {
-                            hasAlready = true;
-                            break;
-                        }
-                    }
-                    if (!hasAlready) {
-                        EntryAddChange ec = new EntryAddChange(disk.getEntryAt(i));
-                        changes.add(ec);
-                    }
-                }
+        // Now we've found all exact matches, look for close matches of the remaining entries.
+        for (BibEntry entry : notMatched) {
+            Optional<BibEntry> onDisk = disk.takeMostSimilar(entry, MATCH_THRESHOLD);
+            if (onDisk.isPresent()) {
+                changes.add(new EntryChange(mem.findBestFit(entry), entry, onDisk.get()));
+            } else {
+                changes.add(new EntryDeleteChange(mem.findBestFit(entry), entry));
             }
         }
-    }
 
-    /**
-     * Finds the entry in neu best fitting the specified entry in old. If no entries get a score
-     * above zero, an entry is still returned.
-     *
-     * @param old   EntrySorter
-     * @param neu   EntrySorter
-     * @param index int
-     * @return BibEntry
-     */
-    private static BibEntry bestFit(EntrySorter old, EntrySorter neu, int index) {
-        double comp = -1;
-        int found = 0;
-        for (int i = 0; i < neu.getEntryCount(); i++) {
-            double res = DuplicateCheck.compareEntriesStrictly(old.getEntryAt(index), neu.getEntryAt(i));
-            if (res > comp) {
-                comp = res;
-                found = i;
-            }
-            if (comp > 1) {
-                break;
+        // Finally, look if there are still untouched entries in the disk database. These may have been added,
+        // unless there is an identical dupe in the mem database.
+        for (BibEntry entry : disk.getUntaken()) {
+            if (!mem.findIdentical(entry).isPresent()) {
+                changes.add(new EntryAddChange(entry));
             }
         }
-        return neu.getEntryAt(found);
     }
 
     private void scanPreamble(BibDatabase inMem1, BibDatabase onTmp, BibDatabase onDisk) {
@@ -363,91 +252,67 @@ public class ChangeScanner implements Runnable {
             return;
         }
 
-        Set<Object> used = new HashSet<>();
-        Set<Object> usedInMem = new HashSet<>();
-        Set<String> notMatched = new HashSet<>(onTmp.getStringCount());
+        Map<String, BibtexString> diskByName = getStringsByName(onDisk);
+        Map<String, BibtexString> memByName = getStringsByName(inMem1);
+        Set<String> used = new HashSet<>();
+        Set<String> usedInMem = new HashSet<>();
+        List<BibtexString> notMatched = new ArrayList<>(onTmp.getStringCount());
 
         // First try to match by string names.
-        mainLoop:
         for (String key : onTmp.getStringKeySet()) {
             BibtexString tmp = onTmp.getString(key);
+            BibtexString disk = diskByName.get(tmp.getName());
+            if ((disk == null) || used.contains(disk.getId())) {
+                // There was no match for this string.
+                notMatched.add(tmp);
+                continue;
+            }
 
-            for (String diskId : onDisk.getStringKeySet()) {
-                if (!used.contains(diskId)) {
-                    BibtexString disk = onDisk.getString(diskId);
-                    if (disk.getName().equals(tmp.getName())) {
-                        // We have found a string with a matching name.
-                        if ((tmp.getContent() != null) && !tmp.getContent().equals(disk.getContent())) {
-                            // But they have nonmatching contents, so we've found a change.
-                            Optional<BibtexString> mem = findString(inMem1, tmp.getName(), usedInMem);
-                            if (mem.isPresent()) {
-                                changes.add(new StringChange(mem.get(), tmp, tmp.getName(), mem.get().getContent(),
-                                        disk.getContent()));
-                            } else {
-                                changes.add(new StringChange(null, tmp, tmp.getName(), null, disk.getContent()));
-                            }
-                        }
-                        used.add(diskId);
-                        continue mainLoop;
-                    }
-
+            // We have found a string with a matching name.
+            if ((tmp.getContent() != null) && !tmp.getContent().equals(disk.getContent())) {
+                // But they have nonmatching contents, so we've found a change.
+                Optional<BibtexString> mem = findString(memByName, tmp.getName(), usedInMem);
+                if (mem.isPresent()) {
+                    changes.add(new StringChange(mem.get(), tmp, tmp.getName(), mem.get().getContent(),
+                            disk.getContent()));
+                } else {
+                    changes.add(new StringChange(null, tmp, tmp.getName(), null, disk.getContent()));
                 }
             }
-            // If we get here, there was no match for this string.
-            notMatched.add(tmp.getId());
+            used.add(disk.getId());
         }
 
-        // See if we can detect a name change for those entries that we couldn't match.
+        // See if we can detect a name change for those strings that we couldn't match, by finding strings with the
+        // same content. They cannot have the same name, or we would have found them above.
         if (!notMatched.isEmpty()) {
-            for (Iterator<String> i = notMatched.iterator(); i.hasNext(); ) {
-                BibtexString tmp = onTmp.getString(i.next());
-
-                // If we get to this point, we found no string with matching name. See if we
-                // can find one with matching content.
-                for (String diskId : onDisk.getStringKeySet()) {
-
-                    if (!used.contains(diskId)) {
-                        BibtexString disk = onDisk.getString(diskId);
-
-                        if (disk.getContent().equals(tmp.getContent())) {
-                            // We have found a string with the same content. It cannot have the same
-                            // name, or we would have found it above.
-
-                            // Try to find the matching one in memory:
-                            BibtexString bsMem = null;
-
-                            for (String memId : inMem1.getStringKeySet()) {
-                                BibtexString bsMemCandidate = inMem1.getString(memId);
-                                if (bsMemCandidate.getContent().equals(disk.getContent()) && !usedInMem.contains(
-                                        memId)) {
-                                    usedInMem.add(memId);
-                                    bsMem = bsMemCandidate;
-                                    break;
-                                }
-                            }
-
-                            if (bsMem != null) {
-                                changes.add(
-                                        new StringNameChange(bsMem, tmp, bsMem.getName(), tmp.getName(), disk.getName(),
-                                                tmp.getContent()));
-                                i.remove();
-                                used.add(diskId);
-                            }
-
-                        }
-                    }
+            Map<String, List<BibtexString>> diskByContent = getStringsByContent(onDisk);
+            Map<String, List<BibtexString>> memByContent = getStringsByContent(inMem1);
+            for (Iterator<BibtexString> i = notMatched.iterator(); i.hasNext(); ) {
+                BibtexString tmp = i.next();
+                Optional<BibtexString> disk = diskByContent.getOrDefault(tmp.getContent(), Collections.emptyList())
+                        .stream().filter(string -> !used.contains(string.getId())).findFirst();
+                if (!disk.isPresent()) {
+                    continue;
+                }
+
+                // Try to find the matching one in memory:
+                Optional<BibtexString> mem = memByContent.getOrDefault(tmp.getContent(), Collections.emptyList())
+                        .stream().filter(string -> !usedInMem.contains(string.getId())).findFirst();
+                if (mem.isPresent()) {
+                    usedInMem.add(mem.get().getId());
+                    changes.add(new StringNameChange(mem.get(), tmp, mem.get().getName(), tmp.getName(),
+                            disk.get().getName(), tmp.getContent()));
+                    i.remove();
+                    used.add(disk.get().getId());
                 }
             }
         }
 
-        if (!notMatched.isEmpty()) {
-            // Still one or more non-matched strings. So they must have been removed.
-            for (String nmId : notMatched) {
-                BibtexString tmp = onTmp.getString(nmId);
-                // The removed string is not removed from the mem version.
-                findString(inMem1, tmp.getName(), usedInMem).ifPresent(
-                        x -> changes.add(new StringRemoveChange(tmp, tmp, x)));
-            }
+        // Still one or more non-matched strings. So they must have been removed.
+        for (BibtexString tmp : notMatched) {
+            // The removed string is not removed from the mem version.
+            findString(memByName, tmp.getName(), usedInMem).ifPresent(
+                    x -> changes.add(new StringRemoveChange(tmp, tmp, x)));
         }
 
         // Finally, see if there are remaining strings in the disk database. They
@@ -461,18 +326,33 @@ public class ChangeScanner implements Runnable {
         }
     }
 
-    private static Optional<BibtexString> findString(BibDatabase base, String name, Set<Object> used) {
-        if (!base.hasStringLabel(name)) {
-            return Optional.empty();
+    private static Map<String, BibtexString> getStringsByName(BibDatabase base) {
+        Map<String, BibtexString> stringsByName = new HashMap<>();
+        for (String key : base.getStringKeySet()) {
+            BibtexString string = base.getString(key);
+            stringsByName.putIfAbsent(string.getName(), string);
         }
+        return stringsByName;
+    }
+
+    private static Map<String, List<BibtexString>> getStringsByContent(BibDatabase base) {
+        Map<String, List<BibtexString>> stringsByContent = new HashMap<>();
         for (String key : base.getStringKeySet()) {
-            BibtexString bs = base.getString(key);
-            if (bs.getName().equals(name) && !used.contains(key)) {
-                used.add(key);
-                return Optional.of(bs);
+            BibtexString string = base.getString(key);
+            if (string.getContent() != null) {
+                stringsByContent.computeIfAbsent(string.getContent(), content -> new ArrayList<>()).add(string);
             }
         }
-        return Optional.empty();
+        return stringsByContent;
+    }
+
+    private static Optional<BibtexString> findString(Map<String, BibtexString> stringsByName, String name,
+            Set<String> used) {
+        BibtexString string = stringsByName.get(name);
+        if ((string == null) || !used.add(string.getId())) {
+            return Optional.empty();
+        }
+        return Optional.of(string);
     }
 
     /**
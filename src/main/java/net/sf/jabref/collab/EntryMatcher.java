@@ -0,0 +1,139 @@
+package net.sf.jabref.collab;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import net.sf.jabref.model.DuplicateCheck;
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Finds the entries of one version of a database matching the entries of another version.
+ * <p>
+ * Identical entries (see {@link DuplicateCheck#compareEntriesStrictly(BibEntry, BibEntry)}) are looked up by their
+ * fields, and similar entries among the entries having the same BibTeX key. Only if there is no such entry, all
+ * entries are compared. Entries can be taken, so each entry is matched at most once.
+ */
+class EntryMatcher {
+
+    private final List<BibEntry> entries;
+    // positions of the entries by their fields, the fields are copied so changes of the entries do not matter
+    private final Map<Map<String, String>, Deque<Integer>> positionsByFields = new HashMap<>();
+    private final Map<String, List<Integer>> positionsByKey = new HashMap<>();
+    private final BitSet taken = new BitSet();
+
+
+    EntryMatcher(List<BibEntry> entries) {
+        this.entries = new ArrayList<>(entries);
+        for (int position = 0; position < this.entries.size(); position++) {
+            BibEntry entry = this.entries.get(position);
+            positionsByFields.computeIfAbsent(new HashMap<>(entry.getFieldMap()), fields -> new ArrayDeque<>())
+                    .add(position);
+            Integer entryPosition = position;
+            entry.getCiteKeyOptional().ifPresent(
+                    key -> positionsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entryPosition));
+        }
+    }
+
+    /**
+     * Returns an entry identical to the given one, if there is one which has not been taken.
+     */
+    public Optional<BibEntry> findIdentical(BibEntry entry) {
+        for (int position : positionsByFields.getOrDefault(entry.getFieldMap(), new ArrayDeque<>())) {
+            if (!taken.get(position)) {
+                return Optional.of(entries.get(position));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns and takes an entry identical to the given one, if there is one which has not been taken.
+     */
+    public Optional<BibEntry> takeIdentical(BibEntry entry) {
+        Deque<Integer> positions = positionsByFields.getOrDefault(entry.getFieldMap(), new ArrayDeque<>());
+        while (!positions.isEmpty()) {
+            int position = positions.poll();
+            if (!taken.get(position)) {
+                taken.set(position);
+                return Optional.of(entries.get(position));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns and takes the entry most similar to the given one, if it is more similar than the given threshold.
+     */
+    public Optional<BibEntry> takeMostSimilar(BibEntry entry, double threshold) {
+        int position = findMostSimilar(entry, threshold, true);
+        if (position < 0) {
+            return Optional.empty();
+        }
+        taken.set(position);
+        return Optional.of(entries.get(position));
+    }
+
+    /**
+     * Returns the entry best fitting the given one, taken or not, or null if there are no entries at all.
+     */
+    public BibEntry findBestFit(BibEntry entry) {
+        Deque<Integer> identical = positionsByFields.getOrDefault(entry.getFieldMap(), new ArrayDeque<>());
+        if (!identical.isEmpty()) {
+            return entries.get(identical.peek());
+        }
+        int position = findMostSimilar(entry, -1, false);
+        return position < 0 ? null : entries.get(position);
+    }
+
+    private int findMostSimilar(BibEntry entry, double threshold, boolean untakenOnly) {
+        // an entry usually keeps its key, so look at the entries having the same key first
+        List<Integer> sameKey = entry.getCiteKeyOptional().map(positionsByKey::get).orElse(Collections.emptyList());
+        int bestPosition = -1;
+        double bestSimilarity = threshold;
+        for (int position : sameKey) {
+            if (!untakenOnly || !taken.get(position)) {
+                double similarity = DuplicateCheck.compareEntriesStrictly(entry, entries.get(position));
+                if (similarity > bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestPosition = position;
+                }
+            }
+        }
+        if (bestPosition >= 0) {
+            return bestPosition;
+        }
+
+        for (int position = untakenOnly ? taken.nextClearBit(0) : 0; position < entries.size();
+                position = untakenOnly ? taken.nextClearBit(position + 1) : position + 1) {
+            double similarity = DuplicateCheck.compareEntriesStrictly(entry, entries.get(position));
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                bestPosition = position;
+            }
+            if (bestSimilarity > 1) {
+                // identical
+                break;
+            }
+        }
+        return bestPosition;
+    }
+
+    /**
+     * Returns the entries which have not been taken.
+     */
+    public List<BibEntry> getUntaken() {
+        List<BibEntry> untaken = new ArrayList<>();
+        for (int position = taken.nextClearBit(0); position < entries.size();
+                position = taken.nextClearBit(position + 1)) {
+            untaken.add(entries.get(position));
+        }
+        return untaken;
+    }
+}
@@ -2,10 +2,20 @@ package net.sf.jabref.collab;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 import net.sf.jabref.logic.util.io.FileUtil;
 
@@ -13,38 +23,107 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
- * This thread monitors a set of files, each associated with a FileUpdateListener, for changes
- * in the file's last modification time stamp. The
+ * This thread monitors a set of files, each associated with a FileUpdateListener, for changes of their content.
+ * <p>
+ * The directories of the files are watched using a {@link WatchService}. After the last change event of a file, the
+ * monitor waits for {@link #DEBOUNCE} milliseconds, so a file being written is looked at only once. A file is only
+ * reported as changed if its size or the hash of its content has changed, so touching a file is not reported. Files
+ * on file systems which cannot be watched are polled every {@link #WAIT} milliseconds instead.
  */
 public class FileUpdateMonitor implements Runnable {
     private static final Log LOGGER = LogFactory.getLog(FileUpdateMonitor.class);
 
+    // polling interval for files which cannot be watched
     private static final int WAIT = 4000;
+    // time without further change events before a changed file is looked at
+    private static final int DEBOUNCE = 200;
 
-    private int numberOfUpdateListener;
-    private final Map<String, Entry> entries = new HashMap<>();
+    private final AtomicInteger numberOfUpdateListener = new AtomicInteger();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> watchedDirectories = new ConcurrentHashMap<>();
+    // null if the file system does not support watching
+    private final WatchService watchService;
+
+
+    public FileUpdateMonitor() {
+        watchService = createWatchService();
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.info("Cannot watch files for changes, polling them instead", ex);
+            return null;
+        }
+    }
 
     @Override
     public void run() {
-        // The running variable is used to make the thread stop when needed.
+        long lastPolling = System.currentTimeMillis();
         while (true) {
-            for(Entry e : entries.values()) {
-                try {
-                    if (e.hasBeenUpdated()) {
-                        e.notifyListener();
+            try {
+                if (watchService == null) {
+                    Thread.sleep(WAIT);
+                } else {
+                    // wake up in time for the next polling round or for the end of a pending debounce delay
+                    boolean changesPending = entries.values().stream().anyMatch(Entry::isChangePending);
+                    WatchKey key = watchService.poll(changesPending ? DEBOUNCE : WAIT, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        processEvents(key);
                     }
-                } catch (IOException ex) {
-                    e.notifyFileRemoved();
                 }
-            }
-
-            // Sleep for a while before starting a new polling round.
-            try {
-                Thread.sleep(WAIT);
-            } catch (InterruptedException ex) {
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
                 LOGGER.debug("FileUpdateMonitor has been interrupted. Terminating...", ex);
                 return;
             }
+
+            long now = System.currentTimeMillis();
+            boolean pollingDue = (now - lastPolling) >= WAIT;
+            if (pollingDue) {
+                lastPolling = now;
+            }
+            for (Entry entry : entries.values()) {
+                if ((pollingDue && !entry.isWatched()) || entry.isChangeDue(now)) {
+                    check(entry);
+                }
+            }
+        }
+    }
+
+    private void processEvents(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        long now = System.currentTimeMillis();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events have been lost, so any file in the directory may have changed
+                entries.values().stream().filter(entry -> entry.isIn(directory))
+                        .forEach(entry -> entry.changed(now));
+            } else {
+                Path changedFile = directory.resolve((Path) event.context());
+                entries.values().stream().filter(entry -> entry.getPath().equals(changedFile))
+                        .forEach(entry -> entry.changed(now));
+            }
+        }
+
+        if (!key.reset()) {
+            // the directory is no longer accessible, e.g., it has been removed
+            watchedDirectories.remove(directory);
+            entries.values().stream().filter(entry -> entry.isIn(directory)).forEach(entry -> {
+                entry.setWatched(false);
+                entry.changed(now);
+            });
+        }
+    }
+
+    private static void check(Entry entry) {
+        entry.clearChange();
+        try {
+            if (entry.hasBeenUpdated()) {
+                entry.notifyListener();
+            }
+        } catch (IOException ex) {
+            entry.notifyFileRemoved();
         }
     }
 
@@ -54,16 +133,32 @@ public class FileUpdateMonitor implements Runnable {
      * @param file File The file to monitor.
      * @throws IOException if the file does not exist.
      */
-    public String addUpdateListener(FileUpdateListener ul, File file) throws IOException {
+    public synchronized String addUpdateListener(FileUpdateListener ul, File file) throws IOException {
         if (!file.exists()) {
             throw new IOException("File not found");
         }
-        numberOfUpdateListener++;
-        String key = String.valueOf(numberOfUpdateListener);
-        entries.put(key, new Entry(ul, file));
+        String key = String.valueOf(numberOfUpdateListener.incrementAndGet());
+        Entry entry = new Entry(ul, file);
+        entry.setWatched(watch(entry.getPath().getParent()));
+        entries.put(key, entry);
         return key;
     }
 
+    private boolean watch(Path directory) {
+        if ((watchService == null) || (directory == null)) {
+            return false;
+        }
+        try {
+            // registering a directory again returns the key of the first registration
+            watchedDirectories.put(directory, directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY));
+            return true;
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.info("Cannot watch directory '" + directory + "' for changes, polling its files instead", ex);
+            return false;
+        }
+    }
+
     /**
      * Forces a check on the file, and returns the result. Does not
      * force a report to all listeners before the next routine check.
@@ -82,16 +177,16 @@ public class FileUpdateMonitor implements Runnable {
     }
 
     /**
-     * Change the stored timestamp for the given file. If the timestamp equals
-     * the file's timestamp on disk, after this call the file will appear to
-     * have been modified. Used if a file has been modified, and the change
-     * scan fails, in order to ensure successive checks.
+     * Forgets the stored fingerprint of the given file, so the file appears to have been modified at the next check.
+     * Used if a file has been modified, and the change scan fails, in order to ensure successive checks.
      * @param handle the handle to the correct file.
      */
     public void perturbTimestamp(String handle) {
         Entry entry = entries.get(handle);
         if (entry != null) {
-            entry.decreaseTimeStamp();
+            entry.forgetFingerprint();
+            // look at the file again after the polling interval, not immediately
+            entry.changed(System.currentTimeMillis() + WAIT);
         }
     }
 
@@ -99,8 +194,18 @@ public class FileUpdateMonitor implements Runnable {
      * Removes a listener from the monitor.
      * @param handle String The handle for the listener to remove.
      */
-    public void removeUpdateListener(String handle) {
-        entries.remove(handle);
+    public synchronized void removeUpdateListener(String handle) {
+        Entry removed = entries.remove(handle);
+        if (removed == null) {
+            return;
+        }
+        Path directory = removed.getPath().getParent();
+        if ((directory != null) && entries.values().stream().noneMatch(entry -> entry.isIn(directory))) {
+            WatchKey key = watchedDirectories.remove(directory);
+            if (key != null) {
+                key.cancel();
+            }
+        }
     }
 
     public void updateTimeStamp(String key) {
@@ -127,22 +232,32 @@ public class FileUpdateMonitor implements Runnable {
 
 
     /**
-     * A class containing the File, the FileUpdateListener and the current time stamp for one file.
+     * A class containing the File, the FileUpdateListener and the fingerprint of the file content for one file.
+     * <p>
+     * The temporary file holds the content of the file as it was last saved or accepted, which is the common ancestor
+     * of the in-memory and the on-disk version compared by the {@link ChangeScanner}. It is only written when the
+     * file is registered or saved, never when the file is checked.
      */
     static class Entry {
 
         private final FileUpdateListener listener;
         private final File file;
+        private final Path path;
         private final Path tmpFile;
         private long timeStamp;
         private long fileSize;
+        // hash of the file content, null if unknown
+        private Long contentHash;
+        private volatile boolean watched;
+        // time of the last change event not looked at yet, 0 if there is none
+        private volatile long changeEventTime;
 
 
         public Entry(FileUpdateListener ul, File f) {
             listener = ul;
             file = f;
-            timeStamp = file.lastModified();
-            fileSize = file.length();
+            path = f.toPath().toAbsolutePath().normalize();
+            updateFingerprint();
             tmpFile = FileUpdateMonitor.getTempFile();
             if (tmpFile != null) {
                 tmpFile.toFile().deleteOnExit();
@@ -150,26 +265,99 @@ public class FileUpdateMonitor implements Runnable {
             }
         }
 
+        public Path getPath() {
+            return path;
+        }
+
+        public boolean isIn(Path directory) {
+            return directory.equals(path.getParent());
+        }
+
+        public boolean isWatched() {
+            return watched;
+        }
+
+        public void setWatched(boolean watched) {
+            this.watched = watched;
+        }
+
+        public void changed(long time) {
+            changeEventTime = time;
+        }
+
+        public boolean isChangePending() {
+            return changeEventTime != 0L;
+        }
+
+        /**
+         * Checks whether the file has been changed, and no further change has happened within the debounce delay.
+         */
+        public boolean isChangeDue(long now) {
+            return isChangePending() && ((now - changeEventTime) >= DEBOUNCE);
+        }
+
+        public void clearChange() {
+            changeEventTime = 0L;
+        }
+
         /**
-         * Check if time stamp or the file size has changed.
+         * Check if the size or the content of the file has changed. The content is only hashed if the time stamp of
+         * the file has changed.
          * @throws IOException if the file does no longer exist.
          * @return boolean true if the file has changed.
          */
-        public boolean hasBeenUpdated() throws IOException {
+        public synchronized boolean hasBeenUpdated() throws IOException {
             long modified = file.lastModified();
             if (modified == 0L) {
                 throw new IOException("File deleted");
             }
-            long fileSizeNow = file.length();
-            return (timeStamp != modified) || (fileSize != fileSizeNow);
+            if ((contentHash == null) || (fileSize != file.length())) {
+                return true;
+            }
+            if (timeStamp == modified) {
+                return false;
+            }
+
+            if (contentHash == hash(file.toPath())) {
+                // touched only, so there is no need to hash the file again until it is touched the next time
+                timeStamp = modified;
+                return false;
+            }
+            return true;
         }
 
-        public void updateTimeStamp() {
+        private static long hash(Path file) throws IOException {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[8192];
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    crc.update(buffer, 0, read);
+                }
+            }
+            return crc.getValue();
+        }
+
+        private synchronized void updateFingerprint() {
             timeStamp = file.lastModified();
-            if (timeStamp == 0L) {
+            fileSize = file.length();
+            try {
+                contentHash = hash(file.toPath());
+            } catch (IOException ex) {
+                LOGGER.info("Cannot read file '" + file + '\'', ex);
+                contentHash = null;
+            }
+        }
+
+        public synchronized void forgetFingerprint() {
+            contentHash = null;
+        }
+
+        public void updateTimeStamp() {
+            if (file.lastModified() == 0L) {
                 notifyFileRemoved();
             }
-            fileSize = file.length();
+            updateFingerprint();
 
             copy();
         }
@@ -189,9 +377,7 @@ public class FileUpdateMonitor implements Runnable {
          * Call the listener method to signal that the file has changed.
          */
         public void notifyListener() {
-            // Update time stamp.
-            timeStamp = file.lastModified();
-            fileSize = file.length();
+            updateFingerprint();
             listener.fileUpdated();
         }
 
@@ -205,10 +391,6 @@ public class FileUpdateMonitor implements Runnable {
         public Path getTmpFile() {
             return tmpFile;
         }
-
-        public void decreaseTimeStamp() {
-            timeStamp--;
-        }
     }
 
 
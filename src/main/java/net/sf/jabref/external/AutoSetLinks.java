@@ -3,6 +3,8 @@ package net.sf.jabref.external;
 import java.awt.BorderLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -12,11 +14,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
+import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
+import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.SwingUtilities;
 
@@ -27,6 +32,7 @@ import net.sf.jabref.gui.FileListTableModel;
 import net.sf.jabref.gui.undo.NamedCompound;
 import net.sf.jabref.gui.undo.UndoableFieldChange;
 import net.sf.jabref.logic.l10n.Localization;
+import net.sf.jabref.logic.util.io.FileNameIndex;
 import net.sf.jabref.logic.util.io.FileUtil;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
@@ -41,7 +47,20 @@ public class AutoSetLinks {
      * @param databaseContext the database for which links are set
      */
     public static void autoSetLinks(List<BibEntry> entries, BibDatabaseContext databaseContext) {
-        autoSetLinks(entries, null, null, null, databaseContext, null, null);
+        autoSetLinks(entries, databaseContext, new FileNameIndex.Cache());
+    }
+
+    /**
+     * Shortcut method if links are set without using the GUI for several databases. The directories are walked only
+     * once for all databases having the same file directories.
+     *
+     * @param entries  the entries for which links should be set
+     * @param databaseContext the database for which links are set
+     * @param fileIndexes the indexes of the files of the directories already walked, it is extended by the indexes built
+     */
+    public static void autoSetLinks(List<BibEntry> entries, BibDatabaseContext databaseContext,
+            FileNameIndex.Cache fileIndexes) {
+        autoSetLinks(entries, null, null, null, databaseContext, null, null, fileIndexes).run();
     }
 
     /**
@@ -63,24 +82,53 @@ public class AutoSetLinks {
      *                         search has succeeded.
      * @param databaseContext  The database providing the relevant file directory, if any.
      * @param callback         An ActionListener that is notified (on the event dispatch thread) when the search is finished.
-     *                         The ActionEvent has id=0 if no new links were added, and id=1 if one or more links were added. This
-     *                         parameter can be null, which means that no callback will be notified.
+     *                         The ActionEvent has id=0 if no new links were added, id=1 if one or more links were added, and
+     *                         id=-1 if the search has been canceled. This parameter can be null, which means that no callback
+     *                         will be notified.
      * @param diag             An instantiated modal JDialog which will be used to display the progress of the automatically setting. This
-     *                         parameter can be null, which means that no progress update will be shown.
+     *                         parameter can be null, which means that no progress update will be shown. Canceling or closing
+     *                         the dialog cancels the search, and no links are added.
      * @return the thread performing the automatically setting
      */
     public static Runnable autoSetLinks(final List<BibEntry> entries, final NamedCompound ce,
             final Set<BibEntry> changedEntries, final FileListTableModel singleTableModel,
             final BibDatabaseContext databaseContext, final ActionListener callback, final JDialog diag) {
+        return autoSetLinks(entries, ce, changedEntries, singleTableModel, databaseContext, callback, diag,
+                new FileNameIndex.Cache());
+    }
+
+    private static Runnable autoSetLinks(final List<BibEntry> entries, final NamedCompound ce,
+            final Set<BibEntry> changedEntries, final FileListTableModel singleTableModel,
+            final BibDatabaseContext databaseContext, final ActionListener callback, final JDialog diag,
+            final FileNameIndex.Cache fileIndexes) {
         final Collection<ExternalFileType> types = ExternalFileTypes.getInstance().getExternalFileTypeSelection();
+        final AtomicBoolean canceled = new AtomicBoolean();
         if (diag != null) {
             final JProgressBar prog = new JProgressBar(JProgressBar.HORIZONTAL, 0, types.size() - 1);
             final JLabel label = new JLabel(Localization.lang("Searching for files"));
             prog.setIndeterminate(true);
             prog.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+            JButton cancel = new JButton(Localization.lang("Cancel"));
+            cancel.addActionListener(e -> {
+                canceled.set(true);
+                cancel.setEnabled(false);
+            });
+            JPanel south = new JPanel(new BorderLayout());
+            south.add(label, BorderLayout.CENTER);
+            south.add(cancel, BorderLayout.EAST);
             diag.setTitle(Localization.lang("Automatically setting file links"));
             diag.getContentPane().add(prog, BorderLayout.CENTER);
-            diag.getContentPane().add(label, BorderLayout.SOUTH);
+            diag.getContentPane().add(south, BorderLayout.SOUTH);
+            // closing the dialog cancels the search as well, the dialog is disposed when the search has stopped
+            diag.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+            diag.addWindowListener(new WindowAdapter() {
+
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    canceled.set(true);
+                    cancel.setEnabled(false);
+                }
+            });
 
             diag.pack();
             diag.setLocationRelativeTo(diag.getParent());
@@ -108,7 +156,14 @@ public class AutoSetLinks {
                     result = RegExpFileSearch.findFilesForSet(entries, extensions, dirs, regExp);
                 } else {
                     boolean autoLinkExactKeyOnly = Globals.prefs.getBoolean(JabRefPreferences.AUTOLINK_EXACT_KEY_ONLY);
-                    result = FileUtil.findAssociatedFiles(entries, extensions, dirs, autoLinkExactKeyOnly);
+                    FileNameIndex fileIndex = fileIndexes.get(extensions, dirs, canceled::get);
+                    result = FileUtil.findAssociatedFiles(entries, fileIndex, autoLinkExactKeyOnly);
+                }
+                // once links are added, the search is not canceled anymore
+                final boolean wasCanceled = canceled.get();
+                if (wasCanceled) {
+                    // the files found so far are incomplete, so none of them is linked
+                    result = Collections.emptyMap();
                 }
 
                 boolean foundAny = false;
@@ -172,7 +227,7 @@ public class AutoSetLinks {
 
                 // handle callbacks and dialog
                 // FIXME: The ID signals if action was successful :/
-                final int id = foundAny ? 1 : 0;
+                final int id = wasCanceled ? -1 : (foundAny ? 1 : 0);
                 SwingUtilities.invokeLater(new Runnable() {
 
                     @Override
@@ -207,8 +262,8 @@ public class AutoSetLinks {
      * @param callback         An ActionListener that is notified (on the event dispatch thread) when the search is finished.
      *                         The ActionEvent has id=0 if no new links were added, and id=1 if one or more links were added. This
      *                         parameter can be null, which means that no callback will be notified. The passed ActionEvent is
-     *                         constructed with (this, id, ""), where id is 1 if something has been done and 0 if nothing has been
-     *                         done.
+     *                         constructed with (this, id, ""), where id is 1 if something has been done, 0 if nothing has been
+     *                         done, and -1 if the search has been canceled.
      * @param diag             An instantiated modal JDialog which will be used to display the progress of the automatically setting. This
      *                         parameter can be null, which means that no progress update will be shown.
      * @return the runnable able to perform the automatically setting
@@ -1,34 +1,54 @@
 package net.sf.jabref.external;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.swing.JOptionPane;
 
+import net.sf.jabref.Globals;
 import net.sf.jabref.gui.BasePanel;
+import net.sf.jabref.gui.FileListEntry;
 import net.sf.jabref.gui.FileListTableModel;
+import net.sf.jabref.gui.undo.NamedCompound;
 import net.sf.jabref.gui.undo.UndoableFieldChange;
 import net.sf.jabref.gui.worker.AbstractWorker;
 import net.sf.jabref.logic.importer.FulltextFetchers;
 import net.sf.jabref.logic.l10n.Localization;
+import net.sf.jabref.logic.layout.LayoutFormatterPreferences;
+import net.sf.jabref.logic.net.URLDownload;
+import net.sf.jabref.logic.util.io.FileUtil;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
+import net.sf.jabref.preferences.JabRefPreferences;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
  * Try to download fulltext PDF for selected entry(ies) by following URL or DOI link.
+ * <p>
+ * The full texts are looked up and downloaded to the main file directory in the background, without asking for each
+ * entry. Afterwards, the downloaded files are linked to their entries in one undoable edit.
  */
 public class FindFullTextAction extends AbstractWorker {
 
     private static final Log LOGGER = LogFactory.getLog(FindFullTextAction.class);
 
     private final BasePanel basePanel;
-    private BibEntry entry;
-    private Optional<URL> result;
+    private List<BibEntry> entries;
+    private List<String> directories;
+    // the files downloaded for the entries, linked relative to the main file directory if possible
+    private final Map<BibEntry, FileListEntry> downloadedFiles = new LinkedHashMap<>();
+    private final List<BibEntry> entriesWithoutFullText = new ArrayList<>();
+    private final List<BibEntry> failedEntries = new ArrayList<>();
 
     public FindFullTextAction(BasePanel basePanel) {
         this.basePanel = basePanel;
@@ -36,56 +56,115 @@ public class FindFullTextAction extends AbstractWorker {
 
     @Override
     public void init() throws Throwable {
+        // the action is run again for each selection
+        downloadedFiles.clear();
+        entriesWithoutFullText.clear();
+        failedEntries.clear();
+        entries = basePanel.getSelectedEntries();
+        directories = basePanel.getBibDatabaseContext().getFileDirectory();
         basePanel.output(Localization.lang("Looking for full text document..."));
     }
 
     @Override
     public void run() {
-        if (basePanel.getSelectedEntries().size() != 1) {
-            basePanel.output(Localization.lang("This operation requires exactly one item to be selected."));
-            result = Optional.empty();
-        } else {
-            entry = basePanel.getSelectedEntries().get(0);
-            FulltextFetchers fft = new FulltextFetchers();
-            result = fft.findFullTextPDF(entry);
+        if (directories.isEmpty()) {
+            return;
+        }
+
+        FulltextFetchers fft = new FulltextFetchers();
+        List<Optional<URL>> results = fft.findFullTextPDFs(entries);
+        for (int i = 0; i < entries.size(); i++) {
+            if (results.get(i).isPresent()) {
+                download(entries.get(i), results.get(i).get());
+            } else {
+                entriesWithoutFullText.add(entries.get(i));
+            }
         }
     }
 
+    /**
+     * Downloads the full text of the given entry to the main file directory. A file existing already is not
+     * overwritten, the name of the download is then extended by a number instead.
+     */
+    private void download(BibEntry entry, URL url) {
+        String baseName = FileUtil.createFileNameFromPattern(basePanel.getDatabase(), entry,
+                Globals.prefs.get(JabRefPreferences.IMPORT_FILENAMEPATTERN),
+                LayoutFormatterPreferences.fromPreferences(Globals.prefs, Globals.journalAbbreviationLoader));
+        File file = new File(directories.get(0), baseName + ".pdf");
+        for (int number = 1; file.exists(); number++) {
+            file = new File(directories.get(0), baseName + " (" + number + ").pdf");
+        }
+
+        try {
+            new URLDownload(url).downloadToFile(file);
+        } catch (IOException e) {
+            LOGGER.warn("Problem downloading file", e);
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException ex) {
+                LOGGER.info("Cannot delete incomplete download '" + file + "'", ex);
+            }
+            failedEntries.add(entry);
+            return;
+        }
+
+        File link = FileUtil.shortenFileName(file, directories);
+        downloadedFiles.put(entry, new FileListEntry("", link.getPath(),
+                ExternalFileTypes.getInstance().getExternalFileTypeByExt("pdf")));
+    }
+
     @Override
     public void update() {
-        if (result.isPresent()) {
-            List<String> dirs = basePanel.getBibDatabaseContext().getFileDirectory();
-            if (dirs.isEmpty()) {
-                JOptionPane.showMessageDialog(basePanel.frame(),
-                        Localization.lang("Main file directory not set!") + " " + Localization.lang("Preferences")
-                                + " -> " + Localization.lang("External programs"),
-                        Localization.lang("Directory not found"), JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            String bibtexKey = entry.getCiteKey();
-            // TODO: this needs its own thread as it blocks the UI!
-            DownloadExternalFile def = new DownloadExternalFile(basePanel.frame(), basePanel.getBibDatabaseContext(), bibtexKey);
-            try {
-                def.download(result.get(), file -> {
-                    FileListTableModel tm = new FileListTableModel();
-                    entry.getFieldOptional(FieldName.FILE).ifPresent(tm::setContent);
-                    tm.addEntry(tm.getRowCount(), file);
-                    String newValue = tm.getStringRepresentation();
-                    UndoableFieldChange edit = new UndoableFieldChange(entry, FieldName.FILE,
-                            entry.getFieldOptional(FieldName.FILE).orElse(null), newValue);
-                    entry.setField(FieldName.FILE, newValue);
-                    basePanel.getUndoManager().addEdit(edit);
-                    basePanel.markBaseChanged();
-                });
-            } catch (IOException e) {
-                LOGGER.warn("Problem downloading file", e);
+        if (directories.isEmpty()) {
+            JOptionPane.showMessageDialog(basePanel.frame(),
+                    Localization.lang("Main file directory not set!") + " " + Localization.lang("Preferences")
+                            + " -> " + Localization.lang("External programs"),
+                    Localization.lang("Directory not found"), JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (!downloadedFiles.isEmpty()) {
+            NamedCompound compound = new NamedCompound(Localization.lang("Get fulltext"));
+            for (Map.Entry<BibEntry, FileListEntry> downloadedFile : downloadedFiles.entrySet()) {
+                BibEntry entry = downloadedFile.getKey();
+                FileListTableModel tm = new FileListTableModel();
+                entry.getFieldOptional(FieldName.FILE).ifPresent(tm::setContent);
+                tm.addEntry(tm.getRowCount(), downloadedFile.getValue());
+                String newValue = tm.getStringRepresentation();
+                compound.addEdit(new UndoableFieldChange(entry, FieldName.FILE,
+                        entry.getFieldOptional(FieldName.FILE).orElse(null), newValue));
+                entry.setField(FieldName.FILE, newValue);
             }
-            basePanel.output(Localization.lang("Finished downloading full text document"));
+            compound.end();
+            basePanel.getUndoManager().addEdit(compound);
+            basePanel.markBaseChanged();
+        }
+
+        List<String> problems = new ArrayList<>();
+        if (!entriesWithoutFullText.isEmpty()) {
+            problems.add(Localization.lang("No full text document found for %0.", getKeys(entriesWithoutFullText)));
+        }
+        if (!failedEntries.isEmpty()) {
+            problems.add(Localization.lang("Full text document download failed") + ": " + getKeys(failedEntries));
         }
-        else {
+
+        if (downloadedFiles.isEmpty()) {
             String message = Localization.lang("Full text document download failed");
             basePanel.output(message);
-            JOptionPane.showMessageDialog(basePanel.frame(), message, message, JOptionPane.ERROR_MESSAGE);
+            JOptionPane.showMessageDialog(basePanel.frame(),
+                    problems.isEmpty() ? message : String.join("\n", problems), message, JOptionPane.ERROR_MESSAGE);
+        } else {
+            basePanel.output(Localization.lang("Finished downloading full text document"));
+            if (!problems.isEmpty()) {
+                JOptionPane.showMessageDialog(basePanel.frame(), String.join("\n", problems),
+                        Localization.lang("Finished downloading full text document"),
+                        JOptionPane.WARNING_MESSAGE);
+            }
         }
     }
+
+    private static String getKeys(List<BibEntry> entries) {
+        return entries.stream().map(entry -> entry.getCiteKeyOptional().orElse("?"))
+                .collect(Collectors.joining(", "));
+    }
 }
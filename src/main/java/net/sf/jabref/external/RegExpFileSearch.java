@@ -51,8 +51,10 @@ public class RegExpFileSearch {
             List<File> directories, String regExp) {
 
         Map<BibEntry, List<File>> res = new HashMap<>();
+        // the directories are listed once for all entries
+        Map<File, File[]> directoryListings = new HashMap<>();
         for (BibEntry entry : entries) {
-            res.put(entry, findFiles(entry, extensions, directories, regExp));
+            res.put(entry, findFiles(entry, extensions, directories, regExp, directoryListings));
         }
         return res;
     }
@@ -64,14 +66,15 @@ public class RegExpFileSearch {
      * @param extensions The extensions that are acceptable.
      * @param directories The root directories to search.
      * @param regularExpression The expression deciding which names are acceptable.
+     * @param directoryListings The files of the directories already listed, it is extended by the directories listed.
      * @return A list of files paths matching the given criteria.
      */
     private static List<File> findFiles(BibEntry entry, List<String> extensions, List<File> directories,
-            String regularExpression) {
+            String regularExpression, Map<File, File[]> directoryListings) {
 
         String extensionRegExp = '(' + String.join("|", extensions) + ')';
 
-        return findFile(entry, directories, regularExpression, extensionRegExp);
+        return findFile(entry, directories, regularExpression, extensionRegExp, directoryListings);
     }
 
     /**
@@ -112,10 +115,11 @@ public class RegExpFileSearch {
      * @return Will return the first file found to match the given criteria or
      *         null if none was found.
      */
-    private static List<File> findFile(BibEntry entry, List<File> dirs, String file, String extensionRegExp) {
+    private static List<File> findFile(BibEntry entry, List<File> dirs, String file, String extensionRegExp,
+            Map<File, File[]> directoryListings) {
         List<File> res = new ArrayList<>();
         for (File directory : dirs) {
-            res.addAll(findFile(entry, directory.getPath(), file, extensionRegExp));
+            res.addAll(findFile(entry, directory.getPath(), file, extensionRegExp, directoryListings));
         }
         return res;
     }
@@ -125,7 +129,8 @@ public class RegExpFileSearch {
      * base the search on.
      *
      */
-    private static List<File> findFile(BibEntry entry, String directory, String file, String extensionRegExp) {
+    private static List<File> findFile(BibEntry entry, String directory, String file, String extensionRegExp,
+            Map<File, File[]> directoryListings) {
 
         File root;
         if (directory == null) {
@@ -136,7 +141,8 @@ public class RegExpFileSearch {
         if (!root.exists()) {
             return Collections.emptyList();
         }
-        List<File> fileList = RegExpFileSearch.findFile(entry, root, file, extensionRegExp);
+        List<File> fileList = RegExpFileSearch.findFile(entry, root, file, extensionRegExp,
+                directoryListings);
 
         List<File> result = new ArrayList<>();
         for (File tmpFile : fileList) {
@@ -165,7 +171,8 @@ public class RegExpFileSearch {
      * The actual work-horse. Will find absolute filepaths starting from the
      * given directory using the given regular expression string for search.
      */
-    private static List<File> findFile(BibEntry entry, File directory, String file, String extensionRegExp) {
+    private static List<File> findFile(BibEntry entry, File directory, String file, String extensionRegExp,
+            Map<File, File[]> directoryListings) {
 
         List<File> res = new ArrayList<>();
 
@@ -209,12 +216,12 @@ public class RegExpFileSearch {
             }
             if ("*".equals(dirToProcess)) { // Do for all direct subdirs
 
-                File[] subDirs = actualDirectory.listFiles();
+                File[] subDirs = listFiles(actualDirectory, directoryListings);
                 if (subDirs != null) {
                     String restOfFileString = StringUtil.join(fileParts, "/", i + 1, fileParts.length);
                     for (File subDir : subDirs) {
                         if (subDir.isDirectory()) {
-                            res.addAll(findFile(entry, subDir, restOfFileString, extensionRegExp));
+                            res.addAll(findFile(entry, subDir, restOfFileString, extensionRegExp, directoryListings));
                         }
                     }
                 }
@@ -229,7 +236,7 @@ public class RegExpFileSearch {
                 while (!toDo.isEmpty()) {
 
                     // Get all subdirs of each of the elements found in toDo
-                    File[] subDirs = toDo.remove(0).listFiles();
+                    File[] subDirs = listFiles(toDo.remove(0), directoryListings);
                     if (subDirs == null) {
                         continue;
                     }
@@ -240,7 +247,7 @@ public class RegExpFileSearch {
                         if (!subDir.isDirectory()) {
                             continue;
                         }
-                        res.addAll(findFile(entry, subDir, restOfFileString, extensionRegExp));
+                        res.addAll(findFile(entry, subDir, restOfFileString, extensionRegExp, directoryListings));
                     }
                 }
 
@@ -253,15 +260,29 @@ public class RegExpFileSearch {
         final Pattern toMatch = Pattern.compile('^' + filenameToLookFor.replaceAll("\\\\\\\\", "\\\\") + '$',
                 Pattern.CASE_INSENSITIVE);
 
-        File[] matches = actualDirectory.listFiles((arg0, arg1) -> {
-            return toMatch.matcher(arg1).matches();
-        });
-        if ((matches != null) && (matches.length > 0)) {
-            Collections.addAll(res, matches);
+        File[] files = listFiles(actualDirectory, directoryListings);
+        if (files != null) {
+            for (File candidate : files) {
+                if (toMatch.matcher(candidate.getName()).matches()) {
+                    res.add(candidate);
+                }
+            }
         }
         return res;
     }
 
+    /**
+     * Lists the files of the given directory, or returns the listing of an earlier call for the same directory.
+     *
+     * @return the files of the directory, or null if it is not a directory or cannot be read
+     */
+    private static File[] listFiles(File directory, Map<File, File[]> directoryListings) {
+        if (!directoryListings.containsKey(directory)) {
+            directoryListings.put(directory, directory.listFiles());
+        }
+        return directoryListings.get(directory);
+    }
+
     /**
      * Takes a string that contains bracketed expression and expands each of these using getFieldAndFormat.
      * <p>
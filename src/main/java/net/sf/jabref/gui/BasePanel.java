@@ -96,22 +96,26 @@ import net.sf.jabref.logic.autocompleter.AutoCompletePreferences;
 import net.sf.jabref.logic.autocompleter.AutoCompleter;
 import net.sf.jabref.logic.autocompleter.AutoCompleterFactory;
 import net.sf.jabref.logic.autocompleter.ContentAutoCompleters;
+import net.sf.jabref.logic.bibtexkeypattern.BibtexKeyGenerator;
 import net.sf.jabref.logic.bibtexkeypattern.BibtexKeyPatternPreferences;
-import net.sf.jabref.logic.bibtexkeypattern.BibtexKeyPatternUtil;
 import net.sf.jabref.logic.exporter.BibtexDatabaseWriter;
 import net.sf.jabref.logic.exporter.FileSaveSession;
 import net.sf.jabref.logic.exporter.SaveException;
 import net.sf.jabref.logic.exporter.SavePreferences;
 import net.sf.jabref.logic.exporter.SaveSession;
+import net.sf.jabref.logic.groups.GroupMembershipIndex;
+import net.sf.jabref.logic.integrity.IntegrityCheck;
 import net.sf.jabref.logic.l10n.Encodings;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.layout.Layout;
 import net.sf.jabref.logic.layout.LayoutFormatterPreferences;
 import net.sf.jabref.logic.layout.LayoutHelper;
+import net.sf.jabref.logic.search.SearchIndex;
 import net.sf.jabref.logic.util.FileExtensions;
 import net.sf.jabref.logic.util.UpdateField;
 import net.sf.jabref.logic.util.io.FileBasedLock;
 import net.sf.jabref.logic.util.io.FileUtil;
+import net.sf.jabref.model.DuplicateIndex;
 import net.sf.jabref.model.FieldChange;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.DatabaseLocation;
@@ -122,6 +126,7 @@ import net.sf.jabref.model.entry.FieldName;
 import net.sf.jabref.model.entry.IdGenerator;
 import net.sf.jabref.model.event.EntryAddedEvent;
 import net.sf.jabref.model.event.EntryChangedEvent;
+import net.sf.jabref.model.event.EntryRemovedEvent;
 import net.sf.jabref.preferences.HighlightMatchingGroupPreferences;
 import net.sf.jabref.preferences.JabRefPreferences;
 import net.sf.jabref.shared.DBMSSynchronizer;
@@ -209,6 +214,15 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
     private final SearchBar searchBar;
     private ContentAutoCompleters autoCompleters;
 
+    // created on first use, see getDuplicateIndex()
+    private DuplicateIndex duplicateIndex;
+    // created on first use, see getSearchIndex()
+    private SearchIndex searchIndex;
+    // created on first use, see getGroupMembershipIndex()
+    private GroupMembershipIndex groupMembershipIndex;
+    // created on first use, see getIntegrityCheck()
+    private IntegrityCheck integrityCheck;
+
 
     public BasePanel(JabRefFrame frame, BibDatabaseContext bibDatabaseContext) {
         Objects.requireNonNull(frame);
@@ -223,6 +237,10 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         searchBar = new SearchBar(this);
 
         setupMainPanel();
+        // ensure that the autocompleters are in sync with entries, the listeners are registered only once, as the
+        // autocompleters are replaced whenever the main panel is set up again
+        this.getDatabase().registerListener(new SearchAutoCompleteListener());
+        this.getDatabase().registerListener(new AutoCompleteListener());
 
         setupActions();
 
@@ -231,6 +249,10 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         // ensure that at each addition of a new entry, the entry is added to the groups interface
         this.bibDatabaseContext.getDatabase().registerListener(new GroupTreeListener());
 
+        // keep the linked files in memory while the database is open
+        JabRefExecutorService.INSTANCE.executeWithLowPriorityInOwnThread(bibDatabaseContext.getFileLinkCatalog(),
+                "FileLinkCatalog");
+
         if (file == null) {
             if (bibDatabaseContext.getDatabase().hasEntries()) {
                 // if the database is not empty and no file is assigned,
@@ -253,6 +275,49 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         });
     }
 
+    /**
+     * Returns the index of duplicate candidates of this database. The index is created on first use and kept up to
+     * date afterwards.
+     */
+    public synchronized DuplicateIndex getDuplicateIndex() {
+        if (duplicateIndex == null) {
+            duplicateIndex = DuplicateIndex.forDatabase(bibDatabaseContext.getDatabase());
+        }
+        return duplicateIndex;
+    }
+
+    /**
+     * Returns the search index of this database. The index is created on first use and kept up to date afterwards.
+     */
+    public synchronized SearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = SearchIndex.forDatabase(bibDatabaseContext.getDatabase());
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Returns the group membership index of this database. The index is created on first use and kept up to date
+     * afterwards.
+     */
+    public synchronized GroupMembershipIndex getGroupMembershipIndex() {
+        if (groupMembershipIndex == null) {
+            groupMembershipIndex = GroupMembershipIndex.forDatabase(bibDatabaseContext.getDatabase());
+        }
+        return groupMembershipIndex;
+    }
+
+    /**
+     * Returns the integrity check of this database, which remembers the results of the entries not changed since the
+     * last check. The check is created on first use.
+     */
+    public synchronized IntegrityCheck getIntegrityCheck() {
+        if (integrityCheck == null) {
+            integrityCheck = IntegrityCheck.forDatabase(bibDatabaseContext);
+        }
+        return integrityCheck;
+    }
+
     // Returns a collection of AutoCompleters, which are populated from the current database
     public ContentAutoCompleters getAutoCompleters() {
         return autoCompleters;
@@ -481,12 +546,17 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
                 final NamedCompound ce = new NamedCompound(Localization.lang("Autogenerate BibTeX keys"));
 
                 // Finally, set the new keys:
-                for (BibEntry entry : entries) {
-                    bes = entry;
-                    BibtexKeyPatternUtil.makeLabel(bibDatabaseContext.getMetaData(), bibDatabaseContext.getDatabase(),
-                            bes, BibtexKeyPatternPreferences.fromPreferences(Globals.prefs));
+                List<String> newKeys = new BibtexKeyGenerator(bibDatabaseContext.getMetaData(),
+                        bibDatabaseContext.getDatabase(), BibtexKeyPatternPreferences.fromPreferences(Globals.prefs))
+                                .generateUniqueKeys(entries);
+                for (int i = 0; i < entries.size(); i++) {
+                    bes = entries.get(i);
+                    String newKey = newKeys.get(i);
+                    if (!newKey.equals(bes.getCiteKeyOptional().orElse(null))) {
+                        bibDatabaseContext.getDatabase().setCiteKeyForEntry(bes, newKey);
+                    }
                     ce.addEdit(new UndoableKeyChange(bibDatabaseContext.getDatabase(), bes, (String) oldvals.get(bes),
-                            bes.getCiteKeyOptional().orElse(null)));
+                            newKey));
                 }
                 ce.end();
                 getUndoManager().addEdit(ce);
@@ -817,6 +887,7 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
             // This entry is used to open up an entry editor
             // for the first inserted entry.
             BibEntry firstBE = null;
+            List<BibEntry> pastedEntries = new ArrayList<>(bes.size());
 
             for (BibEntry be1 : bes) {
 
@@ -832,10 +903,13 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
                 // independently of the copied
                 // ones.
                 be.setId(IdGenerator.next());
-                bibDatabaseContext.getDatabase().insertEntry(be);
+                pastedEntries.add(be);
+            }
 
+            // insert all entries at once, which is much faster for shared databases
+            bibDatabaseContext.insertEntries(pastedEntries);
+            for (BibEntry be : pastedEntries) {
                 ce.addEdit(new UndoableInsertEntry(bibDatabaseContext.getDatabase(), be, BasePanel.this));
-
             }
             ce.end();
             getUndoManager().addEdit(ce);
@@ -1268,6 +1342,11 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         public void listen(EntryChangedEvent entryChangedEvent) {
             searchAutoCompleter.addBibtexEntry(entryChangedEvent.getBibEntry());
         }
+
+        @Subscribe
+        public void listen(EntryRemovedEvent entryRemovedEvent) {
+            searchAutoCompleter.removeBibtexEntry(entryRemovedEvent.getBibEntry());
+        }
     }
 
     /**
@@ -1285,6 +1364,11 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         public void listen(EntryChangedEvent entryChangedEvent) {
             BasePanel.this.autoCompleters.addEntry(entryChangedEvent.getBibEntry());
         }
+
+        @Subscribe
+        public void listen(EntryRemovedEvent entryRemovedEvent) {
+            BasePanel.this.autoCompleters.removeEntry(entryRemovedEvent.getBibEntry());
+        }
     }
 
 
@@ -1500,15 +1584,13 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
 
         // Set up name autocompleter for search:
         instantiateSearchAutoCompleter();
-        this.getDatabase().registerListener(new SearchAutoCompleteListener());
 
         AutoCompletePreferences autoCompletePreferences = new AutoCompletePreferences(Globals.prefs);
         // Set up AutoCompleters for this panel:
         if (Globals.prefs.getBoolean(JabRefPreferences.AUTO_COMPLETE)) {
+            // takes over the indexes of the current auto completers which still fit the preferences
             autoCompleters = new ContentAutoCompleters(getDatabase(), bibDatabaseContext.getMetaData(),
-                    autoCompletePreferences, Globals.journalAbbreviationLoader);
-            // ensure that the autocompleters are in sync with entries
-            this.getDatabase().registerListener(new AutoCompleteListener());
+                    autoCompletePreferences, Globals.journalAbbreviationLoader, autoCompleters);
         } else {
             // create empty ContentAutoCompleters() if autoCompletion is deactivated
             autoCompleters = new ContentAutoCompleters();
@@ -1533,9 +1615,13 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         AutoCompletePreferences autoCompletePreferences = new AutoCompletePreferences(Globals.prefs);
         AutoCompleterFactory autoCompleterFactory = new AutoCompleterFactory(autoCompletePreferences,
                 Globals.journalAbbreviationLoader);
+        AutoCompleter<String> previousSearchAutoCompleter = searchAutoCompleter;
         searchAutoCompleter = autoCompleterFactory.getPersonAutoCompleter();
-        for (BibEntry entry : bibDatabaseContext.getDatabase().getEntries()) {
-            searchAutoCompleter.addBibtexEntry(entry);
+        if ((previousSearchAutoCompleter == null)
+                || !searchAutoCompleter.takeOverIndexOf(previousSearchAutoCompleter)) {
+            for (BibEntry entry : bibDatabaseContext.getDatabase().getEntries()) {
+                searchAutoCompleter.addBibtexEntry(entry);
+            }
         }
     }
 
@@ -1927,20 +2013,25 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
     public void autoGenerateKeysBeforeSaving() {
         if (Globals.prefs.getBoolean(JabRefPreferences.GENERATE_KEYS_BEFORE_SAVING)) {
             NamedCompound ce = new NamedCompound(Localization.lang("Autogenerate BibTeX keys"));
-            boolean any = false;
 
+            List<BibEntry> entriesWithoutKey = new ArrayList<>();
             for (BibEntry bes : bibDatabaseContext.getDatabase().getEntries()) {
                 Optional<String> oldKey = bes.getCiteKeyOptional();
                 if (!(oldKey.isPresent()) || oldKey.get().isEmpty()) {
-                    BibtexKeyPatternUtil.makeLabel(bibDatabaseContext.getMetaData(), bibDatabaseContext.getDatabase(),
-                            bes, BibtexKeyPatternPreferences.fromPreferences(Globals.prefs));
-                    ce.addEdit(new UndoableKeyChange(bibDatabaseContext.getDatabase(), bes, null,
-                            bes.getCiteKeyOptional().get())); // Cite key is set here
-                    any = true;
+                    entriesWithoutKey.add(bes);
                 }
             }
+
+            List<String> newKeys = new BibtexKeyGenerator(bibDatabaseContext.getMetaData(),
+                    bibDatabaseContext.getDatabase(), BibtexKeyPatternPreferences.fromPreferences(Globals.prefs))
+                            .generateUniqueKeys(entriesWithoutKey);
+            for (int i = 0; i < entriesWithoutKey.size(); i++) {
+                BibEntry bes = entriesWithoutKey.get(i);
+                bibDatabaseContext.getDatabase().setCiteKeyForEntry(bes, newKeys.get(i));
+                ce.addEdit(new UndoableKeyChange(bibDatabaseContext.getDatabase(), bes, null, newKeys.get(i)));
+            }
             // Store undo information, if any:
-            if (any) {
+            if (!entriesWithoutKey.isEmpty()) {
                 ce.end();
                 getUndoManager().addEdit(ce);
             }
@@ -2167,6 +2258,10 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         if (fileMonitorHandle != null) {
             Globals.getFileUpdateMonitor().removeUpdateListener(fileMonitorHandle);
         }
+        bibDatabaseContext.getFileLinkCatalog().stop();
+        if (bibDatabaseContext.getLocation() == DatabaseLocation.SHARED) {
+            bibDatabaseContext.getDBSynchronizer().stopNotificationListener();
+        }
         // Check if there is a FileUpdatePanel for this BasePanel being shown. If so,
         // remove it:
         if (sidePaneManager.hasComponent("fileUpdate")) {
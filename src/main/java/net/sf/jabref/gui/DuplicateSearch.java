@@ -1,7 +1,6 @@
 package net.sf.jabref.gui;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import javax.swing.SwingUtilities;
@@ -16,6 +15,7 @@ import net.sf.jabref.gui.undo.UndoableRemoveEntry;
 import net.sf.jabref.gui.worker.CallBack;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.model.DuplicateCheck;
+import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.entry.BibEntry;
 
 import spin.Spin;
@@ -150,21 +150,17 @@ public class DuplicateSearch implements Runnable {
 
         @Override
         public void run() {
-            for (int i = 0; (i < (bes.size() - 1)) && !finished; i++) {
-                for (int j = i + 1; (j < bes.size()) && !finished; j++) {
-                    BibEntry first = bes.get(i);
-                    BibEntry second = bes.get(j);
-                    boolean eq = DuplicateCheck.isDuplicate(first, second, panel.getBibDatabaseContext().getMode());
-
-                    // If (suspected) duplicates, add them to the duplicates vector.
-                    if (eq) {
+            BibDatabaseMode mode = panel.getBibDatabaseContext().getMode();
+            // Only pairs sharing a block of the duplicate index are compared. The comparisons run in parallel.
+            panel.getDuplicateIndex().getCandidatePairs().parallelStream()
+                    .filter(pair -> !finished && DuplicateCheck.isDuplicate(pair.get(0), pair.get(1), mode))
+                    .forEach(pair -> {
+                        // If (suspected) duplicates, add them to the duplicates vector.
                         synchronized (duplicates) {
-                            duplicates.add(Arrays.asList(first, second));
+                            duplicates.add(pair);
                             duplicates.notifyAll(); // send wake up all
                         }
-                    }
-                }
-            }
+                    });
             finished = true;
             // if no duplicates found, the graphical thread will never wake up
             synchronized (duplicates) {
@@ -43,7 +43,7 @@ import net.sf.jabref.logic.layout.LayoutHelper;
 import net.sf.jabref.logic.search.SearchQueryHighlightListener;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
-import net.sf.jabref.model.event.FieldChangedEvent;
+import net.sf.jabref.model.event.EntryChangedEvent;
 
 import com.google.common.eventbus.Subscribe;
 import org.apache.commons.logging.Log;
@@ -231,17 +231,17 @@ public class PreviewPanel extends JPanel
         bibEntry = Optional.ofNullable(newEntry);
         bibEntry.ifPresent(e -> e.registerListener(this));
 
-        updateLayout();
+        // the layout has been parsed already, it is only parsed again if the layout format changes
         update();
     }
 
 
     /**
-    * Listener for ChangedFieldEvent.
+    * Listener for ChangedFieldEvent and for changes of several fields at once.
     */
     @SuppressWarnings("unused")
     @Subscribe
-    public void listen(FieldChangedEvent fieldChangedEvent) {
+    public void listen(EntryChangedEvent entryChangedEvent) {
         update();
     }
 
@@ -50,6 +50,8 @@ public class AutoLinkFilesAction extends AbstractAction {
                             JabRefGUI.getMainFrame().getCurrentBasePanel().markBaseChanged();
                         }
                         JabRefGUI.getMainFrame().output(Localization.lang("Finished automatically setting external links."));
+                    } else if (e.getID() < 0) {
+                        JabRefGUI.getMainFrame().output(Localization.lang("Operation canceled."));
                     } else {
                         JabRefGUI.getMainFrame().output(Localization.lang("Finished automatically setting external links.") + " "
                                 + Localization.lang("No files found."));
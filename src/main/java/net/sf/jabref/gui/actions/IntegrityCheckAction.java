@@ -43,7 +43,7 @@ public class IntegrityCheckAction extends MnemonicAwareAction {
 
     @Override
     public void actionPerformed(ActionEvent e) {
-        IntegrityCheck check = new IntegrityCheck(frame.getCurrentBasePanel().getBibDatabaseContext());
+        IntegrityCheck check = frame.getCurrentBasePanel().getIntegrityCheck();
         List<IntegrityMessage> messages = check.checkBibtexDatabase();
 
         if (messages.isEmpty()) {
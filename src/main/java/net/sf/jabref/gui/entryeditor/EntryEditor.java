@@ -100,6 +100,7 @@ import net.sf.jabref.model.entry.EntryType;
 import net.sf.jabref.model.entry.FieldName;
 import net.sf.jabref.model.entry.FieldProperties;
 import net.sf.jabref.model.entry.InternalBibtexFields;
+import net.sf.jabref.model.event.EntryChangedEvent;
 import net.sf.jabref.model.event.FieldChangedEvent;
 import net.sf.jabref.preferences.JabRefPreferences;
 import net.sf.jabref.specialfields.SpecialFieldUpdateListener;
@@ -938,6 +939,22 @@ public class EntryEditor extends JPanel implements EntryContainer {
         }
     }
 
+    /**
+     * Update all JTextAreas when several fields have been changed at once.
+     */
+    @Subscribe
+    public void listen(EntryChangedEvent entryChangedEvent) {
+        if (entryChangedEvent instanceof FieldChangedEvent) {
+            // handled by listen(FieldChangedEvent)
+            return;
+        }
+        if (SwingUtilities.isEventDispatchThread()) {
+            updateAllFields();
+        } else {
+            SwingUtilities.invokeLater(this::updateAllFields);
+        }
+    }
+
     public void updateField(final Object sourceObject) {
         getStoreFieldAction().actionPerformed(new ActionEvent(sourceObject, 0, ""));
     }
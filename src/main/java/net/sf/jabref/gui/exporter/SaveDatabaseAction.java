@@ -160,7 +160,10 @@ public class SaveDatabaseAction extends AbstractWorker {
         frame.block();
 
         try {
-            SavePreferences prefs = SavePreferences.loadForSaveFromPreferences(Globals.prefs).withEncoding(encoding);
+            // the written serializations are only reused when writing the database file again
+            boolean isDatabaseFile = !selectedOnly && file.equals(panel.getBibDatabaseContext().getDatabaseFile());
+            SavePreferences prefs = SavePreferences.loadForSaveFromPreferences(Globals.prefs).withEncoding(encoding)
+                    .withUpdateParsedSerialization(isDatabaseFile);
             BibtexDatabaseWriter<SaveSession> databaseWriter = new BibtexDatabaseWriter<>(FileSaveSession::new);
 
             if (selectedOnly) {
@@ -433,6 +433,8 @@ public class FileListEditor extends JTable implements FieldEditor, DownloadExter
                         entryEditor.updateField(this);
                         adjustColumnWidth();
                         frame.output(Localization.lang("Finished automatically setting external links."));
+                    } else if (e.getID() < 0) {
+                        frame.output(Localization.lang("Operation canceled."));
                     } else {
                         frame.output(Localization.lang("Finished automatically setting external links.") + " "
                                 + Localization.lang("No files found."));
@@ -12,6 +12,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
@@ -58,14 +59,12 @@ import net.sf.jabref.gui.worker.AbstractWorker;
 import net.sf.jabref.logic.groups.AbstractGroup;
 import net.sf.jabref.logic.groups.AllEntriesGroup;
 import net.sf.jabref.logic.groups.EntriesGroupChange;
+import net.sf.jabref.logic.groups.GroupMembershipIndex;
 import net.sf.jabref.logic.groups.GroupTreeNode;
 import net.sf.jabref.logic.groups.MoveGroupChange;
 import net.sf.jabref.logic.help.HelpFile;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.search.SearchMatcher;
-import net.sf.jabref.logic.search.matchers.MatcherSet;
-import net.sf.jabref.logic.search.matchers.MatcherSets;
-import net.sf.jabref.logic.search.matchers.NotMatcher;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.preferences.JabRefPreferences;
 
@@ -567,14 +566,24 @@ public class GroupSelector extends SidePaneComponent implements TreeSelectionLis
     }
 
     private void updateShownEntriesAccordingToSelectedGroups() {
-        final MatcherSet searchRules = MatcherSets
-                .build(andCb.isSelected() ? MatcherSets.MatcherType.AND : MatcherSets.MatcherType.OR);
-
-        for(GroupTreeNodeViewModel node : getLeafsOfSelection()) {
-            SearchMatcher searchRule = node.getNode().getSearchRule();
-            searchRules.addRule(searchRule);
+        // the matches of the selected groups are combined from the group membership index
+        GroupMembershipIndex membershipIndex = panel.getGroupMembershipIndex();
+        BitSet allEntries = membershipIndex.getAllEntries();
+        BitSet matches = andCb.isSelected() ? (BitSet) allEntries.clone() : new BitSet();
+        for (GroupTreeNodeViewModel node : getLeafsOfSelection()) {
+            BitSet nodeMatches = membershipIndex.getMatches(node.getNode());
+            if (andCb.isSelected()) {
+                matches.and(nodeMatches);
+            } else {
+                matches.or(nodeMatches);
+            }
+        }
+        if (invCb.isSelected()) {
+            allEntries.andNot(matches);
+            matches = allEntries;
         }
-        SearchMatcher searchRule = invCb.isSelected() ? new NotMatcher(searchRules) : searchRules;
+        final BitSet selectedMatches = matches;
+        SearchMatcher searchRule = entry -> membershipIndex.isContained(entry, selectedMatches);
         GroupingWorker worker = new GroupingWorker(searchRule);
         worker.getWorker().run();
         worker.getCallBack().update();
@@ -91,6 +91,7 @@ import net.sf.jabref.logic.importer.OutputPrinter;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.util.UpdateField;
 import net.sf.jabref.model.DuplicateCheck;
+import net.sf.jabref.model.DuplicateIndex;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.entry.AuthorList;
@@ -154,6 +155,9 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
     private final JButton ok = new JButton(Localization.lang("OK"));
     private final JButton generate = new JButton(Localization.lang("Generate now"));
     private final EventList<BibEntry> entries = new BasicEventList<>();
+
+    // duplicate candidates among the entries of the table
+    private final DuplicateIndex importedEntriesIndex = new DuplicateIndex();
     private final SortedList<BibEntry> sortedList;
 
     /**
@@ -382,15 +386,15 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
             // Checking duplicates means both checking against the background
             // database (if
             // applicable) and against entries already in the table.
-            if ((panel != null) && (DuplicateCheck
-                    .containsDuplicate(panel.getDatabase(), entry, panel.getBibDatabaseContext().getMode()).isPresent()
-                    || (internalDuplicate(this.entries, entry).isPresent()))) {
+            if ((panel != null) && (panel.getDuplicateIndex()
+                    .getDuplicate(entry, panel.getBibDatabaseContext().getMode()).isPresent()
+                    || (internalDuplicate(entry).isPresent()))) {
                 entry.setGroupHit(true);
                 SwingUtilities.invokeLater(() -> deselectAllDuplicates.setEnabled(true));
             }
             this.entries.getReadWriteLock().writeLock().lock();
             try {
-                this.entries.add(entry);
+                addToTable(entry);
             } finally {
                 this.entries.getReadWriteLock().writeLock().unlock();
             }
@@ -398,23 +402,33 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
     }
 
     /**
-     * Checks if there are duplicates to the given entry in the Collection. Does
-     * not report the entry as duplicate of itself if it is in the Collection.
+     * Adds the entry to the table and to the index of duplicate candidates. The caller has to hold the write lock
+     * of this.entries if other threads may access the table.
+     */
+    private void addToTable(BibEntry entry) {
+        entries.add(entry);
+        importedEntriesIndex.addEntry(entry);
+    }
+
+    /**
+     * Removes the entry from the table and from the index of duplicate candidates. The caller has to hold the write
+     * lock of this.entries if other threads may access the table.
+     */
+    private void removeFromTable(BibEntry entry) {
+        entries.remove(entry);
+        importedEntriesIndex.removeEntry(entry);
+    }
+
+    /**
+     * Checks if there are duplicates to the given entry among the entries of the table. Does
+     * not report the entry as duplicate of itself if it is in the table.
      *
-     * @param entriesDupe A Collection of BibEntry instances.
      * @param entry       The entry to search for duplicates of.
      * @return A possible duplicate, if any, or null if none were found.
      */
-    private Optional<BibEntry> internalDuplicate(Collection<BibEntry> entriesDupe, BibEntry entry) {
-        for (BibEntry othEntry : entriesDupe) {
-            if (othEntry.equals(entry)) {
-                continue; // Don't compare the entry to itself
-            }
-            if (DuplicateCheck.isDuplicate(entry, othEntry, panel.getBibDatabaseContext().getMode())) {
-                return Optional.of(othEntry);
-            }
-        }
-        return Optional.empty();
+    private Optional<BibEntry> internalDuplicate(BibEntry entry) {
+        // The index contains exactly the entries of the table, and only the candidates sharing a block are compared.
+        return importedEntriesIndex.getDuplicate(entry, panel.getBibDatabaseContext().getMode());
     }
 
     /* (non-Javadoc)
@@ -739,9 +753,12 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                 }
 
                 entry.setId(IdGenerator.next());
-                panel.getDatabase().insertEntry(entry);
-                ce.addEdit(new UndoableInsertEntry(panel.getDatabase(), entry, panel));
+            }
 
+            // insert all entries at once, which is much faster for shared databases
+            panel.getBibDatabaseContext().insertEntries(selected);
+            for (BibEntry entry : selected) {
+                ce.addEdit(new UndoableInsertEntry(panel.getDatabase(), entry, panel));
             }
 
             ce.end();
@@ -849,7 +866,7 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
             entries.getReadWriteLock().writeLock().lock();
             try {
                 for (BibEntry entry : toRemove) {
-                    entries.remove(entry);
+                    removeFromTable(entry);
                 }
             } finally {
                 entries.getReadWriteLock().writeLock().unlock();
@@ -1029,7 +1046,7 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
             // Is this the duplicate icon column, and is there an icon?
             if ((col == DUPL_COL) && (glTable.getValueAt(row, col) != null)) {
                 BibEntry first = sortedList.get(row);
-                Optional<BibEntry> other = DuplicateCheck.containsDuplicate(panel.getDatabase(), first,
+                Optional<BibEntry> other = panel.getDuplicateIndex().getDuplicate(first,
                         panel.getBibDatabaseContext().getMode());
                 if (other.isPresent()) {
                     // This will be true if the duplicate is in the existing
@@ -1059,7 +1076,7 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                         // Remove the entry from the import inspection dialog.
                         entries.getReadWriteLock().writeLock().lock();
                         try {
-                            entries.remove(first);
+                            removeFromTable(first);
                         } finally {
                             entries.getReadWriteLock().writeLock().unlock();
                         }
@@ -1084,8 +1101,8 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                         try {
                             diag.getMergedEntry().setGroupHit(false);
                             diag.getMergedEntry().setSearchHit(true);
-                            entries.add(diag.getMergedEntry());
-                            entries.remove(first);
+                            addToTable(diag.getMergedEntry());
+                            removeFromTable(first);
                             first = new BibEntry(); // Reset first so the next duplicate doesn't trigger
                         } finally {
                             entries.getReadWriteLock().writeLock().unlock();
@@ -1093,7 +1110,7 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                     }
                 }
                 // Check if the duplicate is of another entry in the import:
-                other = internalDuplicate(entries, first);
+                other = internalDuplicate(first);
                 if (other.isPresent()) {
                     DuplicateResolverDialog diag = new DuplicateResolverDialog(ImportInspectionDialog.this, first,
                             other.get(), DuplicateResolverDialog.DuplicateResolverType.DUPLICATE_SEARCH);
@@ -1102,18 +1119,18 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                     ImportInspectionDialog.this.toFront();
                     DuplicateResolverResult answer = diag.getSelected();
                     if (answer == DuplicateResolverResult.KEEP_LEFT) {
-                        entries.remove(other.get());
+                        removeFromTable(other.get());
                         first.setGroupHit(false);
                     } else if (answer == DuplicateResolverResult.KEEP_RIGHT) {
-                        entries.remove(first);
+                        removeFromTable(first);
                     } else if (answer == DuplicateResolverResult.KEEP_BOTH) {
                         first.setGroupHit(false);
                     } else if (answer == DuplicateResolverResult.KEEP_MERGE) {
                         diag.getMergedEntry().setGroupHit(false);
                         diag.getMergedEntry().setSearchHit(true);
-                        entries.add(diag.getMergedEntry());
-                        entries.remove(first);
-                        entries.remove(other.get());
+                        addToTable(diag.getMergedEntry());
+                        removeFromTable(first);
+                        removeFromTable(other.get());
                     }
                 }
             }
@@ -8,6 +8,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
@@ -20,6 +21,7 @@ import net.sf.jabref.gui.JabRefFrame;
 import net.sf.jabref.gui.undo.NamedCompound;
 import net.sf.jabref.gui.worker.AbstractWorker;
 import net.sf.jabref.logic.importer.ImportFormatReader;
+import net.sf.jabref.logic.importer.MultipleFileImporter;
 import net.sf.jabref.logic.importer.ParserResult;
 import net.sf.jabref.logic.importer.fileformat.ImportFormat;
 import net.sf.jabref.logic.l10n.Localization;
@@ -102,27 +104,31 @@ public class ImportMenuItem extends JMenuItem implements ActionListener {
                 return;
             }
 
-            // We import all files and collect their results:
+            // We import all files in parallel and collect their results in the order of the files:
+            List<Path> files = filenames.stream().map(Paths::get).collect(Collectors.toList());
+            MultipleFileImporter multipleFileImporter = new MultipleFileImporter(Globals.IMPORT_FORMAT_READER);
+            List<MultipleFileImporter.ImportResult> results;
+            if (importer == null) {
+                // Unknown format:
+                frame.output(Localization.lang("Importing in unknown format") + "...");
+                results = multipleFileImporter.importFiles(files, (current, max) -> frame
+                        .output(Localization.lang("Importing in unknown format") + "... " + current + "/" + max));
+            } else {
+                frame.output(Localization.lang("Importing in %0 format", importer.getFormatName()) + "...");
+                // Specific importer:
+                results = multipleFileImporter.importFiles(files, importer, (current, max) -> frame.output(
+                        Localization.lang("Importing in %0 format", importer.getFormatName()) + "... " + current
+                                + "/" + max));
+            }
+
             List<ImportFormatReader.UnknownFormatImport> imports = new ArrayList<>();
-            for (String filename : filenames) {
-                Path file = Paths.get(filename);
-                try {
-                    if (importer == null) {
-                        // Unknown format:
-                        frame.output(Localization.lang("Importing in unknown format") + "...");
-                        // This import method never throws an IOException:
-                        imports.add(Globals.IMPORT_FORMAT_READER.importUnknownFormat(filename));
-                    } else {
-                        frame.output(Localization.lang("Importing in %0 format", importer.getFormatName()) + "...");
-                        // Specific importer:
-                        ParserResult pr = importer.importDatabase(file, Globals.prefs.getDefaultEncoding());
-                        imports.add(new ImportFormatReader.UnknownFormatImport(importer.getFormatName(), pr));
-                    }
-                } catch (IOException e) {
-                    // This indicates that a specific importer was specified, and that
-                    // this importer has thrown an IOException. We store the exception,
-                    // so a relevant error message can be displayed.
-                    importError = e;
+            for (MultipleFileImporter.ImportResult result : results) {
+                // This indicates that a specific importer was specified, and that
+                // this importer has thrown an IOException. We store the exception,
+                // so a relevant error message can be displayed.
+                result.getError().ifPresent(error -> importError = error);
+                if (!result.getError().isPresent()) {
+                    imports.add(result.getImportResult().orElse(null));
                 }
             }
 
@@ -120,9 +120,13 @@ public class AppendDatabaseAction implements BaseAction {
                 be.setId(IdGenerator.next());
                 UpdateField.setAutomaticFields(be, overwriteOwner, overwriteTimeStamp,
                         Globals.prefs.getUpdateFieldPreferences());
-                database.insertEntry(be);
                 appendedEntries.add(be);
                 originalEntries.add(originalEntry);
+            }
+
+            // insert all entries at once, which is much faster for shared databases
+            panel.getBibDatabaseContext().insertEntries(appendedEntries);
+            for (BibEntry be : appendedEntries) {
                 ce.addEdit(new UndoableInsertEntry(database, be, panel));
             }
         }
@@ -1,15 +1,14 @@
 package net.sf.jabref.gui.search;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
 import javax.swing.SwingWorker;
 
 import net.sf.jabref.gui.BasePanel;
 import net.sf.jabref.gui.maintable.MainTableDataModel;
+import net.sf.jabref.logic.search.DatabaseSearcher;
 import net.sf.jabref.logic.search.SearchQuery;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
@@ -19,8 +18,10 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * Not reusable. Always create a new instance for each search!
+ * <p>
+ * Matches are shown in the main table as soon as they are found. Cancelling the worker stops the search.
  */
-class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
+class SearchWorker extends SwingWorker<List<BibEntry>, BibEntry> {
 
     private static final Log LOGGER = LogFactory.getLog(SearchWorker.class);
 
@@ -30,6 +31,9 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
     private final SearchQuery searchQuery;
     private final SearchMode mode;
 
+    // whether the hits of the previous search were already cleared, accessed on the EDT only
+    private boolean previousHitsCleared;
+
     SearchWorker(BasePanel basePanel, SearchQuery searchQuery, SearchMode mode) {
         this.basePanel = Objects.requireNonNull(basePanel);
         this.database = Objects.requireNonNull(basePanel.getDatabase());
@@ -41,9 +45,26 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
     @Override
     protected List<BibEntry> doInBackground() throws Exception {
         // Search the current database
-        List<BibEntry> matchedEntries = new LinkedList<>();
-        matchedEntries.addAll(database.getEntries().stream().filter(searchQuery::isMatch).collect(Collectors.toList()));
-        return matchedEntries;
+        return new DatabaseSearcher(searchQuery, database, basePanel.getSearchIndex())
+                .getMatches(matches -> publish(matches.toArray(new BibEntry[matches.size()])), this::isCancelled);
+    }
+
+    @Override
+    protected void process(List<BibEntry> matchedEntries) {
+        if (isCancelled() || !basePanel.getSearchBar().isStillValidQuery(searchQuery)) {
+            return;
+        }
+
+        if (!previousHitsCleared) {
+            for (BibEntry entry : basePanel.getDatabase().getEntries()) {
+                entry.setSearchHit(false);
+            }
+            previousHitsCleared = true;
+        }
+        for (BibEntry entry : matchedEntries) {
+            entry.setSearchHit(true);
+        }
+        showSearchHits();
     }
 
     @Override
@@ -76,6 +97,19 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
             entry.setSearchHit(true);
         }
 
+        showSearchHits();
+
+        // select first match (i.e., row) if there is any
+        int hits = matchedEntries.size();
+        if ((hits > 0) && (basePanel.getMainTable().getRowCount() > 0)) {
+            basePanel.getMainTable().setSelected(0);
+        }
+
+        basePanel.getSearchBar().updateResults(hits, searchQuery.getDescription(), searchQuery.isGrammarBasedSearch());
+        basePanel.getSearchBar().getSearchQueryHighlightObservable().fireSearchlistenerEvent(searchQuery);
+    }
+
+    private void showSearchHits() {
         basePanel.getMainTable().getTableModel().updateSearchState(MainTableDataModel.DisplayOption.DISABLED);
 
         // Show the result in the chosen way:
@@ -89,15 +123,6 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
         default:
             break;
         }
-
-        // select first match (i.e., row) if there is any
-        int hits = matchedEntries.size();
-        if ((hits > 0) && (basePanel.getMainTable().getRowCount() > 0)) {
-            basePanel.getMainTable().setSelected(0);
-        }
-
-        basePanel.getSearchBar().updateResults(hits, searchQuery.getDescription(), searchQuery.isGrammarBasedSearch());
-        basePanel.getSearchBar().getSearchQueryHighlightObservable().fireSearchlistenerEvent(searchQuery);
     }
 
 }
@@ -95,6 +95,7 @@ public class OpenSharedDatabaseDialog extends JDialog {
             frame.addTab(bibDatabaseContext, true);
             setGlobalPrefs();
             bibDatabaseContext.getDBSynchronizer().registerListener(new SharedDatabaseUIManager(frame));
+            bibDatabaseContext.getDBSynchronizer().startNotificationListener();
             frame.output(Localization.lang("Connection_to_%0_server_stablished.", connectionProperties.getType().toString()));
             dispose();
         } catch (ClassNotFoundException exception) {
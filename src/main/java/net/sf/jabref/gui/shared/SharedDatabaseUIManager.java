@@ -1,6 +1,7 @@
 package net.sf.jabref.gui.shared;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import net.sf.jabref.gui.JabRefFrame;
 import net.sf.jabref.logic.l10n.Localization;
@@ -8,6 +9,7 @@ import net.sf.jabref.model.database.DatabaseLocation;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.shared.DBMSSynchronizer;
 import net.sf.jabref.shared.event.ConnectionLostEvent;
+import net.sf.jabref.shared.event.SharedEntriesChangedEvent;
 import net.sf.jabref.shared.event.SharedEntryNotPresentEvent;
 import net.sf.jabref.shared.event.UpdateRefusedEvent;
 
@@ -25,6 +27,7 @@ public class SharedDatabaseUIManager {
 
     @Subscribe
     public void listen(ConnectionLostEvent connectionLostEvent) {
+        dbmsSynchronizer.stopNotificationListener();
 
         jabRefFrame.output(Localization.lang("Connection lost."));
 
@@ -50,6 +53,13 @@ public class SharedDatabaseUIManager {
         }
     }
 
+    @Subscribe
+    public void listen(SharedEntriesChangedEvent sharedEntriesChangedEvent) {
+        // the event is posted by the notification listener thread
+        SwingUtilities.invokeLater(
+                () -> dbmsSynchronizer.synchronizeLocalEntries(sharedEntriesChangedEvent.getSharedIDVersions()));
+    }
+
     @Subscribe
     public void listen(UpdateRefusedEvent updateRefusedEvent) {
 
@@ -2,12 +2,13 @@ package net.sf.jabref.logic.autocompleter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
+
+import net.sf.jabref.model.entry.BibEntry;
 
 /**
  * Delivers possible completions for a given string.
@@ -21,19 +22,20 @@ public abstract class AbstractAutoCompleter implements AutoCompleter<String> {
     private final AutoCompletePreferences preferences;
 
     /**
-     * Stores the strings as is.
+     * Stores the strings and how often they occur.
      */
-    private final TreeSet<String> indexCaseSensitive = new TreeSet<>();
+    private CompletionTrie index = new CompletionTrie();
 
     /**
-     * Stores strings in lowercase.
+     * Stores for the id of an entry the strings it has added to the index, so they can be removed when the entry
+     * changes or is removed.
      */
-    private final TreeSet<String> indexCaseInsensitive = new TreeSet<>();
+    private Map<String, String[]> stringsOfEntries = new HashMap<>();
 
     /**
-     * Stores for a lowercase string the possible expanded strings.
+     * Stores the strings added directly, they are kept in the index as long as the auto completer exists.
      */
-    private final Map<String, Set<String>> possibleStringsForSearchString = new HashMap<>();
+    private Set<String> addedStrings = new HashSet<>();
 
 
     public AbstractAutoCompleter(AutoCompletePreferences preferences) {
@@ -44,50 +46,57 @@ public abstract class AbstractAutoCompleter implements AutoCompleter<String> {
      * {@inheritDoc}
      * The completion is case sensitive if the string contains upper case letters.
      * Otherwise the completion is case insensitive.
+     * The most frequent strings are returned first.
      */
     @Override
     public List<String> complete(String toComplete) {
         if(toComplete == null) {
             return new ArrayList<>();
         }
-        if (isTooShortToComplete(toComplete)) {
+        if (toComplete.isEmpty() || isTooShortToComplete(toComplete)) {
             return new ArrayList<>();
         }
-        String lowerCase = toComplete.toLowerCase();
-
-        if (lowerCase.equals(toComplete)) {
-            // user typed in lower case word -> we do an case-insensitive search
-            String ender = AbstractAutoCompleter.incrementLastCharacter(lowerCase);
-            SortedSet<String> subset = indexCaseInsensitive.subSet(lowerCase, ender);
-
-            // As subset only contains lower case strings,
-            // we have to to determine possible strings for each hit
-            List<String> result = new ArrayList<>();
-            for (String s : subset) {
-                result.addAll(possibleStringsForSearchString.get(s));
-            }
-            return result;
-        } else {
-            // user typed in a mix of upper case and lower case,
-            // we assume user wants to have exact search
-            String ender = AbstractAutoCompleter.incrementLastCharacter(toComplete);
-            SortedSet<String> subset = indexCaseSensitive.subSet(toComplete, ender);
-            return new ArrayList<>(subset);
-        }
+
+        // if the user typed in a mix of upper case and lower case, we assume the user wants to have exact search
+        boolean caseSensitive = !toComplete.toLowerCase().equals(toComplete);
+        return index.complete(toComplete, caseSensitive);
     }
 
     /**
-     * Increments the last character of a string.
-     *
-     * Example: incrementLastCharacter("abc") returns "abd".
+     * Returns the strings of the given entry to be completed.
+     */
+    protected abstract List<String> getStringsOfEntry(BibEntry entry);
+
+    /**
+     * {@inheritDoc}
+     * The strings the entry has added before are replaced, so entries may be added again whenever they change.
      */
-    private static String incrementLastCharacter(String toIncrement) {
-        if (toIncrement.isEmpty()) {
-            return "";
+    @Override
+    public void addBibtexEntry(BibEntry entry) {
+        if (entry == null) {
+            return;
+        }
+
+        removeBibtexEntry(entry);
+        String[] strings = getStringsOfEntry(entry).stream().filter(word -> !isTooShortToAdd(word)).distinct()
+                .map(index::add).toArray(String[]::new);
+        if (strings.length > 0) {
+            stringsOfEntries.put(entry.getId(), strings);
+        }
+    }
+
+    @Override
+    public void removeBibtexEntry(BibEntry entry) {
+        if (entry == null) {
+            return;
         }
 
-        char lastChar = toIncrement.charAt(toIncrement.length() - 1);
-        return toIncrement.substring(0, toIncrement.length() - 1) + Character.toString((char) (lastChar + 1));
+        String[] strings = stringsOfEntries.remove(entry.getId());
+        if (strings != null) {
+            for (String word : strings) {
+                index.remove(word);
+            }
+        }
     }
 
     /**
@@ -97,25 +106,46 @@ public abstract class AbstractAutoCompleter implements AutoCompleter<String> {
         return toCheck.length() < preferences.getShortestLengthToComplete();
     }
 
+    private boolean isTooShortToAdd(String word) {
+        return word.length() < getLengthOfShortestWordToAdd();
+    }
+
     @Override
     public void addItemToIndex(String word) {
-        if (word.length() < getLengthOfShortestWordToAdd()) {
+        if (isTooShortToAdd(word) || addedStrings.contains(word)) {
             return;
         }
 
-        indexCaseSensitive.add(word);
+        addedStrings.add(index.add(word));
+    }
 
-        // insensitive treatment
-        // first, add the lower cased word to search index
-        // second, add a mapping from the lower cased word to the real word
-        String lowerCase = word.toLowerCase();
-        indexCaseInsensitive.add(lowerCase);
-        Set<String> set = possibleStringsForSearchString.get(lowerCase);
-        if (set == null) {
-            set = new TreeSet<>();
+    /**
+     * {@inheritDoc}
+     * The index is shared with the given auto completer afterwards, so the given one should not be used anymore.
+     */
+    @Override
+    public boolean takeOverIndexOf(AutoCompleter<String> previous) {
+        if (!(previous instanceof AbstractAutoCompleter)) {
+            return false;
         }
-        set.add(word);
-        possibleStringsForSearchString.put(lowerCase, set);
+        AbstractAutoCompleter other = (AbstractAutoCompleter) previous;
+        if (!hasSameStringsOfEntries(other)) {
+            return false;
+        }
+
+        index = other.index;
+        stringsOfEntries = other.stringsOfEntries;
+        addedStrings = other.addedStrings;
+        return true;
+    }
+
+    /**
+     * Returns whether the given auto completer adds the same strings of each entry to its index as this one.
+     * Subclasses have to extend this check by the settings {@link #getStringsOfEntry(BibEntry)} depends on.
+     */
+    protected boolean hasSameStringsOfEntries(AbstractAutoCompleter other) {
+        return getClass().equals(other.getClass())
+                && (getLengthOfShortestWordToAdd() == other.getLengthOfShortestWordToAdd());
     }
 
     @Override
@@ -24,6 +24,11 @@ public interface AutoCompleter<E> {
      */
     void addBibtexEntry(BibEntry entry);
 
+    /**
+     * Removes the information stored for a BibEntry from this AutoCompleter.
+     */
+    void removeBibtexEntry(BibEntry entry);
+
     /**
      * States whether the field consists of multiple values (false) or of a single value (true)
      *
@@ -54,4 +59,12 @@ public interface AutoCompleter<E> {
      * @param item item to add
      */
     void addItemToIndex(E item);
+
+    /**
+     * Takes over the information the given AutoCompleter has stored, if it stores the same information for each
+     * BibEntry as this one. Then the BibEntries need not be added again.
+     *
+     * @return whether the information has been taken over
+     */
+    boolean takeOverIndexOf(AutoCompleter<E> previous);
 }
@@ -3,7 +3,6 @@ package net.sf.jabref.logic.autocompleter;
 import java.util.HashMap;
 import java.util.Map;
 
-import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
 
 class AutoCompleters {
@@ -16,12 +15,6 @@ class AutoCompleters {
         return autoCompleters.get(fieldName);
     }
 
-    protected void addDatabase(BibDatabase database) {
-        for (BibEntry entry : database.getEntries()) {
-            addEntry(entry);
-        }
-    }
-
     /**
      * This methods assures all words in the given entry are recorded in their
      * respective Completers, if any.
@@ -32,6 +25,15 @@ class AutoCompleters {
         }
     }
 
+    /**
+     * This methods removes the words of the given entry from their respective Completers, if any.
+     */
+    public void removeEntry(BibEntry bibEntry) {
+        for (AutoCompleter<String> autoCompleter : autoCompleters.values()) {
+            autoCompleter.removeBibtexEntry(bibEntry);
+        }
+    }
+
     protected void put(String field, AutoCompleter<String> autoCompleter) {
         autoCompleters.put(field, autoCompleter);
     }
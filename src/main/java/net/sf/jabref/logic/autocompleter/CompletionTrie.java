@@ -0,0 +1,319 @@
+package net.sf.jabref.logic.autocompleter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the occurrences of words and delivers the words starting with a given prefix, the most frequent first.
+ * <p>
+ * The words are stored in a radix tree of their lower case forms, so a case insensitive completion only visits the
+ * words having the prefix. Each node is labeled with the characters which lead to it from its parent, so a chain of
+ * nodes without branches and without words is stored as a single node. Words which only differ in case share their
+ * node. A word is stored only once, however often it occurs, and {@link #add(String)} returns the stored instance, so
+ * callers may hold on to it without duplicating it.
+ */
+class CompletionTrie {
+
+    private static final char[] NO_FIRST_CHARS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String[] NO_WORDS = new String[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final Node root = new Node("");
+    private int size;
+
+
+    /**
+     * Adds an occurrence of the given word.
+     *
+     * @return the instance of the word stored in the trie
+     */
+    public String add(String word) {
+        Node node = root;
+        String lowerCase = word.toLowerCase();
+        int position = 0;
+        while (position < lowerCase.length()) {
+            int index = Arrays.binarySearch(node.firstChars, lowerCase.charAt(position));
+            if (index < 0) {
+                Node child = new Node(lowerCase.substring(position));
+                node.addChild(-index - 1, child);
+                node = child;
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, lowerCase, position);
+            if (common < child.label.length()) {
+                // the word leaves the label of the child, so the child is split where they differ
+                Node head = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                head.firstChars = new char[] {child.label.charAt(0)};
+                head.children = new Node[] {child};
+                node.children[index] = head;
+                child = head;
+            }
+            node = child;
+            position += common;
+        }
+
+        int index = node.indexOf(word);
+        if (index >= 0) {
+            node.counts[index]++;
+            return node.words[index];
+        }
+        node.words = Arrays.copyOf(node.words, node.words.length + 1);
+        node.words[node.words.length - 1] = word;
+        node.counts = Arrays.copyOf(node.counts, node.counts.length + 1);
+        node.counts[node.counts.length - 1] = 1;
+        size++;
+        return word;
+    }
+
+    /**
+     * Removes an occurrence of the given word. The word is removed completely when it no longer occurs.
+     */
+    public void remove(String word) {
+        String lowerCase = word.toLowerCase();
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int position = 0;
+        while (position < lowerCase.length()) {
+            path.push(node);
+            Node child = node.getChild(lowerCase.charAt(position));
+            if ((child == null) || !lowerCase.startsWith(child.label, position)) {
+                return;
+            }
+            position += child.label.length();
+            node = child;
+        }
+
+        int index = node.indexOf(word);
+        if (index < 0) {
+            return;
+        }
+        node.counts[index]--;
+        if (node.counts[index] > 0) {
+            return;
+        }
+
+        node.words = remove(node.words, index, new String[node.words.length - 1]);
+        int[] counts = new int[node.counts.length - 1];
+        System.arraycopy(node.counts, 0, counts, 0, index);
+        System.arraycopy(node.counts, index + 1, counts, index, counts.length - index);
+        node.counts = counts;
+        size--;
+
+        // prune the node if it does not lead to any word anymore, and merge what is left into a single chain
+        if ((node != root) && node.isEmpty()) {
+            Node parent = path.pop();
+            parent.removeChild(node.label.charAt(0));
+            node = parent;
+        }
+        if ((node != root) && (node.words.length == 0) && (node.children.length == 1)) {
+            node.mergeWithOnlyChild();
+        }
+    }
+
+    /**
+     * Returns how often the given word occurs.
+     */
+    public int getCount(String word) {
+        Node node = find(word.toLowerCase(), false);
+        if (node == null) {
+            return 0;
+        }
+        int index = node.indexOf(word);
+        return index < 0 ? 0 : node.counts[index];
+    }
+
+    /**
+     * Returns the number of distinct words.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of nodes, including the root.
+     */
+    int getNodeCount() {
+        int count = 0;
+        Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.push(root);
+        while (!toVisit.isEmpty()) {
+            count++;
+            for (Node child : toVisit.pop().children) {
+                toVisit.push(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the words starting with the given prefix, the most frequent first. Words occurring equally often are
+     * ordered alphabetically.
+     *
+     * @param caseSensitive whether the words have to start with the prefix exactly, otherwise the case is ignored
+     */
+    public List<String> complete(String prefix, boolean caseSensitive) {
+        Node node = find(prefix.toLowerCase(), true);
+        if (node == null) {
+            return new ArrayList<>();
+        }
+
+        List<Completion> completions = new ArrayList<>();
+        Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.push(node);
+        while (!toVisit.isEmpty()) {
+            Node current = toVisit.pop();
+            for (int i = 0; i < current.words.length; i++) {
+                if (!caseSensitive || current.words[i].startsWith(prefix)) {
+                    completions.add(new Completion(current.words[i], current.counts[i]));
+                }
+            }
+            for (Node child : current.children) {
+                toVisit.push(child);
+            }
+        }
+
+        completions.sort(
+                Comparator.comparingInt((Completion completion) -> completion.count).reversed()
+                        .thenComparing(completion -> completion.word));
+        return completions.stream().map(completion -> completion.word).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the node of the given lower case form, or null if there is none.
+     *
+     * @param prefix whether the node of the shortest form starting with the given one is looked for instead
+     */
+    private Node find(String lowerCase, boolean prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < lowerCase.length()) {
+            Node child = node.getChild(lowerCase.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            if (!lowerCase.startsWith(child.label, position)) {
+                boolean endsInLabel = child.label.startsWith(lowerCase.substring(position));
+                return prefix && endsInLabel ? child : null;
+            }
+            position += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String label, String word, int offset) {
+        int length = Math.min(label.length(), word.length() - offset);
+        int i = 0;
+        while ((i < length) && (label.charAt(i) == word.charAt(offset + i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static <T> T[] remove(T[] array, int index, T[] target) {
+        System.arraycopy(array, 0, target, 0, index);
+        System.arraycopy(array, index + 1, target, index, target.length - index);
+        return target;
+    }
+
+
+    private static class Completion {
+
+        private final String word;
+        private final int count;
+
+
+        Completion(String word, int count) {
+            this.word = word;
+            this.count = count;
+        }
+    }
+
+    /**
+     * A node of the trie. The children are sorted by the first characters of their labels, which differ, so they can
+     * be searched binarily.
+     */
+    private static class Node {
+
+        // the lower case characters leading from the parent to this node, empty for the root only
+        private String label;
+        private char[] firstChars = NO_FIRST_CHARS;
+        private Node[] children = NO_CHILDREN;
+        // the words whose lower case form ends here, and how often each of them occurs
+        private String[] words = NO_WORDS;
+        private int[] counts = NO_COUNTS;
+
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node getChild(char firstChar) {
+            int index = Arrays.binarySearch(firstChars, firstChar);
+            return index < 0 ? null : children[index];
+        }
+
+        void addChild(int insertionPoint, Node child) {
+            char[] newFirstChars = new char[firstChars.length + 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, insertionPoint);
+            System.arraycopy(firstChars, insertionPoint, newFirstChars, insertionPoint + 1,
+                    firstChars.length - insertionPoint);
+            newFirstChars[insertionPoint] = child.label.charAt(0);
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+            System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1,
+                    children.length - insertionPoint);
+            newChildren[insertionPoint] = child;
+
+            firstChars = newFirstChars;
+            children = newChildren;
+        }
+
+        void removeChild(char firstChar) {
+            int index = Arrays.binarySearch(firstChars, firstChar);
+            if (index < 0) {
+                return;
+            }
+
+            char[] newFirstChars = new char[firstChars.length - 1];
+            System.arraycopy(firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(firstChars, index + 1, newFirstChars, index, newFirstChars.length - index);
+            firstChars = newFirstChars;
+            children = remove(children, index, new Node[children.length - 1]);
+        }
+
+        /**
+         * Takes over the label, the children and the words of the only child, which is dropped.
+         */
+        void mergeWithOnlyChild() {
+            Node child = children[0];
+            label = label + child.label;
+            firstChars = child.firstChars;
+            children = child.children;
+            words = child.words;
+            counts = child.counts;
+        }
+
+        int indexOf(String word) {
+            for (int i = 0; i < words.length; i++) {
+                if (words[i].equals(word)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        boolean isEmpty() {
+            return (children.length == 0) && (words.length == 0);
+        }
+    }
+}
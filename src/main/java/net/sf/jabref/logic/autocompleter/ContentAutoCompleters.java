@@ -15,6 +15,19 @@ public class ContentAutoCompleters extends AutoCompleters {
 
     public ContentAutoCompleters(BibDatabase database, MetaData metaData, AutoCompletePreferences preferences,
             JournalAbbreviationLoader abbreviationLoader) {
+        this(database, metaData, preferences, abbreviationLoader, null);
+    }
+
+    /**
+     * Creates the auto completers of the given database. The indexes of the given previous auto completers of the
+     * same database are taken over where they still fit the preferences, so only the auto completers of fields
+     * which are completed differently now are filled from the database. The previous auto completers should not be
+     * used anymore afterwards.
+     *
+     * @param previous the auto completers created before, may be null
+     */
+    public ContentAutoCompleters(BibDatabase database, MetaData metaData, AutoCompletePreferences preferences,
+            JournalAbbreviationLoader abbreviationLoader, ContentAutoCompleters previous) {
         Objects.requireNonNull(preferences);
 
         AutoCompleterFactory autoCompleterFactory = new AutoCompleterFactory(preferences, abbreviationLoader);
@@ -22,9 +35,12 @@ public class ContentAutoCompleters extends AutoCompleters {
         for (String field : completeFields) {
             AutoCompleter<String> autoCompleter = autoCompleterFactory.getFor(field);
             put(field, autoCompleter);
-        }
 
-        addDatabase(database);
+            AutoCompleter<String> previousAutoCompleter = previous == null ? null : previous.get(field);
+            if ((previousAutoCompleter == null) || !autoCompleter.takeOverIndexOf(previousAutoCompleter)) {
+                database.getEntries().forEach(autoCompleter::addBibtexEntry);
+            }
+        }
 
         addContentSelectorValuesToAutoCompleters(metaData);
     }
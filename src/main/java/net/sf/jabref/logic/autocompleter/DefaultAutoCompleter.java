@@ -1,5 +1,7 @@
 package net.sf.jabref.logic.autocompleter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.StringTokenizer;
 
@@ -26,6 +28,11 @@ class DefaultAutoCompleter extends AbstractAutoCompleter {
         this.fieldName = Objects.requireNonNull(fieldName);
     }
 
+    @Override
+    protected boolean hasSameStringsOfEntries(AbstractAutoCompleter other) {
+        return super.hasSameStringsOfEntries(other) && fieldName.equals(((DefaultAutoCompleter) other).fieldName);
+    }
+
     @Override
     public boolean isSingleUnitField() {
         return false;
@@ -36,16 +43,14 @@ class DefaultAutoCompleter extends AbstractAutoCompleter {
      * Stores all words in the given field which are separated by SEPARATING_CHARS.
      */
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
-
+    protected List<String> getStringsOfEntry(BibEntry entry) {
+        List<String> words = new ArrayList<>();
         entry.getFieldOptional(fieldName).ifPresent(fieldValue -> {
             StringTokenizer tok = new StringTokenizer(fieldValue, SEPARATING_CHARS);
             while (tok.hasMoreTokens()) {
-                addItemToIndex(tok.nextToken());
+                words.add(tok.nextToken());
             }
         });
+        return words;
     }
 }
@@ -1,5 +1,7 @@
 package net.sf.jabref.logic.autocompleter;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import net.sf.jabref.model.entry.BibEntry;
@@ -23,6 +25,11 @@ class EntireFieldAutoCompleter extends AbstractAutoCompleter {
         this.fieldName = Objects.requireNonNull(fieldName);
     }
 
+    @Override
+    protected boolean hasSameStringsOfEntries(AbstractAutoCompleter other) {
+        return super.hasSameStringsOfEntries(other) && fieldName.equals(((EntireFieldAutoCompleter) other).fieldName);
+    }
+
     @Override
     public boolean isSingleUnitField() {
         return true;
@@ -33,11 +40,8 @@ class EntireFieldAutoCompleter extends AbstractAutoCompleter {
      * Stores the full original value of the given field.
      */
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
-
-        entry.getFieldOptional(fieldName).ifPresent(fieldValue -> addItemToIndex(fieldValue.trim()));
+    protected List<String> getStringsOfEntry(BibEntry entry) {
+        return entry.getFieldOptional(fieldName).map(fieldValue -> Collections.singletonList(fieldValue.trim()))
+                .orElse(Collections.emptyList());
     }
 }
@@ -57,6 +57,19 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
                 .getFirstnameMode();
     }
 
+    @Override
+    protected boolean hasSameStringsOfEntries(AbstractAutoCompleter other) {
+        if (!super.hasSameStringsOfEntries(other)) {
+            return false;
+        }
+        NameFieldAutoCompleter otherNameFieldAutoCompleter = (NameFieldAutoCompleter) other;
+        return fieldNames.equals(otherNameFieldAutoCompleter.fieldNames)
+                && (lastNameOnlyAndSeparationBySpace == otherNameFieldAutoCompleter.lastNameOnlyAndSeparationBySpace)
+                && (autoCompFF == otherNameFieldAutoCompleter.autoCompFF)
+                && (autoCompLF == otherNameFieldAutoCompleter.autoCompLF)
+                && (autoCompFirstnameMode == otherNameFieldAutoCompleter.autoCompFirstnameMode);
+    }
+
     @Override
     public boolean isSingleUnitField() {
         // quick hack
@@ -71,18 +84,17 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
     }
 
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
+    protected List<String> getStringsOfEntry(BibEntry entry) {
+        List<String> names = new ArrayList<>();
         for (String fieldName : fieldNames) {
             entry.getFieldOptional(fieldName).ifPresent(fieldValue ->  {
                 AuthorList authorList = AuthorList.parse(fieldValue);
                 for (Author author : authorList.getAuthors()) {
-                    handleAuthor(author);
+                    handleAuthor(author, names);
                 }
             });
         }
+        return names;
     }
 
     /**
@@ -103,21 +115,21 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
         return result;
     }
 
-    private void handleAuthor(Author author) {
+    private void handleAuthor(Author author, List<String> names) {
         if (lastNameOnlyAndSeparationBySpace) {
-            addItemToIndex(author.getLastOnly());
+            names.add(author.getLastOnly());
         } else {
             if (autoCompLF) {
                 switch (autoCompFirstnameMode) {
                 case ONLY_ABBREVIATED:
-                    addItemToIndex(author.getLastFirst(true));
+                    names.add(author.getLastFirst(true));
                     break;
                 case ONLY_FULL:
-                    addItemToIndex(author.getLastFirst(false));
+                    names.add(author.getLastFirst(false));
                     break;
                 case BOTH:
-                    addItemToIndex(author.getLastFirst(true));
-                    addItemToIndex(author.getLastFirst(false));
+                    names.add(author.getLastFirst(true));
+                    names.add(author.getLastFirst(false));
                     break;
                 default:
                     break;
@@ -126,14 +138,14 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
             if (autoCompFF) {
                 switch (autoCompFirstnameMode) {
                 case ONLY_ABBREVIATED:
-                    addItemToIndex(author.getFirstLast(true));
+                    names.add(author.getFirstLast(true));
                     break;
                 case ONLY_FULL:
-                    addItemToIndex(author.getFirstLast(false));
+                    names.add(author.getFirstLast(false));
                     break;
                 case BOTH:
-                    addItemToIndex(author.getFirstLast(true));
-                    addItemToIndex(author.getFirstLast(false));
+                    names.add(author.getFirstLast(true));
+                    names.add(author.getFirstLast(false));
                     break;
                 default:
                     break;
@@ -0,0 +1,205 @@
+package net.sf.jabref.logic.bibtexkeypattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.MetaData;
+import net.sf.jabref.model.bibtexkeypattern.AbstractBibtexKeyPattern;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Generates BibTeX keys for many entries at once.
+ * <p>
+ * The key pattern of an entry type is split into its literal text and its field markers only once, so the same
+ * generator should be used for all entries of an operation. The generator neither modifies the entries nor the
+ * database, and it may be used by several threads at a time.
+ * <p>
+ * The keys are made unique following the rules of
+ * {@link BibtexKeyPatternUtil#makeLabel(MetaData, BibDatabase, BibEntry, BibtexKeyPatternPreferences)}, but against a
+ * count of the keys in use instead of looking up every candidate in the database.
+ */
+public class BibtexKeyGenerator {
+
+    private static final Log LOGGER = LogFactory.getLog(BibtexKeyGenerator.class);
+
+    private final AbstractBibtexKeyPattern keyPattern;
+    private final BibDatabase database;
+    private final BibtexKeyPatternPreferences preferences;
+    private final Optional<Pattern> keyPatternRegex;
+    // the compiled key patterns by entry type
+    private final Map<String, List<KeyPart>> compiledPatterns = new ConcurrentHashMap<>();
+
+
+    public BibtexKeyGenerator(MetaData metaData, BibDatabase database, BibtexKeyPatternPreferences preferences) {
+        this(metaData.getBibtexKeyPattern(preferences.getKeyPattern()), database, preferences);
+    }
+
+    public BibtexKeyGenerator(AbstractBibtexKeyPattern keyPattern, BibDatabase database,
+            BibtexKeyPatternPreferences preferences) {
+        this.keyPattern = keyPattern;
+        this.database = database;
+        this.preferences = preferences;
+
+        String regex = preferences.getKeyPatternRegex();
+        if ((regex == null) || regex.trim().isEmpty()) {
+            keyPatternRegex = Optional.empty();
+        } else {
+            keyPatternRegex = Optional.of(Pattern.compile(regex));
+        }
+    }
+
+    /**
+     * Generates the key of the given entry according to the key pattern of its type, without making it unique.
+     */
+    public String generateKey(BibEntry entry) {
+        StringBuilder stringBuilder = new StringBuilder();
+        try {
+            for (KeyPart part : compiledPatterns.computeIfAbsent(entry.getType(), this::compile)) {
+                part.appendTo(stringBuilder, entry, database);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Cannot make label", e);
+        }
+
+        // Remove all illegal characters from the key.
+        String key = BibtexKeyPatternUtil.checkLegalKey(stringBuilder.toString(), preferences.isEnforceLegalKey());
+
+        // Remove Regular Expressions while generating Keys
+        if (keyPatternRegex.isPresent()) {
+            key = keyPatternRegex.get().matcher(key).replaceAll(preferences.getKeyPatternReplacement());
+        }
+        return key;
+    }
+
+    /**
+     * Generates the keys of the given entries in parallel, without making them unique.
+     *
+     * @return the keys, in the order of the given entries
+     */
+    public List<String> generateKeys(List<BibEntry> entries) {
+        return entries.parallelStream().map(this::generateKey).collect(Collectors.toList());
+    }
+
+    /**
+     * Generates unique keys for the given entries, without setting them.
+     * <p>
+     * The result is the same as giving the entries their keys one after the other: Each key is unique among the keys
+     * in the database and the keys of the preceding entries. The current key of an entry in the database is replaced
+     * by its new key, so an entry can keep its key.
+     *
+     * @return the unique keys, in the order of the given entries
+     */
+    public List<String> generateUniqueKeys(List<BibEntry> entries) {
+        List<String> keys = generateKeys(entries);
+
+        Map<String, Integer> keyCounts = new HashMap<>();
+        for (BibEntry entry : database.getEntries()) {
+            entry.getCiteKeyOptional().ifPresent(key -> keyCounts.merge(key, 1, Integer::sum));
+        }
+        // the first suffix number which may be free, by key
+        Map<String, Integer> firstFreeNumbers = new HashMap<>();
+
+        List<String> uniqueKeys = new ArrayList<>(keys.size());
+        for (int i = 0; i < entries.size(); i++) {
+            BibEntry entry = entries.get(i);
+            Optional<String> oldKey = entry.getCiteKeyOptional();
+            if (oldKey.isPresent() && database.containsEntryWithId(entry.getId())) {
+                keyCounts.computeIfPresent(oldKey.get(), (key, count) -> count == 1 ? null : count - 1);
+                if (!keyCounts.containsKey(oldKey.get())) {
+                    // the old key might have been a suffixed one, which is free again
+                    firstFreeNumbers.clear();
+                }
+            }
+
+            String key = keys.get(i);
+            String uniqueKey;
+            if (!preferences.isAlwaysAddLetter() && !keyCounts.containsKey(key)) {
+                uniqueKey = key;
+            } else {
+                int number = firstFreeNumbers.getOrDefault(key, getFirstSuffixNumber());
+                while (keyCounts.containsKey(key + BibtexKeyPatternUtil.getAddition(number))) {
+                    number++;
+                }
+                firstFreeNumbers.put(key, number + 1);
+                uniqueKey = key + BibtexKeyPatternUtil.getAddition(number);
+            }
+            keyCounts.merge(uniqueKey, 1, Integer::sum);
+            uniqueKeys.add(uniqueKey);
+        }
+        return uniqueKeys;
+    }
+
+    private int getFirstSuffixNumber() {
+        // "a" is skipped unless the letter is always added or explicitly wanted
+        if (preferences.isAlwaysAddLetter() || preferences.isFirstLetterA()) {
+            return 0;
+        } else {
+            return 1;
+        }
+    }
+
+    private List<KeyPart> compile(String entryType) {
+        List<String> typeList = keyPattern.getValue(entryType);
+        if ((typeList == null) || typeList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<KeyPart> parts = new ArrayList<>();
+        boolean field = false;
+        // the first element is the complete pattern
+        for (String typeListEntry : typeList.subList(1, typeList.size())) {
+            if ("[".equals(typeListEntry)) {
+                field = true;
+            } else if ("]".equals(typeListEntry)) {
+                field = false;
+            } else if (field) {
+                // check whether there is a modifier on the end such as ":lower"
+                parts.add(new KeyPart(null, BibtexKeyPatternUtil.parseFieldMarker(typeListEntry)));
+            } else {
+                parts.add(new KeyPart(typeListEntry, null));
+            }
+        }
+        return parts;
+    }
+
+
+    /**
+     * Either literal text or a field marker with its modifiers.
+     */
+    private static class KeyPart {
+
+        private final String text;
+        private final String[] fieldMarker;
+
+
+        KeyPart(String text, String[] fieldMarker) {
+            this.text = text;
+            this.fieldMarker = fieldMarker;
+        }
+
+        void appendTo(StringBuilder key, BibEntry entry, BibDatabase database) {
+            if (fieldMarker == null) {
+                key.append(text);
+                return;
+            }
+
+            String label = BibtexKeyPatternUtil.makeLabel(entry, fieldMarker[0], database);
+            // apply modifier if present
+            if (fieldMarker.length > 1) {
+                label = BibtexKeyPatternUtil.applyModifiers(label, fieldMarker, 1);
+            }
+            key.append(label);
+        }
+    }
+}
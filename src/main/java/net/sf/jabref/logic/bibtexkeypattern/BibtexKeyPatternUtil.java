@@ -376,64 +376,7 @@ public class BibtexKeyPatternUtil {
     public static void makeLabel(MetaData metaData, BibDatabase dBase, BibEntry entry,
             BibtexKeyPatternPreferences bibtexKeyPatternPreferences) {
         database = dBase;
-        String key;
-        StringBuilder stringBuilder = new StringBuilder();
-        boolean forceUpper = false;
-        boolean forceLower = false;
-
-        try {
-            // get the type of entry
-            String entryType = entry.getType();
-            // Get the arrayList corresponding to the type
-            List<String> typeList = new ArrayList<>(
-                    metaData.getBibtexKeyPattern(bibtexKeyPatternPreferences.getKeyPattern()).getValue(entryType));
-            if (!typeList.isEmpty()) {
-                typeList.remove(0);
-            }
-            boolean field = false;
-            for (String typeListEntry : typeList) {
-                if ("[".equals(typeListEntry)) {
-                    field = true;
-                } else if ("]".equals(typeListEntry)) {
-                    field = false;
-                } else if (field) {
-                    // check whether there is a modifier on the end such as
-                    // ":lower"
-                    String[] parts = parseFieldMarker(typeListEntry);
-
-                    String label = makeLabel(entry, parts[0]);
-
-                    // apply modifier if present
-                    if (parts.length > 1) {
-                        label = applyModifiers(label, parts, 1);
-                    }
-
-                    stringBuilder.append(label);
-
-                } else {
-                    stringBuilder.append(typeListEntry);
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.warn("Cannot make label", e);
-        }
-
-        // Remove all illegal characters from the key.
-        key = checkLegalKey(stringBuilder.toString(), bibtexKeyPatternPreferences.isEnforceLegalKey());
-
-        // Remove Regular Expressions while generating Keys
-        String regex = bibtexKeyPatternPreferences.getKeyPatternRegex();
-        if ((regex != null) && !regex.trim().isEmpty()) {
-            String replacement = bibtexKeyPatternPreferences.getKeyPatternReplacement();
-            key = key.replaceAll(regex, replacement);
-        }
-
-        if (forceUpper) {
-            key = key.toUpperCase(Locale.ENGLISH);
-        }
-        if (forceLower) {
-            key = key.toLowerCase(Locale.ENGLISH);
-        }
+        String key = new BibtexKeyGenerator(metaData, dBase, bibtexKeyPatternPreferences).generateKey(entry);
 
         String oldKey = entry.getCiteKeyOptional().orElse(null);
         int occurrences = database.getNumberOfKeyOccurrences(key);
@@ -537,6 +480,14 @@ public class BibtexKeyPatternUtil {
     }
 
     public static String makeLabel(BibEntry entry, String value) {
+        return makeLabel(entry, value, database);
+    }
+
+    /**
+     * Generates the label for the given field marker, resolving strings in the author and editor fields against the
+     * given database.
+     */
+    public static String makeLabel(BibEntry entry, String value, BibDatabase bibDatabase) {
         String val = value;
         try {
             if (val.startsWith("auth") || val.startsWith("pureauth")) {
@@ -552,7 +503,7 @@ public class BibtexKeyPatternUtil {
                  * substitution of editor.
                  */
                 String authString = entry.getFieldOptional(FieldName.AUTHOR)
-                        .map(authorString -> normalize(database.resolveForStrings(authorString))).orElse("");
+                        .map(authorString -> normalize(bibDatabase.resolveForStrings(authorString))).orElse("");
 
                 if (val.startsWith("pure")) {
                     // remove the "pure" prefix so the remaining
@@ -562,7 +513,7 @@ public class BibtexKeyPatternUtil {
 
                 if (authString.isEmpty()) {
                     authString = entry.getFieldOptional(FieldName.EDITOR)
-                            .map(authorString -> normalize(database.resolveForStrings(authorString))).orElse("");
+                            .map(authorString -> normalize(bibDatabase.resolveForStrings(authorString))).orElse("");
                 }
 
                 // Gather all author-related checks, so we don't
@@ -763,7 +714,7 @@ public class BibtexKeyPatternUtil {
      *            The appendix number.
      * @return The String to append.
      */
-    private static String getAddition(int number) {
+    static String getAddition(int number) {
         if (number >= CHARS.length()) {
             int lastChar = number % CHARS.length();
             return getAddition((number / CHARS.length()) - 1) + CHARS.substring(lastChar, lastChar + 1);
@@ -1291,7 +1242,7 @@ public class BibtexKeyPatternUtil {
      * @param arg The argument string.
      * @return An array of strings representing the parts of the marker
      */
-    private static String[] parseFieldMarker(String arg) {
+    static String[] parseFieldMarker(String arg) {
         List<String> parts = new ArrayList<>();
         StringBuilder current = new StringBuilder();
         boolean escaped = false;
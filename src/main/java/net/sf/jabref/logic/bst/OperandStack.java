@@ -0,0 +1,54 @@
+package net.sf.jabref.logic.bst;
+
+import java.util.Arrays;
+
+/**
+ * The operand stack of the {@link VM}, holding strings, integers, and functions.
+ *
+ * In contrast to {@link java.util.Stack}, the stack is not synchronized, as a VM is only used by one thread at a time,
+ * and it may hold null, which designates missing fields.
+ */
+public class OperandStack {
+
+    private Object[] elements = new Object[32];
+
+    private int size;
+
+
+    public void push(Object element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+        }
+        elements[size++] = element;
+    }
+
+    public Object pop() {
+        if (size == 0) {
+            throw new VMException("Not enough operands on stack");
+        }
+        size--;
+        Object element = elements[size];
+        elements[size] = null;
+        return element;
+    }
+
+    public Object peek() {
+        if (size == 0) {
+            throw new VMException("Not enough operands on stack");
+        }
+        return elements[size - 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+}
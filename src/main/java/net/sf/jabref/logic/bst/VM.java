@@ -6,10 +6,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
-import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,13 +43,37 @@ public class VM implements Warn {
 
     private List<BstEntry> entries;
 
-    private Map<String, String> strings = new HashMap<>();
+    private Map<String, BstFunction> functions = new HashMap<>();
 
-    private Map<String, Integer> integers = new HashMap<>();
+    private final OperandStack stack = new OperandStack();
 
-    private Map<String, BstFunction> functions = new HashMap<>();
+    // Slots of the variables and functions by their names. The names are declared and the functions are compiled
+    // once, when the VM is created, so a VM can run many times without looking at the tree again.
+    private final Map<String, Integer> globalStringSlots = new LinkedHashMap<>();
+
+    private final Map<String, Integer> globalIntegerSlots = new LinkedHashMap<>();
+
+    private final Map<String, Integer> fieldSlots = new LinkedHashMap<>();
+
+    private final Map<String, Integer> entryStringSlots = new LinkedHashMap<>();
+
+    private final Map<String, Integer> entryIntegerSlots = new LinkedHashMap<>();
+
+    private final Map<String, Integer> functionSlots = new HashMap<>();
+
+    private final Map<String, Reference> references = new HashMap<>();
+
+    private final Map<Tree, StackFunction> compiledFunctions = new HashMap<>();
+
+    // whether the style declares the crossref field itself, otherwise it is always missing
+    private boolean crossrefDeclared;
 
-    private Stack<Object> stack = new Stack<>();
+    // Values of the global variables and the functions defined so far in the current run, indexed by slot
+    private String[] globalStrings;
+
+    private int[] globalIntegers;
+
+    private BstFunction[] functionTable;
 
     public static final Integer FALSE = 0;
 
@@ -73,9 +96,17 @@ public class VM implements Warn {
 
         public final String name;
 
+        // the variables and the function the name refers to, if the identifier is part of a compiled function
+        private final Reference reference;
+
 
         public Identifier(String name) {
+            this(name, null);
+        }
+
+        private Identifier(String name, Reference reference) {
             this.name = name;
+            this.reference = reference;
         }
 
         public String getName() {
@@ -355,8 +386,8 @@ public class VM implements Warn {
             Object f2 = stack.pop();
             Object i = stack.pop();
 
-            if (!((f1 instanceof Identifier) || (f1 instanceof Tree))
-                    && ((f2 instanceof Identifier) || (f2 instanceof Tree)) && (i instanceof Integer)) {
+            if (!((f1 instanceof Identifier) || (f1 instanceof StackFunction))
+                    && ((f2 instanceof Identifier) || (f2 instanceof StackFunction)) && (i instanceof Integer)) {
                 throw new VMException("Expecting two functions and an integer for if$.");
             }
 
@@ -504,7 +535,7 @@ public class VM implements Warn {
          * designers while debugging.
          */
         buildInFunctions.put("stack$", context -> {
-            while (!stack.empty()) {
+            while (!stack.isEmpty()) {
                 LOGGER.debug(stack.pop());
             }
         });
@@ -617,6 +648,8 @@ public class VM implements Warn {
             VM.this.bbl.append(s);
         });
 
+        declare();
+        initialize();
     }
 
     private void textLengthFunction() {
@@ -706,8 +739,8 @@ public class VM implements Warn {
         Object f2 = stack.pop();
         Object f1 = stack.pop();
 
-        if (!((f1 instanceof Identifier) || (f1 instanceof Tree))
-                && ((f2 instanceof Identifier) || (f2 instanceof Tree))) {
+        if (!((f1 instanceof Identifier) || (f1 instanceof StackFunction))
+                && ((f2 instanceof Identifier) || (f2 instanceof StackFunction))) {
             throw new VMException("Expecting two functions for while$.");
         }
 
@@ -801,34 +834,35 @@ public class VM implements Warn {
 
     private boolean assign(BstEntry context, Object o1, Object o2) {
 
-        if (!(o1 instanceof Identifier) || !((o2 instanceof String) || (o2 instanceof Integer))) {
+        // null, e.g. the value of a missing field, cannot be assigned to any variable
+        if ((o2 == null) || !(o1 instanceof Identifier) || !((o2 instanceof String) || (o2 instanceof Integer))) {
             throw new VMException("Invalid parameters");
         }
 
-        String name = ((Identifier) o1).getName();
+        Reference reference = resolve((Identifier) o1);
 
         if (o2 instanceof String) {
 
-            if ((context != null) && context.localStrings.containsKey(name)) {
-                context.localStrings.put(name, (String) o2);
+            if ((context != null) && (reference.entryString >= 0)) {
+                context.localStrings[reference.entryString] = (String) o2;
                 return true;
             }
 
-            if (strings.containsKey(name)) {
-                strings.put(name, (String) o2);
+            if (reference.globalString >= 0) {
+                globalStrings[reference.globalString] = (String) o2;
                 return true;
             }
             return false;
 
         }
 
-        if ((context != null) && context.localIntegers.containsKey(name)) {
-            context.localIntegers.put(name, (Integer) o2);
+        if ((context != null) && (reference.entryInteger >= 0)) {
+            context.localIntegers[reference.entryInteger] = (Integer) o2;
             return true;
         }
 
-        if (integers.containsKey(name)) {
-            integers.put(name, (Integer) o2);
+        if (reference.globalInteger >= 0) {
+            globalIntegers[reference.globalInteger] = (Integer) o2;
             return true;
         }
         return false;
@@ -843,24 +877,12 @@ public class VM implements Warn {
     public String run(Collection<BibEntry> bibtex) {
 
         // Reset
-        bbl = new StringBuilder();
-
-        strings = new HashMap<>();
-
-        integers = new HashMap<>();
-        integers.put("entry.max$", Integer.MAX_VALUE);
-        integers.put("global.max$", Integer.MAX_VALUE);
-
-        functions = new HashMap<>();
-        functions.putAll(buildInFunctions);
-
-        stack = new Stack<>();
+        initialize();
 
         // Create entries
         entries = new ArrayList<>(bibtex.size());
-        ListIterator<BstEntry> listIter = entries.listIterator();
         for (BibEntry entry : bibtex) {
-            listIter.add(new BstEntry(entry));
+            entries.add(new BstEntry(entry, fieldSlots, entryStringSlots.size(), entryIntegerSlots.size()));
         }
 
         // Go
@@ -868,10 +890,9 @@ public class VM implements Warn {
             Tree child = tree.getChild(i);
             switch (child.getType()) {
             case BstParser.STRINGS:
-                strings(child);
-                break;
             case BstParser.INTEGERS:
-                integers(child);
+            case BstParser.ENTRY:
+                // declared when the VM has been created
                 break;
             case BstParser.FUNCTION:
                 function(child);
@@ -888,9 +909,6 @@ public class VM implements Warn {
             case BstParser.REVERSE:
                 reverse(child);
                 break;
-            case BstParser.ENTRY:
-                entry(child);
-                break;
             case BstParser.READ:
                 read();
                 break;
@@ -906,6 +924,131 @@ public class VM implements Warn {
         return bbl.toString();
     }
 
+    /**
+     * Resets the variables, the stack, and the output, and forgets the functions defined by the last run.
+     */
+    private void initialize() {
+        bbl = new StringBuilder();
+
+        globalStrings = new String[globalStringSlots.size()];
+
+        globalIntegers = new int[globalIntegerSlots.size()];
+        globalIntegers[globalIntegerSlots.get("entry.max$")] = Integer.MAX_VALUE;
+        globalIntegers[globalIntegerSlots.get("global.max$")] = Integer.MAX_VALUE;
+
+        functions = new HashMap<>(buildInFunctions);
+        functionTable = new BstFunction[functionSlots.size()];
+        for (Map.Entry<String, BstFunction> function : buildInFunctions.entrySet()) {
+            functionTable[functionSlots.get(function.getKey())] = function.getValue();
+        }
+
+        stack.clear();
+    }
+
+    /**
+     * Declares all variables and functions of the program, and compiles the functions. Each name gets a slot, so a
+     * compiled function accesses variables and calls functions by index instead of looking them up by name.
+     */
+    private void declare() {
+        declare(globalIntegerSlots, "entry.max$");
+        declare(globalIntegerSlots, "global.max$");
+        for (String name : buildInFunctions.keySet()) {
+            declare(functionSlots, name);
+        }
+
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            Tree child = tree.getChild(i);
+            switch (child.getType()) {
+            case BstParser.STRINGS:
+                declare(globalStringSlots, child.getChild(0));
+                break;
+            case BstParser.INTEGERS:
+                declare(globalIntegerSlots, child.getChild(0));
+                break;
+            case BstParser.ENTRY:
+                // fields, integer entry variables, and string entry variables
+                declare(fieldSlots, child.getChild(0));
+                declare(entryIntegerSlots, child.getChild(1));
+                declare(entryStringSlots, child.getChild(2));
+                break;
+            case BstParser.FUNCTION:
+            case BstParser.MACRO:
+                declare(functionSlots, child.getChild(0).getText());
+                break;
+            default:
+                break;
+            }
+        }
+        crossrefDeclared = fieldSlots.containsKey(FieldName.CROSSREF);
+        declare(fieldSlots, FieldName.CROSSREF);
+        declare(entryStringSlots, "sort.key$");
+
+        // compile the functions once all names are known
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            Tree child = tree.getChild(i);
+            if (child.getType() == BstParser.FUNCTION) {
+                compiledFunctions.put(child, new StackFunction(child.getChild(1)));
+            }
+        }
+    }
+
+    private static void declare(Map<String, Integer> slots, Tree names) {
+        for (int i = 0; i < names.getChildCount(); i++) {
+            declare(slots, names.getChild(i).getText());
+        }
+    }
+
+    private static void declare(Map<String, Integer> slots, String name) {
+        slots.putIfAbsent(name, slots.size());
+    }
+
+    private Reference resolve(String name) {
+        return references.computeIfAbsent(name,
+                key -> new Reference(key, slotOf(fieldSlots, key), slotOf(entryStringSlots, key),
+                        slotOf(entryIntegerSlots, key), slotOf(globalStringSlots, key),
+                        slotOf(globalIntegerSlots, key), slotOf(functionSlots, key)));
+    }
+
+    private Reference resolve(Identifier identifier) {
+        if (identifier.reference == null) {
+            return resolve(identifier.getName());
+        }
+        return identifier.reference;
+    }
+
+    private static int slotOf(Map<String, Integer> slots, String name) {
+        return slots.getOrDefault(name, -1);
+    }
+
+
+    /**
+     * The variables and the function a name may refer to. Which one it refers to depends on whether there is an
+     * entry and whether the function has been defined already. Slots are -1 if there is no such variable or function.
+     */
+    private static class Reference {
+
+        private final String name;
+        private final int field;
+        private final int entryString;
+        private final int entryInteger;
+        private final int globalString;
+        private final int globalInteger;
+        private final int function;
+
+
+        Reference(String name, int field, int entryString, int entryInteger, int globalString, int globalInteger,
+                int function) {
+            this.name = name;
+            this.field = field;
+            this.entryString = entryString;
+            this.entryInteger = entryInteger;
+            this.globalString = globalString;
+            this.globalInteger = globalInteger;
+            this.function = function;
+        }
+    }
+
+
     /**
      * Dredges up from the database file the field values for each entry in the
      * list. It has no arguments. If a database entry doesn't have a value for a
@@ -915,19 +1058,14 @@ public class VM implements Warn {
      * We use null for the missing entry designator.
      */
     private void read() {
-
+        int crossrefSlot = fieldSlots.get(FieldName.CROSSREF);
         for (BstEntry e : entries) {
 
-            for (Map.Entry<String, String> mEntry : e.getFields().entrySet()) {
-                String fieldValue = e.getBibtexEntry().getField(mEntry.getKey());
-
-                mEntry.setValue(fieldValue);
-            }
-        }
-
-        for (BstEntry e : entries) {
-            if (!e.getFields().containsKey(FieldName.CROSSREF)) {
-                e.getFields().put(FieldName.CROSSREF, null);
+            for (Map.Entry<String, Integer> field : fieldSlots.entrySet()) {
+                int slot = field.getValue();
+                if ((slot != crossrefSlot) || crossrefDeclared) {
+                    e.fields[slot] = e.getBibtexEntry().getField(field.getKey());
+                }
             }
         }
     }
@@ -947,7 +1085,12 @@ public class VM implements Warn {
     private void macro(Tree child) {
         String name = child.getChild(0).getText();
         String replacement = child.getChild(1).getText();
-        functions.put(name, new MacroFunction(replacement));
+        define(name, new MacroFunction(replacement));
+    }
+
+    private void define(String name, BstFunction function) {
+        functions.put(name, function);
+        functionTable[functionSlots.get(name)] = function;
     }
 
 
@@ -967,58 +1110,12 @@ public class VM implements Warn {
     }
 
 
-    /*
-     * Declares the fields and entry variables. It has three arguments, each a
-     * (possibly empty) list of variable names. The three lists are of: fields,
-     * integer entry variables, and string entry variables. There is an
-     * additional field that BibTEX automatically declares, crossref, used for
-     * cross referencing. And there is an additional string entry variable
-     * automatically declared, sort.key$, used by the SORT command. Each of
-     * these variables has a value for each entry on the list.
-     */
-    private void entry(Tree child) {
-        // Fields first
-        Tree t = child.getChild(0);
-
-        for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-
-            for (BstEntry entry : entries) {
-                entry.getFields().put(name, null);
-            }
-        }
-
-        // Integers
-        t = child.getChild(1);
-
-        for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-
-            for (BstEntry entry : entries) {
-                entry.localIntegers.put(name, 0);
-            }
-        }
-        // Strings
-        t = child.getChild(2);
-
-        for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-            for (BstEntry entry : entries) {
-                entry.localStrings.put(name, null);
-            }
-        }
-        for (BstEntry entry : entries) {
-            entry.localStrings.put("sort.key$", null);
-        }
-    }
-
     private void reverse(Tree child) {
 
         BstFunction f = functions.get(child.getChild(0).getText());
 
-        ListIterator<BstEntry> i = entries.listIterator(entries.size());
-        while (i.hasPrevious()) {
-            f.execute(i.previous());
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            f.execute(entries.get(i));
         }
     }
 
@@ -1034,16 +1131,16 @@ public class VM implements Warn {
      * Sorts the entry list using the values of the string entry variable sort.key$. It has no arguments.
      */
     private void sort() {
-        Collections.sort(entries, (o1, o2) -> (o1.localStrings.get("sort.key$"))
-                .compareTo(o2.localStrings.get("sort.key$")));
+        int sortKeySlot = entryStringSlots.get("sort.key$");
+        Collections.sort(entries,
+                (o1, o2) -> (o1.localStrings[sortKeySlot]).compareTo(o2.localStrings[sortKeySlot]));
     }
 
     private void executeInContext(Object o, BstEntry context) {
-        if (o instanceof Tree) {
-            Tree t = (Tree) o;
-            new StackFunction(t).execute(context);
+        if (o instanceof StackFunction) {
+            ((StackFunction) o).execute(context);
         } else if (o instanceof Identifier) {
-            execute(((Identifier) o).getName(), context);
+            execute(resolve((Identifier) o), context);
         }
     }
 
@@ -1052,13 +1149,45 @@ public class VM implements Warn {
     }
 
 
+    /**
+     * A function defined by the style. It is compiled once into an array of instructions, with the literals parsed
+     * and the names resolved to the slots of the variables and functions they refer to.
+     */
     public class StackFunction implements BstFunction {
 
         private final Tree localTree;
 
+        private final BstFunction[] instructions;
+
 
         public StackFunction(Tree stack) {
             localTree = stack;
+            instructions = new BstFunction[stack.getChildCount()];
+            for (int i = 0; i < instructions.length; i++) {
+                instructions[i] = compile(stack.getChild(i));
+            }
+        }
+
+        private BstFunction compile(Tree c) {
+            switch (c.getType()) {
+            case BstParser.STRING:
+                String s = c.getText();
+                String string = s.substring(1, s.length() - 1);
+                return context -> stack.push(string);
+            case BstParser.INTEGER:
+                Integer integer = Integer.parseInt(c.getText().substring(1));
+                return context -> stack.push(integer);
+            case BstParser.QUOTED:
+                String name = c.getText().substring(1);
+                Identifier identifier = new Identifier(name, resolve(name));
+                return context -> stack.push(identifier);
+            case BstParser.STACK:
+                StackFunction function = new StackFunction(c);
+                return context -> stack.push(function);
+            default:
+                Reference reference = resolve(c.getText());
+                return context -> VM.this.execute(reference, context);
+            }
         }
 
         public Tree getTree() {
@@ -1068,35 +1197,15 @@ public class VM implements Warn {
         @Override
         public void execute(BstEntry context) {
 
-            for (int i = 0; i < localTree.getChildCount(); i++) {
-
-                Tree c = localTree.getChild(i);
+            for (int i = 0; i < instructions.length; i++) {
                 try {
-
-                    switch (c.getType()) {
-                    case BstParser.STRING:
-                        String s = c.getText();
-                        push(s.substring(1, s.length() - 1));
-                        break;
-                    case BstParser.INTEGER:
-                        push(Integer.parseInt(c.getText().substring(1)));
-                        break;
-                    case BstParser.QUOTED:
-                        push(new Identifier(c.getText().substring(1)));
-                        break;
-                    case BstParser.STACK:
-                        push(c);
-                        break;
-                    default:
-                        VM.this.execute(c.getText(), context);
-                        break;
-                    }
+                    instructions[i].execute(context);
                 } catch (VMException e) {
+                    int line = localTree.getChild(i).getLine();
                     if (file == null) {
-                        LOGGER.error("ERROR " + e.getMessage() + " (" + c.getLine() + ")");
+                        LOGGER.error("ERROR " + e.getMessage() + " (" + line + ")");
                     } else {
-                        LOGGER.error("ERROR " + e.getMessage() + " (" + file.getPath() + ":"
-                                + c.getLine() + ")");
+                        LOGGER.error("ERROR " + e.getMessage() + " (" + file.getPath() + ":" + line + ")");
                     }
                     throw e;
                 }
@@ -1106,84 +1215,48 @@ public class VM implements Warn {
     }
 
 
-    private void push(Tree t) {
-        stack.push(t);
+    private void execute(String name, BstEntry context) {
+        execute(resolve(name), context);
     }
 
-    private void execute(String name, BstEntry context) {
+    private void execute(Reference reference, BstEntry context) {
 
         if (context != null) {
 
-            if (context.getFields().containsKey(name)) {
-                stack.push(context.getFields().get(name));
+            if (reference.field >= 0) {
+                stack.push(context.fields[reference.field]);
                 return;
             }
-            if (context.localStrings.containsKey(name)) {
-                stack.push(context.localStrings.get(name));
+            if (reference.entryString >= 0) {
+                stack.push(context.localStrings[reference.entryString]);
                 return;
             }
-            if (context.localIntegers.containsKey(name)) {
-                stack.push(context.localIntegers.get(name));
+            if (reference.entryInteger >= 0) {
+                stack.push(context.localIntegers[reference.entryInteger]);
                 return;
             }
         }
-        if (strings.containsKey(name)) {
-            stack.push(strings.get(name));
+        if (reference.globalString >= 0) {
+            stack.push(globalStrings[reference.globalString]);
             return;
         }
-        if (integers.containsKey(name)) {
-            stack.push(integers.get(name));
+        if (reference.globalInteger >= 0) {
+            stack.push(globalIntegers[reference.globalInteger]);
             return;
         }
 
-        if (functions.containsKey(name)) {
+        if ((reference.function >= 0) && (functionTable[reference.function] != null)) {
             // OK to have a null context
-            functions.get(name).execute(context);
+            functionTable[reference.function].execute(context);
             return;
         }
 
-        throw new VMException("No matching identifier found: " + name);
+        throw new VMException("No matching identifier found: " + reference.name);
     }
 
     private void function(Tree child) {
         String name = child.getChild(0).getText();
-        Tree localStack = child.getChild(1);
-        functions.put(name, new StackFunction(localStack));
-
-    }
-
-    /**
-     * Declares global integer variables. It has one argument, a list of
-     * variable names. There are two such automatically-declared variables,
-     * entry.max$ and global.max$, used for limiting the lengths of string vari-
-     * ables. You may have any number of these commands, but a variable's
-     * declaration must precede its use.
-     *
-     * @param child
-     */
-    private void integers(Tree child) {
-        Tree t = child.getChild(0);
-
-        for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-            integers.put(name, 0);
-        }
-    }
-
-    /**
-     * Declares global string variables. It has one argument, a list of variable
-     * names. You may have any number of these commands, but a variable's
-     * declaration must precede its use.
-     *
-     * @param child
-     */
-    private void strings(Tree child) {
-        Tree t = child.getChild(0);
-
-        for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-            strings.put(name, null);
-        }
+        define(name, compiledFunctions.get(child));
     }
 
 
@@ -1191,19 +1264,30 @@ public class VM implements Warn {
 
         private final BibEntry entry;
 
-        private final Map<String, String> localStrings = new HashMap<>();
+        private final Map<String, Integer> fieldSlots;
+
+        private final String[] fields;
 
-        private final Map<String, String> fields = new HashMap<>();
+        private final String[] localStrings;
 
-        private final Map<String, Integer> localIntegers = new HashMap<>();
+        private final int[] localIntegers;
 
 
-        public BstEntry(BibEntry e) {
+        private BstEntry(BibEntry e, Map<String, Integer> fieldSlots, int numberOfStrings, int numberOfIntegers) {
             this.entry = e;
+            this.fieldSlots = fieldSlots;
+            this.fields = new String[fieldSlots.size()];
+            this.localStrings = new String[numberOfStrings];
+            this.localIntegers = new int[numberOfIntegers];
         }
 
+        /**
+         * Returns the values of the fields declared by the style, with null for missing fields.
+         */
         public Map<String, String> getFields() {
-            return fields;
+            Map<String, String> result = new HashMap<>();
+            fieldSlots.forEach((name, slot) -> result.put(name, fields[slot]));
+            return result;
         }
 
         public BibEntry getBibtexEntry() {
@@ -1212,23 +1296,19 @@ public class VM implements Warn {
     }
 
 
-    private void push(Integer integer) {
-        stack.push(integer);
-    }
-
     private void push(String string) {
         stack.push(string);
     }
 
-    private void push(Identifier identifier) {
-        stack.push(identifier);
-    }
-
     public Map<String, String> getStrings() {
+        Map<String, String> strings = new HashMap<>();
+        globalStringSlots.forEach((name, slot) -> strings.put(name, globalStrings[slot]));
         return strings;
     }
 
     public Map<String, Integer> getIntegers() {
+        Map<String, Integer> integers = new HashMap<>();
+        globalIntegerSlots.forEach((name, slot) -> integers.put(name, globalIntegers[slot]));
         return integers;
     }
 
@@ -1237,10 +1317,10 @@ public class VM implements Warn {
     }
 
     public Map<String, BstFunction> getFunctions() {
-        return functions;
+        return Collections.unmodifiableMap(functions);
     }
 
-    public Stack<Object> getStack() {
+    public OperandStack getStack() {
         return stack;
     }
 
@@ -42,20 +42,23 @@ public class MoveFilesCleanup implements CleanupJob {
         for (ParsedFileField fileEntry : fileList) {
             String oldFileName = fileEntry.getLink();
 
-            Optional<File> oldFile = FileUtil.expandFilename(oldFileName, paths);
-            if(!oldFile.isPresent() || !oldFile.get().exists()) {
+            // a file which has been moved or renamed since it was linked is moved and linked again
+            Optional<File> oldFile = databaseContext.getFileLinkCatalog().findMovedFile(oldFileName);
+            if (!oldFile.isPresent()) {
                 newFileList.add(fileEntry);
                 continue;
             }
 
             File targetFile = new File(targetDirectory.get(), oldFile.get().getName());
-            if(targetFile.exists()) {
-                // We do not overwrite already existing files
-                newFileList.add(fileEntry);
-                continue;
+            if (!targetFile.equals(oldFile.get())) {
+                if (targetFile.exists()) {
+                    // We do not overwrite already existing files
+                    newFileList.add(fileEntry);
+                    continue;
+                }
+                oldFile.get().renameTo(targetFile);
             }
-
-            oldFile.get().renameTo(targetFile);
+            databaseContext.getFileLinkCatalog().invalidate(oldFileName);
             String newFileName = targetFile.getName();
 
             ParsedFileField newFileEntry = fileEntry;
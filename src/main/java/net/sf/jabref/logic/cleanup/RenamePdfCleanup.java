@@ -57,8 +57,7 @@ public class RenamePdfCleanup implements CleanupJob {
 
             //get new Filename with path
             //Create new Path based on old Path and new filename
-            Optional<File> expandedOldFile = FileUtil.expandFilename(realOldFilename,
-                    databaseContext.getFileDirectory());
+            Optional<File> expandedOldFile = databaseContext.getFileLinkCatalog().getFile(realOldFilename);
             if ((!expandedOldFile.isPresent()) || (expandedOldFile.get().getParent() == null)) {
                 // something went wrong. Just skip this entry
                 newFileList.add(flEntry);
@@ -83,6 +82,7 @@ public class RenamePdfCleanup implements CleanupJob {
 
             if (renameSuccessful) {
                 changed = true;
+                databaseContext.getFileLinkCatalog().invalidate(realOldFilename);
 
                 //Change the path for this entry
                 String description = flEntry.getDescription();
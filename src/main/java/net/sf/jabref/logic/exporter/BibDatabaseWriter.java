@@ -16,6 +16,7 @@ import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.MetaData;
@@ -38,14 +39,25 @@ import net.sf.jabref.model.entry.EntryType;
 public abstract class BibDatabaseWriter<E extends SaveSession> {
 
     private static final Pattern REFERENCE_PATTERN = Pattern.compile("(#[A-Za-z]+#)"); // Used to detect string references in strings
+    // number of entries serialized together when serializing in parallel
+    private static final int SERIALIZATION_CHUNK_SIZE = 250;
     private final SaveSessionFactory<E> saveSessionFactory;
 
     private E session;
+    private boolean serializeInParallel = true;
 
     public BibDatabaseWriter(SaveSessionFactory<E> saveSessionFactory) {
         this.saveSessionFactory = saveSessionFactory;
     }
 
+    /**
+     * Sets whether large numbers of entries are serialized on several threads. The written file is the same in both
+     * cases.
+     */
+    public void setSerializeInParallel(boolean serializeInParallel) {
+        this.serializeInParallel = serializeInParallel;
+    }
+
     public interface SaveSessionFactory<E extends SaveSession> {
         E createSaveSession(Charset encoding, Boolean makeBackup) throws SaveException;
     }
@@ -186,10 +198,9 @@ public abstract class BibDatabaseWriter<E extends SaveSession> {
                 EntryTypes.getType(entry.getType(), bibDatabaseContext.getMode()).ifPresent(
                         entryType -> typesToWrite.put(entryType.getName(), entryType));
             }
-
-            writeEntry(entry, bibDatabaseContext.getMode(), preferences.isReformatFile(),
-                    preferences.getLatexFieldFormatterPreferences());
         }
+        writeEntries(sortedEntries, bibDatabaseContext.getMode(), preferences.isReformatFile(),
+                preferences.isUpdateParsedSerialization(), preferences.getLatexFieldFormatterPreferences());
 
         if (preferences.getSaveType() != SavePreferences.DatabaseSaveType.PLAIN_BIBTEX) {
             // Write meta data.
@@ -212,8 +223,73 @@ public abstract class BibDatabaseWriter<E extends SaveSession> {
 
     protected abstract void writePrelogue(BibDatabaseContext bibDatabaseContext, Charset encoding) throws SaveException;
 
-    protected abstract void writeEntry(BibEntry entry, BibDatabaseMode mode, Boolean isReformatFile,
-            LatexFieldFormatterPreferences latexFieldFormatterPreferences) throws SaveException;
+    /**
+     * Writes the given entries in the given order. Large numbers of entries are serialized in chunks on several
+     * threads, and the serialized chunks are written one after another.
+     */
+    private void writeEntries(List<BibEntry> entries, BibDatabaseMode mode, Boolean isReformatFile,
+            boolean updateParsedSerialization, LatexFieldFormatterPreferences latexFieldFormatterPreferences)
+            throws SaveException {
+        int numberOfChunks = (entries.size() + SERIALIZATION_CHUNK_SIZE - 1) / SERIALIZATION_CHUNK_SIZE;
+        if (!serializeInParallel || (numberOfChunks < 2)) {
+            for (BibEntry entry : entries) {
+                writeSerializedEntries(serializeEntry(entry, mode, isReformatFile, updateParsedSerialization,
+                        latexFieldFormatterPreferences));
+            }
+            return;
+        }
+
+        // serialize a few chunks at once only, so not the whole file is kept in memory before it is written
+        int chunksAtOnce = 2 * Runtime.getRuntime().availableProcessors();
+        for (int firstChunk = 0; firstChunk < numberOfChunks; firstChunk += chunksAtOnce) {
+            List<String> serializedChunks;
+            try {
+                serializedChunks = IntStream.range(firstChunk, Math.min(firstChunk + chunksAtOnce, numberOfChunks))
+                        .parallel()
+                        .mapToObj(chunk -> serializeChunk(entries.subList(chunk * SERIALIZATION_CHUNK_SIZE,
+                                Math.min((chunk + 1) * SERIALIZATION_CHUNK_SIZE, entries.size())), mode,
+                                isReformatFile, updateParsedSerialization, latexFieldFormatterPreferences))
+                        .collect(Collectors.toList());
+            } catch (ChunkSerializationException e) {
+                throw e.getCause();
+            }
+
+            for (String serializedChunk : serializedChunks) {
+                writeSerializedEntries(serializedChunk);
+            }
+        }
+    }
+
+    private String serializeChunk(List<BibEntry> chunk, BibDatabaseMode mode, Boolean isReformatFile,
+            boolean updateParsedSerialization, LatexFieldFormatterPreferences latexFieldFormatterPreferences) {
+        StringBuilder serializedChunk = new StringBuilder();
+        for (BibEntry entry : chunk) {
+            try {
+                serializedChunk.append(serializeEntry(entry, mode, isReformatFile, updateParsedSerialization,
+                        latexFieldFormatterPreferences));
+            } catch (SaveException e) {
+                throw new ChunkSerializationException(e);
+            }
+        }
+        return serializedChunk.toString();
+    }
+
+    /**
+     * Returns the serialization of the given entry. May be called for several entries at the same time, each time from
+     * a different thread.
+     *
+     * @param updateParsedSerialization whether the entry keeps the returned serialization as its parsed serialization
+     *                                  (see {@link SavePreferences#isUpdateParsedSerialization()})
+     */
+    protected abstract String serializeEntry(BibEntry entry, BibDatabaseMode mode, Boolean isReformatFile,
+            boolean updateParsedSerialization, LatexFieldFormatterPreferences latexFieldFormatterPreferences)
+            throws SaveException;
+
+    /**
+     * Writes serialized entries as returned by {@link #serializeEntry(BibEntry, BibDatabaseMode, Boolean, boolean,
+     * LatexFieldFormatterPreferences)}.
+     */
+    protected abstract void writeSerializedEntries(String serializedEntries) throws SaveException;
 
     protected abstract void writeEpilogue(String epilogue) throws SaveException;
 
@@ -310,4 +386,19 @@ public abstract class BibDatabaseWriter<E extends SaveSession> {
     protected SaveSession getActiveSession() {
         return session;
     }
+
+    /**
+     * Carries a {@link SaveException} out of a serialization running in parallel.
+     */
+    private static class ChunkSerializationException extends RuntimeException {
+
+        ChunkSerializationException(SaveException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SaveException getCause() {
+            return (SaveException) super.getCause();
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package net.sf.jabref.logic.exporter;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Map;
@@ -143,17 +144,41 @@ public class BibtexDatabaseWriter<E extends SaveSession> extends BibDatabaseWrit
     }
 
     @Override
-    protected void writeEntry(BibEntry entry, BibDatabaseMode mode, Boolean isReformatFile,
-            LatexFieldFormatterPreferences latexFieldFormatterPreferences) throws SaveException {
+    protected String serializeEntry(BibEntry entry, BibDatabaseMode mode, Boolean isReformatFile,
+            boolean updateParsedSerialization, LatexFieldFormatterPreferences latexFieldFormatterPreferences)
+            throws SaveException {
         BibEntryWriter bibtexEntryWriter = new BibEntryWriter(
                 new LatexFieldFormatter(latexFieldFormatterPreferences), true);
         try {
-            bibtexEntryWriter.write(entry, getWriter(), mode, isReformatFile);
+            if (!isReformatFile && !entry.hasChanged()) {
+                // written as it was, see BibEntryWriter
+                return entry.getParsedSerialization();
+            }
+
+            long changeCount = entry.getChangeCount();
+            StringWriter serialization = new StringWriter();
+            bibtexEntryWriter.write(entry, serialization, mode, isReformatFile);
+
+            // Keep the serialization, so the next save only serializes the entry again if it has been changed in the
+            // meantime. An entry changed while it was written keeps its changed flag.
+            if (updateParsedSerialization) {
+                entry.setParsedSerialization(serialization.toString(), changeCount);
+            }
+            return serialization.toString();
         } catch (IOException e) {
             throw new SaveException(e, entry);
         }
     }
 
+    @Override
+    protected void writeSerializedEntries(String serializedEntries) throws SaveException {
+        try {
+            getWriter().write(serializedEntries);
+        } catch (IOException e) {
+            throw new SaveException(e);
+        }
+    }
+
     private Writer getWriter() {
         return getActiveSession().getWriter();
     }
@@ -6,21 +6,29 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.Writer;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.JabRefMain;
 import net.sf.jabref.logic.layout.Layout;
 import net.sf.jabref.logic.layout.LayoutFormatterPreferences;
 import net.sf.jabref.logic.layout.LayoutHelper;
+import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
 
 import org.apache.commons.logging.Log;
@@ -43,6 +51,12 @@ public class ExportFormat implements IExportFormat {
 
     private boolean customExport;
     private static final String LAYOUT_PREFIX = "/resource/layout/";
+    // number of entries laid out by one task if the entries are laid out in parallel
+    private static final int ENTRY_CHUNK_SIZE = 250;
+
+    // parsed layouts by layout path, empty if there is no such layout file; shared by all export formats, as the
+    // export formats are created anew for every export from the GUI
+    private static final Map<String, CachedLayout> LAYOUT_CACHE = new ConcurrentHashMap<>();
 
     private static final Log LOGGER = LogFactory.getLog(ExportFormat.class);
 
@@ -148,18 +162,10 @@ public class ExportFormat implements IExportFormat {
      * @throws IOException if the reader could not be created
      */
     private Reader getReader(String filename) throws IOException {
-        // If this is a custom export, just use the given filename:
-        String dir;
-        if (customExport) {
-            dir = "";
-        } else {
-            dir = LAYOUT_PREFIX + (directory == null ? "" : directory + '/');
-        }
-
         // Attempt to get a Reader for the file path given, either by
         // loading it as a resource (from within JAR), or as a normal file. If
         // unsuccessful (e.g. file not found), an IOException is thrown.
-        String name = dir + filename;
+        String name = getLayoutPath(filename);
         Reader reader;
         // Try loading as a resource first. This works for files inside the JAR:
         URL reso = JabRefMain.class.getResource(name);
@@ -179,6 +185,60 @@ public class ExportFormat implements IExportFormat {
         return reader;
     }
 
+    private String getLayoutPath(String filename) {
+        // If this is a custom export, just use the given filename:
+        if (customExport) {
+            return filename;
+        }
+        return LAYOUT_PREFIX + (directory == null ? "" : directory + '/') + filename;
+    }
+
+    /**
+     * Returns the layout read from the given layout file, or an empty Optional if there is no such file.
+     * <p>
+     * Parsed layouts are shared by all export formats. A layout is only parsed again if the layout file or the name
+     * formatter file of this export format have been modified since the layout has been parsed, or if it has been
+     * parsed with different layout formatter preferences. Layout files inside the JAR are never modified.
+     *
+     * @param filename the filename
+     */
+    private Optional<Layout> getLayout(String filename) {
+        String name = getLayoutPath(filename);
+        long modificationTime = JabRefMain.class.getResource(name) == null ? new File(name).lastModified() : 0L;
+        long formattersModificationTime = new File(lfFileName + ".formatters").lastModified();
+        List<Object> preferences = getLayoutPreferencesValues();
+
+        CachedLayout cached = LAYOUT_CACHE.get(name);
+        if ((cached != null) && (cached.modificationTime == modificationTime)
+                && (cached.formattersModificationTime == formattersModificationTime)
+                && cached.preferences.equals(preferences)) {
+            return cached.layout;
+        }
+
+        Optional<Layout> layout;
+        try (Reader reader = getReader(filename)) {
+            layout = Optional.ofNullable(new LayoutHelper(reader, layoutPreferences).getLayoutFromText());
+        } catch (IOException ex) {
+            // The export filter does not have this layout file
+            layout = Optional.empty();
+        }
+        LAYOUT_CACHE.put(name, new CachedLayout(modificationTime, formattersModificationTime, preferences, layout));
+        return layout;
+    }
+
+    /**
+     * Returns the layout formatter preferences the formatters of a layout are created with. The custom name formatters
+     * are left out, as they are read from the name formatter file.
+     */
+    private List<Object> getLayoutPreferencesValues() {
+        if (layoutPreferences == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(layoutPreferences.getNameFormatterPreferences(),
+                layoutPreferences.getJournalAbbreviationPreferences(), layoutPreferences.getFileLinkPreferences(),
+                layoutPreferences.getJournalAbbreviationLoader());
+    }
+
     /**
      * Perform the export of {@code database}.
      *
@@ -216,26 +276,17 @@ public class ExportFormat implements IExportFormat {
 
         try (VerifyingWriter ps = ss.getWriter()) {
 
-            Layout beginLayout = null;
-
             // Check if this export filter has bundled name formatters:
             // Add these to the preferences, so all layouts have access to the custom name formatters:
             readFormatterFile();
 
             List<String> missingFormatters = new ArrayList<>(1);
 
-            // Print header
-            try (Reader reader = getReader(lfFileName + ".begin.layout")) {
-                LayoutHelper layoutHelper = new LayoutHelper(reader, layoutPreferences);
-                beginLayout = layoutHelper.getLayoutFromText();
-            } catch (IOException ex) {
-                // If an exception was cast, export filter doesn't have a begin
-                // file.
-            }
-            // Write the header
-            if (beginLayout != null) {
-                ps.write(beginLayout.doLayout(databaseContext, encoding));
-                missingFormatters.addAll(beginLayout.getMissingFormatters());
+            // Print header, if the export filter has a begin file
+            Optional<Layout> beginLayout = getLayout(lfFileName + ".begin.layout");
+            if (beginLayout.isPresent()) {
+                ps.write(beginLayout.get().doLayout(databaseContext, encoding));
+                missingFormatters.addAll(beginLayout.get().getMissingFormatters());
             }
 
             /*
@@ -248,68 +299,45 @@ public class ExportFormat implements IExportFormat {
             List<BibEntry> sorted = BibDatabaseWriter.getSortedEntries(databaseContext, entries, savePreferences);
 
             // Load default layout
-            Layout defLayout;
-            LayoutHelper layoutHelper;
-            try (Reader reader = getReader(lfFileName + ".layout")) {
-                layoutHelper = new LayoutHelper(reader,layoutPreferences);
-                defLayout = layoutHelper.getLayoutFromText();
-            }
-            if (defLayout != null) {
-                missingFormatters.addAll(defLayout.getMissingFormatters());
-                if (!missingFormatters.isEmpty()) {
-                    LOGGER.warn(missingFormatters);
-                }
+            Layout defLayout = getLayout(lfFileName + ".layout").orElseThrow(
+                    () -> new IOException("Cannot find layout file: '" + getLayoutPath(lfFileName + ".layout") + "'."));
+            missingFormatters.addAll(defLayout.getMissingFormatters());
+            if (!missingFormatters.isEmpty()) {
+                LOGGER.warn(missingFormatters);
             }
-            Map<String, Layout> layouts = new HashMap<>();
-            Layout layout;
 
-            ExportFormats.entryNumber = 0;
+            // Get the layout of each entry type: a type-specific layout if there is one, the default layout otherwise
+            Map<String, Layout> layouts = new HashMap<>();
             for (BibEntry entry : sorted) {
-                ExportFormats.entryNumber++; // Increment entry counter.
-                // Get the layout
                 String type = entry.getType();
-                if (layouts.containsKey(type)) {
-                    layout = layouts.get(type);
-                } else {
-                    try (Reader reader = getReader(lfFileName + '.' + type + ".layout")) {
-                        // We try to get a type-specific layout for this entry.
-                        layoutHelper = new LayoutHelper(reader, layoutPreferences);
-                        layout = layoutHelper.getLayoutFromText();
-                        layouts.put(type, layout);
-                        if (layout != null) {
-                            missingFormatters.addAll(layout.getMissingFormatters());
-                        }
-
-                    } catch (IOException ex) {
-                        // The exception indicates that no type-specific layout
-                        // exists, so we
-                        // go with the default one.
-                        layout = defLayout;
-                    }
-                }
-
-                // Write the entry
-                if (layout != null) {
-                    ps.write(layout.doLayout(entry, databaseContext.getDatabase()));
+                if (!layouts.containsKey(type)) {
+                    Optional<Layout> typeLayout = getLayout(lfFileName + '.' + type + ".layout");
+                    typeLayout.ifPresent(layout -> missingFormatters.addAll(layout.getMissingFormatters()));
+                    layouts.put(type, typeLayout.orElse(defLayout));
                 }
             }
 
-            // Print footer
-
-            // changed section - begin (arudert)
-            Layout endLayout = null;
-            try (Reader reader = getReader(lfFileName + ".end.layout")) {
-                layoutHelper = new LayoutHelper(reader, layoutPreferences);
-                endLayout = layoutHelper.getLayoutFromText();
-            } catch (IOException ex) {
-                // If an exception was thrown, export filter doesn't have an end
-                // file.
+            // Write the entries
+            BibDatabase database = databaseContext.getDatabase();
+            if (layouts.values().stream().allMatch(Layout::isIndependentOfOtherEntries)) {
+                writeEntriesInParallel(ps, sorted, layouts, database);
+                ExportFormats.entryNumber = sorted.size();
+            } else {
+                ExportFormats.entryNumber = 0;
+                StringBuilder sb = new StringBuilder();
+                for (BibEntry entry : sorted) {
+                    ExportFormats.entryNumber++; // Increment entry counter.
+                    sb.setLength(0);
+                    layouts.get(entry.getType()).doLayout(entry, database, Optional.empty(), sb);
+                    ps.write(sb.toString());
+                }
             }
 
-            // Write footer
-            if (endLayout != null) {
-                ps.write(endLayout.doLayout(databaseContext, this.encoding));
-                missingFormatters.addAll(endLayout.getMissingFormatters());
+            // Print footer, if the export filter has an end file
+            Optional<Layout> endLayout = getLayout(lfFileName + ".end.layout");
+            if (endLayout.isPresent()) {
+                ps.write(endLayout.get().doLayout(databaseContext, this.encoding));
+                missingFormatters.addAll(endLayout.get().getMissingFormatters());
             }
 
             // Clear custom name formatters:
@@ -325,6 +353,34 @@ public class ExportFormat implements IExportFormat {
 
     }
 
+    /**
+     * Lays out chunks of entries in parallel, and writes them in their original order. Only a limited number of
+     * chunks is laid out at once, so the output of a large export is not held in memory as a whole.
+     */
+    private static void writeEntriesInParallel(Writer writer, List<BibEntry> entries, Map<String, Layout> layouts,
+            BibDatabase database) throws IOException {
+        int numberOfChunks = ((entries.size() + ENTRY_CHUNK_SIZE) - 1) / ENTRY_CHUNK_SIZE;
+        int chunksAtOnce = 2 * Runtime.getRuntime().availableProcessors();
+        for (int firstChunk = 0; firstChunk < numberOfChunks; firstChunk += chunksAtOnce) {
+            List<String> laidOutChunks = IntStream.range(firstChunk, Math.min(firstChunk + chunksAtOnce, numberOfChunks))
+                    .parallel()
+                    .mapToObj(chunk -> layoutEntries(entries.subList(chunk * ENTRY_CHUNK_SIZE,
+                            Math.min((chunk + 1) * ENTRY_CHUNK_SIZE, entries.size())), layouts, database))
+                    .collect(Collectors.toList());
+            for (String laidOutChunk : laidOutChunks) {
+                writer.write(laidOutChunk);
+            }
+        }
+    }
+
+    private static String layoutEntries(List<BibEntry> entries, Map<String, Layout> layouts, BibDatabase database) {
+        StringBuilder sb = new StringBuilder(100 * entries.size());
+        for (BibEntry entry : entries) {
+            layouts.get(entry.getType()).doLayout(entry, database, Optional.empty(), sb);
+        }
+        return sb.toString();
+    }
+
     @Override
     public void performExport(final BibDatabaseContext databaseContext, Path file, final Charset encoding,
             List<BibEntry> entries) throws Exception {
@@ -378,4 +434,22 @@ public class ExportFormat implements IExportFormat {
         }
         ss.commit(file);
     }
+
+
+    private static class CachedLayout {
+
+        private final long modificationTime;
+        private final long formattersModificationTime;
+        private final List<Object> preferences;
+        private final Optional<Layout> layout;
+
+
+        public CachedLayout(long modificationTime, long formattersModificationTime, List<Object> preferences,
+                Optional<Layout> layout) {
+            this.modificationTime = modificationTime;
+            this.formattersModificationTime = formattersModificationTime;
+            this.preferences = preferences;
+            this.layout = layout;
+        }
+    }
 }
@@ -19,6 +19,7 @@ public class SavePreferences {
     private final DatabaseSaveType saveType;
     private final boolean takeMetadataSaveOrderInAccount;
     private final LatexFieldFormatterPreferences latexFieldFormatterPreferences;
+    private final boolean updateParsedSerialization;
 
     public SavePreferences() {
         this(true, null, null, false, DatabaseSaveType.ALL, true, false, new LatexFieldFormatterPreferences());
@@ -27,6 +28,13 @@ public class SavePreferences {
     public SavePreferences(Boolean saveInOriginalOrder, SaveOrderConfig saveOrder, Charset encoding, Boolean makeBackup,
             DatabaseSaveType saveType, Boolean takeMetadataSaveOrderInAccount, Boolean reformatFile,
             LatexFieldFormatterPreferences latexFieldFormatterPreferences) {
+        this(saveInOriginalOrder, saveOrder, encoding, makeBackup, saveType, takeMetadataSaveOrderInAccount,
+                reformatFile, latexFieldFormatterPreferences, false);
+    }
+
+    public SavePreferences(Boolean saveInOriginalOrder, SaveOrderConfig saveOrder, Charset encoding, Boolean makeBackup,
+            DatabaseSaveType saveType, Boolean takeMetadataSaveOrderInAccount, Boolean reformatFile,
+            LatexFieldFormatterPreferences latexFieldFormatterPreferences, boolean updateParsedSerialization) {
         this.saveInOriginalOrder = saveInOriginalOrder;
         this.saveOrder = saveOrder;
         this.encoding = encoding;
@@ -35,6 +43,7 @@ public class SavePreferences {
         this.takeMetadataSaveOrderInAccount = takeMetadataSaveOrderInAccount;
         this.reformatFile = reformatFile;
         this.latexFieldFormatterPreferences = latexFieldFormatterPreferences;
+        this.updateParsedSerialization = updateParsedSerialization;
     }
 
     public static SavePreferences loadForExportFromPreferences(JabRefPreferences preferences) {
@@ -86,7 +95,8 @@ public class SavePreferences {
 
     public SavePreferences withSaveInOriginalOrder(Boolean newSaveInOriginalOrder) {
         return new SavePreferences(newSaveInOriginalOrder, this.saveOrder, this.encoding, this.makeBackup, this.saveType,
-                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences);
+                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences,
+                this.updateParsedSerialization);
     }
 
     public boolean getMakeBackup() {
@@ -95,7 +105,8 @@ public class SavePreferences {
 
     public SavePreferences withMakeBackup(Boolean newMakeBackup) {
         return new SavePreferences(this.saveInOriginalOrder, this.saveOrder, this.encoding, newMakeBackup, this.saveType,
-                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences);
+                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences,
+                this.updateParsedSerialization);
     }
 
     public Charset getEncoding() {
@@ -104,7 +115,8 @@ public class SavePreferences {
 
     public SavePreferences withEncoding(Charset newEncoding) {
         return new SavePreferences(this.saveInOriginalOrder, this.saveOrder, newEncoding, this.makeBackup, this.saveType,
-                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences);
+                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences,
+                this.updateParsedSerialization);
     }
 
     public DatabaseSaveType getSaveType() {
@@ -113,7 +125,8 @@ public class SavePreferences {
 
     public SavePreferences withSaveType(DatabaseSaveType newSaveType) {
         return new SavePreferences(this.saveInOriginalOrder, this.saveOrder, this.encoding, this.makeBackup, newSaveType,
-                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences);
+                this.takeMetadataSaveOrderInAccount, this.reformatFile, this.latexFieldFormatterPreferences,
+                this.updateParsedSerialization);
     }
 
     public Boolean isReformatFile() {
@@ -122,7 +135,22 @@ public class SavePreferences {
 
     public SavePreferences withReformatFile(boolean newReformatFile) {
         return new SavePreferences(this.saveInOriginalOrder, this.saveOrder, this.encoding, this.makeBackup,
-                this.saveType, this.takeMetadataSaveOrderInAccount, newReformatFile, this.latexFieldFormatterPreferences);
+                this.saveType, this.takeMetadataSaveOrderInAccount, newReformatFile, this.latexFieldFormatterPreferences,
+                this.updateParsedSerialization);
+    }
+
+    /**
+     * Returns whether the entries keep their written serialization as parsed serialization, so they are only
+     * serialized again after a change. Only useful if the database is written to the file it was read from.
+     */
+    public boolean isUpdateParsedSerialization() {
+        return updateParsedSerialization;
+    }
+
+    public SavePreferences withUpdateParsedSerialization(boolean newUpdateParsedSerialization) {
+        return new SavePreferences(this.saveInOriginalOrder, this.saveOrder, this.encoding, this.makeBackup,
+                this.saveType, this.takeMetadataSaveOrderInAccount, this.reformatFile,
+                this.latexFieldFormatterPreferences, newUpdateParsedSerialization);
     }
 
     public Charset getEncodingOrDefault() {
@@ -0,0 +1,192 @@
+package net.sf.jabref.logic.groups;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.event.EntryAddedEvent;
+import net.sf.jabref.model.event.EntryChangedEvent;
+import net.sf.jabref.model.event.EntryRemovedEvent;
+import net.sf.jabref.model.event.FieldChangedEvent;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Stores the entries contained in each group as a bit set of entry ordinals.
+ * <p>
+ * The members of a group are determined once, when they are requested for the first time. Afterwards, changes of
+ * the database only re-evaluate the changed entry, and only for the groups which may be affected by the change: a
+ * keyword group is only re-evaluated if its search field changes. The matches of a node in the groups tree are composed
+ * from the members of the involved groups by bitwise OR (including groups) and AND (refining groups).
+ * <p>
+ * The index can be kept up to date by registering it as listener of a {@link BibDatabase}
+ * (see {@link #forDatabase(BibDatabase)}).
+ */
+public class GroupMembershipIndex {
+
+    // ordinal of each indexed entry, by entry id
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    // indexed entries by ordinal, null for unused ordinals
+    private final List<BibEntry> entries = new ArrayList<>();
+    private final Deque<Integer> unusedOrdinals = new ArrayDeque<>();
+    // members by group; edited groups are new instances and are evaluated again, replaced ones are dropped eventually
+    private final Map<AbstractGroup, BitSet> members = new WeakHashMap<>();
+
+
+    /**
+     * Creates an index of the group members among the entries of the given database. Each entry gets an ordinal
+     * right away, the members of a group are only determined when they are requested.
+     */
+    public static GroupMembershipIndex forDatabase(BibDatabase database) {
+        GroupMembershipIndex index = new GroupMembershipIndex();
+        database.registerListener(index, index::addEntry);
+        return index;
+    }
+
+    public synchronized void addEntry(BibEntry entry) {
+        if (ordinals.containsKey(entry.getId())) {
+            updateEntry(entry, null);
+            return;
+        }
+
+        int ordinal;
+        if (unusedOrdinals.isEmpty()) {
+            ordinal = entries.size();
+            entries.add(entry);
+        } else {
+            ordinal = unusedOrdinals.pop();
+            entries.set(ordinal, entry);
+        }
+        ordinals.put(entry.getId(), ordinal);
+        members.forEach((group, groupMembers) -> groupMembers.set(ordinal, group.contains(entry)));
+    }
+
+    public synchronized void removeEntry(BibEntry entry) {
+        Integer ordinal = ordinals.remove(entry.getId());
+        if (ordinal == null) {
+            return;
+        }
+        entries.set(ordinal, null);
+        unusedOrdinals.push(ordinal);
+        members.values().forEach(groupMembers -> groupMembers.clear(ordinal));
+    }
+
+    /**
+     * Re-evaluates the membership of the given entry after a change.
+     *
+     * @param field the changed field, or null if the whole entry may have changed
+     */
+    public synchronized void updateEntry(BibEntry entry, String field) {
+        Integer ordinal = ordinals.get(entry.getId());
+        if (ordinal == null) {
+            return;
+        }
+        members.forEach((group, groupMembers) -> {
+            if ((field == null) || isAffectedBy(group, field)) {
+                groupMembers.set(ordinal, group.contains(entry));
+            }
+        });
+    }
+
+    @Subscribe
+    public void listen(EntryAddedEvent event) {
+        addEntry(event.getBibEntry());
+    }
+
+    @Subscribe
+    public void listen(EntryRemovedEvent event) {
+        removeEntry(event.getBibEntry());
+    }
+
+    @Subscribe
+    public void listen(EntryChangedEvent event) {
+        if (event instanceof FieldChangedEvent) {
+            updateEntry(event.getBibEntry(), ((FieldChangedEvent) event).getFieldName());
+        } else {
+            updateEntry(event.getBibEntry(), null);
+        }
+    }
+
+    private static boolean isAffectedBy(AbstractGroup group, String field) {
+        if (group instanceof AllEntriesGroup) {
+            return false;
+        } else if (group instanceof KeywordGroup) {
+            return ((KeywordGroup) group).getSearchField().equalsIgnoreCase(field);
+        } else {
+            // e.g., search groups may depend on any field
+            return true;
+        }
+    }
+
+    /**
+     * Returns the ordinals of the entries contained in the given group. The returned set must not be modified.
+     */
+    private BitSet getMembers(AbstractGroup group) {
+        return members.computeIfAbsent(group, key -> {
+            BitSet groupMembers = new BitSet(entries.size());
+            for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+                BibEntry entry = entries.get(ordinal);
+                if ((entry != null) && group.contains(entry)) {
+                    groupMembers.set(ordinal);
+                }
+            }
+            return groupMembers;
+        });
+    }
+
+    /**
+     * Returns the ordinals of the entries matched by the given node, taking the hierarchical context of the involved
+     * groups into account (see {@link GroupTreeNode#getSearchRule()}).
+     */
+    public synchronized BitSet getMatches(GroupTreeNode node) {
+        return getMatches(node, node.getGroup().getHierarchicalContext());
+    }
+
+    private BitSet getMatches(GroupTreeNode node, GroupHierarchyType originalContext) {
+        GroupHierarchyType context = node.getGroup().getHierarchicalContext();
+        BitSet matches = (BitSet) getMembers(node.getGroup()).clone();
+        if ((context == GroupHierarchyType.INCLUDING) && (originalContext != GroupHierarchyType.REFINING)) {
+            for (GroupTreeNode child : node.getChildren()) {
+                matches.or(getMatches(child, originalContext));
+            }
+        } else if ((context == GroupHierarchyType.REFINING) && !node.isRoot()
+                && (originalContext != GroupHierarchyType.INCLUDING)) {
+            matches.and(getMatches(node.getParent().get(), originalContext));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of entries matched by the given node.
+     */
+    public synchronized int getNumberOfHits(GroupTreeNode node) {
+        return getMatches(node).cardinality();
+    }
+
+    /**
+     * Returns the ordinals of all indexed entries, e.g., to invert a set of matches.
+     */
+    public synchronized BitSet getAllEntries() {
+        BitSet allEntries = new BitSet(entries.size());
+        allEntries.set(0, entries.size());
+        for (Integer ordinal : unusedOrdinals) {
+            allEntries.clear(ordinal);
+        }
+        return allEntries;
+    }
+
+    /**
+     * Checks whether the given entry is contained in the given set of matches.
+     */
+    public synchronized boolean isContained(BibEntry entry, BitSet matches) {
+        Integer ordinal = ordinals.get(entry.getId());
+        return (ordinal != null) && matches.get(ordinal);
+    }
+}
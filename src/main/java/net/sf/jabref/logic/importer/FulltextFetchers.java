@@ -5,6 +5,14 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sf.jabref.logic.importer.fetcher.ACS;
 import net.sf.jabref.logic.importer.fetcher.ArXiv;
@@ -14,6 +22,7 @@ import net.sf.jabref.logic.importer.fetcher.GoogleScholar;
 import net.sf.jabref.logic.importer.fetcher.IEEE;
 import net.sf.jabref.logic.importer.fetcher.ScienceDirect;
 import net.sf.jabref.logic.importer.fetcher.SpringerLink;
+import net.sf.jabref.logic.net.RequestLimiter;
 import net.sf.jabref.logic.util.DOI;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
@@ -23,11 +32,25 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * Utility class for trying to resolve URLs to full-text PDF for articles.
+ * <p>
+ * All fetchers are asked at the same time, but the result of a fetcher is only taken if no fetcher before it has found
+ * a PDF. As soon as that is clear, the fetchers after it are canceled. The requests to each host are limited by a
+ * {@link RequestLimiter}, which is shared by all instances unless given explicitly. As the fetchers do not tell which
+ * hosts they query, each fetcher counts as a host of its own.
  */
 public class FulltextFetchers {
     private static final Log LOGGER = LogFactory.getLog(FulltextFetchers.class);
 
+    // the number of entries looked up at a time by findFullTextPDFs
+    private static final int CONCURRENT_ENTRIES = 8;
+    private static final int CONCURRENT_LOOKUPS = 32;
+    private static final RequestLimiter DEFAULT_LIMITER = new RequestLimiter(2, 200, TimeUnit.MILLISECONDS);
+
     private final List<FulltextFetcher> finders = new ArrayList<>();
+    private final RequestLimiter limiter;
+    // two pools, so entries waiting for their lookups never keep the lookups from running
+    private final ExecutorService entryExecutor = createExecutor(CONCURRENT_ENTRIES, "entry");
+    private final ExecutorService lookupExecutor = createExecutor(CONCURRENT_LOOKUPS, "lookup");
 
     public FulltextFetchers() {
         // Ordering is important, authorities first!
@@ -40,10 +63,30 @@ public class FulltextFetchers {
         finders.add(new IEEE());
         // Meta search
         finders.add(new GoogleScholar());
+        limiter = DEFAULT_LIMITER;
     }
 
     public FulltextFetchers(List<FulltextFetcher> fetcher) {
+        this(fetcher, DEFAULT_LIMITER);
+    }
+
+    public FulltextFetchers(List<FulltextFetcher> fetcher, RequestLimiter limiter) {
         finders.addAll(fetcher);
+        this.limiter = limiter;
+    }
+
+    private static ExecutorService createExecutor(int threads, String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "JabRef - FulltextFetchers " + name + " " + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // the threads end when idle, so an instance does not need to be shut down
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     public Optional<URL> findFullTextPDF(BibEntry entry) {
@@ -52,20 +95,83 @@ public class FulltextFetchers {
         Optional<String> doi = clonedEntry.getFieldOptional(FieldName.DOI);
 
         if (!doi.isPresent() || !DOI.build(doi.get()).isPresent()) {
-            CrossRef.findDOI(clonedEntry).ifPresent(e -> clonedEntry.setField(FieldName.DOI, e.getDOI()));
+            try {
+                limiter.send(CrossRef.class.getName(), () -> CrossRef.findDOI(clonedEntry))
+                        .ifPresent(e -> clonedEntry.setField(FieldName.DOI, e.getDOI()));
+            } catch (IOException e) {
+                LOGGER.debug("Interrupted while looking up DOI", e);
+                return Optional.empty();
+            }
         }
 
+        List<Future<Optional<URL>>> lookups = new ArrayList<>();
         for (FulltextFetcher finder : finders) {
-            try {
-                Optional<URL> result = finder.findFullText(clonedEntry);
-
-                if (result.isPresent() && MimeTypeDetector.isPdfContentType(result.get().toString())) {
+            lookups.add(lookupExecutor.submit(() -> findFullTextPDF(finder, clonedEntry)));
+        }
+        try {
+            // take the first PDF in the order of the fetchers, not the first one found
+            for (Future<Optional<URL>> lookup : lookups) {
+                Optional<URL> result = getResult(lookup);
+                if (result.isPresent()) {
                     return result;
                 }
-            } catch (IOException e) {
-                LOGGER.debug("Failed to find fulltext PDF at given URL", e);
             }
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            // the remaining lookups cannot change the result anymore
+            lookups.forEach(lookup -> lookup.cancel(true));
+        }
+    }
+
+    private Optional<URL> findFullTextPDF(FulltextFetcher finder, BibEntry entry) {
+        try {
+            Optional<URL> result = limiter.send(finder.getClass().getName(), () -> finder.findFullText(entry));
+
+            if (result.isPresent() && limiter.send(result.get().getHost(),
+                    () -> MimeTypeDetector.isPdfContentType(result.get().toString()))) {
+                return result;
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to find fulltext PDF at given URL", e);
         }
         return Optional.empty();
     }
+
+    private static Optional<URL> getResult(Future<Optional<URL>> lookup) throws InterruptedException {
+        try {
+            return lookup.get();
+        } catch (ExecutionException | CancellationException e) {
+            LOGGER.debug("Failed to find fulltext PDF", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds the full-text PDFs of the given entries, looking up several entries at a time.
+     *
+     * @return the URLs of the PDFs found, in the order of the given entries
+     */
+    public List<Optional<URL>> findFullTextPDFs(List<BibEntry> entries) {
+        List<Future<Optional<URL>>> lookups = new ArrayList<>();
+        for (BibEntry entry : entries) {
+            lookups.add(entryExecutor.submit(() -> findFullTextPDF(entry)));
+        }
+
+        List<Optional<URL>> result = new ArrayList<>();
+        try {
+            for (Future<Optional<URL>> lookup : lookups) {
+                result.add(getResult(lookup));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lookups.forEach(lookup -> lookup.cancel(true));
+            while (result.size() < entries.size()) {
+                result.add(Optional.empty());
+            }
+        }
+        return result;
+    }
 }
@@ -96,7 +96,7 @@ public class ImportFormatReader {
      * @param cliId CLI-Id
      * @return Import Format or <code>null</code> if none matches
      */
-    private Optional<ImportFormat> getByCliId(String cliId) {
+    public Optional<ImportFormat> getByCliId(String cliId) {
         for (ImportFormat format : formats) {
             if (format.getId().equals(cliId)) {
                 return Optional.of(format);
@@ -113,7 +113,11 @@ public class ImportFormatReader {
             throw new IllegalArgumentException("Unknown import format: " + format);
         }
 
-        return importer.get().importDatabase(file, importFormatPreferences.getEncoding());
+        return importFromFile(importer.get(), file);
+    }
+
+    public ParserResult importFromFile(ImportFormat importFormat, Path file) throws IOException {
+        return importFormat.importDatabase(file, importFormatPreferences.getEncoding());
     }
 
     /**
@@ -12,6 +12,11 @@ import org.apache.commons.logging.LogFactory;
 public class MimeTypeDetector {
     private static final Log LOGGER = LogFactory.getLog(MimeTypeDetector.class);
 
+    static {
+        // set once, the detection may run in several threads at a time
+        Unirest.setDefaultHeader("User-Agent", "Mozilla/5.0 (Macintosh; U; Intel Mac OS X 10.4; en-US; rv:1.9.2.2) Gecko/20100316 Firefox/3.6.2");
+    }
+
     public static boolean isPdfContentType(String url) {
         Optional<String> contentType = getMimeType(url);
 
@@ -19,8 +24,6 @@ public class MimeTypeDetector {
     }
 
     private static Optional<String> getMimeType(String url) {
-        Unirest.setDefaultHeader("User-Agent", "Mozilla/5.0 (Macintosh; U; Intel Mac OS X 10.4; en-US; rv:1.9.2.2) Gecko/20100316 Firefox/3.6.2");
-
         // Try to use HEAD request to avoid donloading the whole file
         String contentType;
         try {
@@ -0,0 +1,238 @@
+package net.sf.jabref.logic.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import net.sf.jabref.logic.importer.fileformat.ImportFormat;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Imports several files at once.
+ * <p>
+ * The files are parsed on a bounded thread pool. If no import format is given for a file, its format is detected
+ * while importing (see {@link ImportFormatReader#importUnknownFormat(Path)}), so the format detection of different
+ * files runs concurrently as well. Independent of the order in which the imports finish, the results are returned
+ * in the order of the given files, so merging them leads to a deterministic result.
+ * <p>
+ * The {@link ImportFormat} instances of the {@link ImportFormatReader} are shared between the threads.
+ */
+public class MultipleFileImporter {
+
+    private static final Log LOGGER = LogFactory.getLog(MultipleFileImporter.class);
+
+    private final ImportFormatReader importFormatReader;
+    private final int numberOfThreads;
+
+    private volatile boolean canceled;
+    private volatile List<Future<ImportResult>> runningImports = Collections.emptyList();
+
+
+    public MultipleFileImporter(ImportFormatReader importFormatReader) {
+        this(importFormatReader, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MultipleFileImporter(ImportFormatReader importFormatReader, int numberOfThreads) {
+        this.importFormatReader = Objects.requireNonNull(importFormatReader);
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Informs about the number of files which have been imported so far.
+     * May be called from any of the import threads.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        void setProgress(int current, int max);
+    }
+
+    /**
+     * The outcome of importing a single file.
+     */
+    public static class ImportResult {
+
+        private final Path file;
+        private final Optional<ImportFormatReader.UnknownFormatImport> importResult;
+        private final Optional<IOException> error;
+
+
+        private ImportResult(Path file, Optional<ImportFormatReader.UnknownFormatImport> importResult,
+                Optional<IOException> error) {
+            this.file = file;
+            this.importResult = importResult;
+            this.error = error;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the used format together with the parsed file, empty if no suitable format was found or the import
+         * failed
+         */
+        public Optional<ImportFormatReader.UnknownFormatImport> getImportResult() {
+            return importResult;
+        }
+
+        /**
+         * @return the exception thrown by the import format, if the import failed
+         */
+        public Optional<IOException> getError() {
+            return error;
+        }
+    }
+
+
+    /**
+     * Imports the given files, detecting the format of each file.
+     */
+    public List<ImportResult> importFiles(List<Path> files, ProgressListener progressListener) {
+        return importFiles(files, file -> Optional.empty(), progressListener);
+    }
+
+    /**
+     * Imports all given files using the given import format.
+     */
+    public List<ImportResult> importFiles(List<Path> files, ImportFormat importFormat,
+            ProgressListener progressListener) {
+        Objects.requireNonNull(importFormat);
+        return importFiles(files, file -> Optional.of(importFormat), progressListener);
+    }
+
+    /**
+     * Imports the given files in parallel.
+     *
+     * @param files            the files to import
+     * @param formatSelector   returns the import format to use for a file, or an empty optional if the format should
+     *                         be detected
+     * @param progressListener informed after each imported file
+     * @return the results in the order of the given files. If the import has been canceled, only the files imported
+     * before are contained.
+     */
+    public List<ImportResult> importFiles(List<Path> files, Function<Path, Optional<ImportFormat>> formatSelector,
+            ProgressListener progressListener) {
+        Objects.requireNonNull(files);
+        Objects.requireNonNull(formatSelector);
+        Objects.requireNonNull(progressListener);
+
+        canceled = false;
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, files.size()), runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("JabRef import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger numberOfImportedFiles = new AtomicInteger();
+        List<Future<ImportResult>> futures = new ArrayList<>(files.size());
+        // the results are kept apart from the futures, as canceling from the progress listener also cancels the
+        // future of the file which has just been imported
+        AtomicReferenceArray<ImportResult> importedFiles = new AtomicReferenceArray<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                Path file = files.get(i);
+                Optional<ImportFormat> importFormat = formatSelector.apply(file);
+                futures.add(executor.submit(() -> {
+                    if (canceled) {
+                        // canceled before the future of this file has been canceled
+                        return null;
+                    }
+                    ImportResult result = importFile(file, importFormat);
+                    importedFiles.set(index, result);
+                    progressListener.setProgress(numberOfImportedFiles.incrementAndGet(), files.size());
+                    return result;
+                }));
+            }
+            runningImports = futures;
+            if (canceled) {
+                cancel();
+            }
+
+            return collectResults(files, futures, importedFiles);
+        } finally {
+            runningImports = Collections.emptyList();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cancels the running import. Files which have not been imported yet are skipped.
+     */
+    public void cancel() {
+        canceled = true;
+        for (Future<ImportResult> future : runningImports) {
+            future.cancel(true);
+        }
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    private ImportResult importFile(Path file, Optional<ImportFormat> importFormat) {
+        if (importFormat.isPresent()) {
+            try {
+                ParserResult parserResult = importFormatReader.importFromFile(importFormat.get(), file);
+                return new ImportResult(file, Optional.of(
+                        new ImportFormatReader.UnknownFormatImport(importFormat.get().getFormatName(), parserResult)),
+                        Optional.empty());
+            } catch (IOException e) {
+                return new ImportResult(file, Optional.empty(), Optional.of(e));
+            }
+        } else {
+            // This import method never throws an IOException
+            return new ImportResult(file, Optional.ofNullable(importFormatReader.importUnknownFormat(file)),
+                    Optional.empty());
+        }
+    }
+
+    private List<ImportResult> collectResults(List<Path> files, List<Future<ImportResult>> futures,
+            AtomicReferenceArray<ImportResult> importedFiles) {
+        List<ImportResult> results = new ArrayList<>(files.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                ImportResult result = futures.get(i).get();
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (CancellationException e) {
+                // skipped file, unless it has been imported before the import was canceled
+                if (importedFiles.get(i) != null) {
+                    results.add(importedFiles.get(i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+            } catch (ExecutionException e) {
+                LOGGER.warn("Could not import " + files.get(i), e.getCause());
+                results.add(new ImportResult(files.get(i), Optional.empty(),
+                        Optional.of(new IOException(e.getCause().getMessage(), e.getCause()))));
+            }
+        }
+        return results;
+    }
+}
@@ -1,22 +1,23 @@
 package net.sf.jabref.logic.importer.fetcher;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 
 import net.sf.jabref.logic.formatter.bibtexfields.RemoveBracesFormatter;
 import net.sf.jabref.logic.layout.format.LatexToUnicodeFormatter;
+import net.sf.jabref.logic.net.URLDownload;
 import net.sf.jabref.logic.util.DOI;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
 
-import com.mashape.unirest.http.HttpResponse;
-import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
-import com.mashape.unirest.http.exceptions.UnirestException;
 import info.debatty.java.stringsimilarity.Levenshtein;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.utils.URIBuilder;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -47,19 +48,20 @@ public class CrossRef {
         String query = enhanceQuery(title.get(), entry);
 
         try {
-            HttpResponse<JsonNode> response = Unirest.get(API_URL + "/works")
-                    .queryString("query", query)
-                    .queryString("rows", "1")
-                    .asJson();
+            URIBuilder uriBuilder = new URIBuilder(API_URL + "/works");
+            uriBuilder.addParameter("query", query);
+            uriBuilder.addParameter("rows", "1");
+            // downloaded through URLDownload, so the answer is cached
+            String response = new URLDownload(uriBuilder.build().toURL()).downloadToString(StandardCharsets.UTF_8);
 
-            JSONArray items = response.getBody().getObject().getJSONObject("message").getJSONArray("items");
+            JSONArray items = new JSONObject(response).getJSONObject("message").getJSONArray("items");
             // quality check
             if (checkValidity(entry, items)) {
                 String dataDOI = items.getJSONObject(0).getString("DOI");
                 LOGGER.debug("DOI " + dataDOI + " for " + title.get() + " found.");
                 return DOI.build(dataDOI);
             }
-        } catch (UnirestException e) {
+        } catch (IOException | URISyntaxException | JSONException e) {
             LOGGER.warn("Unable to query CrossRef API: " + e.getMessage(), e);
         }
         return doi;
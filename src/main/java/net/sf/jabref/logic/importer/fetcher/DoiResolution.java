@@ -1,6 +1,7 @@
 package net.sf.jabref.logic.importer.fetcher;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +29,20 @@ import org.jsoup.select.Elements;
 public class DoiResolution implements FulltextFetcher {
     private static final Log LOGGER = LogFactory.getLog(DoiResolution.class);
 
+    private final URI resolver;
+
+
+    public DoiResolution() {
+        this(DOI.RESOLVER);
+    }
+
+    /**
+     * @param resolver the DOI resolver to start from, a local server in tests
+     */
+    DoiResolution(URI resolver) {
+        this.resolver = resolver;
+    }
+
     @Override
     public Optional<URL> findFullText(BibEntry entry) throws IOException {
         Objects.requireNonNull(entry);
@@ -36,7 +51,8 @@ public class DoiResolution implements FulltextFetcher {
         Optional<DOI> doi = entry.getFieldOptional(FieldName.DOI).flatMap(DOI::build);
 
         if(doi.isPresent()) {
-            String sciLink = doi.get().getURIAsASCIIString();
+            String sciLink = doi.get().getURI().map(uri -> resolver.resolve(uri.getRawPath()).toASCIIString())
+                    .orElse("");
 
             // follow all redirects and scan for a single pdf link
             if (!sciLink.isEmpty()) {
@@ -1,18 +1,18 @@
 package net.sf.jabref.logic.importer.fileformat;
 
 import java.io.IOException;
-import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import net.sf.jabref.MetaData;
 import net.sf.jabref.logic.bibtex.FieldContentParser;
@@ -48,12 +48,21 @@ import org.apache.commons.logging.LogFactory;
  * <p>
  * ParserResult result = BibtexParser.parse(reader);
  * <p>
+ * or, to get the entries handed out one by one instead of collecting them in the database of the result
+ * <p>
+ * ParserResult result = parser.parse(entry -> ...);
+ * <p>
+ * The input is read in chunks into a character buffer. The text of the file (needed for the parsed serialization)
+ * is taken from that buffer by offsets, so the characters are neither boxed nor copied character by character.
+ * <p>
  * Can be used stand-alone.
  */
 public class BibtexParser {
     private static final Log LOGGER = LogFactory.getLog(BibtexParser.class);
 
-    private final PushbackReader pushbackReader;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
     private BibDatabase database;
     private Map<String, EntryType> entryTypes;
     private boolean eof;
@@ -61,14 +70,26 @@ public class BibtexParser {
     private final FieldContentParser fieldContentParser;
     private ParserResult parserResult;
     private static final Integer LOOKAHEAD = 64;
-    private final Deque<Character> pureTextFromFile = new LinkedList<>();
     private final ImportFormatPreferences importFormatPreferences;
 
+    // the current chunk of the input; the text read so far starts at textStart and ends at position
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+    private int limit;
+    private int position;
+    private int textStart;
+    private boolean endOfInputReached;
+    // characters pushed back which do not correspond to the buffer content (e.g., EOF markers)
+    private final StringBuilder pushedBackCharacters = new StringBuilder();
+
+    // if set, parsed entries are handed out one by one instead of being added to the database
+    private Consumer<BibEntry> entryConsumer;
+    private final Set<String> streamedKeys = new HashSet<>();
+
     public BibtexParser(Reader in, ImportFormatPreferences importFormatPreferences) {
         Objects.requireNonNull(in);
         this.importFormatPreferences = Objects.requireNonNull(importFormatPreferences);
         fieldContentParser = new FieldContentParser(importFormatPreferences.getFieldContentParserPreferences());
-        pushbackReader = new PushbackReader(in, BibtexParser.LOOKAHEAD);
+        reader = in;
     }
 
     /**
@@ -150,6 +171,26 @@ public class BibtexParser {
     }
 
 
+    /**
+     * Parses the BibTeX-Data found when reading from reader and hands out each entry as soon as it is parsed.
+     * The entries are not added to the database of the returned {@link ParserResult}, which only contains
+     * the strings, the preamble, the epilog, the meta data and the warnings. Thus, the entries do not need to be
+     * held in memory all at once.
+     * <p>
+     * The reader will be consumed.
+     *
+     * @param entryConsumer receives the parsed entries in the order they appear in the file
+     * @return ParserResult without entries
+     * @throws IOException
+     */
+    public ParserResult parse(Consumer<BibEntry> entryConsumer) throws IOException {
+        if (parserResult != null) {
+            throw new IllegalStateException("The input has already been parsed");
+        }
+        this.entryConsumer = Objects.requireNonNull(entryConsumer);
+        return parse();
+    }
+
     private void initializeParserResult() {
         database = new BibDatabase();
         entryTypes = new HashMap<>(); // To store custom entry types parsed.
@@ -222,7 +263,14 @@ public class BibtexParser {
             // store complete parsed serialization (comments, type definition + type contents)
             entry.setParsedSerialization(commentsAndEntryTypeDefinition+dumpTextReadSoFarToString());
 
-            boolean duplicateKey = database.insertEntry(entry);
+            boolean duplicateKey;
+            if (entryConsumer == null) {
+                duplicateKey = database.insertEntry(entry);
+            } else {
+                duplicateKey = entry.getCiteKeyOptional().filter(key -> !key.isEmpty())
+                        .map(key -> !streamedKeys.add(key)).orElse(false);
+                entryConsumer.accept(entry);
+            }
             if (duplicateKey) {
                 parserResult.addDuplicateKey(entry.getCiteKey());
             } else if (!entry.getCiteKeyOptional().isPresent() || entry.getCiteKeyOptional().get().isEmpty()) {
@@ -338,12 +386,9 @@ public class BibtexParser {
     }
 
     private String getPureTextFromFile() {
-        StringBuilder entry = new StringBuilder();
-        while (!pureTextFromFile.isEmpty()) {
-            entry.append(pureTextFromFile.pollFirst());
-        }
-
-        return entry.toString();
+        String text = new String(buffer, textStart, position - textStart);
+        textStart = position;
+        return text;
     }
 
     /**
@@ -446,11 +491,23 @@ public class BibtexParser {
     }
 
     private int read() throws IOException {
-        int character = pushbackReader.read();
-
-        if (!isEOFCharacter(character)) {
-            pureTextFromFile.offerLast((char) character);
+        int character;
+        if (pushedBackCharacters.length() > 0) {
+            int last = pushedBackCharacters.length() - 1;
+            character = pushedBackCharacters.charAt(last);
+            pushedBackCharacters.setLength(last);
+        } else {
+            if (position >= limit) {
+                fillBuffer();
+            }
+            if (position < limit) {
+                character = buffer[position];
+                position++;
+            } else {
+                character = -1;
+            }
         }
+
         if (character == '\n') {
             line++;
         }
@@ -461,9 +518,42 @@ public class BibtexParser {
         if (character == '\n') {
             line--;
         }
-        pushbackReader.unread(character);
-        if (pureTextFromFile.getLast() == character) {
-            pureTextFromFile.pollLast();
+        if ((pushedBackCharacters.length() == 0) && (position > textStart) && (buffer[position - 1] == character)) {
+            position--;
+        } else {
+            if (pushedBackCharacters.length() >= BibtexParser.LOOKAHEAD) {
+                throw new IOException("Pushback buffer overflow");
+            }
+            pushedBackCharacters.append((char) character);
+        }
+    }
+
+    /**
+     * Reads the next chunk of the input. The text which has not been dumped yet is kept at the start of the buffer;
+     * the buffer is enlarged if that text fills the whole buffer.
+     */
+    private void fillBuffer() throws IOException {
+        if (endOfInputReached) {
+            return;
+        }
+
+        int keptLength = limit - textStart;
+        if (keptLength == buffer.length) {
+            char[] largerBuffer = new char[buffer.length * 2];
+            System.arraycopy(buffer, textStart, largerBuffer, 0, keptLength);
+            buffer = largerBuffer;
+        } else if (textStart > 0) {
+            System.arraycopy(buffer, textStart, buffer, 0, keptLength);
+        }
+        position -= textStart;
+        limit = keptLength;
+        textStart = 0;
+
+        int charactersRead = reader.read(buffer, limit, buffer.length - limit);
+        if (charactersRead == -1) {
+            endOfInputReached = true;
+        } else {
+            limit += charactersRead;
         }
     }
 
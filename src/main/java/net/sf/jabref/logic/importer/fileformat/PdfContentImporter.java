@@ -197,7 +197,7 @@ public class PdfContentImporter extends ImportFormat {
     }
 
     @Override
-    public ParserResult importDatabase(Path filePath, Charset defaultEncoding) {
+    public synchronized ParserResult importDatabase(Path filePath, Charset defaultEncoding) {
         final ArrayList<BibEntry> result = new ArrayList<>(1);
         try (PDDocument document = XMPUtil.loadWithAutomaticDecryption(filePath)) {
             String firstPageContents = getFirstPageContents(document);
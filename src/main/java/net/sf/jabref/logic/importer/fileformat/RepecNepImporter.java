@@ -402,7 +402,7 @@ public class RepecNepImporter extends ImportFormat {
     }
 
     @Override
-    public ParserResult importDatabase(BufferedReader reader) throws IOException {
+    public synchronized ParserResult importDatabase(BufferedReader reader) throws IOException {
         Objects.requireNonNull(reader);
 
         List<BibEntry> bibitems = new ArrayList<>();
@@ -1,13 +1,16 @@
 package net.sf.jabref.logic.integrity;
 
-import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,72 +18,159 @@ import java.util.stream.Collectors;
 
 import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.logic.l10n.Localization;
-import net.sf.jabref.logic.util.io.FileUtil;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FieldName;
 import net.sf.jabref.model.entry.FieldProperties;
 import net.sf.jabref.model.entry.FileField;
 import net.sf.jabref.model.entry.InternalBibtexFields;
 import net.sf.jabref.model.entry.ParsedFileField;
+import net.sf.jabref.model.event.EntryChangedEvent;
+import net.sf.jabref.model.event.EntryRemovedEvent;
 
 import com.google.common.base.CharMatcher;
-
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Checks the entries of a database for common problems.
+ * <p>
+ * The entries are checked in parallel. The messages of an entry are cached, so checking again only examines the
+ * entries which have changed since. Except for linked files, which may appear or vanish at any time, the messages
+ * only depend on the fields of the entry and on the database mode. So they are cached by entry id together with both,
+ * and reused only if both are still equal. The cache can also be kept small by registering the check as listener of
+ * the database (see {@link #forDatabase}).
+ */
 public class IntegrityCheck {
 
     private final BibDatabaseContext bibDatabaseContext;
 
+    private final List<Checker> bibtexCheckers;
+    private final List<Checker> biblatexCheckers;
+    private final Checker fileChecker;
+
+    // messages of all checkers but the file checker, by entry id
+    private final Map<String, CachedMessages> cache = new ConcurrentHashMap<>();
+
+
     public IntegrityCheck(BibDatabaseContext bibDatabaseContext) {
         this.bibDatabaseContext = Objects.requireNonNull(bibDatabaseContext);
+
+        // BibTeX only checkers
+        bibtexCheckers = createCheckers(new TitleChecker(), new PagesChecker(), new ASCIICharacterChecker());
+        biblatexCheckers = createCheckers(new BiblatexPagesChecker());
+        fileChecker = new FileChecker(bibDatabaseContext);
     }
 
-    public List<IntegrityMessage> checkBibtexDatabase() {
-        List<IntegrityMessage> result = new ArrayList<>();
+    /**
+     * Creates an integrity check of the given database, which forgets the messages of an entry as soon as the entry
+     * is changed or removed.
+     */
+    public static IntegrityCheck forDatabase(BibDatabaseContext bibDatabaseContext) {
+        IntegrityCheck integrityCheck = new IntegrityCheck(bibDatabaseContext);
+        bibDatabaseContext.getDatabase().registerListener(integrityCheck);
+        return integrityCheck;
+    }
 
-        for (BibEntry entry : bibDatabaseContext.getDatabase().getEntries()) {
-            result.addAll(checkBibtexEntry(entry));
+    private static List<Checker> createCheckers(Checker... modeSpecificCheckers) {
+        List<Checker> checkers = new ArrayList<>();
+        checkers.add(new AuthorNameChecker());
+        checkers.addAll(Arrays.asList(modeSpecificCheckers));
+        checkers.add(new BracketChecker(FieldName.TITLE));
+        checkers.add(new YearChecker());
+        checkers.add(new UrlChecker());
+        checkers.add(new TypeChecker());
+        for (String journalField : InternalBibtexFields.getJournalNameFields()) {
+            checkers.add(new AbbreviationChecker(journalField));
+        }
+        for (String bookNameField : InternalBibtexFields.getBookNameFields()) {
+            checkers.add(new AbbreviationChecker(bookNameField));
         }
+        checkers.add(new BibStringChecker());
+        checkers.add(new HTMLCharacterChecker());
+        checkers.add(new BooktitleChecker());
+        checkers.add(new ISSNChecker());
+        checkers.add(new ISBNChecker());
+        return checkers;
+    }
 
+    public List<IntegrityMessage> checkBibtexDatabase() {
+        List<IntegrityMessage> result = new ArrayList<>();
+        checkBibtexDatabase(result::add);
         return result;
     }
 
-    private List<IntegrityMessage> checkBibtexEntry(BibEntry entry) {
+    /**
+     * Checks all entries in parallel, and passes the messages to the given consumer as soon as all entries before
+     * have been checked. So the messages are passed in the order of the entries, and the consumer is not called
+     * concurrently.
+     */
+    public void checkBibtexDatabase(Consumer<IntegrityMessage> consumer) {
+        List<BibEntry> entries = new ArrayList<>(bibDatabaseContext.getDatabase().getEntries());
+        boolean biblatexMode = bibDatabaseContext.isBiblatexMode();
+
+        entries.parallelStream().map(entry -> checkBibtexEntry(entry, biblatexMode))
+                .forEachOrdered(messages -> messages.forEach(consumer));
+    }
+
+    private List<IntegrityMessage> checkBibtexEntry(BibEntry entry, boolean biblatexMode) {
         List<IntegrityMessage> result = new ArrayList<>();
 
         if (entry == null) {
             return result;
         }
 
-        result.addAll(new AuthorNameChecker().check(entry));
-
-        // BibTeX only checkers
-        if (!bibDatabaseContext.isBiblatexMode()) {
-            result.addAll(new TitleChecker().check(entry));
-            result.addAll(new PagesChecker().check(entry));
-            result.addAll(new ASCIICharacterChecker().check(entry));
+        // taken before checking, so a change during the check makes the cached messages outdated
+        String type = entry.getType();
+        Map<String, String> fields = new HashMap<>(entry.getFieldMap());
+        CachedMessages cached = cache.get(entry.getId());
+        if ((cached != null) && cached.isFor(biblatexMode, type, fields)) {
+            result.addAll(cached.messages);
         } else {
-            result.addAll(new BiblatexPagesChecker().check(entry));
+            List<IntegrityMessage> messages = new ArrayList<>();
+            for (Checker checker : biblatexMode ? biblatexCheckers : bibtexCheckers) {
+                messages.addAll(checker.check(entry));
+            }
+            cache.put(entry.getId(), new CachedMessages(biblatexMode, type, fields, messages));
+            result.addAll(messages);
         }
 
-        result.addAll(new BracketChecker(FieldName.TITLE).check(entry));
-        result.addAll(new YearChecker().check(entry));
-        result.addAll(new UrlChecker().check(entry));
-        result.addAll(new FileChecker(bibDatabaseContext).check(entry));
-        result.addAll(new TypeChecker().check(entry));
-        for (String journalField : InternalBibtexFields.getJournalNameFields()) {
-            result.addAll(new AbbreviationChecker(journalField).check(entry));
-        }
-        for (String bookNameField : InternalBibtexFields.getBookNameFields()) {
-            result.addAll(new AbbreviationChecker(bookNameField).check(entry));
-        }
-        result.addAll(new BibStringChecker().check(entry));
-        result.addAll(new HTMLCharacterChecker().check(entry));
-        result.addAll(new BooktitleChecker().check(entry));
-        result.addAll(new ISSNChecker().check(entry));
-        result.addAll(new ISBNChecker().check(entry));
+        result.addAll(fileChecker.check(entry));
 
         return result;
     }
 
+    @Subscribe
+    public void listen(EntryChangedEvent event) {
+        cache.remove(event.getBibEntry().getId());
+    }
+
+    @Subscribe
+    public void listen(EntryRemovedEvent event) {
+        cache.remove(event.getBibEntry().getId());
+    }
+
+
+    private static class CachedMessages {
+
+        // the database mode, the entry type, and the fields the messages have been computed for
+        private final boolean biblatexMode;
+        private final String type;
+        private final Map<String, String> fields;
+        private final List<IntegrityMessage> messages;
+
+
+        private CachedMessages(boolean biblatexMode, String type, Map<String, String> fields,
+                List<IntegrityMessage> messages) {
+            this.biblatexMode = biblatexMode;
+            this.type = type;
+            this.fields = fields;
+            this.messages = messages;
+        }
+
+        private boolean isFor(boolean biblatexMode, String type, Map<String, String> fields) {
+            return (this.biblatexMode == biblatexMode) && Objects.equals(this.type, type) && this.fields.equals(fields);
+        }
+    }
+
 
     @FunctionalInterface
     public interface Checker {
@@ -165,8 +255,7 @@ public class IntegrityCheck {
                     .collect(Collectors.toList());
 
             for (ParsedFileField p : parsedFileFields) {
-                Optional<File> file = FileUtil.expandFilename(context, p.getLink());
-                if ((!file.isPresent()) || !file.get().exists()) {
+                if (!context.getFileLinkCatalog().getFile(p.getLink()).isPresent()) {
                     return Collections.singletonList(
                             new IntegrityMessage(Localization.lang("link should refer to a correct file path"), entry,
                                     FieldName.FILE));
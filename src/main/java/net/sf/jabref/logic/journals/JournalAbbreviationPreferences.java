@@ -2,6 +2,7 @@ package net.sf.jabref.logic.journals;
 
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.Objects;
 
 import net.sf.jabref.preferences.JabRefPreferences;
 
@@ -43,4 +44,24 @@ public class JournalAbbreviationPreferences {
     public Charset getDefaultEncoding() {
         return defaultEncoding;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if ((o == null) || (getClass() != o.getClass())) {
+            return false;
+        }
+        JournalAbbreviationPreferences that = (JournalAbbreviationPreferences) o;
+        return Objects.equals(externalJournalLists, that.externalJournalLists) &&
+                Objects.equals(personalJournalLists, that.personalJournalLists) &&
+                Objects.equals(useIEEEAbbreviations, that.useIEEEAbbreviations) &&
+                Objects.equals(defaultEncoding, that.defaultEncoding);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(externalJournalLists, personalJournalLists, useIEEEAbbreviations, defaultEncoding);
+    }
 }
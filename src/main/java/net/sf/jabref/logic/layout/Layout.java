@@ -97,7 +97,16 @@ public class Layout {
      */
     public String doLayout(BibEntry bibtex, BibDatabase database, Optional<Pattern> highlightPattern) {
         StringBuilder sb = new StringBuilder(100);
+        doLayout(bibtex, database, highlightPattern, sb);
+        return sb.toString();
+    }
 
+    /**
+     * Appends the processed bibtex entry to the given builder, which allows reusing the builder for many entries.
+     *
+     * @see #doLayout(BibEntry, BibDatabase, Optional)
+     */
+    public void doLayout(BibEntry bibtex, BibDatabase database, Optional<Pattern> highlightPattern, StringBuilder sb) {
         for (LayoutEntry layoutEntry : layoutEntries) {
             String fieldText = layoutEntry.doLayout(bibtex, database, highlightPattern);
 
@@ -111,8 +120,6 @@ public class Layout {
 
             sb.append(fieldText);
         }
-
-        return sb.toString();
     }
 
     /**
@@ -140,6 +147,14 @@ public class Layout {
 
     // added section - end (arudert)
 
+    /**
+     * Checks whether each entry is laid out independently of the entries laid out before, so entries can be laid out
+     * in any order, e.g., in parallel. This is not the case for layouts containing groups or entry numbers.
+     */
+    public boolean isIndependentOfOtherEntries() {
+        return layoutEntries.stream().noneMatch(LayoutEntry::dependsOnOtherEntries);
+    }
+
     public List<String> getMissingFormatters() {
         return new ArrayList<>(missingFormatters);
     }
@@ -86,6 +86,10 @@ import org.apache.commons.logging.LogFactory;
 
 class LayoutEntry {
 
+    // separators of the fields of a field block, which requires all (&, && or ;) or any (| or ||) of the fields
+    private static final Pattern ALL_FIELDS_SEPARATOR = Pattern.compile("\\s*(;|(\\&+))\\s*");
+    private static final Pattern ANY_FIELD_SEPARATOR = Pattern.compile("\\s*(\\|+)\\s*");
+
     private List<LayoutFormatter> option;
 
     // Formatter to be run after other formatters:
@@ -95,6 +99,10 @@ class LayoutEntry {
 
     private List<LayoutEntry> layoutEntries;
 
+    // fields of a field block, split once when the layout is parsed
+    private String[] blockFields;
+    private boolean allBlockFieldsRequired;
+
     private final int type;
 
     private final List<String> invalidFormatter = new ArrayList<>();
@@ -136,6 +144,10 @@ class LayoutEntry {
 
         type = layoutType;
         text = blockEnd;
+        if (type == LayoutHelper.IS_FIELD_START) {
+            allBlockFieldsRequired = ALL_FIELDS_SEPARATOR.matcher(text).find();
+            blockFields = (allBlockFieldsRequired ? ALL_FIELDS_SEPARATOR : ANY_FIELD_SEPARATOR).split(text);
+        }
         List<StringInt> blockEntries = null;
         for (StringInt parsedEntry : parsedEntries.subList(1, parsedEntries.size() - 1)) {
             switch (parsedEntry.i) {
@@ -255,21 +267,19 @@ class LayoutEntry {
         Optional<String> field;
         if (type == LayoutHelper.IS_GROUP_START) {
             field = BibDatabase.getResolvedField(text, bibtex, database);
-        } else if (text.matches(".*(;|(\\&+)).*")) {
-            // split the strings along &, && or ; for AND formatter
-            String[] parts = text.split("\\s*(;|(\\&+))\\s*");
+        } else if (allBlockFieldsRequired) {
+            // the strings split along &, && or ; for AND formatter
             field = Optional.empty();
-            for (String part : parts) {
+            for (String part : blockFields) {
                 field = BibDatabase.getResolvedField(part, bibtex, database);
                 if (!field.isPresent()) {
                     break;
                 }
             }
         } else {
-            // split the strings along |, ||  for OR formatter
-            String[] parts = text.split("\\s*(\\|+)\\s*");
+            // the strings split along |, ||  for OR formatter
             field = Optional.empty();
-            for (String part : parts) {
+            for (String part : blockFields) {
                 field = BibDatabase.getResolvedField(part, bibtex, database);
                 if (field.isPresent()) {
                     break;
@@ -613,6 +623,18 @@ class LayoutEntry {
         return invalidFormatter;
     }
 
+    /**
+     * Returns whether the output for an entry depends on the entries laid out before, as it does for groups, which
+     * are only written if the group changes, and for entry numbers.
+     */
+    public boolean dependsOnOtherEntries() {
+        if ((type == LayoutHelper.IS_GROUP_START) || ((option != null) && option.stream().anyMatch(
+                formatter -> formatter instanceof Number))) {
+            return true;
+        }
+        return (layoutEntries != null) && layoutEntries.stream().anyMatch(LayoutEntry::dependsOnOtherEntries);
+    }
+
     public static List<List<String>> parseMethodsCalls(String calls) {
 
         List<List<String>> result = new ArrayList<>();
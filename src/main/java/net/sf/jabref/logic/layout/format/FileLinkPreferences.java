@@ -2,6 +2,7 @@ package net.sf.jabref.logic.layout.format;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import net.sf.jabref.model.entry.FieldName;
 import net.sf.jabref.preferences.JabRefPreferences;
@@ -30,4 +31,22 @@ public class FileLinkPreferences {
     public List<String> getFileDirForDatabase() {
         return fileDirForDatabase;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if ((o == null) || (getClass() != o.getClass())) {
+            return false;
+        }
+        FileLinkPreferences that = (FileLinkPreferences) o;
+        return Objects.equals(generatedDirForDatabase, that.generatedDirForDatabase) &&
+                Objects.equals(fileDirForDatabase, that.fileDirForDatabase);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(generatedDirForDatabase, fileDirForDatabase);
+    }
 }
@@ -1,6 +1,7 @@
 package net.sf.jabref.logic.layout.format;
 
 import java.util.List;
+import java.util.Objects;
 
 import net.sf.jabref.preferences.JabRefPreferences;
 
@@ -28,4 +29,22 @@ public class NameFormatterPreferences {
     public List<String> getNameFormatterValue() {
         return nameFormatterValue;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if ((o == null) || (getClass() != o.getClass())) {
+            return false;
+        }
+        NameFormatterPreferences that = (NameFormatterPreferences) o;
+        return Objects.equals(nameFormatterKey, that.nameFormatterKey) &&
+                Objects.equals(nameFormatterValue, that.nameFormatterValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nameFormatterKey, nameFormatterValue);
+    }
 }
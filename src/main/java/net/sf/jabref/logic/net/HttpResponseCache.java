@@ -0,0 +1,802 @@
+package net.sf.jabref.logic.net;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.CacheRequest;
+import java.net.CacheResponse;
+import java.net.HttpURLConnection;
+import java.net.ResponseCache;
+import java.net.SecureCacheResponse;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A size-bounded cache of HTTP responses on disk. Once {@link #install(Path, long) installed}, it is used by all
+ * connections opened through {@link URLConnection}, e.g., by {@link URLDownload} and the fetchers.
+ * <p>
+ * Only successful responses to GET requests are stored, keyed by the normalized URL and the <code>Accept</code>
+ * headers of the request. A stored response is served at once while it is fresh, as told by its
+ * <code>Cache-Control</code> or <code>Expires</code> header, or else for a default lifetime. If the cache grows beyond
+ * its maximum size, the least recently used responses are removed.
+ * <p>
+ * The cache never sends requests itself, so the timeouts and the redirect handling of each connection apply. As a
+ * connection does not ask the cache about a response telling that a stale response has not been modified,
+ * {@link URLDownload} revalidates stale responses using their <code>ETag</code> and <code>Last-Modified</code> headers
+ * (see {@link #getRevalidationHeaders(URI, Map)}). Other connections download a stale response again.
+ * <p>
+ * In offline mode, stored responses are served regardless of their age, and all other requests fail without accessing
+ * the network.
+ */
+public class HttpResponseCache extends ResponseCache {
+
+    private static final Log LOGGER = LogFactory.getLog(HttpResponseCache.class);
+
+    private static final long DEFAULT_LIFETIME = TimeUnit.DAYS.toMillis(1);
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // a single response may take at most this part of the cache, so a large download does not evict everything else
+    private static final int MAX_ENTRY_FRACTION = 8;
+
+    private final Path directory;
+    private final long maxSize;
+    private final long defaultLifetime;
+    // file names of the stored responses and their sizes, in the order of their last use
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    // the request last looked up in this thread, as the request headers are no longer known when storing a response
+    private final ThreadLocal<PendingRequest> pendingRequest = new ThreadLocal<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private volatile boolean offline;
+
+
+    /**
+     * Opens the cache stored in the given directory, creating the directory if needed.
+     *
+     * @param maxSize         the maximum size of the stored responses in bytes
+     * @param defaultLifetime the time a response is fresh if it does not tell itself
+     */
+    public HttpResponseCache(Path directory, long maxSize, long defaultLifetime, TimeUnit unit) throws IOException {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.defaultLifetime = unit.toMillis(defaultLifetime);
+
+        Files.createDirectories(directory);
+        Map<String, FileTime> lastUses = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // left over by an interrupted write
+                    delete(file);
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    lastUses.put(name, Files.getLastModifiedTime(file));
+                }
+            }
+        }
+        List<String> names = new ArrayList<>(lastUses.keySet());
+        names.sort((first, second) -> lastUses.get(first).compareTo(lastUses.get(second)));
+        synchronized (this) {
+            for (String name : names) {
+                long fileSize = Files.size(directory.resolve(name));
+                entries.put(name, fileSize);
+                size += fileSize;
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Opens the cache stored in the given directory and uses it for all connections.
+     *
+     * @param maxSize the maximum size of the stored responses in bytes
+     */
+    public static HttpResponseCache install(Path directory, long maxSize) throws IOException {
+        HttpResponseCache cache = new HttpResponseCache(directory, maxSize, DEFAULT_LIFETIME, TimeUnit.MILLISECONDS);
+        ResponseCache.setDefault(cache);
+        return cache;
+    }
+
+    /**
+     * Returns the cache used for all connections, if it is one of this class.
+     */
+    public static Optional<HttpResponseCache> getInstalled() {
+        ResponseCache cache = ResponseCache.getDefault();
+        return (cache instanceof HttpResponseCache) ? Optional.of((HttpResponseCache) cache) : Optional.empty();
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * In offline mode, stored responses are served regardless of their age, and all other requests fail.
+     */
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    /**
+     * Returns the number of requests answered by a stored response.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of requests which could not be answered by a stored response.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the size of the stored responses in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Removes all stored responses.
+     */
+    public synchronized void clear() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (delete(directory.resolve(entry.getKey()))) {
+                size -= entry.getValue();
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public CacheResponse get(URI uri, String requestMethod, Map<String, List<String>> requestHeaders) {
+        if (!"GET".equals(requestMethod) || !isHttp(uri)) {
+            pendingRequest.remove();
+            return null;
+        }
+
+        String key = getKey(uri, requestHeaders);
+        // the connection revalidates a stale response, see getRevalidationHeaders
+        boolean revalidating = getHeader(requestHeaders, "If-None-Match").isPresent()
+                || getHeader(requestHeaders, "If-Modified-Since").isPresent();
+        pendingRequest.set(new PendingRequest(uri, key, revalidating));
+        Optional<Entry> entry = read(key);
+        if (entry.isPresent() && (offline || (entry.get().expires > System.currentTimeMillis()))) {
+            return serve(entry.get());
+        }
+        entry.ifPresent(Entry::close);
+
+        if (offline) {
+            missCount.incrementAndGet();
+            return new StoredResponse(
+                    Collections.singletonMap(null, Collections.singletonList("HTTP/1.1 504 Gateway Timeout")),
+                    new InputStream() {
+
+                        @Override
+                        public int read() throws IOException {
+                            throw new IOException("No cached response for " + uri + " while offline");
+                        }
+                    }, "", Collections.emptyList());
+        }
+        if (!revalidating) {
+            missCount.incrementAndGet();
+        }
+        // the connection sends the request itself, so its timeouts and its handling of redirects apply
+        return null;
+    }
+
+    @Override
+    public CacheRequest put(URI uri, URLConnection connection) throws IOException {
+        PendingRequest request = pendingRequest.get();
+        pendingRequest.remove();
+        if (offline || (request == null) || !request.uri.equals(uri) || !(connection instanceof HttpURLConnection)) {
+            return null;
+        }
+        if (request.revalidating) {
+            // the stale response has been modified
+            missCount.incrementAndGet();
+        }
+
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        Map<String, List<String>> headers = getStoredHeaders(httpConnection.getHeaderFields());
+        if (!"GET".equals(httpConnection.getRequestMethod())
+                || (httpConnection.getResponseCode() != HttpURLConnection.HTTP_OK)
+                || getCacheControl(headers).contains("no-store")
+                || (httpConnection.getContentLengthLong() > (maxSize / MAX_ENTRY_FRACTION))) {
+            return null;
+        }
+
+        String cipherSuite = "";
+        List<Certificate> certificates = Collections.emptyList();
+        if (connection instanceof HttpsURLConnection) {
+            HttpsURLConnection httpsConnection = (HttpsURLConnection) connection;
+            cipherSuite = httpsConnection.getCipherSuite();
+            certificates = Arrays.asList(httpsConnection.getServerCertificates());
+        }
+        byte[] header = writeHeader(request.key, getExpires(headers), headers, cipherSuite, certificates);
+        return new EntryWriter(getFileName(request.key), header);
+    }
+
+    /**
+     * Returns the headers asking the server whether the stale response stored for the given request has been modified.
+     * If the server tells it has not, the response is to be read by
+     * {@link #getNotModifiedBody(URI, Map, Map) getNotModifiedBody}. The map is empty if no stale response is stored.
+     */
+    public Map<String, String> getRevalidationHeaders(URI uri, Map<String, List<String>> requestHeaders) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (offline || !isHttp(uri)) {
+            return headers;
+        }
+
+        Optional<Entry> entry = read(getKey(uri, requestHeaders));
+        if (entry.isPresent()) {
+            if (entry.get().expires <= System.currentTimeMillis()) {
+                entry.get().getHeader("ETag").ifPresent(etag -> headers.put("If-None-Match", etag));
+                entry.get().getHeader("Last-Modified").ifPresent(date -> headers.put("If-Modified-Since", date));
+            }
+            entry.get().close();
+        }
+        return headers;
+    }
+
+    /**
+     * Returns the body of the stale response stored for the given request after the server has told that it has not
+     * been modified. The response is stored again with the headers of the answer of the server.
+     *
+     * @return the body, or an empty optional if the stored response could not be read
+     */
+    public Optional<InputStream> getNotModifiedBody(URI uri, Map<String, List<String>> requestHeaders,
+            Map<String, List<String>> responseHeaders) {
+        Optional<Entry> entry = read(getKey(uri, requestHeaders));
+        if (!entry.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            Entry refreshed = refresh(entry.get(), responseHeaders);
+            serve(refreshed);
+            return Optional.of(refreshed.body);
+        } catch (IOException e) {
+            LOGGER.debug("Cannot refresh cached response for " + uri, e);
+            return Optional.empty();
+        }
+    }
+
+    private CacheResponse serve(Entry entry) {
+        hitCount.incrementAndGet();
+        synchronized (this) {
+            // marks the entry as used
+            entries.get(entry.file.getFileName().toString());
+        }
+        try {
+            // the last use is kept across sessions as the time of the last modification
+            Files.setLastModifiedTime(entry.file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            LOGGER.debug("Cannot mark cached response as used", e);
+        }
+        return entry.toResponse();
+    }
+
+    /**
+     * Stores the given entry again with the headers of a response telling that it has not been modified.
+     */
+    private Entry refresh(Entry entry, Map<String, List<String>> newHeaders) throws IOException {
+        Map<String, List<String>> headers = new LinkedHashMap<>(entry.headers);
+        getStoredHeaders(newHeaders).forEach((name, values) -> {
+            if ((name != null) && !"Content-Length".equalsIgnoreCase(name)) {
+                headers.keySet().removeIf(name::equalsIgnoreCase);
+                headers.put(name, values);
+            }
+        });
+        byte[] header = writeHeader(entry.key, getExpires(headers), headers, entry.cipherSuite, entry.getCertificates());
+
+        EntryWriter writer = new EntryWriter(entry.file.getFileName().toString(), header);
+        OutputStream out = writer.getBody();
+        try (InputStream body = entry.body) {
+            copy(body, out);
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+        // replaces the stored response only after it has been closed, as an open file cannot be replaced on Windows
+        out.close();
+        return read(entry.key).orElseThrow(() -> new IOException("Refreshed response has been evicted"));
+    }
+
+    private Optional<Entry> read(String key) {
+        String name = getFileName(key);
+        synchronized (this) {
+            if (!entries.containsKey(name)) {
+                return Optional.empty();
+            }
+        }
+
+        Path file = directory.resolve(name);
+        InputStream in;
+        try {
+            in = Files.newInputStream(file);
+        } catch (IOException e) {
+            LOGGER.debug("Cannot read cached response " + file, e);
+            return Optional.empty();
+        }
+        try {
+            // the stream is not buffered, so it is left at the start of the body, which is served from it
+            DataInputStream header = new DataInputStream(in);
+            byte[] headerBytes = new byte[header.readInt()];
+            header.readFully(headerBytes);
+            Entry entry = Entry.read(file, headerBytes, in);
+            // the key is only compared for safety, a hash collision is very unlikely
+            if (entry.key.equals(key)) {
+                return Optional.of(entry);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Cannot read cached response " + file, e);
+        }
+        close(in);
+        return Optional.empty();
+    }
+
+    private synchronized void commit(String name, Path tempFile) throws IOException {
+        Path file = directory.resolve(name);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long fileSize = Files.size(file);
+        Long previousSize = entries.put(name, fileSize);
+        size += fileSize - ((previousSize == null) ? 0 : previousSize);
+        evict();
+    }
+
+    private synchronized void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while ((size > maxSize) && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            // a response being served cannot be deleted on Windows, it stays stored until it is evicted again
+            if (delete(directory.resolve(entry.getKey()))) {
+                size -= entry.getValue();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static boolean delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            LOGGER.debug("Cannot delete cached response " + file, e);
+            return false;
+        }
+    }
+
+    private static void close(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            LOGGER.debug("Cannot close cached response", e);
+        }
+    }
+
+    private long getExpires(Map<String, List<String>> headers) {
+        long now = System.currentTimeMillis();
+        for (String directive : getCacheControl(headers).split(",")) {
+            String trimmedDirective = directive.trim();
+            if ("no-cache".equals(trimmedDirective)) {
+                return now;
+            } else if (trimmedDirective.startsWith("max-age=")) {
+                try {
+                    return now + TimeUnit.SECONDS.toMillis(Long.parseLong(trimmedDirective.substring(8)));
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Invalid max-age " + trimmedDirective, e);
+                }
+            }
+        }
+
+        Optional<String> expires = getHeader(headers, "Expires");
+        if (expires.isPresent()) {
+            try {
+                return ZonedDateTime.parse(expires.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+                        .toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // an invalid date means the response has already expired
+                return now;
+            }
+        }
+        return now + defaultLifetime;
+    }
+
+    private static String getCacheControl(Map<String, List<String>> headers) {
+        List<String> values = new ArrayList<>();
+        headers.forEach((name, headerValues) -> {
+            if ("Cache-Control".equalsIgnoreCase(name) || "Pragma".equalsIgnoreCase(name)) {
+                values.addAll(headerValues);
+            }
+        });
+        return String.join(",", values).toLowerCase(Locale.ROOT);
+    }
+
+    private static Optional<String> getHeader(Map<String, List<String>> headers, String name) {
+        return headers.entrySet().stream().filter(header -> name.equalsIgnoreCase(header.getKey()))
+                .flatMap(header -> header.getValue().stream()).findFirst();
+    }
+
+    private static Map<String, List<String>> getStoredHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> storedHeaders = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            // the body is stored without its transfer encoding
+            if (!"Transfer-Encoding".equalsIgnoreCase(name)) {
+                storedHeaders.put(name, new ArrayList<>(values));
+            }
+        });
+        return storedHeaders;
+    }
+
+    private static boolean isHttp(URI uri) {
+        return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    /**
+     * Returns the key of a request: its normalized URL and the headers telling which representation is requested.
+     */
+    static String getKey(URI uri, Map<String, List<String>> requestHeaders) {
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder("GET ").append(scheme).append("://");
+        if (uri.getHost() != null) {
+            key.append(uri.getHost().toLowerCase(Locale.ROOT));
+        }
+        int defaultPort = "https".equals(scheme) ? 443 : 80;
+        if ((uri.getPort() != -1) && (uri.getPort() != defaultPort)) {
+            key.append(':').append(uri.getPort());
+        }
+        String path = uri.getRawPath();
+        key.append(((path == null) || path.isEmpty()) ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+
+        Map<String, String> acceptHeaders = new TreeMap<>();
+        requestHeaders.forEach((name, values) -> {
+            if ((name != null) && name.toLowerCase(Locale.ROOT).startsWith("accept")) {
+                acceptHeaders.put(name.toLowerCase(Locale.ROOT), String.join(",", values));
+            }
+        });
+        acceptHeaders.forEach((name, value) -> key.append('\n').append(name).append(": ").append(value));
+        return key.toString();
+    }
+
+    private static String getFileName(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte b : hash) {
+                name.append(String.format("%02x", b));
+            }
+            return name.append(ENTRY_SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static byte[] writeHeader(String key, long expires, Map<String, List<String>> headers, String cipherSuite,
+            List<Certificate> certificates) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(header)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(key);
+            out.writeLong(expires);
+            out.writeInt(headers.size());
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                // the status line has no name
+                out.writeUTF((entry.getKey() == null) ? "" : entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String value : entry.getValue()) {
+                    out.writeUTF(value);
+                }
+            }
+            out.writeUTF(cipherSuite);
+            out.writeInt(certificates.size());
+            for (Certificate certificate : certificates) {
+                byte[] encoded = certificate.getEncoded();
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        } catch (CertificateEncodingException e) {
+            throw new IOException("Cannot store certificate", e);
+        }
+        return header.toByteArray();
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+
+    private static class PendingRequest {
+
+        private final URI uri;
+        private final String key;
+        private final boolean revalidating;
+
+
+        PendingRequest(URI uri, String key, boolean revalidating) {
+            this.uri = uri;
+            this.key = key;
+            this.revalidating = revalidating;
+        }
+    }
+
+    /**
+     * A stored response, as read from the header of its file. Its body is read from the stream the header has been read
+     * from, which is to be closed if the response is not served.
+     */
+    private static class Entry {
+
+        private final Path file;
+        private final InputStream body;
+        private final String key;
+        private final long expires;
+        private final Map<String, List<String>> headers;
+        private final String cipherSuite;
+        private final List<byte[]> certificates;
+
+
+        private Entry(Path file, InputStream body, String key, long expires, Map<String, List<String>> headers,
+                String cipherSuite, List<byte[]> certificates) {
+            this.file = file;
+            this.body = body;
+            this.key = key;
+            this.expires = expires;
+            this.headers = headers;
+            this.cipherSuite = cipherSuite;
+            this.certificates = certificates;
+        }
+
+        static Entry read(Path file, byte[] header, InputStream body) throws IOException {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(header))) {
+                if (in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Unknown format of cached response");
+                }
+                String key = in.readUTF();
+                long expires = in.readLong();
+                Map<String, List<String>> headers = new LinkedHashMap<>();
+                int headerCount = in.readInt();
+                for (int i = 0; i < headerCount; i++) {
+                    String name = in.readUTF();
+                    List<String> values = new ArrayList<>();
+                    int valueCount = in.readInt();
+                    for (int j = 0; j < valueCount; j++) {
+                        values.add(in.readUTF());
+                    }
+                    headers.put(name.isEmpty() ? null : name, values);
+                }
+                String cipherSuite = in.readUTF();
+                List<byte[]> certificates = new ArrayList<>();
+                int certificateCount = in.readInt();
+                for (int i = 0; i < certificateCount; i++) {
+                    byte[] certificate = new byte[in.readInt()];
+                    in.readFully(certificate);
+                    certificates.add(certificate);
+                }
+                return new Entry(file, body, key, expires, headers, cipherSuite, certificates);
+            }
+        }
+
+        Optional<String> getHeader(String name) {
+            return HttpResponseCache.getHeader(headers, name);
+        }
+
+        void close() {
+            HttpResponseCache.close(body);
+        }
+
+        List<Certificate> getCertificates() throws IOException {
+            try {
+                CertificateFactory factory = CertificateFactory.getInstance("X.509");
+                List<Certificate> result = new ArrayList<>();
+                for (byte[] certificate : certificates) {
+                    result.add(factory.generateCertificate(new ByteArrayInputStream(certificate)));
+                }
+                return result;
+            } catch (CertificateException e) {
+                throw new IOException("Cannot read stored certificate", e);
+            }
+        }
+
+        CacheResponse toResponse() {
+            List<Certificate> serverCertificates;
+            try {
+                serverCertificates = getCertificates();
+            } catch (IOException e) {
+                LOGGER.debug("Cannot read certificates of cached response", e);
+                serverCertificates = Collections.emptyList();
+            }
+            return new StoredResponse(headers, body, cipherSuite, serverCertificates);
+        }
+    }
+
+    /**
+     * A response served from the cache. Connections to HTTPS URLs only accept secure responses, thus all responses are
+     * secure ones, those of HTTP URLs without a cipher suite.
+     */
+    private static class StoredResponse extends SecureCacheResponse {
+
+        private final Map<String, List<String>> headers;
+        private final InputStream body;
+        private final String cipherSuite;
+        private final List<Certificate> serverCertificates;
+
+
+        StoredResponse(Map<String, List<String>> headers, InputStream body, String cipherSuite,
+                List<Certificate> serverCertificates) {
+            this.headers = headers;
+            this.body = body;
+            this.cipherSuite = cipherSuite;
+            this.serverCertificates = serverCertificates;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public String getCipherSuite() {
+            return cipherSuite;
+        }
+
+        @Override
+        public List<Certificate> getLocalCertificateChain() {
+            return null;
+        }
+
+        @Override
+        public List<Certificate> getServerCertificateChain() throws SSLPeerUnverifiedException {
+            if (serverCertificates.isEmpty()) {
+                throw new SSLPeerUnverifiedException("No server certificates cached");
+            }
+            return serverCertificates;
+        }
+
+        @Override
+        public Principal getPeerPrincipal() throws SSLPeerUnverifiedException {
+            return ((X509Certificate) getServerCertificateChain().get(0)).getSubjectX500Principal();
+        }
+
+        @Override
+        public Principal getLocalPrincipal() {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a response to a temporary file, which replaces the stored response once the whole body has been written.
+     * A body growing beyond the maximum size of a single response is dropped.
+     */
+    private class EntryWriter extends CacheRequest {
+
+        private final String name;
+        private final Path tempFile;
+        private final DataOutputStream out;
+        private long bodySize;
+        private boolean aborted;
+
+
+        EntryWriter(String name, byte[] header) throws IOException {
+            this.name = name;
+            this.tempFile = Files.createTempFile(directory, "response", TEMP_SUFFIX);
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)));
+            try {
+                out.writeInt(header.length);
+                out.write(header);
+            } catch (IOException e) {
+                abort();
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return new OutputStream() {
+
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    if (aborted) {
+                        return;
+                    }
+                    bodySize += length;
+                    if (bodySize > (maxSize / MAX_ENTRY_FRACTION)) {
+                        abort();
+                        return;
+                    }
+                    try {
+                        out.write(buffer, offset, length);
+                    } catch (IOException e) {
+                        LOGGER.debug("Cannot cache response", e);
+                        abort();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (aborted) {
+                        return;
+                    }
+                    try {
+                        out.close();
+                        commit(name, tempFile);
+                    } catch (IOException e) {
+                        LOGGER.debug("Cannot cache response", e);
+                        abort();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+            try {
+                out.close();
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                LOGGER.debug("Cannot delete incomplete cached response " + tempFile, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.sf.jabref.logic.net;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the requests sent to a host: at most a given number of requests to the same host run at a time, and
+ * consecutive requests to the same host are started a minimum interval apart. Requests to different hosts do not limit
+ * each other.
+ * <p>
+ * A host is identified by an arbitrary key, usually the host name of the URLs requested, or the name of a service if
+ * its requests cannot be told apart.
+ */
+public class RequestLimiter {
+
+    private final int maxConcurrentRequests;
+    private final long minimumIntervalNanos;
+    private final Map<String, Semaphore> runningRequests = new ConcurrentHashMap<>();
+    // the earliest time the next request to a host may start, in terms of System.nanoTime()
+    private final Map<String, AtomicLong> nextStarts = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param maxConcurrentRequests the number of requests to the same host which may run at a time
+     * @param minimumInterval       the minimum time between the starts of two requests to the same host
+     */
+    public RequestLimiter(int maxConcurrentRequests, long minimumInterval, TimeUnit unit) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("At least one request has to be allowed: " + maxConcurrentRequests);
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.minimumIntervalNanos = unit.toNanos(minimumInterval);
+    }
+
+    /**
+     * Sends the given request as soon as the limits of the given host allow it, blocking until then.
+     *
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public <T> T send(String host, Request<T> request) throws IOException {
+        Semaphore semaphore = runningRequests.computeIfAbsent(host,
+                key -> new Semaphore(maxConcurrentRequests, true));
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request to " + host);
+        }
+
+        try {
+            waitForTurn(host);
+            return request.send();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void waitForTurn(String host) throws InterruptedIOException {
+        AtomicLong nextStart = nextStarts.computeIfAbsent(host, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        // reserve the earliest free start time and move the next start behind it
+        long reserved = Math.max(now, nextStart.getAndAccumulate(now,
+                (next, current) -> Math.max(next, current) + minimumIntervalNanos));
+        try {
+            TimeUnit.NANOSECONDS.sleep(reserved - now);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request to " + host);
+        }
+    }
+
+
+    /**
+     * A request to a host.
+     */
+    @FunctionalInterface
+    public interface Request<T> {
+
+        T send() throws IOException;
+    }
+}
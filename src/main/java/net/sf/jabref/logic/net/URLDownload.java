@@ -13,12 +13,18 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -32,7 +38,8 @@ import org.apache.commons.logging.LogFactory;
  * dl.downloadToFile(FILE); // available in FILE
  * String contentType = dl.determineMimeType();
  *
- * Each call to a public method creates a new HTTP connection. Nothing is cached.
+ * Each call to a public method creates a new HTTP connection. GET requests are answered from the
+ * {@link HttpResponseCache} if it is installed. Stale responses stored in it are revalidated.
  *
  * @author Erik Putrycz erik.putrycz-at-nrc-cnrc.gc.ca
  * @author Simon Harrer
@@ -95,10 +102,15 @@ public class URLDownload {
     }
 
     private URLConnection openConnection() throws IOException {
+        return openConnection(Collections.emptyMap());
+    }
+
+    private URLConnection openConnection(Map<String, String> additionalParameters) throws IOException {
         URLConnection connection = source.openConnection();
         for (Map.Entry<String, String> entry : parameters.entrySet()) {
             connection.setRequestProperty(entry.getKey(), entry.getValue());
         }
+        additionalParameters.forEach(connection::setRequestProperty);
         if (!postData.isEmpty()) {
             connection.setDoOutput(true);
             try (DataOutputStream wr = new DataOutputStream(connection.getOutputStream())) {
@@ -112,6 +124,44 @@ public class URLDownload {
         return connection;
     }
 
+    /**
+     * Opens the body of the response. The {@link HttpResponseCache} does not get to know that a stale response has not
+     * been modified, thus this is handled here.
+     */
+    private InputStream openInputStream() throws IOException {
+        Optional<HttpResponseCache> cache = HttpResponseCache.getInstalled();
+        Optional<URI> uri = getSourceURI();
+        if (!cache.isPresent() || !uri.isPresent() || !postData.isEmpty()) {
+            return openConnection().getInputStream();
+        }
+
+        Map<String, List<String>> requestHeaders = new HashMap<>();
+        parameters.forEach((key, value) -> requestHeaders.put(key, Collections.singletonList(value)));
+        Map<String, String> revalidationHeaders = cache.get().getRevalidationHeaders(uri.get(), requestHeaders);
+        URLConnection connection = openConnection(revalidationHeaders);
+        if (revalidationHeaders.isEmpty() || !(connection instanceof HttpURLConnection)
+                || (((HttpURLConnection) connection).getResponseCode() != HttpURLConnection.HTTP_NOT_MODIFIED)) {
+            return connection.getInputStream();
+        }
+
+        connection.getInputStream().close();
+        Optional<InputStream> body = Optional.empty();
+        // the answer is about the stored response only if no redirect to another URL has been followed
+        if (source.equals(connection.getURL())) {
+            body = cache.get().getNotModifiedBody(uri.get(), requestHeaders, connection.getHeaderFields());
+        }
+        return body.isPresent() ? body.get() : openConnection().getInputStream();
+    }
+
+    private Optional<URI> getSourceURI() {
+        try {
+            return Optional.of(source.toURI());
+        } catch (URISyntaxException e) {
+            LOGGER.debug("Cannot revalidate cached response for " + source, e);
+            return Optional.empty();
+        }
+    }
+
     /**
      *
      * @return the downloaded string
@@ -120,7 +170,7 @@ public class URLDownload {
 
     public String downloadToString(Charset encoding) throws IOException {
 
-        try (InputStream input = new BufferedInputStream(openConnection().getInputStream());
+        try (InputStream input = new BufferedInputStream(openInputStream());
              Writer output = new StringWriter()) {
             copy(input, output, encoding);
             return output.toString();
@@ -145,7 +195,7 @@ public class URLDownload {
 
     public void downloadToFile(File destination) throws IOException {
 
-        try (InputStream input = new BufferedInputStream(openConnection().getInputStream());
+        try (InputStream input = new BufferedInputStream(openInputStream());
              OutputStream output = new BufferedOutputStream(new FileOutputStream(destination))) {
             copy(input, output);
         } catch (IOException e) {
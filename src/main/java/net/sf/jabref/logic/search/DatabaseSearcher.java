@@ -1,9 +1,13 @@
 package net.sf.jabref.logic.search;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabases;
@@ -13,21 +17,57 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
+ * Searches a database. The entries are split into chunks, which are searched in parallel on the common fork-join
+ * pool.
+ *
  * @author Silberer, Zirn
  */
 public class DatabaseSearcher {
 
+    // number of entries searched by one task
+    private static final int CHUNK_SIZE = 500;
+
     private final SearchQuery query;
     private final BibDatabase database;
+    private final SearchIndex index;
 
     private static final Log LOGGER = LogFactory.getLog(DatabaseSearcher.class);
 
     public DatabaseSearcher(SearchQuery query, BibDatabase database) {
         this.query = Objects.requireNonNull(query);
         this.database = Objects.requireNonNull(database);
+        this.index = null;
+    }
+
+    /**
+     * @param index the search index of the database, used to skip entries which cannot match
+     */
+    public DatabaseSearcher(SearchQuery query, BibDatabase database, SearchIndex index) {
+        this.query = Objects.requireNonNull(query);
+        this.database = Objects.requireNonNull(database);
+        this.index = Objects.requireNonNull(index);
     }
 
+    /**
+     * Returns the non-empty entries matching the query, in the order of the database.
+     */
     public List<BibEntry> getMatches() {
+        return BibDatabases.purgeEmptyEntries(getMatches(matches -> {
+            // only the complete result is of interest
+        }, () -> false));
+    }
+
+    /**
+     * Searches the database and passes the matches of each searched chunk of entries to the given consumer as soon as
+     * they are found. The chunks are searched in parallel, so the consumer has to be thread-safe and receives the
+     * matches in no particular order.
+     * <p>
+     * The search stops as soon as possible once the given supplier reports that it was cancelled. Chunks which are not
+     * searched yet are skipped then.
+     *
+     * @return all matches in the order of the database, or the matches found so far if the search was cancelled
+     */
+    public List<BibEntry> getMatches(Consumer<List<BibEntry>> partialMatchesConsumer, BooleanSupplier isCancelled) {
         LOGGER.debug("Search term: " + query);
 
         if (!query.isValid()) {
@@ -35,8 +75,25 @@ public class DatabaseSearcher {
             return Collections.emptyList();
         }
 
-        List<BibEntry> matchEntries = database.getEntries().stream().filter(query::isMatch).collect(Collectors.toList());
-        return BibDatabases.purgeEmptyEntries(matchEntries);
+        // a copy, as the database may be changed while the search is running
+        List<BibEntry> entries = new ArrayList<>(database.getEntries());
+        List<BibEntry> candidates = index == null ? entries : query.getCandidates(entries, index);
+
+        int numberOfChunks = (candidates.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, numberOfChunks).parallel()
+                .mapToObj(chunk -> {
+                    if (isCancelled.getAsBoolean()) {
+                        return Collections.<BibEntry> emptyList();
+                    }
+                    List<BibEntry> chunkMatches = candidates
+                            .subList(chunk * CHUNK_SIZE, Math.min((chunk + 1) * CHUNK_SIZE, candidates.size()))
+                            .stream().filter(query::isMatch).collect(Collectors.toList());
+                    if (!chunkMatches.isEmpty()) {
+                        partialMatchesConsumer.accept(chunkMatches);
+                    }
+                    return chunkMatches;
+                })
+                .flatMap(List::stream).collect(Collectors.toList());
     }
 
 }
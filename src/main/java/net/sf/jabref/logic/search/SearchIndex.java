@@ -0,0 +1,288 @@
+package net.sf.jabref.logic.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import net.sf.jabref.logic.layout.format.RemoveLatexCommands;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.event.EntryAddedEvent;
+import net.sf.jabref.model.event.EntryChangedEvent;
+import net.sf.jabref.model.event.EntryRemovedEvent;
+import net.sf.jabref.model.event.FieldChangedEvent;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Inverted index of the field contents of a database, used to narrow down the entries a search has to check.
+ * <p>
+ * For every field, the index maps each term to the ids of the entries containing this term in the field. A term is a
+ * maximal sequence of letters and digits of the lower-cased field content. Contents containing LaTeX commands are
+ * indexed both as they are and with the commands removed, as the contain-based search ignores LaTeX commands.
+ * <p>
+ * Lookups return a superset of the entries containing the searched text: the search rule still has to be applied to
+ * each of the returned entries. This allows the index to ignore case sensitivity and to answer substring queries by
+ * scanning the terms instead of the entries.
+ * <p>
+ * The index can be kept up to date by registering it as listener of a {@link BibDatabase}
+ * (see {@link #forDatabase(BibDatabase)}).
+ */
+public class SearchIndex {
+
+    private static final RemoveLatexCommands REMOVE_LATEX_COMMANDS = new RemoveLatexCommands();
+
+    // field -> term -> ids of the entries containing the term in the field
+    private final Map<String, Map<String, Set<String>>> postings = new HashMap<>();
+    // entry id -> field -> indexed terms, needed to remove an entry or an old field value from the postings
+    private final Map<String, Map<String, Set<String>>> indexedTerms = new HashMap<>();
+
+
+    /**
+     * A term of a search text. If the term is preceded (followed) by a separator in the search text, a matching term
+     * of the field content has to start (end) with the term, otherwise it only has to contain it.
+     */
+    private static class SearchTerm {
+
+        private final String text;
+        private final boolean atStart;
+        private final boolean atEnd;
+
+
+        private SearchTerm(String text, boolean atStart, boolean atEnd) {
+            this.text = text;
+            this.atStart = atStart;
+            this.atEnd = atEnd;
+        }
+
+        private boolean matches(String term) {
+            if (atStart) {
+                return term.startsWith(text);
+            } else if (atEnd) {
+                return term.endsWith(text);
+            } else {
+                return term.contains(text);
+            }
+        }
+    }
+
+
+    /**
+     * Creates an index of the field contents of all entries of the given database. A changed field is re-indexed on
+     * its own, the other fields of the entry are kept.
+     */
+    public static SearchIndex forDatabase(BibDatabase database) {
+        SearchIndex index = new SearchIndex();
+        database.registerListener(index, index::addEntry);
+        return index;
+    }
+
+    public synchronized void addEntry(BibEntry entry) {
+        removeEntry(entry);
+        Map<String, Set<String>> termsOfEntry = new HashMap<>();
+        indexedTerms.put(entry.getId(), termsOfEntry);
+        for (String field : entry.getFieldNames()) {
+            addField(entry.getId(), termsOfEntry, field, entry.getFieldOptional(field));
+        }
+    }
+
+    public synchronized void removeEntry(BibEntry entry) {
+        Map<String, Set<String>> termsOfEntry = indexedTerms.remove(entry.getId());
+        if (termsOfEntry != null) {
+            for (String field : new ArrayList<>(termsOfEntry.keySet())) {
+                removeField(entry.getId(), termsOfEntry, field);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the given field of the entry after a change.
+     */
+    public synchronized void updateField(BibEntry entry, String field) {
+        Map<String, Set<String>> termsOfEntry = indexedTerms.get(entry.getId());
+        if (termsOfEntry == null) {
+            return;
+        }
+        removeField(entry.getId(), termsOfEntry, field);
+        addField(entry.getId(), termsOfEntry, field, entry.getFieldOptional(field));
+    }
+
+    /**
+     * Re-indexes all fields of the given entry after a change.
+     */
+    public synchronized void updateEntry(BibEntry entry) {
+        if (indexedTerms.containsKey(entry.getId())) {
+            addEntry(entry);
+        }
+    }
+
+    @Subscribe
+    public void listen(EntryAddedEvent event) {
+        addEntry(event.getBibEntry());
+    }
+
+    @Subscribe
+    public void listen(EntryRemovedEvent event) {
+        removeEntry(event.getBibEntry());
+    }
+
+    @Subscribe
+    public void listen(EntryChangedEvent event) {
+        if (event instanceof FieldChangedEvent) {
+            updateField(event.getBibEntry(), ((FieldChangedEvent) event).getFieldName());
+        } else {
+            updateEntry(event.getBibEntry());
+        }
+    }
+
+    /**
+     * Returns the ids of all indexed entries which may contain the given text in any of their fields.
+     * The lookup ignores case, so the result is a superset of the entries matching a case-sensitive search.
+     *
+     * @return the ids, or an empty optional if the text does not contain any letter or digit and thus cannot be looked
+     * up, i.e., all entries may contain it
+     */
+    public synchronized Optional<Set<String>> getEntriesContaining(String text) {
+        List<SearchTerm> searchTerms = getSearchTerms(text);
+        if (searchTerms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<String> result = new HashSet<>();
+        for (Map<String, Set<String>> fieldPostings : postings.values()) {
+            result.addAll(getEntriesContaining(fieldPostings, searchTerms));
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Returns the ids of all indexed entries which may contain the given text in the given field.
+     *
+     * @see #getEntriesContaining(String)
+     */
+    public synchronized Optional<Set<String>> getEntriesContaining(String field, String text) {
+        List<SearchTerm> searchTerms = getSearchTerms(text);
+        if (searchTerms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, Set<String>> fieldPostings = postings.get(field.toLowerCase());
+        if (fieldPostings == null) {
+            return Optional.of(new HashSet<>());
+        }
+        return Optional.of(getEntriesContaining(fieldPostings, searchTerms));
+    }
+
+    private static Set<String> getEntriesContaining(Map<String, Set<String>> fieldPostings,
+            List<SearchTerm> searchTerms) {
+        Set<String> result = null;
+        for (SearchTerm searchTerm : searchTerms) {
+            Set<String> entryIds = new HashSet<>();
+            if (searchTerm.atStart && searchTerm.atEnd) {
+                // the term has to be matched exactly, so a lookup suffices
+                entryIds.addAll(fieldPostings.getOrDefault(searchTerm.text, Collections.emptySet()));
+            } else {
+                fieldPostings.forEach((term, ids) -> {
+                    if (searchTerm.matches(term)) {
+                        entryIds.addAll(ids);
+                    }
+                });
+            }
+
+            if (result == null) {
+                result = entryIds;
+            } else {
+                result.retainAll(entryIds);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void addField(String entryId, Map<String, Set<String>> termsOfEntry, String field,
+            Optional<String> content) {
+        if (!content.isPresent()) {
+            return;
+        }
+        Set<String> terms = getTerms(content.get());
+        termsOfEntry.put(field, terms);
+        Map<String, Set<String>> fieldPostings = postings.computeIfAbsent(field, key -> new HashMap<>());
+        for (String term : terms) {
+            fieldPostings.computeIfAbsent(term, key -> new HashSet<>()).add(entryId);
+        }
+    }
+
+    private void removeField(String entryId, Map<String, Set<String>> termsOfEntry, String field) {
+        Set<String> terms = termsOfEntry.remove(field);
+        Map<String, Set<String>> fieldPostings = postings.get(field);
+        if ((terms == null) || (fieldPostings == null)) {
+            return;
+        }
+        for (String term : terms) {
+            Set<String> entryIds = fieldPostings.get(term);
+            if (entryIds != null) {
+                entryIds.remove(entryId);
+                if (entryIds.isEmpty()) {
+                    fieldPostings.remove(term);
+                }
+            }
+        }
+        if (fieldPostings.isEmpty()) {
+            postings.remove(field);
+        }
+    }
+
+    /**
+     * Returns the terms the given field content is indexed with.
+     */
+    static Set<String> getTerms(String content) {
+        Set<String> terms = new HashSet<>();
+        addTerms(content, terms);
+        if ((content.indexOf('\\') >= 0) || (content.indexOf('{') >= 0) || (content.indexOf('}') >= 0)) {
+            addTerms(REMOVE_LATEX_COMMANDS.format(content), terms);
+        }
+        return terms;
+    }
+
+    private static void addTerms(String content, Set<String> terms) {
+        String lowerCaseContent = content.toLowerCase();
+        int start = -1;
+        for (int i = 0; i <= lowerCaseContent.length(); i++) {
+            boolean separator = (i == lowerCaseContent.length()) || isSeparator(lowerCaseContent.charAt(i));
+            if (separator && (start >= 0)) {
+                terms.add(lowerCaseContent.substring(start, i));
+                start = -1;
+            } else if (!separator && (start < 0)) {
+                start = i;
+            }
+        }
+    }
+
+    private static List<SearchTerm> getSearchTerms(String text) {
+        String lowerCaseText = text.toLowerCase();
+        List<SearchTerm> searchTerms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lowerCaseText.length(); i++) {
+            boolean separator = (i == lowerCaseText.length()) || isSeparator(lowerCaseText.charAt(i));
+            if (separator && (start >= 0)) {
+                searchTerms.add(new SearchTerm(lowerCaseText.substring(start, i), start > 0,
+                        i < lowerCaseText.length()));
+                start = -1;
+            } else if (!separator && (start < 0)) {
+                start = i;
+            }
+        }
+        return searchTerms;
+    }
+
+    private static boolean isSeparator(char c) {
+        return !Character.isLetterOrDigit(c);
+    }
+}
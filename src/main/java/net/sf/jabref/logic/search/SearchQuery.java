@@ -1,6 +1,10 @@
 package net.sf.jabref.logic.search;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.search.rules.ContainBasedSearchRule;
@@ -37,6 +41,26 @@ public class SearchQuery implements SearchMatcher {
         return this.getRule().applyRule(getQuery(), entry);
     }
 
+    /**
+     * Returns the given entries matching this query, keeping their order. Only the entries the index reports as
+     * candidates are checked, so the index has to contain all given entries.
+     */
+    public List<BibEntry> getMatches(List<BibEntry> entries, SearchIndex index) {
+        return getCandidates(entries, index).stream().filter(this::isMatch).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the given entries which may match this query according to the index, keeping their order.
+     */
+    public List<BibEntry> getCandidates(List<BibEntry> entries, SearchIndex index) {
+        Optional<Set<String>> candidateIds = this.getRule().getCandidateIds(getQuery(), index);
+        if (!candidateIds.isPresent()) {
+            return entries;
+        }
+        return entries.stream().filter(entry -> candidateIds.get().contains(entry.getId()))
+                .collect(Collectors.toList());
+    }
+
     public boolean isValid() {
         return this.getRule().validateSearchStrings(getQuery());
     }
@@ -1,9 +1,13 @@
 package net.sf.jabref.logic.search.rules;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import net.sf.jabref.logic.layout.format.RemoveLatexCommands;
+import net.sf.jabref.logic.search.SearchIndex;
 import net.sf.jabref.model.entry.BibEntry;
 
 /**
@@ -60,4 +64,21 @@ public class ContainBasedSearchRule implements SearchRule {
         return false; // Didn't match all words.
     }
 
+    @Override
+    public Optional<Set<String>> getCandidateIds(String query, SearchIndex index) {
+        // every word has to be contained in one of the fields
+        Set<String> candidateIds = null;
+        for (String word : new SentenceAnalyzer(query).getWords()) {
+            Optional<Set<String>> entryIds = index.getEntriesContaining(word);
+            if (entryIds.isPresent()) {
+                if (candidateIds == null) {
+                    candidateIds = new HashSet<>(entryIds.get());
+                } else {
+                    candidateIds.retainAll(entryIds.get());
+                }
+            }
+        }
+        return Optional.ofNullable(candidateIds);
+    }
+
 }
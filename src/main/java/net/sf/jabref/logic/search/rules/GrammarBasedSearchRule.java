@@ -1,14 +1,21 @@
 package net.sf.jabref.logic.search.rules;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.regex.PatternSyntaxException;
 
+import net.sf.jabref.logic.search.SearchIndex;
+import net.sf.jabref.logic.util.strings.StringUtil;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.search.SearchBaseVisitor;
 import net.sf.jabref.search.SearchLexer;
@@ -27,18 +34,46 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * The search query must be specified in an expression that is acceptable by the Search.g4 grammar.
+ * <p>
+ * The parse tree of a query is compiled once into a {@link Predicate} which is applied to the entries. Compiled
+ * queries are cached, so search groups and repeated searches for the same query do not parse and compile it again.
  */
 public class GrammarBasedSearchRule implements SearchRule {
 
     private static final Log LOGGER = LogFactory.getLog(GrammarBasedSearchRule.class);
 
+    private static final int COMPILED_QUERY_CACHE_SIZE = 100;
+    // least recently used compiled queries, by case sensitivity, regular expression flag and query
+    private static final Map<String, CompiledQuery> COMPILED_QUERIES = Collections
+            .synchronizedMap(new LinkedHashMap<String, CompiledQuery>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery> eldest) {
+                    return size() > COMPILED_QUERY_CACHE_SIZE;
+                }
+            });
+
     private final boolean caseSensitiveSearch;
     private final boolean regExpSearch;
 
     private ParseTree tree;
+    private Predicate<BibEntry> predicate;
     private String query;
 
 
+    private static class CompiledQuery {
+
+        private final ParseTree tree;
+        private final Predicate<BibEntry> predicate;
+
+
+        private CompiledQuery(ParseTree tree, Predicate<BibEntry> predicate) {
+            this.tree = tree;
+            this.predicate = predicate;
+        }
+    }
+
+
     public static class ThrowingErrorListener extends BaseErrorListener {
 
         public static final ThrowingErrorListener INSTANCE = new ThrowingErrorListener();
@@ -81,6 +116,19 @@ public class GrammarBasedSearchRule implements SearchRule {
             return;
         }
 
+        String cacheKey = StringUtil.booleanToBinaryString(caseSensitiveSearch)
+                + StringUtil.booleanToBinaryString(regExpSearch) + query;
+        CompiledQuery compiledQuery = COMPILED_QUERIES.get(cacheKey);
+        if (compiledQuery == null) {
+            compiledQuery = compile(query);
+            COMPILED_QUERIES.put(cacheKey, compiledQuery);
+        }
+        tree = compiledQuery.tree;
+        predicate = compiledQuery.predicate;
+        this.query = query;
+    }
+
+    private CompiledQuery compile(String query) throws ParseCancellationException {
         SearchLexer lexer = new SearchLexer(new ANTLRInputStream(query));
         lexer.removeErrorListeners(); // no infos on file system
         lexer.addErrorListener(ThrowingErrorListener.INSTANCE);
@@ -88,14 +136,23 @@ public class GrammarBasedSearchRule implements SearchRule {
         parser.removeErrorListeners(); // no infos on file system
         parser.addErrorListener(ThrowingErrorListener.INSTANCE);
         parser.setErrorHandler(new BailErrorStrategy()); // ParseCancelationException on parse errors
-        tree = parser.start();
-        this.query = query;
+        ParseTree parseTree = parser.start();
+
+        Predicate<BibEntry> compiledPredicate;
+        try {
+            compiledPredicate = new BibtexSearchVisitor(caseSensitiveSearch, regExpSearch).visit(parseTree);
+        } catch (PatternSyntaxException e) {
+            // the query is syntactically valid, but contains an invalid regular expression: nothing matches
+            LOGGER.debug("Search failed", e);
+            compiledPredicate = entry -> false;
+        }
+        return new CompiledQuery(parseTree, compiledPredicate);
     }
 
     @Override
     public boolean applyRule(String query, BibEntry bibEntry) {
         try {
-            return new BibtexSearchVisitor(caseSensitiveSearch, regExpSearch, bibEntry).visit(tree);
+            return predicate.test(bibEntry);
         } catch (Exception e) {
             LOGGER.debug("Search failed", e);
             return false;
@@ -112,6 +169,15 @@ public class GrammarBasedSearchRule implements SearchRule {
         }
     }
 
+    @Override
+    public Optional<Set<String>> getCandidateIds(String query, SearchIndex index) {
+        if (regExpSearch || !validateSearchStrings(query)) {
+            // regular expressions cannot be looked up in the index
+            return Optional.empty();
+        }
+        return new CandidateVisitor(index).visit(tree);
+    }
+
     public enum ComparisonOperator {
         EXACT, CONTAINS, DOES_NOT_CONTAIN;
 
@@ -126,11 +192,20 @@ public class GrammarBasedSearchRule implements SearchRule {
         }
     }
 
-    public static class Comparator {
+    /**
+     * A single comparison of the query. The patterns are compiled once, and whether a field name matches the field
+     * pattern is only determined once per field name. Instances are thread-safe.
+     */
+    public static class Comparator implements Predicate<BibEntry> {
 
         private final ComparisonOperator operator;
         private final Pattern fieldPattern;
         private final Pattern valuePattern;
+        // special case for searching for entrytype=phdthesis
+        private final boolean entryTypeComparison;
+        // the only field name a non-regex field pattern can match, as field names are lower case
+        private final Optional<String> literalFieldName;
+        private final Map<String, Boolean> fieldNameMatches = new ConcurrentHashMap<>();
 
         public Comparator(String field, String value, ComparisonOperator operator, boolean caseSensitive, boolean regex) {
             this.operator = operator;
@@ -138,34 +213,47 @@ public class GrammarBasedSearchRule implements SearchRule {
             int option = caseSensitive ? 0 : Pattern.CASE_INSENSITIVE;
             this.fieldPattern = Pattern.compile(regex ? field : "\\Q" + field + "\\E", option);
             this.valuePattern = Pattern.compile(regex ? value : "\\Q" + value + "\\E", option);
+            this.entryTypeComparison = fieldPattern.matcher("entrytype").matches();
+            this.literalFieldName = regex ? Optional.empty() : Optional.of(field.toLowerCase(Locale.ENGLISH));
+        }
+
+        @Override
+        public boolean test(BibEntry entry) {
+            return compare(entry);
         }
 
         public boolean compare(BibEntry entry) {
-            // special case for searching for entrytype=phdthesis
-            if (fieldPattern.matcher("entrytype").matches()) {
+            if (entryTypeComparison) {
                 return matchFieldValue(entry.getType());
             }
 
             // specification of fieldsKeys to search is done in the search expression itself
-            Set<String> fieldsKeys = entry.getFieldNames();
-
-            List<String> matchedFieldKeys = fieldsKeys.stream().filter(matchFieldKey()).collect(Collectors.toList());
-
-            for (String field : matchedFieldKeys) {
-                Optional<String> fieldValue = entry.getFieldOptional(field);
-                if (fieldValue.isPresent()) {
+            boolean anyFieldKeyMatched = false;
+            if (literalFieldName.isPresent()) {
+                Optional<String> fieldValue = entry.getFieldOptional(literalFieldName.get());
+                if (fieldValue.isPresent() && matchesFieldKey(literalFieldName.get())) {
+                    anyFieldKeyMatched = true;
                     if (matchFieldValue(fieldValue.get())) {
                         return true;
                     }
                 }
+            } else {
+                for (Map.Entry<String, String> field : entry.getFieldMap().entrySet()) {
+                    if (matchesFieldKey(field.getKey())) {
+                        anyFieldKeyMatched = true;
+                        if (matchFieldValue(field.getValue())) {
+                            return true;
+                        }
+                    }
+                }
             }
 
             // special case of asdf!=whatever and entry does not contain asdf
-            return matchedFieldKeys.isEmpty() && (operator == ComparisonOperator.DOES_NOT_CONTAIN);
+            return !anyFieldKeyMatched && (operator == ComparisonOperator.DOES_NOT_CONTAIN);
         }
 
-        private Predicate<String> matchFieldKey() {
-            return s -> fieldPattern.matcher(s).matches();
+        private boolean matchesFieldKey(String fieldName) {
+            return fieldNameMatches.computeIfAbsent(fieldName, key -> fieldPattern.matcher(key).matches());
         }
 
         public boolean matchFieldValue(String content) {
@@ -184,32 +272,29 @@ public class GrammarBasedSearchRule implements SearchRule {
     }
 
     /**
-     * Search results in boolean. It may be later on converted to an int.
+     * Compiles the parse tree into a predicate on entries. AND and OR are short-circuited.
      */
-    static class BibtexSearchVisitor extends SearchBaseVisitor<Boolean> {
+    static class BibtexSearchVisitor extends SearchBaseVisitor<Predicate<BibEntry>> {
 
         private final boolean caseSensitive;
         private final boolean regex;
 
-        private final BibEntry entry;
-
-        public BibtexSearchVisitor(boolean caseSensitive, boolean regex, BibEntry bibEntry) {
+        public BibtexSearchVisitor(boolean caseSensitive, boolean regex) {
             this.caseSensitive = caseSensitive;
             this.regex = regex;
-            this.entry = bibEntry;
         }
 
-        public boolean comparison(String field, ComparisonOperator operator, String value) {
-            return new Comparator(field, value, operator, caseSensitive, regex).compare(entry);
+        public Predicate<BibEntry> comparison(String field, ComparisonOperator operator, String value) {
+            return new Comparator(field, value, operator, caseSensitive, regex);
         }
 
         @Override
-        public Boolean visitStart(SearchParser.StartContext ctx) {
+        public Predicate<BibEntry> visitStart(SearchParser.StartContext ctx) {
             return visit(ctx.expression());
         }
 
         @Override
-        public Boolean visitComparison(SearchParser.ComparisonContext ctx) {
+        public Predicate<BibEntry> visitComparison(SearchParser.ComparisonContext ctx) {
             // remove possible enclosing " symbols
             String right = ctx.right.getText();
             if(right.startsWith("\"") && right.endsWith("\"")) {
@@ -221,21 +306,89 @@ public class GrammarBasedSearchRule implements SearchRule {
         }
 
         @Override
-        public Boolean visitUnaryExpression(SearchParser.UnaryExpressionContext ctx) {
-            return !visit(ctx.expression()); // negate
+        public Predicate<BibEntry> visitUnaryExpression(SearchParser.UnaryExpressionContext ctx) {
+            return visit(ctx.expression()).negate(); // negate
         }
 
         @Override
-        public Boolean visitParenExpression(SearchParser.ParenExpressionContext ctx) {
+        public Predicate<BibEntry> visitParenExpression(SearchParser.ParenExpressionContext ctx) {
             return visit(ctx.expression()); // ignore parenthesis
         }
 
         @Override
-        public Boolean visitBinaryExpression(SearchParser.BinaryExpressionContext ctx) {
+        public Predicate<BibEntry> visitBinaryExpression(SearchParser.BinaryExpressionContext ctx) {
+            if ("AND".equalsIgnoreCase(ctx.operator.getText())) {
+                return visit(ctx.left).and(visit(ctx.right)); // and
+            } else {
+                return visit(ctx.left).or(visit(ctx.right)); // or
+            }
+        }
+    }
+
+    /**
+     * Determines the entries of a {@link SearchIndex} which may match the expression. Comparisons which cannot be looked
+     * up in the index (negations and the entry type) yield an empty optional, meaning that every entry may match.
+     */
+    static class CandidateVisitor extends SearchBaseVisitor<Optional<Set<String>>> {
+
+        private final SearchIndex index;
+
+
+        public CandidateVisitor(SearchIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public Optional<Set<String>> visitStart(SearchParser.StartContext ctx) {
+            return visit(ctx.expression());
+        }
+
+        @Override
+        public Optional<Set<String>> visitComparison(SearchParser.ComparisonContext ctx) {
+            String field = ctx.left.getText();
+            ComparisonOperator operator = ComparisonOperator.build(ctx.operator.getText());
+            if ((operator == ComparisonOperator.DOES_NOT_CONTAIN) || "entrytype".equalsIgnoreCase(field)) {
+                return Optional.empty();
+            }
+
+            // remove possible enclosing " symbols
+            String right = ctx.right.getText();
+            if (right.startsWith("\"") && right.endsWith("\"")) {
+                right = right.substring(1, right.length() - 1);
+            }
+            return index.getEntriesContaining(field, right);
+        }
+
+        @Override
+        public Optional<Set<String>> visitUnaryExpression(SearchParser.UnaryExpressionContext ctx) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Set<String>> visitParenExpression(SearchParser.ParenExpressionContext ctx) {
+            return visit(ctx.expression());
+        }
+
+        @Override
+        public Optional<Set<String>> visitBinaryExpression(SearchParser.BinaryExpressionContext ctx) {
+            Optional<Set<String>> left = visit(ctx.left);
+            Optional<Set<String>> right = visit(ctx.right);
             if ("AND".equalsIgnoreCase(ctx.operator.getText())) {
-                return visit(ctx.left) && visit(ctx.right); // and
+                if (!left.isPresent()) {
+                    return right;
+                } else if (!right.isPresent()) {
+                    return left;
+                }
+                Set<String> intersection = new HashSet<>(left.get());
+                intersection.retainAll(right.get());
+                return Optional.of(intersection);
             } else {
-                return visit(ctx.left) || visit(ctx.right); // or
+                if (!left.isPresent() || !right.isPresent()) {
+                    return Optional.empty();
+                }
+                Set<String> union = new HashSet<>(left.get());
+                union.addAll(right.get());
+                return Optional.of(union);
             }
         }
     }
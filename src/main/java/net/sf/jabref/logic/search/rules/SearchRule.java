@@ -1,5 +1,9 @@
 package net.sf.jabref.logic.search.rules;
 
+import java.util.Optional;
+import java.util.Set;
+
+import net.sf.jabref.logic.search.SearchIndex;
 import net.sf.jabref.model.entry.BibEntry;
 
 public interface SearchRule {
@@ -7,4 +11,14 @@ public interface SearchRule {
     boolean applyRule(String query, BibEntry bibEntry);
 
     boolean validateSearchStrings(String query);
+
+    /**
+     * Returns the ids of the indexed entries which may match the query. All other entries of the index do not match.
+     * The rule still has to be applied to the returned entries.
+     *
+     * @return the ids, or an empty optional if the index cannot narrow down the entries to check
+     */
+    default Optional<Set<String>> getCandidateIds(String query, SearchIndex index) {
+        return Optional.empty();
+    }
 }
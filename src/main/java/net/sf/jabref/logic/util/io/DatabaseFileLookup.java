@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 
 import net.sf.jabref.BibDatabaseContext;
@@ -27,7 +26,7 @@ public class DatabaseFileLookup {
 
     private final Set<File> fileCache = new HashSet<>();
 
-    private final List<String> possibleFilePaths;
+    private final FileLinkCatalog fileLinkCatalog;
 
     /**
      * Creates an instance by passing a {@link BibDatabase} which will be used for the searches.
@@ -36,7 +35,7 @@ public class DatabaseFileLookup {
      */
     public DatabaseFileLookup(BibDatabaseContext databaseContext) {
         Objects.requireNonNull(databaseContext);
-        possibleFilePaths = Optional.ofNullable(databaseContext.getFileDirectory()).orElse(new ArrayList<>());
+        fileLinkCatalog = databaseContext.getFileLinkCatalog();
 
         for (BibEntry entry : databaseContext.getDatabase().getEntries()) {
             fileCache.addAll(parseFileField(entry));
@@ -75,7 +74,7 @@ public class DatabaseFileLookup {
                 continue;
             }
 
-            FileUtil.expandFilename(link, possibleFilePaths).ifPresent(fileLinks::add);
+            fileLinkCatalog.getFile(link).ifPresent(fileLinks::add);
         }
 
         return fileLinks;
@@ -0,0 +1,596 @@
+package net.sf.jabref.logic.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.event.MetaDataChangedEvent;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.FieldName;
+import net.sf.jabref.model.entry.FileField;
+import net.sf.jabref.model.entry.ParsedFileField;
+
+import com.google.common.eventbus.Subscribe;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Resolves the file links of a database and remembers the files they refer to, so the disk is not asked again each
+ * time a link is looked at.
+ * <p>
+ * For each link, the catalog keeps the file it refers to together with its size and time stamp. The catalog only
+ * answers from memory while it is running, see {@link #run()}: it then watches the directories the links are looked
+ * up in and forgets the links whose files are created, changed or removed. Otherwise, each link is looked up on disk.
+ * <p>
+ * Changes on network file systems made by other clients are not notified, and some platforms only poll the watched
+ * directories now and then. The files of links below such directories are therefore checked again by their size and
+ * time stamp when they have not been checked for a few seconds.
+ * <p>
+ * While the running catalog has no changes to process, it computes a fingerprint of each found file, i.e., its size,
+ * time stamp and content hash. The fingerprints are stored in the metadata of the database, so they are saved with it
+ * and the files are only read again if they have changed. A linked file which has been moved or renamed within the
+ * file directories is found again by its fingerprint, see {@link #findMovedFile(String)}.
+ */
+public class FileLinkCatalog implements Runnable {
+
+    private static final Log LOGGER = LogFactory.getLog(FileLinkCatalog.class);
+
+    private static final long REVALIDATION_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+    // how long the running catalog waits for changes before it computes the next fingerprint
+    private static final long FINGERPRINT_DELAY = TimeUnit.SECONDS.toMillis(1);
+    // the types of file stores whose changes by other clients are not notified
+    private static final Set<String> NETWORK_FILE_SYSTEM_TYPES = new HashSet<>(Arrays.asList("nfs", "nfs4", "cifs",
+            "smb", "smbfs", "smb2", "smb3", "afpfs", "webdav", "davfs", "ncpfs", "9p"));
+
+    private final BibDatabaseContext databaseContext;
+    // returns the current time in nanoseconds
+    private final LongSupplier clock;
+    // the looked up links, only links whose locations are watched are kept
+    private final Map<String, CachedLink> linkedFiles = new ConcurrentHashMap<>();
+    // the links by the watched directory and the name within this directory their locations lie below
+    private final Map<Path, Map<Path, Set<String>>> linksByLocation = new ConcurrentHashMap<>();
+    // the watched directories whose changes may be missed
+    private final Set<Path> revalidatedDirectories = ConcurrentHashMap.newKeySet();
+    // counts the changes seen, a link looked up during a change is not kept
+    private final AtomicLong changeCount = new AtomicLong();
+    // the fingerprints of the files the links referred to when they were last found
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+    // the links whose files have been found, but have no fingerprint of their current state yet
+    private final Set<String> unfingerprintedLinks = ConcurrentHashMap.newKeySet();
+    // whether fingerprints have been computed since they have been stored in the metadata
+    private volatile boolean fingerprintsChanged;
+    // null if the catalog is not running
+    private volatile WatchService watchService;
+    private boolean stopped;
+
+
+    public FileLinkCatalog(BibDatabaseContext databaseContext) {
+        this(databaseContext, System::nanoTime);
+    }
+
+    FileLinkCatalog(BibDatabaseContext databaseContext, LongSupplier clock) {
+        this.databaseContext = Objects.requireNonNull(databaseContext);
+        this.clock = Objects.requireNonNull(clock);
+        for (String fingerprint : databaseContext.getMetaData().getFileFingerprints()) {
+            Fingerprint.parse(fingerprint).ifPresent(parsed -> fingerprints.put(parsed.link, parsed));
+        }
+        // the file directories may have changed
+        databaseContext.getMetaData().registerListener(this);
+    }
+
+    /**
+     * Watches the locations of the looked up links until {@link #stop()} is called or the thread is interrupted.
+     * Meanwhile, the looked up links are kept in memory, and the found files are fingerprinted when there are no
+     * changes to process.
+     */
+    @Override
+    public void run() {
+        if (!startWatching()) {
+            return;
+        }
+        try {
+            while (true) {
+                WatchKey key = getWatchService().poll(unfingerprintedLinks.isEmpty() ? FINGERPRINT_DELAY : 0,
+                        TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    fingerprintNextFile();
+                } else {
+                    processEvents(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            LOGGER.debug("FileLinkCatalog has been stopped", ex);
+        } finally {
+            stop();
+        }
+    }
+
+    /**
+     * Starts watching the locations of the links looked up from now on, without processing their changes yet.
+     *
+     * @return whether the locations are watched
+     */
+    synchronized boolean startWatching() {
+        if (stopped) {
+            return false;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            return true;
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.info("Cannot watch linked files for changes, looking them up on disk instead", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Waits for changes of the watched locations and forgets the links whose files have changed.
+     */
+    void processNextEvents() throws InterruptedException {
+        processEvents(getWatchService().take());
+    }
+
+    private WatchService getWatchService() {
+        WatchService service = watchService;
+        if (service == null) {
+            throw new ClosedWatchServiceException();
+        }
+        return service;
+    }
+
+    /**
+     * Stops watching the locations of the links. The links are looked up on disk afterwards, the catalog cannot be
+     * started again.
+     */
+    public void stop() {
+        WatchService service;
+        synchronized (this) {
+            stopped = true;
+            service = watchService;
+            watchService = null;
+        }
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                LOGGER.warn("Problem while stopping to watch linked files", ex);
+            }
+        }
+        unfingerprintedLinks.clear();
+        invalidateAll();
+    }
+
+    boolean isRunning() {
+        return watchService != null;
+    }
+
+    /**
+     * Returns the file the given link refers to, if it exists.
+     */
+    public Optional<File> getFile(String link) {
+        return getLinkedFile(link).map(LinkedFileInfo::getFile);
+    }
+
+    /**
+     * Returns the file the given link refers to together with its size and time stamp, if the file exists. The file is
+     * looked up like {@link FileUtil#expandFilename(BibDatabaseContext, String)} does.
+     */
+    public Optional<LinkedFileInfo> getLinkedFile(String link) {
+        Objects.requireNonNull(link);
+        CachedLink cached = linkedFiles.get(link);
+        if (cached != null) {
+            if (!cached.revalidated || ((clock.getAsLong() - cached.checkedAt) < REVALIDATION_INTERVAL)) {
+                return cached.linkedFile;
+            }
+            if (isUnchanged(cached.linkedFile)) {
+                cached.checkedAt = clock.getAsLong();
+                return cached.linkedFile;
+            }
+            linkedFiles.remove(link, cached);
+        }
+
+        // watch before looking up, so no change is missed
+        long changeCountBefore = changeCount.get();
+        long checkedAt = clock.getAsLong();
+        Optional<Boolean> revalidated = watch(link);
+        Optional<LinkedFileInfo> linkedFile = lookUp(link);
+        if (revalidated.isPresent() && (changeCountBefore == changeCount.get())) {
+            linkedFiles.put(link, new CachedLink(linkedFile, revalidated.get(), checkedAt));
+        }
+        if (linkedFile.isPresent() && isRunning() && !hasFingerprint(link, linkedFile.get())) {
+            unfingerprintedLinks.add(link);
+        }
+        return linkedFile;
+    }
+
+    private Optional<LinkedFileInfo> lookUp(String link) {
+        Optional<File> file = FileUtil.expandFilename(databaseContext, link);
+        if (!file.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.get().toPath(), BasicFileAttributes.class);
+            return Optional.of(
+                    new LinkedFileInfo(file.get(), attributes.size(), attributes.lastModifiedTime().toMillis()));
+        } catch (IOException | InvalidPathException ex) {
+            LOGGER.debug("Cannot read attributes of '" + file.get() + "'", ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns whether the given file still has the size and time stamp it had when it has been looked up. A missing
+     * file is never regarded as unchanged, as it may have been created at any of the locations of its link.
+     */
+    private static boolean isUnchanged(Optional<LinkedFileInfo> linkedFile) {
+        if (!linkedFile.isPresent()) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(linkedFile.get().getFile().toPath(),
+                    BasicFileAttributes.class);
+            return (attributes.size() == linkedFile.get().getSize())
+                    && (attributes.lastModifiedTime().toMillis() == linkedFile.get().getLastModified());
+        } catch (IOException | InvalidPathException ex) {
+            LOGGER.debug("Cannot read attributes of '" + linkedFile.get().getFile() + "'", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Watches the nearest existing directories of all locations the given link may refer to.
+     *
+     * @return empty if not all locations are watched, otherwise whether changes of any location may be missed
+     */
+    private Optional<Boolean> watch(String link) {
+        WatchService service = watchService;
+        if (service == null) {
+            return Optional.empty();
+        }
+
+        try {
+            List<Path> locations = new ArrayList<>();
+            locations.add(Paths.get(link));
+            for (String directory : FileUtil.getFileDirectories(databaseContext, link)) {
+                if (directory != null) {
+                    locations.add(Paths.get(directory).resolve(link));
+                }
+            }
+
+            boolean revalidated = false;
+            for (Path location : locations) {
+                Path absoluteLocation = location.toAbsolutePath().normalize();
+                Path directory = absoluteLocation.getParent();
+                while ((directory != null) && !Files.isDirectory(directory)) {
+                    directory = directory.getParent();
+                }
+                if (directory == null) {
+                    return Optional.empty();
+                }
+                if (!linksByLocation.containsKey(directory)) {
+                    // registering a directory again returns the key of the first registration
+                    directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    if (mayMissChanges(directory, service)) {
+                        revalidatedDirectories.add(directory);
+                    }
+                }
+                revalidated |= revalidatedDirectories.contains(directory);
+                Path name = absoluteLocation.subpath(directory.getNameCount(), directory.getNameCount() + 1);
+                linksByLocation.computeIfAbsent(directory, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(name, key -> ConcurrentHashMap.newKeySet()).add(link);
+            }
+            return Optional.of(revalidated);
+        } catch (IOException | InvalidPathException | UnsupportedOperationException | ClosedWatchServiceException ex) {
+            LOGGER.debug("Cannot watch the locations of '" + link + "'", ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns whether the given watch service may miss changes below the given directory. This is the case for
+     * network file systems, where changes made by other clients are not notified, and for watch services which poll
+     * the directories, e.g., on OS X, as they notify changes late.
+     */
+    boolean mayMissChanges(Path directory, WatchService service) {
+        if (service.getClass().getSimpleName().startsWith("Polling")) {
+            return true;
+        }
+        // UNC paths of Windows shares start with two backslashes
+        if ((directory.getRoot() != null) && directory.getRoot().toString().startsWith("\\\\")) {
+            return true;
+        }
+        try {
+            String type = Files.getFileStore(directory).type().toLowerCase(Locale.ENGLISH);
+            return NETWORK_FILE_SYSTEM_TYPES.contains(type) || type.startsWith("fuse.");
+        } catch (IOException ex) {
+            LOGGER.debug("Cannot determine the file system of '" + directory + "'", ex);
+            return true;
+        }
+    }
+
+    private void processEvents(WatchKey key) {
+        changeCount.incrementAndGet();
+        Path directory = (Path) key.watchable();
+        Map<Path, Set<String>> linksByName = linksByLocation.getOrDefault(directory, Collections.emptyMap());
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events have been lost, so any link below the directory may have changed
+                linksByName.values().forEach(this::invalidateLinks);
+            } else {
+                invalidateLinks(linksByName.getOrDefault((Path) event.context(), Collections.emptySet()));
+            }
+        }
+
+        if (!key.reset()) {
+            // the directory is no longer accessible, e.g., it has been removed
+            Map<Path, Set<String>> removed = linksByLocation.remove(directory);
+            revalidatedDirectories.remove(directory);
+            if (removed != null) {
+                removed.values().forEach(this::invalidateLinks);
+            }
+        }
+    }
+
+    private void invalidateLinks(Collection<String> links) {
+        links.forEach(linkedFiles::remove);
+    }
+
+    /**
+     * Forgets the file the given link refers to, so it is looked up on disk the next time.
+     */
+    public void invalidate(String link) {
+        changeCount.incrementAndGet();
+        linkedFiles.remove(link);
+    }
+
+    /**
+     * Forgets the files of all links, e.g., because the file directories have changed.
+     */
+    public void invalidateAll() {
+        changeCount.incrementAndGet();
+        linkedFiles.clear();
+        linksByLocation.clear();
+        revalidatedDirectories.clear();
+    }
+
+    @Subscribe
+    public void listen(MetaDataChangedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Looks for the file the given link referred to before it has been moved or renamed. The files in the file
+     * directories having the extension of the link are compared with the fingerprint the file had when it was last
+     * found. Only the files having the same size are read to compare their content hashes.
+     *
+     * @return the file the link refers to if it exists, otherwise the moved file if it has been found
+     */
+    public Optional<File> findMovedFile(String link) {
+        Optional<File> file = getFile(link);
+        if (file.isPresent()) {
+            return file;
+        }
+        Fingerprint fingerprint = fingerprints.get(link);
+        if (fingerprint == null) {
+            return Optional.empty();
+        }
+
+        List<File> directories = FileUtil.getFileDirectories(databaseContext, link).stream().filter(Objects::nonNull)
+                .map(File::new).collect(Collectors.toList());
+        String extension = FileUtil.getFileExtension(link).orElse("");
+        for (File candidate : FileNameIndex.build(Collections.singletonList(extension), directories).getFiles()) {
+            if (candidate.length() != fingerprint.size) {
+                continue;
+            }
+            try {
+                if (fingerprint.contentHash.equals(hash(candidate.toPath()))) {
+                    return Optional.of(candidate);
+                }
+            } catch (IOException ex) {
+                LOGGER.debug("Cannot hash '" + candidate + "'", ex);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Computes the fingerprint of the file of one link found since the last fingerprint. Once all found files have
+     * been fingerprinted, the fingerprints of the files linked in the database are stored in its metadata.
+     *
+     * @return whether there was a file to fingerprint
+     */
+    boolean fingerprintNextFile() {
+        Iterator<String> iterator = unfingerprintedLinks.iterator();
+        if (!iterator.hasNext()) {
+            if (fingerprintsChanged) {
+                storeFingerprints();
+            }
+            return false;
+        }
+
+        String link = iterator.next();
+        // the link is looked up before it is removed, as looking it up marks it as unfingerprinted again
+        Optional<LinkedFileInfo> linkedFile = getLinkedFile(link);
+        unfingerprintedLinks.remove(link);
+        if (!linkedFile.isPresent() || hasFingerprint(link, linkedFile.get())) {
+            return true;
+        }
+        try {
+            String contentHash = hash(linkedFile.get().getFile().toPath());
+            // the file may have been written meanwhile
+            if (isUnchanged(linkedFile)) {
+                fingerprints.put(link, new Fingerprint(link, linkedFile.get().getSize(),
+                        linkedFile.get().getLastModified(), contentHash));
+                fingerprintsChanged = true;
+            }
+        } catch (IOException | InvalidPathException ex) {
+            LOGGER.debug("Cannot hash '" + linkedFile.get().getFile() + "'", ex);
+        }
+        return true;
+    }
+
+    private boolean hasFingerprint(String link, LinkedFileInfo linkedFile) {
+        Fingerprint fingerprint = fingerprints.get(link);
+        return (fingerprint != null) && (fingerprint.size == linkedFile.getSize())
+                && (fingerprint.lastModified == linkedFile.getLastModified());
+    }
+
+    /**
+     * Stores the fingerprints of the files linked in the database in its metadata. The fingerprints of links which
+     * have been removed from the database are dropped.
+     */
+    private void storeFingerprints() {
+        fingerprintsChanged = false;
+        Set<String> links = new HashSet<>();
+        for (BibEntry entry : new ArrayList<>(databaseContext.getDatabase().getEntries())) {
+            entry.getFieldOptional(FieldName.FILE).ifPresent(
+                    field -> FileField.parse(field).stream().map(ParsedFileField::getLink).forEach(links::add));
+        }
+        fingerprints.keySet().retainAll(links);
+        databaseContext.getMetaData().setFileFingerprints(
+                fingerprints.values().stream().map(Fingerprint::toString).sorted().collect(Collectors.toList()));
+    }
+
+    private static String hash(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+
+    /**
+     * A looked up link, and when its file has been checked last.
+     */
+    private static class CachedLink {
+
+        private final Optional<LinkedFileInfo> linkedFile;
+        // whether the file has to be checked again from time to time, as its changes may be missed
+        private final boolean revalidated;
+        private volatile long checkedAt;
+
+
+        CachedLink(Optional<LinkedFileInfo> linkedFile, boolean revalidated, long checkedAt) {
+            this.linkedFile = linkedFile;
+            this.revalidated = revalidated;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    /**
+     * The size, time stamp and content hash of the file a link referred to.
+     */
+    private static class Fingerprint {
+
+        private static final char SEPARATOR = ':';
+
+        private final String link;
+        private final long size;
+        private final long lastModified;
+        private final String contentHash;
+
+
+        Fingerprint(String link, long size, long lastModified, String contentHash) {
+            this.link = link;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+
+        /**
+         * Parses a fingerprint stored in the metadata, see {@link #toString()}.
+         */
+        static Optional<Fingerprint> parse(String fingerprint) {
+            // the link comes last, as it may contain the separator
+            String[] parts = fingerprint.split(String.valueOf(SEPARATOR), 4);
+            if (parts.length == 4) {
+                try {
+                    return Optional.of(
+                            new Fingerprint(parts[3], Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]));
+                } catch (NumberFormatException ex) {
+                    LOGGER.debug("Cannot parse fingerprint '" + fingerprint + "'", ex);
+                }
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(size) + SEPARATOR + lastModified + SEPARATOR + contentHash + SEPARATOR + link;
+        }
+    }
+
+    /**
+     * A linked file as it was when it has been looked up.
+     */
+    public static class LinkedFileInfo {
+
+        private final File file;
+        private final long size;
+        private final long lastModified;
+
+
+        LinkedFileInfo(File file, long size, long lastModified) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package net.sf.jabref.logic.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A snapshot of the files below some directories, indexed by their names.
+ * <p>
+ * The directories are walked only once, their subdirectories in parallel. Afterwards, the files whose names start with
+ * a given string are looked up in the sorted index, so the files of many entries are found without walking the
+ * directories again and without comparing every file with every entry.
+ */
+public class FileNameIndex {
+
+    private static final Log LOGGER = LogFactory.getLog(FileNameIndex.class);
+
+    // the files by their names, sorted by name
+    private final NavigableMap<String, List<File>> filesByName = new TreeMap<>();
+    private final Set<File> files;
+
+
+    private FileNameIndex(Set<File> files) {
+        this.files = files;
+        for (File file : files) {
+            filesByName.computeIfAbsent(file.getName(), name -> new ArrayList<>()).add(file);
+        }
+    }
+
+    /**
+     * Walks the given directories and indexes the files having one of the given extensions.
+     * Symbolic links to directories are not followed.
+     */
+    public static FileNameIndex build(List<String> extensions, List<File> directories) {
+        return build(extensions, directories, () -> false);
+    }
+
+    /**
+     * Walks the given directories and indexes the files having one of the given extensions.
+     * Symbolic links to directories are not followed.
+     *
+     * @param canceled tells whether the walk should be stopped, the index then contains the files found so far
+     */
+    public static FileNameIndex build(List<String> extensions, List<File> directories, BooleanSupplier canceled) {
+        Objects.requireNonNull(directories, "Directories must not be null!");
+        Objects.requireNonNull(extensions, "Extensions must not be null!");
+        Objects.requireNonNull(canceled);
+
+        Set<String> extensionSet = new HashSet<>(extensions);
+        Set<File> files = new LinkedHashSet<>();
+        for (File directory : directories) {
+            files.addAll(
+                    ForkJoinPool.commonPool().invoke(new DirectoryWalk(directory.toPath(), extensionSet, canceled)));
+        }
+        return new FileNameIndex(files);
+    }
+
+    /**
+     * Returns all indexed files.
+     */
+    public Set<File> getFiles() {
+        return Collections.unmodifiableSet(files);
+    }
+
+    /**
+     * Returns the indexed files whose names start with the given prefix, ordered by their names.
+     */
+    public List<File> getFilesStartingWith(String prefix) {
+        List<File> result = new ArrayList<>();
+        for (List<File> filesWithName : filesByName.subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+                .values()) {
+            result.addAll(filesWithName);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexed files whose names without extension equal the given base name, e.g., the files
+     * <code>Newton1687.pdf</code> and <code>Newton1687.ps</code> for the base name <code>Newton1687</code>.
+     */
+    public List<File> getFilesWithBaseName(String baseName) {
+        List<File> result = new ArrayList<>();
+        for (File file : getFilesStartingWith(baseName + '.')) {
+            if (file.getName().lastIndexOf('.') == baseName.length()) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Keeps the indexes built, so several databases looking for the same extensions in the same directories share one
+     * walk of the directories.
+     */
+    public static class Cache {
+
+        // the indexes by the set of their extensions and the list of their directories
+        private final Map<List<Object>, FileNameIndex> indexes = new HashMap<>();
+
+
+        /**
+         * Returns the index of the files having one of the given extensions below the given directories, and builds it
+         * if it has not been built before. An index whose walk has been canceled is not kept.
+         *
+         * @param canceled tells whether the walk should be stopped, the index then contains the files found so far
+         */
+        public FileNameIndex get(List<String> extensions, List<File> directories, BooleanSupplier canceled) {
+            List<Object> key = Arrays.asList(new HashSet<>(extensions), new ArrayList<>(directories));
+            FileNameIndex index = indexes.get(key);
+            if (index == null) {
+                index = build(extensions, directories, canceled);
+                if (!canceled.getAsBoolean()) {
+                    indexes.put(key, index);
+                }
+            }
+            return index;
+        }
+    }
+
+
+    /**
+     * Lists the files of a directory and forks a walk for each of its subdirectories.
+     */
+    private static class DirectoryWalk extends RecursiveTask<Collection<File>> {
+
+        private final Path directory;
+        private final Set<String> extensions;
+        private final BooleanSupplier canceled;
+
+
+        DirectoryWalk(Path directory, Set<String> extensions, BooleanSupplier canceled) {
+            this.directory = directory;
+            this.extensions = extensions;
+            this.canceled = canceled;
+        }
+
+        @Override
+        protected Collection<File> compute() {
+            List<File> result = new ArrayList<>();
+            if (canceled.getAsBoolean()) {
+                return result;
+            }
+
+            List<DirectoryWalk> subdirectoryWalks = new ArrayList<>();
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+                for (Path path : paths) {
+                    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        DirectoryWalk subdirectoryWalk = new DirectoryWalk(path, extensions, canceled);
+                        subdirectoryWalk.fork();
+                        subdirectoryWalks.add(subdirectoryWalk);
+                    } else if (!Files.isDirectory(path)
+                            && extensions.contains(FileUtil.getFileExtension(path.toFile()).orElse(""))) {
+                        result.add(path.toFile());
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.error("Problem in finding files", e);
+            }
+
+            for (DirectoryWalk subdirectoryWalk : subdirectoryWalks) {
+                result.addAll(subdirectoryWalk.join());
+            }
+            return result;
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package net.sf.jabref.logic.util.io;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -123,15 +122,15 @@ public class FileUtil {
         if (dest.exists() && !deleteIfExists) {
             return false;
         }
-        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(source));
-                BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(dest))) {
-
-
-            int el;
-            while ((el = in.read()) >= 0) {
-                out.write(el);
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(dest.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            // let the operating system copy the bytes, transferTo may transfer less than requested
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
             }
-            out.flush();
         }
         return true;
     }
@@ -166,6 +165,14 @@ public class FileUtil {
      * @param name     The filename, may also be a relative path to the file
      */
     public static Optional<File> expandFilename(final BibDatabaseContext databaseContext, String name) {
+        return expandFilename(name, getFileDirectories(databaseContext, name));
+    }
+
+    /**
+     * Returns the directories a relative filename is looked up in by
+     * {@link #expandFilename(BibDatabaseContext, String)}, in the order they are searched.
+     */
+    public static List<String> getFileDirectories(BibDatabaseContext databaseContext, String name) {
         Optional<String> extension = getFileExtension(name);
         // Find the default directory for this field type, if any:
         List<String> directories = databaseContext.getFileDirectory(extension.orElse(null));
@@ -183,8 +190,7 @@ public class FileUtil {
                 al.add(aFileDir);
             }
         }
-
-        return expandFilename(name, al);
+        return al;
     }
 
     /**
@@ -301,38 +307,48 @@ public class FileUtil {
 
     public static Map<BibEntry, List<File>> findAssociatedFiles(List<BibEntry> entries,
             List<String> extensions, List<File> directories, boolean autolinkExactKeyOnly) {
-        Map<BibEntry, List<File>> result = new HashMap<>();
+        return findAssociatedFiles(entries, FileNameIndex.build(extensions, directories), autolinkExactKeyOnly);
+    }
 
-        // First scan directories
-        Set<File> filesWithExtension = FileFinder.findFiles(extensions, directories);
+    /**
+     * Associates the indexed files with the entries whose keys their names start with. A file is associated with one
+     * entry only, an entry whose key equals the name of the file without extension is preferred, otherwise the first
+     * matching entry is taken.
+     *
+     * @param fileIndex            the files to associate, it may be reused for several sets of entries
+     * @param autolinkExactKeyOnly whether only files whose names without extension equal the key are associated
+     * @return the associated files of each entry
+     */
+    public static Map<BibEntry, List<File>> findAssociatedFiles(List<BibEntry> entries, FileNameIndex fileIndex,
+            boolean autolinkExactKeyOnly) {
+        Map<BibEntry, List<File>> result = new HashMap<>();
 
         // Initialize Result-Set
         for (BibEntry entry : entries) {
             result.put(entry, new ArrayList<>());
         }
 
-        // Now look for keys
-        nextFile: for (File file : filesWithExtension) {
-
-            String name = file.getName();
-            int dot = name.lastIndexOf('.');
-            // First, look for exact matches:
-            for (BibEntry entry : entries) {
-                Optional<String> citeKey = entry.getCiteKeyOptional();
-                if ((citeKey.isPresent()) && !citeKey.get().isEmpty() && (dot > 0)
-                        && name.substring(0, dot).equals(citeKey.get())) {
-                    result.get(entry).add(file);
-                    continue nextFile;
+        Set<File> associatedFiles = new HashSet<>();
+        // First, look for exact matches:
+        for (BibEntry entry : entries) {
+            Optional<String> citeKey = entry.getCiteKeyOptional().filter(key -> !key.isEmpty());
+            if (citeKey.isPresent()) {
+                for (File file : fileIndex.getFilesWithBaseName(citeKey.get())) {
+                    if (associatedFiles.add(file)) {
+                        result.get(entry).add(file);
+                    }
                 }
             }
-            // If we get here, we did not find any exact matches. If non-exact
-            // matches are allowed, try to find one:
-            if (!autolinkExactKeyOnly) {
-                for (BibEntry entry : entries) {
-                    Optional<String> citeKey = entry.getCiteKeyOptional();
-                    if ((citeKey.isPresent()) && !citeKey.get().isEmpty() && name.startsWith(citeKey.get())) {
-                        result.get(entry).add(file);
-                        continue nextFile;
+        }
+        // If non-exact matches are allowed, associate the remaining files:
+        if (!autolinkExactKeyOnly) {
+            for (BibEntry entry : entries) {
+                Optional<String> citeKey = entry.getCiteKeyOptional().filter(key -> !key.isEmpty());
+                if (citeKey.isPresent()) {
+                    for (File file : fileIndex.getFilesStartingWith(citeKey.get())) {
+                        if (associatedFiles.add(file)) {
+                            result.get(entry).add(file);
+                        }
                     }
                 }
             }
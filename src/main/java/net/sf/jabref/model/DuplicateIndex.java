@@ -0,0 +1,310 @@
+package net.sf.jabref.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.database.BibDatabaseMode;
+import net.sf.jabref.model.entry.Author;
+import net.sf.jabref.model.entry.AuthorList;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.FieldName;
+import net.sf.jabref.model.event.EntryAddedEvent;
+import net.sf.jabref.model.event.EntryChangedEvent;
+import net.sf.jabref.model.event.EntryRemovedEvent;
+import net.sf.jabref.model.event.FieldChangedEvent;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Index of duplicate candidates, used to avoid comparing every entry with every other entry.
+ * <p>
+ * Each entry is put into several blocks. Two entries are only compared by
+ * {@link DuplicateCheck#isDuplicate(BibEntry, BibEntry, BibDatabaseMode)} if they share at least one block.
+ * As entries of different types are never duplicates, all blocks are restricted to one entry type. The blocks are:
+ * <ul>
+ *     <li>the normalized DOI and the normalized ISBN,</li>
+ *     <li>the last name of the first author (or editor) together with the year,</li>
+ *     <li>the bands of a MinHash signature of the character trigrams of the title. Titles sharing many trigrams
+ *     share at least one band with high probability.</li>
+ * </ul>
+ * Entries having none of these fields are never reported as duplicates.
+ * <p>
+ * The index can be kept up to date by registering it as listener of a {@link BibDatabase}
+ * (see {@link #forDatabase(BibDatabase)}).
+ */
+public class DuplicateIndex {
+
+    private static final int SHINGLE_LENGTH = 3;
+    private static final int NUMBER_OF_BANDS = 8;
+    private static final int ROWS_PER_BAND = 3;
+    private static final int[] HASH_FACTORS = new int[NUMBER_OF_BANDS * ROWS_PER_BAND];
+    private static final int[] HASH_OFFSETS = new int[NUMBER_OF_BANDS * ROWS_PER_BAND];
+
+    // Fields used to compute the blocks. Changes of other fields do not affect the index.
+    private static final Set<String> INDEXED_FIELDS = new HashSet<>(Arrays.asList(BibEntry.TYPE_HEADER,
+            FieldName.DOI, FieldName.ISBN, FieldName.AUTHOR, FieldName.EDITOR, FieldName.YEAR, FieldName.TITLE));
+
+    static {
+        // fixed seed, so the signatures are reproducible
+        Random random = new Random(42);
+        for (int i = 0; i < HASH_FACTORS.length; i++) {
+            HASH_FACTORS[i] = random.nextInt() | 1; // odd factors are a bijection on int
+            HASH_OFFSETS[i] = random.nextInt();
+        }
+    }
+
+    // entry ids of each block
+    private final Map<String, Set<String>> blocks = new HashMap<>();
+    // indexed entries by entry id
+    private final Map<String, IndexedEntry> indexedEntries = new HashMap<>();
+    private long nextSequenceNumber;
+
+
+    private static class IndexedEntry {
+
+        private final BibEntry entry;
+        // the order in which the entries were added, used to report results in a stable order
+        private final long sequenceNumber;
+        private Set<String> blockKeys;
+
+
+        private IndexedEntry(BibEntry entry, long sequenceNumber, Set<String> blockKeys) {
+            this.entry = entry;
+            this.sequenceNumber = sequenceNumber;
+            this.blockKeys = blockKeys;
+        }
+    }
+
+
+    /**
+     * Creates an index of the duplicate candidates among the entries of the given database. The blocks of an entry
+     * are recomputed whenever one of the fields they depend on changes.
+     */
+    public static DuplicateIndex forDatabase(BibDatabase database) {
+        DuplicateIndex index = new DuplicateIndex();
+        database.registerListener(index, index::addEntry);
+        return index;
+    }
+
+    public synchronized void addEntry(BibEntry entry) {
+        if (indexedEntries.containsKey(entry.getId())) {
+            updateEntry(entry);
+            return;
+        }
+        IndexedEntry indexedEntry = new IndexedEntry(entry, nextSequenceNumber++, getBlockKeys(entry));
+        indexedEntries.put(entry.getId(), indexedEntry);
+        addToBlocks(indexedEntry);
+    }
+
+    public synchronized void removeEntry(BibEntry entry) {
+        IndexedEntry indexedEntry = indexedEntries.remove(entry.getId());
+        if (indexedEntry != null) {
+            removeFromBlocks(indexedEntry);
+        }
+    }
+
+    /**
+     * Recomputes the blocks of the given entry after a change.
+     */
+    public synchronized void updateEntry(BibEntry entry) {
+        IndexedEntry indexedEntry = indexedEntries.get(entry.getId());
+        if (indexedEntry == null) {
+            return;
+        }
+        Set<String> blockKeys = getBlockKeys(entry);
+        if (!blockKeys.equals(indexedEntry.blockKeys)) {
+            removeFromBlocks(indexedEntry);
+            indexedEntry.blockKeys = blockKeys;
+            addToBlocks(indexedEntry);
+        }
+    }
+
+    @Subscribe
+    public void listen(EntryAddedEvent event) {
+        addEntry(event.getBibEntry());
+    }
+
+    @Subscribe
+    public void listen(EntryRemovedEvent event) {
+        removeEntry(event.getBibEntry());
+    }
+
+    @Subscribe
+    public void listen(EntryChangedEvent event) {
+        if ((event instanceof FieldChangedEvent)
+                && !INDEXED_FIELDS.contains(((FieldChangedEvent) event).getFieldName())) {
+            return;
+        }
+        updateEntry(event.getBibEntry());
+    }
+
+    /**
+     * Returns the indexed entries which share at least one block with the given entry, in the order they were added.
+     * The entry itself is not contained. The given entry does not need to be part of the index.
+     */
+    public synchronized List<BibEntry> getCandidates(BibEntry entry) {
+        IndexedEntry indexedEntry = indexedEntries.get(entry.getId());
+        Set<String> blockKeys = indexedEntry == null ? getBlockKeys(entry) : indexedEntry.blockKeys;
+
+        Set<String> candidateIds = new HashSet<>();
+        for (String blockKey : blockKeys) {
+            candidateIds.addAll(blocks.getOrDefault(blockKey, new HashSet<>()));
+        }
+        candidateIds.remove(entry.getId());
+
+        return candidateIds.stream().map(indexedEntries::get)
+                .sorted(Comparator.comparingLong(candidate -> candidate.sequenceNumber))
+                .map(candidate -> candidate.entry).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the first indexed entry which is a duplicate of the given entry.
+     * Only the candidates of the entry (see {@link #getCandidates(BibEntry)}) are compared.
+     */
+    public Optional<BibEntry> getDuplicate(BibEntry entry, BibDatabaseMode bibDatabaseMode) {
+        return getCandidates(entry).stream()
+                .filter(candidate -> DuplicateCheck.isDuplicate(entry, candidate, bibDatabaseMode))
+                .findFirst();
+    }
+
+    /**
+     * Returns all pairs of indexed entries sharing at least one block. Each pair is contained once, the entry added
+     * first comes first.
+     */
+    public synchronized List<List<BibEntry>> getCandidatePairs() {
+        List<IndexedEntry> entries = new ArrayList<>(indexedEntries.values());
+        entries.sort(Comparator.comparingLong(indexedEntry -> indexedEntry.sequenceNumber));
+
+        List<List<BibEntry>> pairs = new ArrayList<>();
+        for (IndexedEntry first : entries) {
+            Set<String> partnerIds = new LinkedHashSet<>();
+            for (String blockKey : first.blockKeys) {
+                partnerIds.addAll(blocks.get(blockKey));
+            }
+            partnerIds.stream().map(indexedEntries::get)
+                    .filter(second -> second.sequenceNumber > first.sequenceNumber)
+                    .sorted(Comparator.comparingLong(second -> second.sequenceNumber))
+                    .forEach(second -> pairs.add(Arrays.asList(first.entry, second.entry)));
+        }
+        return pairs;
+    }
+
+    /**
+     * Returns all pairs of duplicates. The candidate pairs are scored in parallel.
+     */
+    public List<List<BibEntry>> getDuplicates(BibDatabaseMode bibDatabaseMode) {
+        return getCandidatePairs().parallelStream()
+                .filter(pair -> DuplicateCheck.isDuplicate(pair.get(0), pair.get(1), bibDatabaseMode))
+                .collect(Collectors.toList());
+    }
+
+    private void addToBlocks(IndexedEntry indexedEntry) {
+        for (String blockKey : indexedEntry.blockKeys) {
+            blocks.computeIfAbsent(blockKey, key -> new HashSet<>()).add(indexedEntry.entry.getId());
+        }
+    }
+
+    private void removeFromBlocks(IndexedEntry indexedEntry) {
+        for (String blockKey : indexedEntry.blockKeys) {
+            Set<String> block = blocks.get(blockKey);
+            if (block != null) {
+                block.remove(indexedEntry.entry.getId());
+                if (block.isEmpty()) {
+                    blocks.remove(blockKey);
+                }
+            }
+        }
+    }
+
+    static Set<String> getBlockKeys(BibEntry entry) {
+        Set<String> blockKeys = new HashSet<>();
+        String prefix = entry.getType() + '|';
+
+        entry.getFieldOptional(FieldName.DOI).map(DuplicateIndex::normalizeDoi).filter(doi -> !doi.isEmpty())
+                .ifPresent(doi -> blockKeys.add(prefix + "doi|" + doi));
+        entry.getFieldOptional(FieldName.ISBN).map(isbn -> isbn.replaceAll("[^0-9Xx]", "").toUpperCase(Locale.ROOT))
+                .filter(isbn -> !isbn.isEmpty()).ifPresent(isbn -> blockKeys.add(prefix + "isbn|" + isbn));
+
+        Optional<String> names = entry.getFieldOptional(FieldName.AUTHOR);
+        if (!names.isPresent()) {
+            names = entry.getFieldOptional(FieldName.EDITOR);
+        }
+        names.flatMap(DuplicateIndex::getFirstLastName).ifPresent(lastName -> blockKeys
+                .add(prefix + "author|" + lastName + '|' + entry.getFieldOptional(FieldName.YEAR).orElse("").trim()));
+
+        entry.getFieldOptional(FieldName.TITLE).ifPresent(title -> {
+            int[] signature = getMinHashSignature(title);
+            if (signature.length > 0) {
+                for (int band = 0; band < NUMBER_OF_BANDS; band++) {
+                    int bandHash = Arrays.hashCode(
+                            Arrays.copyOfRange(signature, band * ROWS_PER_BAND, (band + 1) * ROWS_PER_BAND));
+                    blockKeys.add(prefix + "title|" + band + '|' + bandHash);
+                }
+            }
+        });
+
+        return blockKeys;
+    }
+
+    private static String normalizeDoi(String doi) {
+        String normalized = doi.trim().toLowerCase(Locale.ROOT);
+        // remove prefixes like "doi:" or "http://dx.doi.org/"
+        int start = normalized.indexOf("10.");
+        return start > 0 ? normalized.substring(start) : normalized;
+    }
+
+    private static Optional<String> getFirstLastName(String names) {
+        List<Author> authors = AuthorList.parse(names).getAuthors();
+        if (authors.isEmpty() || (authors.get(0).getLast() == null)) {
+            return Optional.empty();
+        }
+        String lastName = authors.get(0).getLast().toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+        return lastName.isEmpty() ? Optional.empty() : Optional.of(lastName);
+    }
+
+    /**
+     * Computes the MinHash signature of the set of character trigrams of the normalized title.
+     *
+     * @return the signature, empty if the title does not contain any letters or digits
+     */
+    static int[] getMinHashSignature(String title) {
+        String normalized = title.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        if (normalized.isEmpty()) {
+            return new int[0];
+        }
+
+        Set<Integer> shingles = new HashSet<>();
+        if (normalized.length() <= SHINGLE_LENGTH) {
+            shingles.add(normalized.hashCode());
+        } else {
+            for (int i = 0; i <= (normalized.length() - SHINGLE_LENGTH); i++) {
+                shingles.add(normalized.substring(i, i + SHINGLE_LENGTH).hashCode());
+            }
+        }
+
+        int[] signature = new int[HASH_FACTORS.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < signature.length; i++) {
+                int hash = (shingle * HASH_FACTORS[i]) + HASH_OFFSETS[i];
+                hash ^= hash >>> 15; // mix the high bits into the low bits
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+}
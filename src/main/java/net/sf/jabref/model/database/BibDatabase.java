@@ -12,7 +12,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.event.source.EntryEventSource;
 import net.sf.jabref.model.EntryTypes;
@@ -121,25 +123,30 @@ public class BibDatabase {
 
     /**
      * Returns the entry with the given bibtex key.
+     * If several entries share the key, the one appearing first in the database is returned.
      */
-    public synchronized Optional<BibEntry> getEntryByKey(String key) {
-        for (BibEntry entry : entries) {
-            if (key.equals(entry.getCiteKeyOptional().orElse(null))) {
-                return Optional.of(entry);
-            }
-        }
-        return Optional.empty();
+    public Optional<BibEntry> getEntryByKey(String key) {
+        return getEntriesByKey(key).stream().findFirst();
     }
 
-    public synchronized List<BibEntry> getEntriesByKey(String key) {
-        List<BibEntry> result = new ArrayList<>();
+    /**
+     * Returns all entries with the given bibtex key in the order they appear in the database.
+     */
+    public List<BibEntry> getEntriesByKey(String key) {
+        List<BibEntry> entriesWithKey = duplicationChecker.getEntries(key);
+        if (entriesWithKey.size() <= 1) {
+            return entriesWithKey;
+        }
 
-        for (BibEntry entry : entries) {
-            entry.getCiteKeyOptional().ifPresent(entryKey -> {
-                if (key.equals(entryKey)) {
+        // duplicate keys are rare, so only then fall back to the database order
+        Set<String> idsWithKey = entriesWithKey.stream().map(BibEntry::getId).collect(Collectors.toSet());
+        List<BibEntry> result = new ArrayList<>(entriesWithKey.size());
+        synchronized (entries) {
+            for (BibEntry entry : entries) {
+                if (idsWithKey.contains(entry.getId())) {
                     result.add(entry);
                 }
-            });
+            }
         }
         return result;
     }
@@ -177,8 +184,10 @@ public class BibDatabase {
         entries.add(entry);
         entry.registerListener(this);
 
+        boolean duplicate = duplicationChecker.addEntry(entry);
+
         eventBus.post(new EntryAddedEvent(entry, eventSource));
-        return duplicationChecker.checkForDuplicateKeyAndAdd(null, entry.getCiteKeyOptional().orElse(null));
+        return duplicate;
     }
 
     /**
@@ -202,7 +211,7 @@ public class BibDatabase {
         boolean anyRemoved =  entries.removeIf(entry -> entry.getId().equals(toBeDeleted.getId()));
         if (anyRemoved) {
             internalIDs.remove(toBeDeleted.getId());
-            toBeDeleted.getCiteKeyOptional().ifPresent(duplicationChecker::removeKeyFromSet);
+            duplicationChecker.removeEntry(toBeDeleted);
             eventBus.post(new EntryRemovedEvent(toBeDeleted, eventSource));
         }
     }
@@ -211,6 +220,11 @@ public class BibDatabase {
         return duplicationChecker.getNumberOfKeyOccurrences(key);
     }
 
+    /**
+     * Sets the cite key of the given entry. The key index is updated through the resulting {@link FieldChangedEvent}.
+     *
+     * @return true if the new key was already used by another entry
+     */
     public synchronized boolean setCiteKeyForEntry(BibEntry entry, String key) {
         String oldKey = entry.getCiteKeyOptional().orElse(null);
         if (key == null) {
@@ -218,7 +232,7 @@ public class BibDatabase {
         } else {
             entry.setCiteKey(key);
         }
-        return duplicationChecker.checkForDuplicateKeyAndAdd(oldKey, key);
+        return (key != null) && !key.equals(oldKey) && (getNumberOfKeyOccurrences(key) > 1);
     }
 
     /**
@@ -570,6 +584,19 @@ public class BibDatabase {
         this.eventBus.register(listener);
     }
 
+    /**
+     * Registers a listener keeping track of the entries of this database and passes the current entries to the given
+     * consumer. No entry can be inserted or removed in the meantime, so the consumer receives exactly the entries
+     * present when the listener is registered, and the listener receives all later insertions and removals.
+     *
+     * @param listener listener (subscriber) to add
+     * @param entryConsumer receives each entry present when the listener is registered
+     */
+    public synchronized void registerListener(Object listener, Consumer<BibEntry> entryConsumer) {
+        registerListener(listener);
+        new ArrayList<>(entries).forEach(entryConsumer);
+    }
+
     /**
      * Unregisters an listener object.
      * @param listener listener (subscriber) to remove
@@ -579,7 +606,16 @@ public class BibDatabase {
     }
 
     @Subscribe
-    private void relayEntryChangeEvent(FieldChangedEvent event) {
+    private void relayEntryChangeEvent(EntryChangedEvent event) {
+        // keep the key index in sync, but ignore events of entries which have already been removed
+        if (event instanceof FieldChangedEvent) {
+            FieldChangedEvent fieldChangedEvent = (FieldChangedEvent) event;
+            if (BibEntry.KEY_FIELD.equals(fieldChangedEvent.getFieldName())
+                    && containsEntryWithId(event.getBibEntry().getId())) {
+                duplicationChecker.updateKey(event.getBibEntry(), fieldChangedEvent.getOldValue(),
+                        fieldChangedEvent.getNewValue());
+            }
+        }
         eventBus.post(event);
     }
 }
@@ -1,50 +1,63 @@
 package net.sf.jabref.model.database;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import net.sf.jabref.model.entry.BibEntry;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
- * Determines which bibtex cite keys are duplicates in a single {@link BibDatabase}
+ * Indexes the entries of a single {@link BibDatabase} by their bibtex cite key.
+ * The index is used both to determine which bibtex cite keys are duplicates and to look up entries by key
+ * without scanning the whole database.
  */
 class DuplicationChecker {
 
     private static final Log LOGGER = LogFactory.getLog(DuplicationChecker.class);
 
-    // use a map instead of a set since i need to know how many of each key is in there
-    private final Map<String, Integer> allKeys = new HashMap<>();
+    // a multimap instead of a set since we need to know how many (and which) entries share a key
+    private final Map<String, List<BibEntry>> entriesByKey = new HashMap<>();
 
-    //##########################################
-    //  usage:
-    //  isDuplicate=checkForDuplicateKeyAndAdd( null, b.getKey() , issueDuplicateWarning);
-    //############################################
-    // if the newkey already exists and is not the same as oldkey it will give a warning
-    // else it will add the newkey to the to set and remove the oldkey
-    public boolean checkForDuplicateKeyAndAdd(String oldKey, String newKey) {
-        // LOGGER.debug(" checkForDuplicateKeyAndAdd [oldKey = " + oldKey + "] [newKey = " + newKey + "]");
 
-        boolean duplicate;
-        if (oldKey == null) {// this is a new entry so don't bother removing oldKey
-            duplicate = addKeyToSet(newKey);
-        } else {
-            if (oldKey.equals(newKey)) {// were OK because the user did not change keys
-                duplicate = false;
-            } else {// user changed the key
+    /**
+     * Adds the entry under its current cite key.
+     *
+     * @return true if the key of the entry was already in use
+     */
+    public synchronized boolean addEntry(BibEntry entry) {
+        String key = entry.getCiteKeyOptional().orElse(null);
+        boolean duplicate = addEntryToKey(key, entry);
+        if (duplicate) {
+            LOGGER.warn("Warning there is a duplicate key: " + key);
+        }
+        return duplicate;
+    }
 
-                // removed the oldkey
-                // But what if more than two have the same key?
-                // this means that user can add another key and would not get a warning!
-                // consider this: i add a key xxx, then i add another key xxx . I get a warning. I delete the key xxx. JBM
-                // removes this key from the allKey. then I add another key xxx. I don't get a warning!
-                // i need a way to count the number of keys of each type
-                // hashmap=>int (increment each time)
+    /**
+     * Removes the entry (identified by its id) from the bucket of its current cite key.
+     */
+    public synchronized void removeEntry(BibEntry entry) {
+        entry.getCiteKeyOptional().ifPresent(key -> removeEntryFromKey(key, entry));
+    }
 
-                removeKeyFromSet(oldKey);
-                duplicate = addKeyToSet(newKey);
-            }
+    /**
+     * Moves the entry from the bucket of the old key to the bucket of the new key.
+     * If the new key already exists and is not the same as the old key, a warning is logged.
+     *
+     * @return true if the new key was already in use by another entry
+     */
+    public synchronized boolean updateKey(BibEntry entry, String oldKey, String newKey) {
+        if ((oldKey != null) && oldKey.equals(newKey)) {
+            // were OK because the user did not change keys
+            return false;
         }
+
+        removeEntryFromKey(oldKey, entry);
+        boolean duplicate = addEntryToKey(newKey, entry);
         if (duplicate) {
             LOGGER.warn("Warning there is a duplicate key: " + newKey);
         }
@@ -54,48 +67,46 @@ class DuplicationChecker {
     /**
      * Returns the number of occurrences of the given key in this database.
      */
-    public int getNumberOfKeyOccurrences(String key) {
-        Integer numberOfOccurrences = allKeys.get(key);
-        if (numberOfOccurrences == null) {
+    public synchronized int getNumberOfKeyOccurrences(String key) {
+        List<BibEntry> entries = entriesByKey.get(key);
+        if (entries == null) {
             return 0;
         } else {
-            return numberOfOccurrences;
+            return entries.size();
         }
+    }
 
+    /**
+     * Returns a modifiable copy of all entries having the given key. The order of the returned list is unspecified.
+     */
+    public synchronized List<BibEntry> getEntries(String key) {
+        List<BibEntry> entries = entriesByKey.get(key);
+        if (entries == null) {
+            return new ArrayList<>();
+        } else {
+            return new ArrayList<>(entries);
+        }
     }
 
-    //========================================================
-    // keep track of all the keys to warn if there are duplicates
-    //========================================================
-    public boolean addKeyToSet(String key) {
+    private boolean addEntryToKey(String key, BibEntry entry) {
         if ((key == null) || key.isEmpty()) {
-            return false;//don't put empty key
-        }
-        boolean exists = false;
-        if (allKeys.containsKey(key)) {
-            // warning
-            exists = true;
-            allKeys.put(key, allKeys.get(key) + 1);// incrementInteger( allKeys.get(key)));
-        } else {
-            allKeys.put(key, 1);
+            return false; //don't put empty key
         }
+        List<BibEntry> entries = entriesByKey.computeIfAbsent(key, k -> new ArrayList<>(1));
+        boolean exists = !entries.isEmpty();
+        entries.add(entry);
         return exists;
     }
 
-    //========================================================
-    // reduce the number of keys by 1. if this number goes to zero then remove from the set
-    // note: there is a good reason why we should not use a hashset but use hashmap instead
-    //========================================================
-    public void removeKeyFromSet(String key) {
+    private void removeEntryFromKey(String key, BibEntry entry) {
         if ((key == null) || key.isEmpty()) {
             return;
         }
-        if (allKeys.containsKey(key)) {
-            Integer tI = allKeys.get(key); // if(allKeys.get(key) instanceof Integer)
-            if (tI == 1) {
-                allKeys.remove(key);
-            } else {
-                allKeys.put(key, tI - 1);//decrementInteger( tI ));
+        List<BibEntry> entries = entriesByKey.get(key);
+        if (entries != null) {
+            entries.removeIf(indexedEntry -> indexedEntry.getId().equals(entry.getId()));
+            if (entries.isEmpty()) {
+                entriesByKey.remove(key);
             }
         }
     }
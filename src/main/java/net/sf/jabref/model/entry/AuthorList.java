@@ -3,7 +3,6 @@ package net.sf.jabref.model.entry;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -128,7 +127,7 @@ public class AuthorList {
     private final String[] authorsLastFirst = new String[4];
     private final String[] authorsLastFirstFirstLast = new String[2];
 
-    private static final WeakHashMap<String, AuthorList> AUTHOR_CACHE = new WeakHashMap<>();
+    private static volatile AuthorListCache cache = new AuthorListCache(AuthorListCache.DEFAULT_CAPACITY);
 
     /**
      * Creates a new list of authors.
@@ -157,13 +156,21 @@ public class AuthorList {
     public static AuthorList parse(String authors) {
         Objects.requireNonNull(authors);
 
-        AuthorList authorList = AUTHOR_CACHE.get(authors);
-        if (authorList == null) {
-            AuthorListParser parser = new AuthorListParser();
-            authorList = parser.parse(authors);
-            AUTHOR_CACHE.put(authors, authorList);
-        }
-        return authorList;
+        return cache.get(authors);
+    }
+
+    /**
+     * Returns the cache of the parsed author lists, e.g., to look at its hit rate.
+     */
+    public static AuthorListCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Replaces the cache of the parsed author lists by an empty one holding at most the given number of author lists.
+     */
+    public static void setCacheCapacity(int capacity) {
+        cache = new AuthorListCache(capacity);
     }
 
     /**
@@ -0,0 +1,86 @@
+package net.sf.jabref.model.entry;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * A bounded cache of parsed author lists, keyed by the string which has been parsed.
+ * <p>
+ * The cache may be used by several threads at a time, it is divided into segments which are locked independently.
+ * When the cache is full, the least recently used author lists are evicted. Equal authors share one {@link Author}
+ * instance, also across caches, as long as any author list refers to it.
+ */
+public class AuthorListCache {
+
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private static final Interner<Author> AUTHOR_INTERNER = Interners.newWeakInterner();
+
+    private final LoadingCache<String, AuthorList> cache;
+
+
+    public AuthorListCache(int capacity) {
+        cache = CacheBuilder.newBuilder().maximumSize(capacity).recordStats()
+                .build(CacheLoader.from(AuthorListCache::parse));
+    }
+
+    private static AuthorList parse(String authors) {
+        List<Author> parsedAuthors = new AuthorListParser().parse(authors).getAuthors();
+        return new AuthorList(
+                parsedAuthors.stream().map(AUTHOR_INTERNER::intern).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the parsed author list of the given string, parsing it only if it is not cached.
+     */
+    public AuthorList get(String authors) {
+        return cache.getUnchecked(authors);
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of author lists which have been found in the cache.
+     */
+    public long getHitCount() {
+        return getStatistics().hitCount();
+    }
+
+    /**
+     * Returns the number of author lists which have been parsed, because they were not in the cache.
+     */
+    public long getMissCount() {
+        return getStatistics().missCount();
+    }
+
+    /**
+     * Returns the number of author lists which have been evicted, because the cache was full.
+     */
+    public long getEvictionCount() {
+        return getStatistics().evictionCount();
+    }
+
+    /**
+     * Returns the ratio of requests which have been served from the cache, or 1 if there were no requests.
+     */
+    public double getHitRate() {
+        return getStatistics().hitRate();
+    }
+
+    private CacheStats getStatistics() {
+        return cache.stats();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.regex.Pattern;
 import net.sf.jabref.event.source.EntryEventSource;
 import net.sf.jabref.model.FieldChange;
 import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.event.EntryChangedEvent;
 import net.sf.jabref.model.event.FieldChangedEvent;
 
 import com.google.common.base.Strings;
@@ -49,15 +50,17 @@ public class BibEntry implements Cloneable {
     private String type;
     private Map<String, String> fields = new ConcurrentHashMap<>();
     /*
-     * Map to store the words in every field
+     * Map to store the words in every field, together with the field value they were computed from. Searches and
+     * groups read the words from other threads than the one changing the fields, so a cached word set is only used
+     * if its value is still the current value of the field.
      */
-    private final Map<String, Set<String>> fieldsAsWords = new HashMap<>();
+    private final Map<String, FieldWords> fieldsAsWords = new ConcurrentHashMap<>();
 
     // Search and grouping status is stored in boolean fields for quick reference:
     private boolean searchHit;
     private boolean groupHit;
 
-    private String parsedSerialization;
+    private volatile String parsedSerialization;
 
     private String commentsBeforeEntry = "";
 
@@ -66,7 +69,14 @@ public class BibEntry implements Cloneable {
      *
      * Is set to false, if parts of the entry change. This causes the entry to be serialized based on the internal state (and not based on the old serialization)
      */
-    private boolean changed;
+    private volatile boolean changed;
+
+    /*
+     * Counts the changes of the type and the fields. The changes and the counter are guarded by changeLock, so a writer
+     * can check atomically whether the entry has been changed since it started to serialize it.
+     */
+    private final Object changeLock = new Object();
+    private long changeCount;
 
 
     private final EventBus eventBus = new EventBus();
@@ -115,8 +125,10 @@ public class BibEntry implements Cloneable {
         String oldId = this.id;
 
         eventBus.post(new FieldChangedEvent(this, BibEntry.ID_FIELD, id, oldId));
-        this.id = id;
-        changed = true;
+        synchronized (changeLock) {
+            this.id = id;
+            markChanged();
+        }
     }
 
     /**
@@ -177,8 +189,10 @@ public class BibEntry implements Cloneable {
         // We set the type before throwing the changeEvent, to enable
         // the change listener to access the new value if the change
         // sets off a change in database sorting etc.
-        this.type = newType.toLowerCase(Locale.ENGLISH);
-        changed = true;
+        synchronized (changeLock) {
+            this.type = newType.toLowerCase(Locale.ENGLISH);
+            markChanged();
+        }
         eventBus.post(new FieldChangedEvent(this, TYPE_HEADER, newType, oldType, eventSource));
     }
 
@@ -350,6 +364,63 @@ public class BibEntry implements Cloneable {
         fields.forEach(this::setField);
     }
 
+    /**
+     * Replaces all fields of this entry by the given ones. Fields not contained in the given map are removed.
+     * In contrast to setting the fields one by one, listeners are notified by a single {@link EntryChangedEvent}.
+     * Only a change of the cite key is additionally announced by a {@link FieldChangedEvent}, because listeners
+     * keeping track of keys rely on the old and the new key.
+     *
+     * @param newFields   the field names mapped to the values to set
+     * @param eventSource Source the event is sent from
+     */
+    public void replaceFields(Map<String, String> newFields, EntryEventSource eventSource) {
+        Objects.requireNonNull(newFields, "fields must not be null");
+
+        Map<String, String> fieldsToSet = new HashMap<>();
+        newFields.forEach((name, value) -> {
+            String fieldName = toLowerCase(name);
+            if (BibEntry.ID_FIELD.equals(fieldName)) {
+                throw new IllegalArgumentException("The field name '" + name + "' is reserved");
+            }
+            if ((value != null) && !value.isEmpty()) {
+                fieldsToSet.put(fieldName, value);
+            }
+        });
+
+        // all fields are applied before any event is posted, so listeners never see a partly updated entry
+        String oldKey;
+        String newKey = fieldsToSet.remove(KEY_FIELD);
+        boolean keyChanged;
+        boolean anyFieldChanged;
+        synchronized (changeLock) {
+            oldKey = fields.get(KEY_FIELD);
+            keyChanged = !Objects.equals(oldKey, newKey);
+            if (newKey == null) {
+                fields.remove(KEY_FIELD);
+            } else {
+                fields.put(KEY_FIELD, newKey);
+            }
+
+            anyFieldChanged = fields.keySet().removeIf(
+                    fieldName -> !KEY_FIELD.equals(fieldName) && !fieldsToSet.containsKey(fieldName));
+            for (Map.Entry<String, String> field : fieldsToSet.entrySet()) {
+                String oldValue = fields.put(field.getKey(), field.getValue());
+                anyFieldChanged |= !field.getValue().equals(oldValue);
+            }
+
+            if (keyChanged || anyFieldChanged) {
+                markChanged();
+                fieldsAsWords.clear();
+            }
+        }
+        if (keyChanged) {
+            eventBus.post(new FieldChangedEvent(new FieldChange(this, KEY_FIELD, oldKey, newKey), eventSource));
+        }
+        if (anyFieldChanged) {
+            eventBus.post(new EntryChangedEvent(this, eventSource));
+        }
+    }
+
     /**
      * Set a field, and notify listeners about the change.
      * @param name  The field to set
@@ -375,10 +446,11 @@ public class BibEntry implements Cloneable {
             throw new IllegalArgumentException("The field name '" + name + "' is reserved");
         }
 
-        changed = true;
-
-        fields.put(fieldName, value);
-        fieldsAsWords.remove(fieldName);
+        synchronized (changeLock) {
+            fields.put(fieldName, value);
+            fieldsAsWords.remove(fieldName);
+            markChanged();
+        }
 
         FieldChange change = new FieldChange(this, fieldName, oldValue, value);
         eventBus.post(new FieldChangedEvent(change, eventSource));
@@ -431,10 +503,11 @@ public class BibEntry implements Cloneable {
             return Optional.empty();
         }
 
-        changed = true;
-
-        fields.remove(fieldName);
-        fieldsAsWords.remove(fieldName);
+        synchronized (changeLock) {
+            fields.remove(fieldName);
+            fieldsAsWords.remove(fieldName);
+            markChanged();
+        }
         FieldChange change = new FieldChange(this, fieldName, oldValue.get(), null);
         eventBus.post(new FieldChangedEvent(change, eventSource));
         return Optional.of(change);
@@ -560,8 +633,42 @@ public class BibEntry implements Cloneable {
 
 
     public void setParsedSerialization(String parsedSerialization) {
-        changed = false;
-        this.parsedSerialization = parsedSerialization;
+        synchronized (changeLock) {
+            changed = false;
+            this.parsedSerialization = parsedSerialization;
+        }
+    }
+
+    /**
+     * Sets the serialization of this entry and marks the entry as unchanged, provided that the entry has not been
+     * changed since {@link #getChangeCount()} returned the given count. Used by writers to keep the serialization they
+     * wrote, which is only correct if the entry has not been changed while it was serialized.
+     *
+     * @return true if the serialization was set
+     */
+    public boolean setParsedSerialization(String parsedSerialization, long expectedChangeCount) {
+        synchronized (changeLock) {
+            if (changeCount != expectedChangeCount) {
+                return false;
+            }
+            setParsedSerialization(parsedSerialization);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the number of changes of the type and the fields of this entry so far.
+     */
+    public long getChangeCount() {
+        synchronized (changeLock) {
+            return changeCount;
+        }
+    }
+
+    // has to be called while holding changeLock
+    private void markChanged() {
+        changed = true;
+        changeCount++;
     }
 
     public String getParsedSerialization() {
@@ -577,7 +684,13 @@ public class BibEntry implements Cloneable {
     }
 
     public void setChanged(boolean changed) {
-        this.changed = changed;
+        synchronized (changeLock) {
+            if (changed) {
+                markChanged();
+            } else {
+                this.changed = false;
+            }
+        }
     }
 
     public Optional<FieldChange> putKeywords(Collection<String> keywords, String separator) {
@@ -682,20 +795,36 @@ public class BibEntry implements Cloneable {
         return REMOVE_TRAILING_WHITESPACE.matcher(commentsBeforeEntry).replaceFirst("");
     }
 
+    /**
+     * Returns the words of the given field, i.e., its value split at whitespace, commas and semicolons.
+     * The returned set must not be modified.
+     */
     public Set<String> getFieldAsWords(String field) {
         String fieldName = toLowerCase(field);
-        Set<String> storedList = fieldsAsWords.get(fieldName);
-        if (storedList != null) {
-            return storedList;
-        } else {
-            String fieldValue = fields.get(fieldName);
-            if (fieldValue == null) {
-                return Collections.emptySet();
-            } else {
-                HashSet<String> words = new HashSet<>(EntryUtil.getStringAsWords(fieldValue));
-                fieldsAsWords.put(fieldName, words);
-                return words;
-            }
+        String fieldValue = fields.get(fieldName);
+        if (fieldValue == null) {
+            return Collections.emptySet();
+        }
+
+        FieldWords storedWords = fieldsAsWords.get(fieldName);
+        if ((storedWords != null) && storedWords.value.equals(fieldValue)) {
+            return storedWords.words;
+        }
+        Set<String> words = Collections.unmodifiableSet(new HashSet<>(EntryUtil.getStringAsWords(fieldValue)));
+        fieldsAsWords.put(fieldName, new FieldWords(fieldValue, words));
+        return words;
+    }
+
+
+    private static class FieldWords {
+
+        private final String value;
+        private final Set<String> words;
+
+
+        private FieldWords(String value, Set<String> words) {
+            this.value = value;
+            this.words = words;
         }
     }
 }
@@ -115,6 +115,9 @@ public class JabRefPreferences {
     public static final String PROXY_USERNAME = "proxyUsername";
     public static final String PROXY_PASSWORD = "proxyPassword";
     public static final String PROXY_USE_AUTHENTICATION = "useProxyAuthentication";
+    public static final String HTTP_CACHE_DIRECTORY = "httpCacheDirectory";
+    public static final String HTTP_CACHE_SIZE = "httpCacheSize";
+    public static final String HTTP_CACHE_OFFLINE = "httpCacheOffline";
     public static final String TABLE_PRIMARY_SORT_FIELD = "priSort";
     public static final String TABLE_PRIMARY_SORT_DESCENDING = "priDescending";
     public static final String TABLE_SECONDARY_SORT_FIELD = "secSort";
@@ -517,6 +520,11 @@ public class JabRefPreferences {
         defaults.put(PROXY_USERNAME, "");
         defaults.put(PROXY_PASSWORD, "");
 
+        // HTTP cache, size in megabytes
+        defaults.put(HTTP_CACHE_DIRECTORY, USER_HOME + File.separator + ".jabref" + File.separator + "http-cache");
+        defaults.put(HTTP_CACHE_SIZE, 50);
+        defaults.put(HTTP_CACHE_OFFLINE, Boolean.FALSE);
+
         defaults.put(USE_DEFAULT_LOOK_AND_FEEL, Boolean.TRUE);
         defaults.put(LYXPIPE, USER_HOME + File.separator + ".lyx/lyxpipe");
         defaults.put(VIM, "vim");
@@ -0,0 +1,83 @@
+package net.sf.jabref.shared;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Watches the shared database for changes of entries and reports the changed shared IDs together with their current
+ * version. A version of 0 denotes a removed entry.
+ * <p>
+ * The listener runs in its own thread and on a connection of its own (see
+ * {@link DBMSProcessor#startNotificationListener(DBMSConnectionProperties, Consumer)}), which is closed when the
+ * listener is stopped.
+ */
+abstract class DBMSNotificationListener implements Runnable {
+
+    private static final Log LOGGER = LogFactory.getLog(DBMSNotificationListener.class);
+
+    private final Connection connection;
+    private final Consumer<Map<Integer, Integer>> changeConsumer;
+    private final long interval;
+    private volatile boolean running = true;
+
+
+    /**
+     * @param connection Connection used only by this listener
+     * @param changeConsumer Receives the changed shared IDs mapped to their version
+     * @param interval Time in milliseconds between two checks for changes
+     */
+    protected DBMSNotificationListener(Connection connection, Consumer<Map<Integer, Integer>> changeConsumer,
+            long interval) {
+        this.connection = connection;
+        this.changeConsumer = changeConsumer;
+        this.interval = interval;
+    }
+
+    /**
+     * Prepares the listener. Called before the listener thread is started, so changes made after starting the
+     * listener are not missed.
+     */
+    protected abstract void start() throws SQLException;
+
+    /**
+     * Returns the changes which happened since the last call.
+     */
+    protected abstract Map<Integer, Integer> fetchChanges() throws SQLException;
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                Map<Integer, Integer> changes = fetchChanges();
+                if (!changes.isEmpty()) {
+                    changeConsumer.accept(changes);
+                }
+                Thread.sleep(interval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            // the connection is closed when the listener is stopped
+            if (running) {
+                LOGGER.error("SQL Error: ", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the listener and closes its connection. Changes on the shared database are not listened to anymore.
+     */
+    public void stop() {
+        running = false;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Could not close connection of listener", e);
+        }
+    }
+}
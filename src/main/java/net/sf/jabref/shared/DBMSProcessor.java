@@ -6,13 +6,17 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.event.source.EntryEventSource;
 import net.sf.jabref.model.entry.BibEntry;
@@ -29,8 +33,15 @@ public abstract class DBMSProcessor {
 
     protected static final Log LOGGER = LogFactory.getLog(DBMSConnector.class);
 
+    // Oracle does not accept more than 1000 expressions in an IN list.
+    // Also used as the number of entries written in one transaction.
+    private static final int SHARED_ID_CHUNK_SIZE = 500;
+
     protected final Connection connection;
 
+    private DBMSNotificationListener notificationListener;
+    private Thread notificationThread;
+
     /**
      * @param connection Working SQL connection
      * @param dbmsType Instance of {@link DBMSType}
@@ -126,41 +137,114 @@ public abstract class DBMSProcessor {
      * @param bibEntry {@link BibEntry} to be inserted
      */
     public void insertEntry(BibEntry bibEntry) {
+        insertEntries(Collections.singletonList(bibEntry));
+    }
 
+    /**
+     * Inserts the given entries into shared database. Entries which are already present on shared database are skipped.
+     * The entries are written in chunks. Each chunk is written in one transaction using batched statements,
+     * so other clients are never notified about an entry without fields.
+     *
+     * @param bibEntries {@link BibEntry} instances to be inserted
+     * @return <code>true</code> if all entries are present on shared database afterwards, <code>false</code> if
+     * writing a chunk failed
+     */
+    public boolean insertEntries(List<BibEntry> bibEntries) {
+        boolean inserted = true;
+        for (int from = 0; from < bibEntries.size(); from += SHARED_ID_CHUNK_SIZE) {
+            List<BibEntry> chunk = bibEntries.subList(from, Math.min(from + SHARED_ID_CHUNK_SIZE, bibEntries.size()));
+            try {
+                List<BibEntry> newEntries = getEntriesNotPresent(chunk);
+                if (newEntries.isEmpty()) {
+                    continue;
+                }
 
-        try {
-            // Check if already exists
-            int sharedID = bibEntry.getSharedBibEntryData().getSharedID();
-            if (sharedID != -1) {
-                StringBuilder selectQuery = new StringBuilder()
-                        .append("SELECT * FROM ")
-                        .append(escape("ENTRY"))
-                        .append(" WHERE ")
-                        .append(escape("SHARED_ID"))
-                        .append(" = ?");
-
-                try (PreparedStatement preparedSelectStatement = connection.prepareStatement(selectQuery.toString())) {
-                    preparedSelectStatement.setInt(1, sharedID);
-                    try (ResultSet resultSet = preparedSelectStatement.executeQuery()) {
-                        if (resultSet.next()) {
-                            return;
-                        }
-                    }
+                connection.setAutoCommit(false); // disable auto commit due to transaction
+                try {
+                    insertEntryChunk(newEntries);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback(); // undo changes made in current transaction
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true); // enable auto commit mode again
                 }
+            } catch (SQLException e) {
+                LOGGER.error("SQL Error: ", e);
+                inserted = false;
             }
+        }
+        return inserted;
+    }
 
-            // Inserting into ENTRY table
-            StringBuilder insertIntoEntryQuery = new StringBuilder()
-                .append("INSERT INTO ")
+    /**
+     * Helping method. Returns the given entries which do not exist on shared database, checking all of them at once.
+     */
+    private List<BibEntry> getEntriesNotPresent(List<BibEntry> bibEntries) throws SQLException {
+        List<Integer> sharedIDs = bibEntries.stream().map(bibEntry -> bibEntry.getSharedBibEntryData().getSharedID())
+                .filter(sharedID -> sharedID != -1).collect(Collectors.toList());
+        if (sharedIDs.isEmpty()) {
+            return bibEntries;
+        }
+
+        StringBuilder selectQuery = new StringBuilder()
+                .append("SELECT ")
+                .append(escape("SHARED_ID"))
+                .append(" FROM ")
                 .append(escape("ENTRY"))
-                .append("(")
-                .append(escape("TYPE"))
-                .append(") VALUES(?)");
+                .append(" WHERE ")
+                .append(escape("SHARED_ID"))
+                .append(" IN (")
+                .append(String.join(", ", Collections.nCopies(sharedIDs.size(), "?")))
+                .append(")");
+
+        Set<Integer> presentSharedIDs = new HashSet<>();
+        try (PreparedStatement preparedSelectStatement = connection.prepareStatement(selectQuery.toString())) {
+            for (int i = 0; i < sharedIDs.size(); i++) {
+                preparedSelectStatement.setInt(i + 1, sharedIDs.get(i));
+            }
+            try (ResultSet resultSet = preparedSelectStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    presentSharedIDs.add(resultSet.getInt(1));
+                }
+            }
+        }
 
-            // This is the only method to get generated keys which is accepted by MySQL, PostgreSQL and Oracle.
-            try (PreparedStatement preparedEntryStatement = connection.prepareStatement(insertIntoEntryQuery.toString(),
-                    new String[] {"SHARED_ID"})) {
+        return bibEntries.stream()
+                .filter(bibEntry -> !presentSharedIDs.contains(bibEntry.getSharedBibEntryData().getSharedID()))
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Helping method. Inserts the given entries into the ENTRY table and their fields into the FIELD table.
+     */
+    private void insertEntryChunk(List<BibEntry> bibEntries) throws SQLException {
+        StringBuilder insertIntoEntryQuery = new StringBuilder()
+            .append("INSERT INTO ")
+            .append(escape("ENTRY"))
+            .append("(")
+            .append(escape("TYPE"))
+            .append(") VALUES(?)");
+
+        StringBuilder insertFieldQuery = new StringBuilder()
+            .append("INSERT INTO ")
+            .append(escape("FIELD"))
+            .append("(")
+            .append(escape("ENTRY_SHARED_ID"))
+            .append(", ")
+            .append(escape("NAME"))
+            .append(", ")
+            .append(escape("VALUE"))
+            .append(") VALUES(?, ?, ?)");
+
+        // This is the only method to get generated keys which is accepted by MySQL, PostgreSQL and Oracle.
+        try (PreparedStatement preparedEntryStatement = connection.prepareStatement(insertIntoEntryQuery.toString(),
+                new String[] {"SHARED_ID"});
+                PreparedStatement preparedFieldStatement = connection.prepareStatement(insertFieldQuery.toString())) {
+
+            boolean hasFields = false;
+            for (BibEntry bibEntry : bibEntries) {
+                // Not every driver returns generated keys for batches, so each entry is inserted on its own.
                 preparedEntryStatement.setString(1, bibEntry.getType());
                 preparedEntryStatement.executeUpdate();
 
@@ -170,30 +254,19 @@ public abstract class DBMSProcessor {
                     }
                 }
 
-                // Inserting into FIELD table
                 for (String fieldName : bibEntry.getFieldNames()) {
-                    StringBuilder insertFieldQuery = new StringBuilder()
-                        .append("INSERT INTO ")
-                        .append(escape("FIELD"))
-                        .append("(")
-                        .append(escape("ENTRY_SHARED_ID"))
-                        .append(", ")
-                        .append(escape("NAME"))
-                        .append(", ")
-                        .append(escape("VALUE"))
-                        .append(") VALUES(?, ?, ?)");
-
-                    try (PreparedStatement preparedFieldStatement = connection.prepareStatement(insertFieldQuery.toString())) {
-                        // columnIndex starts with 1
-                        preparedFieldStatement.setInt(1, bibEntry.getSharedBibEntryData().getSharedID());
-                        preparedFieldStatement.setString(2, fieldName);
-                        preparedFieldStatement.setString(3, bibEntry.getFieldOptional(fieldName).get());
-                        preparedFieldStatement.executeUpdate();
-                    }
+                    // columnIndex starts with 1
+                    preparedFieldStatement.setInt(1, bibEntry.getSharedBibEntryData().getSharedID());
+                    preparedFieldStatement.setString(2, fieldName);
+                    preparedFieldStatement.setString(3, bibEntry.getFieldOptional(fieldName).get());
+                    preparedFieldStatement.addBatch();
+                    hasFields = true;
                 }
             }
-        } catch (SQLException e) {
-            LOGGER.error("SQL Error: ", e);
+
+            if (hasFields) {
+                preparedFieldStatement.executeBatch();
+            }
         }
     }
 
@@ -257,6 +330,170 @@ public abstract class DBMSProcessor {
         }
     }
 
+    /**
+     * Updates the given entries on shared database. The entries are processed in chunks: the shared state of a chunk
+     * is fetched at once and all changes of the chunk are written in one transaction using batched statements.
+     * <p>
+     * As with {@link #updateEntry(BibEntry)}, an entry is only updated if its local version is not older than the
+     * shared one or both are equal. Entries which fail this check or which are not present on shared database are
+     * skipped and reported to the given handlers.
+     *
+     * @param localBibEntries {@link BibEntry} instances affected by changes
+     * @param offlineLockHandler Receives an {@link OfflineLockException} for each outdated local entry
+     * @param notPresentHandler Receives a {@link SharedEntryNotPresentException} for each entry missing on shared database
+     * @throws SQLException
+     */
+    public void updateEntries(List<BibEntry> localBibEntries, Consumer<OfflineLockException> offlineLockHandler,
+            Consumer<SharedEntryNotPresentException> notPresentHandler) throws SQLException {
+        for (int from = 0; from < localBibEntries.size(); from += SHARED_ID_CHUNK_SIZE) {
+            List<BibEntry> chunk = localBibEntries.subList(from,
+                    Math.min(from + SHARED_ID_CHUNK_SIZE, localBibEntries.size()));
+
+            Map<Integer, BibEntry> sharedEntries = new HashMap<>();
+            for (BibEntry sharedEntry : getSharedEntryChunk(chunk.stream()
+                    .map(localBibEntry -> localBibEntry.getSharedBibEntryData().getSharedID())
+                    .collect(Collectors.toList()))) {
+                sharedEntries.put(sharedEntry.getSharedBibEntryData().getSharedID(), sharedEntry);
+            }
+
+            List<BibEntry> entriesToUpdate = new ArrayList<>();
+            for (BibEntry localBibEntry : chunk) {
+                BibEntry sharedBibEntry = sharedEntries.get(localBibEntry.getSharedBibEntryData().getSharedID());
+                if (sharedBibEntry == null) {
+                    notPresentHandler.accept(new SharedEntryNotPresentException(localBibEntry));
+                } else if ((localBibEntry.getSharedBibEntryData().getVersion() >= sharedBibEntry.getSharedBibEntryData()
+                        .getVersion()) || localBibEntry.equals(sharedBibEntry)) {
+                    entriesToUpdate.add(localBibEntry);
+                } else {
+                    offlineLockHandler.accept(new OfflineLockException(localBibEntry, sharedBibEntry));
+                }
+            }
+
+            if (entriesToUpdate.isEmpty()) {
+                continue;
+            }
+
+            connection.setAutoCommit(false); // disable auto commit due to transaction
+            try {
+                updateEntryChunk(entriesToUpdate, sharedEntries);
+                connection.commit(); // apply all changes in current transaction
+            } catch (SQLException e) {
+                connection.rollback(); // undo changes made in current transaction
+                throw e;
+            } finally {
+                connection.setAutoCommit(true); // enable auto commit mode again
+            }
+        }
+    }
+
+    /**
+     * Helping method. Writes the fields and types of the given entries, comparing them with their shared counterparts.
+     */
+    private void updateEntryChunk(List<BibEntry> localBibEntries, Map<Integer, BibEntry> sharedEntries)
+            throws SQLException {
+        StringBuilder deleteFieldQuery = new StringBuilder()
+            .append("DELETE FROM ")
+            .append(escape("FIELD"))
+            .append(" WHERE ")
+            .append(escape("NAME"))
+            .append(" = ? AND ")
+            .append(escape("ENTRY_SHARED_ID"))
+            .append(" = ?");
+
+        StringBuilder updateFieldQuery = new StringBuilder()
+            .append("UPDATE ")
+            .append(escape("FIELD"))
+            .append(" SET ")
+            .append(escape("VALUE"))
+            .append(" = ? WHERE ")
+            .append(escape("NAME"))
+            .append(" = ? AND ")
+            .append(escape("ENTRY_SHARED_ID"))
+            .append(" = ?");
+
+        StringBuilder insertFieldQuery = new StringBuilder()
+            .append("INSERT INTO ")
+            .append(escape("FIELD"))
+            .append("(")
+            .append(escape("ENTRY_SHARED_ID"))
+            .append(", ")
+            .append(escape("NAME"))
+            .append(", ")
+            .append(escape("VALUE"))
+            .append(") VALUES(?, ?, ?)");
+
+        StringBuilder updateEntryTypeQuery = new StringBuilder()
+            .append("UPDATE ")
+            .append(escape("ENTRY"))
+            .append(" SET ")
+            .append(escape("TYPE"))
+            .append(" = ?, ")
+            .append(escape("VERSION"))
+            .append(" = ")
+            .append(escape("VERSION"))
+            .append(" + 1 WHERE ")
+            .append(escape("SHARED_ID"))
+            .append(" = ?");
+
+        try (PreparedStatement preparedDeleteFieldStatement = connection.prepareStatement(deleteFieldQuery.toString());
+                PreparedStatement preparedUpdateFieldStatement = connection.prepareStatement(updateFieldQuery.toString());
+                PreparedStatement preparedInsertFieldStatement = connection.prepareStatement(insertFieldQuery.toString());
+                PreparedStatement preparedUpdateEntryTypeStatement = connection
+                        .prepareStatement(updateEntryTypeQuery.toString())) {
+
+            int deletedFields = 0;
+            int updatedFields = 0;
+            int insertedFields = 0;
+            for (BibEntry localBibEntry : localBibEntries) {
+                int sharedID = localBibEntry.getSharedBibEntryData().getSharedID();
+                BibEntry sharedBibEntry = sharedEntries.get(sharedID);
+
+                // remove shared fields which do not exist locally
+                for (String fieldName : sharedBibEntry.getFieldNames()) {
+                    if (!localBibEntry.hasField(fieldName)) {
+                        preparedDeleteFieldStatement.setString(1, fieldName);
+                        preparedDeleteFieldStatement.setInt(2, sharedID);
+                        preparedDeleteFieldStatement.addBatch();
+                        deletedFields++;
+                    }
+                }
+
+                for (String fieldName : localBibEntry.getFieldNames()) {
+                    String value = localBibEntry.getFieldOptional(fieldName).orElse(null);
+                    Optional<String> sharedValue = sharedBibEntry.getFieldOptional(fieldName);
+                    if (!sharedValue.isPresent()) {
+                        preparedInsertFieldStatement.setInt(1, sharedID);
+                        preparedInsertFieldStatement.setString(2, fieldName);
+                        preparedInsertFieldStatement.setString(3, value);
+                        preparedInsertFieldStatement.addBatch();
+                        insertedFields++;
+                    } else if (!sharedValue.get().equals(value)) {
+                        preparedUpdateFieldStatement.setString(1, value);
+                        preparedUpdateFieldStatement.setString(2, fieldName);
+                        preparedUpdateFieldStatement.setInt(3, sharedID);
+                        preparedUpdateFieldStatement.addBatch();
+                        updatedFields++;
+                    }
+                }
+
+                preparedUpdateEntryTypeStatement.setString(1, localBibEntry.getType());
+                preparedUpdateEntryTypeStatement.setInt(2, sharedID);
+                preparedUpdateEntryTypeStatement.addBatch();
+            }
+
+            if (deletedFields > 0) {
+                preparedDeleteFieldStatement.executeBatch();
+            }
+            if (updatedFields > 0) {
+                preparedUpdateFieldStatement.executeBatch();
+            }
+            if (insertedFields > 0) {
+                preparedInsertFieldStatement.executeBatch();
+            }
+            preparedUpdateEntryTypeStatement.executeBatch();
+        }
+    }
+
     /**
      * Helping method. Removes shared fields which do not exist locally
      */
@@ -391,6 +628,80 @@ public abstract class DBMSProcessor {
         return getSharedEntryList(0);
     }
 
+    /**
+     * Fetches the shared entries with the given IDs.
+     * The IDs are queried in chunks, using one query for the entries and one for their fields per chunk.
+     *
+     * @param sharedIDs Entry IDs
+     * @return List of {@link BibEntry} instances, ordered by their ID within each chunk
+     */
+    public List<BibEntry> getSharedEntries(List<Integer> sharedIDs) {
+        List<BibEntry> sharedEntries = new ArrayList<>(sharedIDs.size());
+        for (int from = 0; from < sharedIDs.size(); from += SHARED_ID_CHUNK_SIZE) {
+            List<Integer> chunk = sharedIDs.subList(from, Math.min(from + SHARED_ID_CHUNK_SIZE, sharedIDs.size()));
+            sharedEntries.addAll(getSharedEntryChunk(chunk));
+        }
+        return sharedEntries;
+    }
+
+    private List<BibEntry> getSharedEntryChunk(List<Integer> sharedIDs) {
+        Map<Integer, BibEntry> sharedEntries = new LinkedHashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(sharedIDs.size(), "?"));
+
+        StringBuilder selectEntryQuery = new StringBuilder()
+                .append("SELECT * FROM ")
+                .append(escape("ENTRY"))
+                .append(" WHERE ")
+                .append(escape("SHARED_ID"))
+                .append(" IN (")
+                .append(placeholders)
+                .append(") ORDER BY ")
+                .append(escape("SHARED_ID"));
+
+        StringBuilder selectFieldQuery = new StringBuilder()
+                .append("SELECT * FROM ")
+                .append(escape("FIELD"))
+                .append(" WHERE ")
+                .append(escape("ENTRY_SHARED_ID"))
+                .append(" IN (")
+                .append(placeholders)
+                .append(")");
+
+        try (PreparedStatement preparedSelectEntryStatement = connection.prepareStatement(selectEntryQuery.toString());
+                PreparedStatement preparedSelectFieldStatement = connection.prepareStatement(selectFieldQuery.toString())) {
+            for (int i = 0; i < sharedIDs.size(); i++) {
+                // columnIndex starts with 1
+                preparedSelectEntryStatement.setInt(i + 1, sharedIDs.get(i));
+                preparedSelectFieldStatement.setInt(i + 1, sharedIDs.get(i));
+            }
+
+            try (ResultSet selectEntryResultSet = preparedSelectEntryStatement.executeQuery()) {
+                while (selectEntryResultSet.next()) {
+                    BibEntry bibEntry = new BibEntry();
+                    // setting the base attributes once
+                    bibEntry.getSharedBibEntryData().setSharedID(selectEntryResultSet.getInt("SHARED_ID"));
+                    bibEntry.setType(selectEntryResultSet.getString("TYPE"));
+                    bibEntry.getSharedBibEntryData().setVersion(selectEntryResultSet.getInt("VERSION"));
+                    sharedEntries.put(bibEntry.getSharedBibEntryData().getSharedID(), bibEntry);
+                }
+            }
+
+            try (ResultSet selectFieldResultSet = preparedSelectFieldStatement.executeQuery()) {
+                while (selectFieldResultSet.next()) {
+                    BibEntry bibEntry = sharedEntries.get(selectFieldResultSet.getInt("ENTRY_SHARED_ID"));
+                    if (bibEntry != null) {
+                        bibEntry.setField(selectFieldResultSet.getString("NAME"),
+                                Optional.ofNullable(selectFieldResultSet.getString("VALUE")), EntryEventSource.SHARED);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error", e);
+        }
+
+        return new ArrayList<>(sharedEntries.values());
+    }
+
     /**
      * @param sharedID Entry ID. If 0, all entries are going to be fetched.
      * @return List of {@link BibEntry} instances
@@ -514,6 +825,72 @@ public abstract class DBMSProcessor {
         }
     }
 
+    /**
+     * Starts listening for changes of entries on the shared database, whoever made them.
+     * The given consumer is called from a background thread with the changed shared IDs mapped to their current
+     * version. A version of 0 denotes a removed entry.
+     * A previously started listener is stopped.
+     * <p>
+     * The connection of this processor is used for the transactions of the local user, so the listener opens a
+     * connection of its own, which is closed when the listener is stopped.
+     *
+     * @param properties The properties used to open the connection of the listener
+     * @param changeConsumer Receives the changes
+     * @throws ClassNotFoundException if no suitable driver was found
+     * @throws SQLException if the listener could not be set up
+     */
+    public void startNotificationListener(DBMSConnectionProperties properties,
+            Consumer<Map<Integer, Integer>> changeConsumer) throws ClassNotFoundException, SQLException {
+        Connection listenerConnection = DBMSConnector.getNewConnection(properties);
+        startNotificationListener(getProcessorInstance(listenerConnection, properties.getType()), changeConsumer);
+    }
+
+    /**
+     * Starts the listener created by the given processor, which has to work on a connection of its own.
+     */
+    synchronized void startNotificationListener(DBMSProcessor listenerProcessor,
+            Consumer<Map<Integer, Integer>> changeConsumer) throws SQLException {
+        stopNotificationListener();
+
+        DBMSNotificationListener listener;
+        try {
+            listener = listenerProcessor.createNotificationListener(changeConsumer);
+            listener.start();
+        } catch (SQLException e) {
+            listenerProcessor.connection.close();
+            throw e;
+        }
+
+        Thread thread = new Thread(listener);
+        thread.setName("JabRef shared database listener");
+        thread.setDaemon(true);
+        thread.start();
+        notificationListener = listener;
+        notificationThread = thread;
+    }
+
+    /**
+     * Stops listening for changes on the shared database and closes the connection of the listener.
+     */
+    public synchronized void stopNotificationListener() {
+        if (notificationListener != null) {
+            notificationListener.stop();
+            // do not wait for the next check
+            notificationThread.interrupt();
+            notificationListener = null;
+            notificationThread = null;
+        }
+    }
+
+    /**
+     * Creates the listener used to detect changes on the shared database using the connection of this processor.
+     * By default, a listener polling a version stamp of the ENTRY table is used.
+     */
+    protected DBMSNotificationListener createNotificationListener(Consumer<Map<Integer, Integer>> changeConsumer)
+            throws SQLException {
+        return new VersionStampNotificationListener(this, changeConsumer);
+    }
+
     /**
      *  Returns a new instance of the abstract type {@link DBMSProcessor}
      */
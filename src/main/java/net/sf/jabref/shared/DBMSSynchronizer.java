@@ -2,10 +2,13 @@ package net.sf.jabref.shared;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.MetaData;
@@ -20,6 +23,7 @@ import net.sf.jabref.model.event.EntryEvent;
 import net.sf.jabref.model.event.EntryRemovedEvent;
 import net.sf.jabref.model.event.FieldChangedEvent;
 import net.sf.jabref.shared.event.ConnectionLostEvent;
+import net.sf.jabref.shared.event.SharedEntriesChangedEvent;
 import net.sf.jabref.shared.event.SharedEntryNotPresentEvent;
 import net.sf.jabref.shared.event.UpdateRefusedEvent;
 import net.sf.jabref.shared.exception.DatabaseNotSupportedException;
@@ -47,6 +51,7 @@ public class DBMSSynchronizer {
     private final BibDatabase bibDatabase;
     private final EventBus eventBus;
     private Connection currentConnection;
+    private DBMSConnectionProperties connectionProperties;
 
 
     public DBMSSynchronizer(BibDatabaseContext bibDatabaseContext) {
@@ -146,6 +151,7 @@ public class DBMSSynchronizer {
     /**
      * Synchronizes the local database with shared one.
      * Possible update types are removal, update or insert of a {@link BibEntry}.
+     * All outdated and new entries are fetched from the shared database at once.
      */
     public void synchronizeLocalDatabase() {
         if (!checkCurrentConnection()) {
@@ -158,41 +164,91 @@ public class DBMSSynchronizer {
         // remove old entries locally
         removeNotSharedEntries(localEntries, idVersionMap.keySet());
 
-        // compare versions and update local entry if needed
+        Map<Integer, List<BibEntry>> localEntriesBySharedID = getLocalEntriesBySharedID(localEntries);
+
+        // compare versions to find the entries which have to be updated or inserted locally
+        List<Integer> outdatedSharedIDs = new ArrayList<>();
+        List<Integer> newSharedIDs = new ArrayList<>();
         for (Map.Entry<Integer, Integer> idVersionEntry : idVersionMap.entrySet()) {
-            boolean match = false;
-            for (BibEntry localEntry : localEntries) {
-                if (idVersionEntry.getKey() == localEntry.getSharedBibEntryData().getSharedID()) {
-                    match = true;
-                    if (idVersionEntry.getValue() > localEntry.getSharedBibEntryData().getVersion()) {
-                        Optional<BibEntry> sharedEntry = dbmsProcessor.getSharedEntry(idVersionEntry.getKey());
-                        if (sharedEntry.isPresent()) {
-                            // update fields
-                            localEntry.setType(sharedEntry.get().getType(), EntryEventSource.SHARED);
-                            localEntry.getSharedBibEntryData()
-                                    .setVersion(sharedEntry.get().getSharedBibEntryData().getVersion());
-                            for (String field : sharedEntry.get().getFieldNames()) {
-                                localEntry.setField(field, sharedEntry.get().getFieldOptional(field), EntryEventSource.SHARED);
-                            }
-
-                            Set<String> redundantLocalEntryFields = localEntry.getFieldNames();
-                            redundantLocalEntryFields.removeAll(sharedEntry.get().getFieldNames());
-
-                            // remove not existing fields
-                            for (String redundantField : redundantLocalEntryFields) {
-                                localEntry.clearField(redundantField, EntryEventSource.SHARED);
-                            }
-                        }
+            List<BibEntry> matchingLocalEntries = localEntriesBySharedID.get(idVersionEntry.getKey());
+            if (matchingLocalEntries == null) {
+                newSharedIDs.add(idVersionEntry.getKey());
+            } else if (matchingLocalEntries.stream().anyMatch(
+                    localEntry -> idVersionEntry.getValue() > localEntry.getSharedBibEntryData().getVersion())) {
+                outdatedSharedIDs.add(idVersionEntry.getKey());
+            }
+        }
+
+        fetchSharedEntries(localEntriesBySharedID, outdatedSharedIDs, newSharedIDs);
+    }
+
+    /**
+     * Synchronizes only the given entries of the local database with the shared one.
+     * Used to apply the changes reported by the notification listener (see {@link #startNotificationListener()}).
+     *
+     * @param sharedIDVersions Changed shared IDs mapped to their current version, 0 if the entry has been removed
+     */
+    public void synchronizeLocalEntries(Map<Integer, Integer> sharedIDVersions) {
+        if (!checkCurrentConnection()) {
+            return;
+        }
+
+        Map<Integer, List<BibEntry>> localEntriesBySharedID = getLocalEntriesBySharedID(bibDatabase.getEntries());
+
+        List<Integer> outdatedSharedIDs = new ArrayList<>();
+        List<Integer> newSharedIDs = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> idVersionEntry : sharedIDVersions.entrySet()) {
+            List<BibEntry> matchingLocalEntries = localEntriesBySharedID.get(idVersionEntry.getKey());
+            if (idVersionEntry.getValue() == 0) {
+                if (matchingLocalEntries != null) {
+                    for (BibEntry localEntry : matchingLocalEntries) {
+                        bibDatabase.removeEntry(localEntry, EntryEventSource.SHARED);
                     }
                 }
+            } else if (matchingLocalEntries == null) {
+                newSharedIDs.add(idVersionEntry.getKey());
+            } else if (matchingLocalEntries.stream().anyMatch(
+                    localEntry -> idVersionEntry.getValue() > localEntry.getSharedBibEntryData().getVersion())) {
+                outdatedSharedIDs.add(idVersionEntry.getKey());
             }
-            if (!match) {
-                Optional<BibEntry> bibEntry = dbmsProcessor.getSharedEntry(idVersionEntry.getKey());
-                if (bibEntry.isPresent()) {
-                    bibDatabase.insertEntry(bibEntry.get(), EntryEventSource.SHARED);
+        }
+
+        fetchSharedEntries(localEntriesBySharedID, outdatedSharedIDs, newSharedIDs);
+    }
+
+    private Map<Integer, List<BibEntry>> getLocalEntriesBySharedID(List<BibEntry> localEntries) {
+        Map<Integer, List<BibEntry>> localEntriesBySharedID = new HashMap<>();
+        for (BibEntry localEntry : localEntries) {
+            localEntriesBySharedID.computeIfAbsent(localEntry.getSharedBibEntryData().getSharedID(),
+                    sharedID -> new ArrayList<>(1)).add(localEntry);
+        }
+        return localEntriesBySharedID;
+    }
+
+    /**
+     * Fetches the outdated and new entries from the shared database at once and applies them locally.
+     */
+    private void fetchSharedEntries(Map<Integer, List<BibEntry>> localEntriesBySharedID,
+            List<Integer> outdatedSharedIDs, List<Integer> newSharedIDs) {
+        Collections.sort(outdatedSharedIDs);
+        Collections.sort(newSharedIDs);
+
+        // update fields
+        for (BibEntry sharedEntry : dbmsProcessor.getSharedEntries(outdatedSharedIDs)) {
+            int sharedVersion = sharedEntry.getSharedBibEntryData().getVersion();
+            for (BibEntry localEntry : localEntriesBySharedID.get(sharedEntry.getSharedBibEntryData().getSharedID())) {
+                if (sharedVersion > localEntry.getSharedBibEntryData().getVersion()) {
+                    localEntry.setType(sharedEntry.getType(), EntryEventSource.SHARED);
+                    localEntry.getSharedBibEntryData().setVersion(sharedVersion);
+                    // also removes not existing fields
+                    localEntry.replaceFields(sharedEntry.getFieldMap(), EntryEventSource.SHARED);
                 }
             }
         }
+
+        for (BibEntry sharedEntry : dbmsProcessor.getSharedEntries(newSharedIDs)) {
+            bibDatabase.insertEntry(sharedEntry, EntryEventSource.SHARED);
+        }
     }
 
     /**
@@ -202,19 +258,11 @@ public class DBMSSynchronizer {
      * @param sharedIDs Set of all IDs which are present on shared database
      */
     private void removeNotSharedEntries(List<BibEntry> localEntries, Set<Integer> sharedIDs) {
-        for (int i = 0; i < localEntries.size(); i++) {
-            BibEntry localEntry = localEntries.get(i);
-            boolean match = false;
-            for (int sharedID : sharedIDs) {
-                if (localEntry.getSharedBibEntryData().getSharedID() == sharedID) {
-                    match = true;
-                    break;
-                }
-            }
-            if (!match) {
-                bibDatabase.removeEntry(localEntry, EntryEventSource.SHARED); // Should not reach the listeners above.
-                i--; // due to index shift on localEntries
-            }
+        List<BibEntry> entriesToRemove = localEntries.stream()
+                .filter(localEntry -> !sharedIDs.contains(localEntry.getSharedBibEntryData().getSharedID()))
+                .collect(Collectors.toList());
+        for (BibEntry localEntry : entriesToRemove) {
+            bibDatabase.removeEntry(localEntry, EntryEventSource.SHARED); // Should not reach the listeners above.
         }
     }
 
@@ -268,25 +316,50 @@ public class DBMSSynchronizer {
 
     /**
      * Applies the {@link MetaData} on all local and shared BibEntries.
+     * All changed entries are written to the shared database at once.
      */
     public void applyMetaData() {
         if (!checkCurrentConnection()) {
             return;
         }
+        List<BibEntry> changedEntries = new ArrayList<>();
         for (BibEntry bibEntry : bibDatabase.getEntries()) {
             // synchronize only if changes were present
             if (!BibDatabaseWriter.applySaveActions(bibEntry, metaData).isEmpty()) {
-                try {
-                    dbmsProcessor.updateEntry(bibEntry);
-                } catch (OfflineLockException exception) {
-                    eventBus.post(new UpdateRefusedEvent(bibDatabaseContext, exception.getLocalBibEntry(), exception.getSharedBibEntry()));
-                } catch (SharedEntryNotPresentException exception) {
-                    eventBus.post(new SharedEntryNotPresentEvent(exception.getNonPresentBibEntry()));
-                } catch (SQLException e) {
-                    LOGGER.error("SQL Error: ", e);
-                }
+                changedEntries.add(bibEntry);
             }
         }
+
+        try {
+            dbmsProcessor.updateEntries(changedEntries,
+                    exception -> eventBus.post(new UpdateRefusedEvent(bibDatabaseContext,
+                            exception.getLocalBibEntry(), exception.getSharedBibEntry())),
+                    exception -> eventBus.post(new SharedEntryNotPresentEvent(exception.getNonPresentBibEntry())));
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error: ", e);
+        }
+    }
+
+    /**
+     * Inserts the given entries into the shared database at once and afterwards into the local database.
+     * Used instead of inserting the entries one by one, which would write and synchronize each entry separately.
+     * <p>
+     * If the entries could not be written to the shared database, e.g. because the connection is lost, they are
+     * inserted as local changes like a single new entry, so they are kept when working offline.
+     *
+     * @param bibEntries New {@link BibEntry} instances
+     */
+    public void insertEntries(List<BibEntry> bibEntries) {
+        boolean isInserted = checkCurrentConnection() && dbmsProcessor.insertEntries(bibEntries);
+        // Entries inserted as SHARED do not reach the listeners above, as they are already present on shared database.
+        EntryEventSource eventSource = isInserted ? EntryEventSource.SHARED : EntryEventSource.LOCAL;
+        for (BibEntry bibEntry : bibEntries) {
+            bibDatabase.insertEntry(bibEntry, eventSource);
+        }
+        if (isInserted) {
+            synchronizeLocalMetaData();
+            synchronizeLocalDatabase(); // Pull changes for the case that there were some
+        }
     }
 
     /**
@@ -301,6 +374,32 @@ public class DBMSSynchronizer {
         synchronizeLocalMetaData();
     }
 
+    /**
+     * Starts listening for changes on the shared database. Each detected change is announced by posting a
+     * {@link SharedEntriesChangedEvent} from a background thread, which can be passed to
+     * {@link #synchronizeLocalEntries(Map)}.
+     * <p>
+     * The listener needs a connection of its own, so it can only be started if the shared database was opened using
+     * {@link #openSharedDatabase(DBMSConnectionProperties)}.
+     */
+    public void startNotificationListener() {
+        if ((connectionProperties == null) || !checkCurrentConnection()) {
+            return;
+        }
+        try {
+            dbmsProcessor.startNotificationListener(connectionProperties, sharedIDVersions -> eventBus
+                    .post(new SharedEntriesChangedEvent(bibDatabaseContext, sharedIDVersions)));
+        } catch (ClassNotFoundException | SQLException e) {
+            LOGGER.error("Could not start listening for changes on shared database", e);
+        }
+    }
+
+    public void stopNotificationListener() {
+        if (dbmsProcessor != null) {
+            dbmsProcessor.stopNotificationListener();
+        }
+    }
+
     /**
      *  Checks whether the current SQL connection is valid.
      *  In case that the connection is not valid a new {@link ConnectionLostEvent} is going to be sent.
@@ -333,6 +432,8 @@ public class DBMSSynchronizer {
     }
 
     public void openSharedDatabase(Connection connection, DBMSType type, String name) throws DatabaseNotSupportedException, SQLException {
+        stopNotificationListener();
+        this.connectionProperties = null;
         this.dbmsType = type;
         this.dbName = name;
         this.currentConnection = connection;
@@ -342,6 +443,7 @@ public class DBMSSynchronizer {
 
     public void openSharedDatabase(DBMSConnectionProperties properties) throws ClassNotFoundException, SQLException, DatabaseNotSupportedException {
         openSharedDatabase(DBMSConnector.getNewConnection(properties), properties.getType(), properties.getDatabase());
+        this.connectionProperties = properties;
     }
 
     private boolean isPresentLocalBibEntry(BibEntry bibEntry) {
@@ -0,0 +1,65 @@
+package net.sf.jabref.shared;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Receives the notifications sent by the triggers on the ENTRY table (see {@link PostgreSQLProcessor}) using
+ * PostgreSQL's LISTEN/NOTIFY mechanism.
+ * <p>
+ * Notifications are pushed by the server and buffered by the driver, so checking for them does not cause any queries
+ * on the server. The payload of each notification is <code>SHARED_ID,VERSION</code>.
+ * Listening ends with the session, i.e. when the connection of the listener is closed.
+ */
+class PostgreSQLNotificationListener extends DBMSNotificationListener {
+
+    static final String CHANNEL = "jabref_entry_changes";
+
+    private static final Log LOGGER = LogFactory.getLog(PostgreSQLNotificationListener.class);
+
+    private final PostgreSQLProcessor processor;
+    private final PGConnection pgConnection;
+
+
+    PostgreSQLNotificationListener(PostgreSQLProcessor processor, Consumer<Map<Integer, Integer>> changeConsumer)
+            throws SQLException {
+        super(processor.connection, changeConsumer, 50);
+        this.processor = processor;
+        this.pgConnection = processor.connection.unwrap(PGConnection.class);
+    }
+
+    @Override
+    protected void start() throws SQLException {
+        try (Statement statement = processor.connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    @Override
+    protected Map<Integer, Integer> fetchChanges() throws SQLException {
+        Map<Integer, Integer> changes = new HashMap<>();
+        PGNotification[] notifications = pgConnection.getNotifications();
+        if (notifications == null) {
+            return changes;
+        }
+
+        for (PGNotification notification : notifications) {
+            String[] payload = notification.getParameter().split(",");
+            try {
+                // notifications are delivered in commit order, so later versions override earlier ones
+                changes.put(Integer.parseInt(payload[0]), Integer.parseInt(payload[1]));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                LOGGER.warn("Invalid notification payload: " + notification.getParameter());
+            }
+        }
+        return changes;
+    }
+}
@@ -1,7 +1,13 @@
 package net.sf.jabref.shared;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
 
 /**
  * Processes all incoming or outgoing bib data to PostgreSQL database and manages its structure.
@@ -41,6 +47,59 @@ public class PostgreSQLProcessor extends DBMSProcessor {
                 + "\"VALUE\" TEXT)");
     }
 
+    /**
+     * Uses PostgreSQL's LISTEN/NOTIFY mechanism if available. A trigger on the ENTRY table notifies all listening
+     * clients about every inserted, updated or removed entry.
+     */
+    @Override
+    protected DBMSNotificationListener createNotificationListener(Consumer<Map<Integer, Integer>> changeConsumer)
+            throws SQLException {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+            return super.createNotificationListener(changeConsumer);
+        }
+        try {
+            setUpNotificationTrigger();
+        } catch (SQLException e) {
+            // e.g. the user is not allowed to create functions
+            LOGGER.warn("Could not set up notifications, falling back to polling", e);
+            return super.createNotificationListener(changeConsumer);
+        }
+        return new PostgreSQLNotificationListener(this, changeConsumer);
+    }
+
+    /**
+     * Creates the trigger sending a notification with the payload <code>SHARED_ID,VERSION</code> for each change
+     * of the ENTRY table. Removed entries are reported with version 0.
+     * The notifications are sent on commit, so a new entry is reported after its fields have been inserted.
+     */
+    private void setUpNotificationTrigger() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(
+                    "CREATE OR REPLACE FUNCTION notify_jabref_entry_change() RETURNS TRIGGER AS $$ " +
+                    "BEGIN " +
+                    "IF (TG_OP = 'DELETE') THEN " +
+                    "PERFORM pg_notify('" + PostgreSQLNotificationListener.CHANNEL + "', OLD.\"SHARED_ID\" || ',0'); " +
+                    "RETURN OLD; " +
+                    "END IF; " +
+                    "PERFORM pg_notify('" + PostgreSQLNotificationListener.CHANNEL + "', " +
+                    "NEW.\"SHARED_ID\" || ',' || NEW.\"VERSION\"); " +
+                    "RETURN NEW; " +
+                    "END; " +
+                    "$$ LANGUAGE plpgsql");
+
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT 1 FROM pg_trigger WHERE tgname = 'jabref_entry_change' AND tgrelid = '\"ENTRY\"'::regclass")) {
+                if (resultSet.next()) {
+                    return;
+                }
+            }
+
+            statement.executeUpdate(
+                    "CREATE TRIGGER jabref_entry_change AFTER INSERT OR UPDATE OR DELETE ON \"ENTRY\" " +
+                    "FOR EACH ROW EXECUTE PROCEDURE notify_jabref_entry_change()");
+        }
+    }
+
     @Override
     public String escape(String expression) {
         return "\"" + expression + "\"";
@@ -0,0 +1,79 @@
+package net.sf.jabref.shared;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Detects changes on database systems without a notification mechanism.
+ * <p>
+ * The listener periodically queries a version stamp of the ENTRY table consisting of the number of entries, the
+ * highest shared ID and the sum of all versions. Inserting, updating or removing an entry always changes this stamp.
+ * Only if the stamp has changed, the mapping of shared IDs and versions is fetched and compared with the previous one
+ * to determine the changed entries. No fields are transferred.
+ */
+class VersionStampNotificationListener extends DBMSNotificationListener {
+
+    private final DBMSProcessor processor;
+    private String versionStamp;
+    private Map<Integer, Integer> sharedIDVersions;
+
+
+    VersionStampNotificationListener(DBMSProcessor processor, Consumer<Map<Integer, Integer>> changeConsumer) {
+        super(processor.connection, changeConsumer, 1000);
+        this.processor = processor;
+    }
+
+    @Override
+    protected void start() throws SQLException {
+        versionStamp = getVersionStamp();
+        sharedIDVersions = processor.getSharedIDVersionMapping();
+    }
+
+    @Override
+    protected Map<Integer, Integer> fetchChanges() throws SQLException {
+        Map<Integer, Integer> changes = new HashMap<>();
+        String currentVersionStamp = getVersionStamp();
+        if (Objects.equals(versionStamp, currentVersionStamp)) {
+            return changes;
+        }
+
+        Map<Integer, Integer> currentSharedIDVersions = processor.getSharedIDVersionMapping();
+        for (Map.Entry<Integer, Integer> idVersionEntry : currentSharedIDVersions.entrySet()) {
+            if (!idVersionEntry.getValue().equals(sharedIDVersions.get(idVersionEntry.getKey()))) {
+                changes.put(idVersionEntry.getKey(), idVersionEntry.getValue());
+            }
+        }
+        for (Integer sharedID : sharedIDVersions.keySet()) {
+            if (!currentSharedIDVersions.containsKey(sharedID)) {
+                changes.put(sharedID, 0);
+            }
+        }
+
+        versionStamp = currentVersionStamp;
+        sharedIDVersions = currentSharedIDVersions;
+        return changes;
+    }
+
+    private String getVersionStamp() throws SQLException {
+        StringBuilder selectStampQuery = new StringBuilder()
+                .append("SELECT COUNT(*), MAX(")
+                .append(processor.escape("SHARED_ID"))
+                .append("), SUM(")
+                .append(processor.escape("VERSION"))
+                .append(") FROM ")
+                .append(processor.escape("ENTRY"));
+
+        try (Statement statement = processor.connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(selectStampQuery.toString())) {
+            if (resultSet.next()) {
+                return resultSet.getLong(1) + ":" + resultSet.getLong(2) + ":" + resultSet.getLong(3);
+            }
+            return "";
+        }
+    }
+}
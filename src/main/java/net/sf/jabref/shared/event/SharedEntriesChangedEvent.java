@@ -0,0 +1,32 @@
+package net.sf.jabref.shared.event;
+
+import java.util.Map;
+
+import net.sf.jabref.BibDatabaseContext;
+
+/**
+ * A new {@link SharedEntriesChangedEvent} is fired, when the notification listener of the shared database
+ * reports changes made by other clients.
+ */
+public class SharedEntriesChangedEvent {
+
+    private final BibDatabaseContext bibDatabaseContext;
+    private final Map<Integer, Integer> sharedIDVersions;
+
+    /**
+     * @param bibDatabaseContext Affected {@link BibDatabaseContext}
+     * @param sharedIDVersions Changed shared IDs mapped to their current version, 0 if the entry has been removed
+     */
+    public SharedEntriesChangedEvent(BibDatabaseContext bibDatabaseContext, Map<Integer, Integer> sharedIDVersions) {
+        this.bibDatabaseContext = bibDatabaseContext;
+        this.sharedIDVersions = sharedIDVersions;
+    }
+
+    public BibDatabaseContext getBibDatabaseContext() {
+        return this.bibDatabaseContext;
+    }
+
+    public Map<Integer, Integer> getSharedIDVersions() {
+        return this.sharedIDVersions;
+    }
+}
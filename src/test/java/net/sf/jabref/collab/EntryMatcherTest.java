@@ -0,0 +1,77 @@
+package net.sf.jabref.collab;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class EntryMatcherTest {
+
+    private BibEntry knuth;
+    private BibEntry harrer;
+    private EntryMatcher matcher;
+
+
+    @Before
+    public void setUp() {
+        knuth = new BibEntry().withField("bibtexkey", "Knuth1984").withField("author", "Donald E. Knuth")
+                .withField("title", "The TeXbook").withField("year", "1984");
+        harrer = new BibEntry().withField("bibtexkey", "Harrer2018").withField("author", "Simon Harrer")
+                .withField("title", "Java by Comparison").withField("year", "2018");
+        matcher = new EntryMatcher(Arrays.asList(knuth, harrer));
+    }
+
+    private static BibEntry copy(BibEntry entry) {
+        BibEntry copy = new BibEntry();
+        entry.getFieldMap().forEach(copy::setField);
+        return copy;
+    }
+
+    @Test
+    public void takeIdenticalTakesEachEntryOnce() {
+        assertEquals(Optional.of(knuth), matcher.takeIdentical(copy(knuth)));
+        assertEquals(Optional.empty(), matcher.takeIdentical(copy(knuth)));
+        assertEquals(Collections.singletonList(harrer), matcher.getUntaken());
+    }
+
+    @Test
+    public void takeMostSimilarPrefersEntryWithSameKey() {
+        BibEntry changed = copy(harrer);
+        changed.setField("title", "Java by Comparison: Become a Java Craftsman in 70 Examples");
+        changed.setField("year", "1984");
+
+        assertEquals(Optional.of(harrer), matcher.takeMostSimilar(changed, 0.4));
+    }
+
+    @Test
+    public void takeMostSimilarFindsEntryWithChangedKey() {
+        BibEntry changed = copy(harrer);
+        changed.setField("bibtexkey", "HarrerLenhardDietz2018");
+
+        assertEquals(Optional.of(harrer), matcher.takeMostSimilar(changed, 0.4));
+        assertFalse(matcher.takeMostSimilar(changed, 0.4).isPresent());
+    }
+
+    @Test
+    public void takeMostSimilarRespectsThreshold() {
+        BibEntry other = new BibEntry().withField("bibtexkey", "Other").withField("title", "Something else");
+
+        assertEquals(Optional.empty(), matcher.takeMostSimilar(other, 0.4));
+    }
+
+    @Test
+    public void findBestFitIncludesTakenEntries() {
+        matcher.takeIdentical(copy(knuth));
+
+        assertSame(knuth, matcher.findBestFit(copy(knuth)));
+        assertEquals(Optional.empty(), matcher.findIdentical(copy(knuth)));
+    }
+}
@@ -0,0 +1,99 @@
+package net.sf.jabref.collab;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileUpdateMonitorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileUpdateMonitor monitor;
+    private File file;
+    private final CountDownLatch updates = new CountDownLatch(1);
+    private final FileUpdateListener listener = new FileUpdateListener() {
+
+        @Override
+        public void fileUpdated() {
+            updates.countDown();
+        }
+
+        @Override
+        public void fileRemoved() {
+            // not of interest
+        }
+    };
+
+
+    @Before
+    public void setUp() throws Exception {
+        monitor = new FileUpdateMonitor();
+        file = folder.newFile("test.bib");
+        Files.write(file.toPath(), "@Article{first,}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void changedContentIsModification() throws Exception {
+        String handle = monitor.addUpdateListener(listener, file);
+        assertFalse(monitor.hasBeenModified(handle));
+
+        Files.write(file.toPath(), "@Article{second,}".getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(file.lastModified() + 2000);
+
+        assertTrue(monitor.hasBeenModified(handle));
+    }
+
+    @Test
+    public void touchingFileIsNoModification() throws Exception {
+        String handle = monitor.addUpdateListener(listener, file);
+
+        file.setLastModified(file.lastModified() + 2000);
+
+        assertFalse(monitor.hasBeenModified(handle));
+    }
+
+    @Test
+    public void savedContentIsNoModification() throws Exception {
+        String handle = monitor.addUpdateListener(listener, file);
+
+        Files.write(file.toPath(), "@Article{second,}".getBytes(StandardCharsets.UTF_8));
+        monitor.updateTimeStamp(handle);
+
+        assertFalse(monitor.hasBeenModified(handle));
+    }
+
+    @Test
+    public void perturbedFileIsModification() throws Exception {
+        String handle = monitor.addUpdateListener(listener, file);
+
+        monitor.perturbTimestamp(handle);
+
+        assertTrue(monitor.hasBeenModified(handle));
+    }
+
+    @Test
+    public void listenerIsNotifiedOfExternalChange() throws Exception {
+        monitor.addUpdateListener(listener, file);
+        Thread thread = new Thread(monitor);
+        thread.start();
+        try {
+            Files.write(file.toPath(), "@Article{second, author = {Someone}}".getBytes(StandardCharsets.UTF_8));
+
+            // watched files are noticed within milliseconds, polled ones within seconds
+            assertTrue(updates.await(30, TimeUnit.SECONDS));
+        } finally {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.sf.jabref.logic.autocompleter;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CompletionTrieTest {
+
+    private CompletionTrie trie;
+
+
+    @Before
+    public void setUp() {
+        trie = new CompletionTrie();
+    }
+
+    @Test
+    public void completeReturnsMostFrequentFirst() {
+        trie.add("testOne");
+        trie.add("testTwo");
+        trie.add("testTwo");
+        trie.add("other");
+
+        assertEquals(Arrays.asList("testTwo", "testOne"), trie.complete("test", false));
+    }
+
+    @Test
+    public void completeOrdersEquallyFrequentAlphabetically() {
+        trie.add("testTwo");
+        trie.add("testOne");
+
+        assertEquals(Arrays.asList("testOne", "testTwo"), trie.complete("te", false));
+    }
+
+    @Test
+    public void completeRespectsCase() {
+        trie.add("Test");
+        trie.add("test");
+
+        assertEquals(Arrays.asList("Test", "test"), trie.complete("te", false));
+        assertEquals(Collections.singletonList("Test"), trie.complete("Te", true));
+    }
+
+    @Test
+    public void removeDecrementsCount() {
+        trie.add("test");
+        trie.add("test");
+
+        trie.remove("test");
+
+        assertEquals(1, trie.getCount("test"));
+        assertEquals(Collections.singletonList("test"), trie.complete("te", false));
+    }
+
+    @Test
+    public void removeLastOccurrenceRemovesWord() {
+        trie.add("test");
+        trie.add("testing");
+
+        trie.remove("testing");
+        trie.remove("testing");
+
+        assertEquals(1, trie.size());
+        assertEquals(0, trie.getCount("testing"));
+        assertEquals(Collections.singletonList("test"), trie.complete("test", false));
+    }
+
+    @Test
+    public void addReturnsStoredInstance() {
+        String word = trie.add("test");
+
+        assertSame(word, trie.add(new String("test")));
+    }
+
+    @Test
+    public void chainsWithoutBranchesAreStoredAsSingleNode() {
+        trie.add("testing");
+        trie.add("tester");
+
+        // the root, "test", "ing" and "er"
+        assertEquals(4, trie.getNodeCount());
+    }
+
+    @Test
+    public void completeFindsPrefixEndingWithinNode() {
+        trie.add("testing");
+        trie.add("tester");
+
+        assertEquals(Arrays.asList("tester", "testing"), trie.complete("tes", false));
+        assertEquals(Collections.singletonList("testing"), trie.complete("testi", false));
+        assertEquals(Collections.emptyList(), trie.complete("tesx", false));
+    }
+
+    @Test
+    public void removeMergesRemainingChain() {
+        trie.add("test");
+        trie.add("testing");
+        trie.add("tester");
+
+        trie.remove("tester");
+        trie.remove("test");
+
+        assertEquals(2, trie.getNodeCount());
+        assertEquals(0, trie.getCount("test"));
+        assertEquals(1, trie.getCount("testing"));
+        assertEquals(Collections.singletonList("testing"), trie.complete("te", false));
+    }
+
+    @Test
+    public void getCountIgnoresPrefixOfStoredWord() {
+        trie.add("testing");
+
+        assertEquals(0, trie.getCount("test"));
+    }
+}
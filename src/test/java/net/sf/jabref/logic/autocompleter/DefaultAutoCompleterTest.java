@@ -204,4 +204,95 @@ public class DefaultAutoCompleterTest {
         List<String> result = autoCompleter.complete("lue");
         Assert.assertEquals(Collections.emptyList(), result);
     }
+
+    @Test
+    public void completeReturnsMostFrequentWordFirst() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+
+        BibEntry entryOne = new BibEntry();
+        entryOne.setField("field", "testValueOne testValueTwo");
+        autoCompleter.addBibtexEntry(entryOne);
+        BibEntry entryTwo = new BibEntry();
+        entryTwo.setField("field", "testValueTwo");
+        autoCompleter.addBibtexEntry(entryTwo);
+
+        List<String> result = autoCompleter.complete("testValue");
+        Assert.assertEquals(Arrays.asList("testValueTwo", "testValueOne"), result);
+    }
+
+    @Test
+    public void completeAfterChangingEntryReturnsOnlyNewValue() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+
+        BibEntry entry = new BibEntry();
+        entry.setField("field", "testValueOne");
+        autoCompleter.addBibtexEntry(entry);
+        entry.setField("field", "testValueTwo");
+        autoCompleter.addBibtexEntry(entry);
+
+        List<String> result = autoCompleter.complete("testValue");
+        Assert.assertEquals(Arrays.asList("testValueTwo"), result);
+    }
+
+    @Test
+    public void completeAfterRemovingEntryReturnsNothing() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+
+        BibEntry entry = new BibEntry();
+        entry.setField("field", "testValue");
+        autoCompleter.addBibtexEntry(entry);
+        autoCompleter.removeBibtexEntry(entry);
+
+        List<String> result = autoCompleter.complete("testValue");
+        Assert.assertEquals(Collections.emptyList(), result);
+    }
+
+    @Test
+    public void completeAfterRemovingEntryReturnsValueOfOtherEntry() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+
+        BibEntry entryOne = new BibEntry();
+        entryOne.setField("field", "testValue");
+        autoCompleter.addBibtexEntry(entryOne);
+        BibEntry entryTwo = new BibEntry();
+        entryTwo.setField("field", "testValue");
+        autoCompleter.addBibtexEntry(entryTwo);
+        autoCompleter.removeBibtexEntry(entryOne);
+
+        List<String> result = autoCompleter.complete("testValue");
+        Assert.assertEquals(Arrays.asList("testValue"), result);
+    }
+
+    @Test
+    public void takeOverIndexOfSameFieldKeepsValues() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter previous = new DefaultAutoCompleter("field", preferences);
+        BibEntry entry = new BibEntry();
+        entry.setField("field", "testValue");
+        previous.addBibtexEntry(entry);
+
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+        Assert.assertTrue(autoCompleter.takeOverIndexOf(previous));
+        Assert.assertEquals(Arrays.asList("testValue"), autoCompleter.complete("testValue"));
+
+        autoCompleter.removeBibtexEntry(entry);
+        Assert.assertEquals(Collections.emptyList(), autoCompleter.complete("testValue"));
+    }
+
+    @Test
+    public void takeOverIndexOfOtherFieldFails() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter previous = new DefaultAutoCompleter("otherField", preferences);
+        BibEntry entry = new BibEntry();
+        entry.setField("otherField", "testValue");
+        previous.addBibtexEntry(entry);
+
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+        Assert.assertFalse(autoCompleter.takeOverIndexOf(previous));
+        Assert.assertEquals(Collections.emptyList(), autoCompleter.complete("testValue"));
+    }
 }
@@ -0,0 +1,89 @@
+package net.sf.jabref.logic.bibtexkeypattern;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import net.sf.jabref.model.bibtexkeypattern.AbstractBibtexKeyPattern;
+import net.sf.jabref.model.bibtexkeypattern.GlobalBibtexKeyPattern;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BibtexKeyGeneratorTest {
+
+    private BibDatabase database;
+    private BibEntry newton;
+    private BibEntry otherNewton;
+
+
+    @Before
+    public void setUp() {
+        database = new BibDatabase();
+        newton = new BibEntry().withField("author", "Isaac Newton").withField("year", "1687");
+        otherNewton = new BibEntry().withField("author", "Isaac Newton").withField("year", "1687");
+        database.insertEntry(newton);
+        database.insertEntry(otherNewton);
+    }
+
+    private static BibtexKeyGenerator createGenerator(BibDatabase database, boolean alwaysAddLetter,
+            boolean firstLetterA) {
+        GlobalBibtexKeyPattern keyPattern = new GlobalBibtexKeyPattern(AbstractBibtexKeyPattern.split("[auth][year]"));
+        return new BibtexKeyGenerator(keyPattern, database,
+                new BibtexKeyPatternPreferences("[auth][year]", "", "", alwaysAddLetter, firstLetterA, true,
+                        keyPattern));
+    }
+
+    @Test
+    public void generateKeyAppliesPatternAndModifiers() {
+        GlobalBibtexKeyPattern keyPattern = new GlobalBibtexKeyPattern(
+                AbstractBibtexKeyPattern.split("[auth:upper]-[year]"));
+        BibtexKeyGenerator generator = new BibtexKeyGenerator(keyPattern, database,
+                new BibtexKeyPatternPreferences("", "", "", false, false, true, keyPattern));
+
+        assertEquals("NEWTON-1687", generator.generateKey(newton));
+    }
+
+    @Test
+    public void generateUniqueKeysAddsSuffixesInOrder() {
+        assertEquals(Arrays.asList("Newton1687", "Newton1687b"),
+                createGenerator(database, false, false).generateUniqueKeys(Arrays.asList(newton, otherNewton)));
+    }
+
+    @Test
+    public void generateUniqueKeysStartsWithLetterA() {
+        assertEquals(Arrays.asList("Newton1687a", "Newton1687b"),
+                createGenerator(database, true, false).generateUniqueKeys(Arrays.asList(newton, otherNewton)));
+    }
+
+    @Test
+    public void generateUniqueKeysAvoidsExistingKeys() {
+        database.setCiteKeyForEntry(newton, "Newton1687");
+
+        assertEquals(Collections.singletonList("Newton1687b"),
+                createGenerator(database, false, false).generateUniqueKeys(Collections.singletonList(otherNewton)));
+    }
+
+    @Test
+    public void generateUniqueKeysKeepsOwnKey() {
+        database.setCiteKeyForEntry(newton, "Newton1687");
+        database.setCiteKeyForEntry(otherNewton, "Newton1687b");
+
+        assertEquals(Arrays.asList("Newton1687", "Newton1687b"),
+                createGenerator(database, false, false).generateUniqueKeys(Arrays.asList(newton, otherNewton)));
+    }
+
+    @Test
+    public void generateUniqueKeysReusesReleasedSuffix() {
+        BibEntry einstein = new BibEntry().withField("author", "Albert Einstein").withField("year", "1905");
+        database.insertEntry(einstein);
+        database.setCiteKeyForEntry(newton, "Newton1687");
+        database.setCiteKeyForEntry(einstein, "Newton1687b");
+
+        assertEquals(Arrays.asList("Einstein1905", "Newton1687b"),
+                createGenerator(database, false, false).generateUniqueKeys(Arrays.asList(einstein, otherNewton)));
+    }
+}
@@ -34,6 +34,18 @@ public class TestVM {
         Assert.assertEquals(expected.replaceAll("\\s", ""), vm.run(v).replaceAll("\\s", ""));
     }
 
+    @Test
+    public void testAbbrvRunsAgainWithSameResult() throws RecognitionException, IOException {
+        VM vm = new VM(new File("src/test/resources/net/sf/jabref/logic/bst/abbrv.bst"));
+        List<BibEntry> v = new ArrayList<>();
+        v.add(t1BibtexEntry());
+
+        String first = vm.run(v);
+
+        Assert.assertEquals(first, vm.run(v));
+        Assert.assertEquals(0, vm.getStack().size());
+    }
+
     @Test
     public void testVMSimple() throws RecognitionException, IOException {
 
@@ -183,6 +195,38 @@ public class TestVM {
         }
     }
 
+    @Test
+    public void testAssignMissingFieldToStringVariableFails() throws RecognitionException, IOException {
+        VM vm = new VM("ENTRY { note } { } { label } "
+                + "FUNCTION {test} { note 'label := } READ ITERATE {test}");
+
+        List<BibEntry> v = new ArrayList<>();
+        v.add(t1BibtexEntry());
+
+        try {
+            vm.run(v);
+            Assert.fail();
+        } catch (VMException ignored) {
+            // Ignored
+        }
+    }
+
+    @Test
+    public void testAssignMissingFieldToIntegerVariableFails() throws RecognitionException, IOException {
+        VM vm = new VM("ENTRY { note } { count } { } "
+                + "FUNCTION {test} { note 'count := } READ ITERATE {test}");
+
+        List<BibEntry> v = new ArrayList<>();
+        v.add(t1BibtexEntry());
+
+        try {
+            vm.run(v);
+            Assert.fail();
+        } catch (VMException ignored) {
+            // Ignored
+        }
+    }
+
     @Test
     public void testNumNames() throws RecognitionException {
         VM vm = new VM("FUNCTION {test} { \"Johnny Foo and Mary Bar\" num.names$ }" + "EXECUTE {test}");
@@ -401,7 +445,7 @@ public class TestVM {
         vm.run(v);
 
         Assert.assertEquals(Integer.MAX_VALUE, vm.getStack().pop());
-        Assert.assertTrue(vm.getStack().empty());
+        Assert.assertTrue(vm.getStack().isEmpty());
     }
 
     @Test
@@ -41,6 +41,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class BibtexDatabaseWriterTest {
 
@@ -357,6 +360,82 @@ public class BibtexDatabaseWriterTest {
                 + OS.NEWLINE, session.getStringValue());
     }
 
+    @Test
+    public void writeKeepsSerializationOfChangedEntry() throws Exception {
+        BibEntry entry = new BibEntry();
+        entry.setType(BibtexEntryTypes.ARTICLE);
+        entry.setField("author", "Mr. author");
+        database.insertEntry(entry);
+        SavePreferences preferences = new SavePreferences().withUpdateParsedSerialization(true);
+
+        StringSaveSession firstSession = databaseWriter.savePartOfDatabase(bibtexContext,
+                Collections.singletonList(entry), preferences);
+
+        assertFalse(entry.hasChanged());
+        assertEquals(OS.NEWLINE + "@Article{," + OS.NEWLINE + "  author = {Mr. author}," + OS.NEWLINE + "}"
+                + OS.NEWLINE, entry.getParsedSerialization());
+
+        StringSaveSession secondSession = databaseWriter.savePartOfDatabase(bibtexContext,
+                Collections.singletonList(entry), preferences);
+
+        assertEquals(firstSession.getStringValue(), secondSession.getStringValue());
+    }
+
+    @Test
+    public void writeDoesNotKeepSerializationIfNotRequested() throws Exception {
+        BibEntry entry = new BibEntry();
+        entry.setType(BibtexEntryTypes.ARTICLE);
+        entry.setField("author", "Mr. author");
+        database.insertEntry(entry);
+
+        databaseWriter.savePartOfDatabase(bibtexContext, Collections.singletonList(entry), new SavePreferences());
+
+        assertTrue(entry.hasChanged());
+        assertNull(entry.getParsedSerialization());
+    }
+
+    @Test
+    public void writeSerializesEntryAgainAfterChange() throws Exception {
+        BibEntry entry = new BibEntry();
+        entry.setType(BibtexEntryTypes.ARTICLE);
+        entry.setField("author", "Mr. author");
+        database.insertEntry(entry);
+        SavePreferences preferences = new SavePreferences().withUpdateParsedSerialization(true);
+        databaseWriter.savePartOfDatabase(bibtexContext, Collections.singletonList(entry), preferences);
+
+        entry.setField("author", "Mrs. author");
+        StringSaveSession session = databaseWriter.savePartOfDatabase(bibtexContext,
+                Collections.singletonList(entry), preferences);
+
+        assertEquals(OS.NEWLINE +
+                        "@Article{," + OS.NEWLINE + "  author = {Mrs. author}," + OS.NEWLINE + "}"
+                        + OS.NEWLINE + OS.NEWLINE
+                        + "@Comment{jabref-meta: databaseType:bibtex;}"
+                        + OS.NEWLINE,
+                session.getStringValue());
+    }
+
+    @Test
+    public void parallelSerializationWritesSameOutputAsSequentialSerialization() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setType(((i % 2) == 0) ? BibtexEntryTypes.ARTICLE : BibtexEntryTypes.BOOK);
+            entry.setCiteKey("key" + i);
+            entry.setField("author", "Firstname Lastname" + i + " and Second Author");
+            entry.setField("title", "A {Title} with number " + i);
+            entry.setField("year", String.valueOf(1900 + (i % 100)));
+            database.insertEntry(entry);
+        }
+        SavePreferences preferences = new SavePreferences().withReformatFile(true);
+
+        databaseWriter.setSerializeInParallel(false);
+        String sequentialOutput = databaseWriter.saveDatabase(bibtexContext, preferences).getStringValue();
+        databaseWriter.setSerializeInParallel(true);
+        String parallelOutput = databaseWriter.saveDatabase(bibtexContext, preferences).getStringValue();
+
+        assertEquals(sequentialOutput, parallelOutput);
+    }
+
     @Test
     public void reformatEntryIfAskedToDoSo() throws Exception {
         BibEntry entry = new BibEntry();
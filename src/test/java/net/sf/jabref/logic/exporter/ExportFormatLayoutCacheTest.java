@@ -0,0 +1,110 @@
+package net.sf.jabref.logic.exporter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.Globals;
+import net.sf.jabref.logic.journals.JournalAbbreviationLoader;
+import net.sf.jabref.logic.journals.JournalAbbreviationPreferences;
+import net.sf.jabref.logic.layout.LayoutFormatterPreferences;
+import net.sf.jabref.logic.layout.format.FileLinkPreferences;
+import net.sf.jabref.logic.layout.format.NameFormatterPreferences;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.preferences.JabRefPreferences;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExportFormatLayoutCacheTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private JournalAbbreviationLoader journalAbbreviationLoader;
+    private SavePreferences savePreferences;
+    private BibDatabaseContext databaseContext;
+    private List<BibEntry> entries;
+    private String lfFileName;
+    private Path layoutFile;
+
+
+    @Before
+    public void setUp() throws Exception {
+        Globals.prefs = JabRefPreferences.getInstance();
+        journalAbbreviationLoader = new JournalAbbreviationLoader();
+        savePreferences = SavePreferences.loadForExportFromPreferences(Globals.prefs);
+
+        databaseContext = new BibDatabaseContext();
+        BibEntry entry = new BibEntry();
+        entry.setField("title", "my paper title");
+        entries = Collections.singletonList(entry);
+
+        lfFileName = new File(testFolder.getRoot(), "cached").getCanonicalPath();
+        layoutFile = new File(lfFileName + ".layout").toPath();
+        Files.write(layoutFile, "first \\title\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void freshlyCreatedFormatDoesNotReadUnmodifiedLayoutAgain() throws Exception {
+        assertEquals("first my paper title", export(createFormat(createLayoutPreferences())));
+
+        rewriteLayoutKeepingModificationTime("second \\title\n");
+
+        assertEquals("first my paper title", export(createFormat(createLayoutPreferences())));
+    }
+
+    @Test
+    public void freshlyCreatedFormatReadsModifiedLayoutAgain() throws Exception {
+        assertEquals("first my paper title", export(createFormat(createLayoutPreferences())));
+
+        Files.write(layoutFile, "second \\title\n".getBytes(StandardCharsets.UTF_8));
+        layoutFile.toFile().setLastModified(layoutFile.toFile().lastModified() + 2000);
+
+        assertEquals("second my paper title", export(createFormat(createLayoutPreferences())));
+    }
+
+    @Test
+    public void formatWithOtherPreferencesReadsLayoutAgain() throws Exception {
+        assertEquals("first my paper title", export(createFormat(createLayoutPreferences())));
+
+        rewriteLayoutKeepingModificationTime("second \\title\n");
+        LayoutFormatterPreferences otherPreferences = new LayoutFormatterPreferences(
+                new NameFormatterPreferences(Collections.singletonList("Other"), Collections.singletonList("1@*@{ll}")),
+                JournalAbbreviationPreferences.fromPreferences(Globals.prefs),
+                FileLinkPreferences.fromPreferences(Globals.prefs), journalAbbreviationLoader);
+
+        assertEquals("second my paper title", export(createFormat(otherPreferences)));
+    }
+
+    private LayoutFormatterPreferences createLayoutPreferences() {
+        return LayoutFormatterPreferences.fromPreferences(Globals.prefs, journalAbbreviationLoader);
+    }
+
+    private ExportFormat createFormat(LayoutFormatterPreferences layoutPreferences) {
+        ExportFormat format = new ExportFormat("Cached", "cached", lfFileName, null, ".txt", layoutPreferences,
+                savePreferences);
+        format.setCustomExport(true);
+        return format;
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        File outFile = testFolder.newFile();
+        format.performExport(databaseContext, outFile.getCanonicalPath(), StandardCharsets.UTF_8, entries);
+        return new String(Files.readAllBytes(outFile.toPath()), StandardCharsets.UTF_8).trim();
+    }
+
+    private void rewriteLayoutKeepingModificationTime(String layout) throws Exception {
+        long modificationTime = layoutFile.toFile().lastModified();
+        Files.write(layoutFile, layout.getBytes(StandardCharsets.UTF_8));
+        layoutFile.toFile().setLastModified(modificationTime);
+    }
+}
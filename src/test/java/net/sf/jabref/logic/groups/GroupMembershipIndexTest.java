@@ -0,0 +1,105 @@
+package net.sf.jabref.logic.groups;
+
+import net.sf.jabref.logic.importer.util.ParseException;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.preferences.JabRefPreferences;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GroupMembershipIndexTest {
+
+    private BibDatabase database;
+    private GroupMembershipIndex index;
+    private BibEntry first;
+    private BibEntry second;
+
+
+    @Before
+    public void setUp() {
+        database = new BibDatabase();
+        first = new BibEntry().withField("keywords", "java, search");
+        second = new BibEntry().withField("keywords", "python");
+        database.insertEntry(first);
+        database.insertEntry(second);
+        index = GroupMembershipIndex.forDatabase(database);
+    }
+
+    private static GroupTreeNode createKeywordGroupNode(String keyword, GroupHierarchyType context)
+            throws ParseException {
+        return GroupTreeNode.fromGroup(new KeywordGroup(keyword, "keywords", keyword, false, false, context,
+                JabRefPreferences.getInstance()));
+    }
+
+    @Test
+    public void getNumberOfHitsOfKeywordGroup() throws ParseException {
+        assertEquals(1, index.getNumberOfHits(createKeywordGroupNode("java", GroupHierarchyType.INDEPENDENT)));
+    }
+
+    @Test
+    public void indexFollowsChangesOfSearchField() throws ParseException {
+        GroupTreeNode node = createKeywordGroupNode("java", GroupHierarchyType.INDEPENDENT);
+        assertTrue(index.isContained(first, index.getMatches(node)));
+
+        first.setField("keywords", "search");
+        second.setField("keywords", "java");
+
+        assertFalse(index.isContained(first, index.getMatches(node)));
+        assertTrue(index.isContained(second, index.getMatches(node)));
+    }
+
+    @Test
+    public void indexFollowsAddedAndRemovedEntries() throws ParseException {
+        GroupTreeNode node = createKeywordGroupNode("java", GroupHierarchyType.INDEPENDENT);
+        assertEquals(1, index.getNumberOfHits(node));
+
+        database.removeEntry(first);
+        assertEquals(0, index.getNumberOfHits(node));
+
+        BibEntry third = new BibEntry().withField("keywords", "java");
+        database.insertEntry(third);
+        assertEquals(1, index.getNumberOfHits(node));
+        assertTrue(index.isContained(third, index.getMatches(node)));
+        assertEquals(2, index.getAllEntries().cardinality());
+    }
+
+    @Test
+    public void includingGroupContainsEntriesOfSubgroups() throws ParseException {
+        GroupTreeNode parent = createKeywordGroupNode("java", GroupHierarchyType.INCLUDING);
+        parent.addChild(createKeywordGroupNode("python", GroupHierarchyType.INDEPENDENT));
+
+        assertEquals(2, index.getNumberOfHits(parent));
+    }
+
+    @Test
+    public void refiningGroupContainsEntriesOfParentOnly() throws ParseException {
+        GroupTreeNode parent = createKeywordGroupNode("search", GroupHierarchyType.INDEPENDENT);
+        GroupTreeNode refining = createKeywordGroupNode("python", GroupHierarchyType.REFINING);
+        parent.addChild(refining);
+
+        assertEquals(0, index.getNumberOfHits(refining));
+
+        second.setField("keywords", "python, search");
+        assertEquals(1, index.getNumberOfHits(refining));
+    }
+
+    @Test
+    public void matchesAgreeWithSearchRule() throws ParseException {
+        GroupTreeNode root = GroupTreeNode.fromGroup(new AllEntriesGroup());
+        GroupTreeNode including = createKeywordGroupNode("search", GroupHierarchyType.INCLUDING);
+        root.addChild(including);
+        GroupTreeNode refining = createKeywordGroupNode("java", GroupHierarchyType.REFINING);
+        including.addChild(refining);
+        including.addChild(new GroupTreeNode(new SearchGroup("search", "keywords=python", false, false,
+                GroupHierarchyType.INDEPENDENT)));
+
+        for (GroupTreeNode node : new GroupTreeNode[] {root, including, refining}) {
+            assertEquals(node.numberOfHits(database.getEntries()), index.getNumberOfHits(node));
+        }
+    }
+}
@@ -1,49 +1,150 @@
 package net.sf.jabref.logic.importer;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import net.sf.jabref.logic.net.RequestLimiter;
 import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.FieldName;
 
+import com.sun.net.httpserver.HttpServer;
 import org.junit.After;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class FulltextFetchersTest {
+
+    private final RequestLimiter limiter = new RequestLimiter(8, 0, TimeUnit.MILLISECONDS);
+
     private BibEntry entry;
+    private HttpServer server;
+    private URL pdfUrl;
+    private URL otherPdfUrl;
+    private URL htmlUrl;
+
 
     @Before
-    public void setUp() {
+    public void setUp() throws IOException {
         entry = new BibEntry();
+        // a valid DOI, so no DOI is looked up online
+        entry.setField(FieldName.DOI, "10.1000/182");
+
+        // serves the documents the fetchers find, so their content types can be checked
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String contentType = exchange.getRequestURI().getPath().endsWith(".pdf") ? "application/pdf" : "text/html";
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(new byte[] {'%', 'P', 'D', 'F'});
+            }
+        });
+        server.start();
+
+        String base = "http://localhost:" + server.getAddress().getPort();
+        pdfUrl = new URL(base + "/paper.pdf");
+        otherPdfUrl = new URL(base + "/other.pdf");
+        htmlUrl = new URL(base + "/README.html");
     }
 
     @After
     public void tearDown() {
+        server.stop(0);
         entry = null;
     }
 
-    @Ignore
     @Test
-    public void acceptPdfUrls() throws MalformedURLException {
-        URL pdfUrl = new URL("http://docs.oasis-open.org/wsbpel/2.0/OS/wsbpel-v2.0-OS.pdf");
+    public void acceptPdfUrls() {
         FulltextFetcher finder = (e) -> Optional.of(pdfUrl);
-        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(finder));
+        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(finder), limiter);
 
         assertEquals(Optional.of(pdfUrl), fetcher.findFullTextPDF(entry));
     }
 
-    @Ignore // Fails on travis
     @Test
-    public void rejectNonPdfUrls() throws MalformedURLException {
-        URL pdfUrl = new URL("https://github.com/JabRef/jabref/blob/master/README.md");
-        FulltextFetcher finder = (e) -> Optional.of(pdfUrl);
-        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(finder));
+    public void rejectNonPdfUrls() {
+        FulltextFetcher finder = (e) -> Optional.of(htmlUrl);
+        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(finder), limiter);
 
         assertEquals(Optional.empty(), fetcher.findFullTextPDF(entry));
     }
+
+    @Test
+    public void preferEarlierFetcherEvenIfSlower() {
+        FulltextFetcher slowFinder = (e) -> {
+            sleep(300);
+            return Optional.of(pdfUrl);
+        };
+        FulltextFetcher fastFinder = (e) -> Optional.of(otherPdfUrl);
+        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(slowFinder, fastFinder), limiter);
+
+        assertEquals(Optional.of(pdfUrl), fetcher.findFullTextPDF(entry));
+    }
+
+    @Test
+    public void skipEarlierFetcherWithoutPdf() {
+        FulltextFetcher htmlFinder = (e) -> Optional.of(htmlUrl);
+        FulltextFetcher emptyFinder = (e) -> Optional.empty();
+        FulltextFetcher pdfFinder = (e) -> Optional.of(pdfUrl);
+        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(htmlFinder, emptyFinder, pdfFinder), limiter);
+
+        assertEquals(Optional.of(pdfUrl), fetcher.findFullTextPDF(entry));
+    }
+
+    @Test
+    public void cancelLaterFetchersOnceResultIsKnown() throws InterruptedException {
+        CountDownLatch canceled = new CountDownLatch(1);
+        FulltextFetcher pdfFinder = (e) -> Optional.of(pdfUrl);
+        FulltextFetcher hangingFinder = (e) -> {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException ex) {
+                canceled.countDown();
+            }
+            return Optional.empty();
+        };
+        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(pdfFinder, hangingFinder), limiter);
+
+        assertEquals(Optional.of(pdfUrl), fetcher.findFullTextPDF(entry));
+        assertTrue(canceled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void findFullTextPDFsKeepsOrderOfEntries() {
+        BibEntry otherEntry = (BibEntry) entry.clone();
+        otherEntry.setField(FieldName.TITLE, "other");
+        BibEntry entryWithoutPdf = (BibEntry) entry.clone();
+        entryWithoutPdf.setField(FieldName.TITLE, "none");
+        FulltextFetcher finder = (e) -> {
+            Optional<String> title = e.getFieldOptional(FieldName.TITLE);
+            if (title.equals(Optional.of("other"))) {
+                sleep(200);
+                return Optional.of(otherPdfUrl);
+            }
+            return title.isPresent() ? Optional.empty() : Optional.of(pdfUrl);
+        };
+        FulltextFetchers fetcher = new FulltextFetchers(Arrays.asList(finder), limiter);
+
+        List<Optional<URL>> result = fetcher.findFullTextPDFs(Arrays.asList(otherEntry, entryWithoutPdf, entry));
+
+        assertEquals(Arrays.asList(Optional.of(otherPdfUrl), Optional.empty(), Optional.of(pdfUrl)), result);
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package net.sf.jabref.logic.importer;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.logic.xmp.XMPPreferences;
+import net.sf.jabref.preferences.JabRefPreferences;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultipleFileImporterTest {
+
+    private ImportFormatReader reader;
+    private List<Path> files;
+
+
+    @Before
+    public void setUp() throws URISyntaxException {
+        Globals.prefs = JabRefPreferences.getInstance(); // Needed for special fields
+        reader = new ImportFormatReader();
+        reader.resetImportFormats(ImportFormatPreferences.fromPreferences(Globals.prefs),
+                XMPPreferences.fromPreferences(JabRefPreferences.getInstance()));
+
+        files = Arrays.asList(getPath("fileformat/RisImporterTest1.ris"), getPath("fileformat/IsiImporterTest1.isi"),
+                getPath("fileformat/Endnote.entries.enw"), getPath("fileformat/MsBibImporterTest4.bib"));
+    }
+
+    private static Path getPath(String resource) throws URISyntaxException {
+        return Paths.get(MultipleFileImporterTest.class.getResource(resource).toURI());
+    }
+
+    @Test
+    public void importFilesReturnsResultsInOrderOfFiles() {
+        List<MultipleFileImporter.ImportResult> results = new MultipleFileImporter(reader, 4).importFiles(files,
+                (current, max) -> {
+                    // ignored
+                });
+
+        assertEquals(files, results.stream().map(MultipleFileImporter.ImportResult::getFile)
+                .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(1, 1, 5, 1), results.stream()
+                .map(result -> result.getImportResult().get().parserResult.getDatabase().getEntryCount())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void importFilesDetectsFormatOfEachFile() {
+        List<MultipleFileImporter.ImportResult> results = new MultipleFileImporter(reader, 2).importFiles(files,
+                (current, max) -> {
+                    // ignored
+                });
+
+        assertEquals(ImportFormatReader.BIBTEX_FORMAT, results.get(3).getImportResult().get().format);
+        assertFalse(results.get(0).getError().isPresent());
+    }
+
+    @Test
+    public void importFilesWithGivenFormatUsesThatFormat() {
+        List<MultipleFileImporter.ImportResult> results = new MultipleFileImporter(reader).importFiles(
+                Arrays.asList(files.get(0)), reader.getByCliId("ris").get(), (current, max) -> {
+                    // ignored
+                });
+
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).getImportResult().get().parserResult.getDatabase().getEntryCount());
+    }
+
+    @Test
+    public void importFilesReportsProgressForEachFile() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        new MultipleFileImporter(reader, 3).importFiles(files, (current, max) -> {
+            calls.incrementAndGet();
+            maximum.set(max);
+        });
+
+        assertEquals(files.size(), calls.get());
+        assertEquals(files.size(), maximum.get());
+    }
+
+    @Test
+    public void importFilesSkipsRemainingFilesAfterCancel() {
+        MultipleFileImporter importer = new MultipleFileImporter(reader, 1);
+        List<MultipleFileImporter.ImportResult> results = importer.importFiles(files,
+                (current, max) -> importer.cancel());
+
+        assertTrue(importer.isCanceled());
+        assertTrue(results.size() < files.size());
+    }
+
+    @Test
+    public void importFilesKeepsFileImportedBeforeCancel() {
+        MultipleFileImporter importer = new MultipleFileImporter(reader, 1);
+        List<MultipleFileImporter.ImportResult> results = importer.importFiles(files,
+                (current, max) -> importer.cancel());
+
+        assertEquals(1, results.size());
+        assertEquals(files.get(0), results.get(0).getFile());
+    }
+
+    @Test
+    public void importFilesWithoutFilesReturnsEmptyList() {
+        assertEquals(Optional.empty(), new MultipleFileImporter(reader).importFiles(Arrays.asList(),
+                (current, max) -> {
+                    // ignored
+                }).stream().findAny());
+    }
+}
@@ -1,20 +1,34 @@
 package net.sf.jabref.logic.importer.fetcher;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ResponseCache;
+import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import net.sf.jabref.logic.net.HttpResponseCache;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.support.DevEnvironment;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class DoiResolutionTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private DoiResolution finder;
     private BibEntry entry;
 
@@ -63,4 +77,59 @@ public class DoiResolutionTest {
 
         Assert.assertEquals(Optional.empty(), finder.findFullText(entry));
     }
+
+    @Test
+    public void findRelativeLinkBehindRedirectWithResponseCache() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", DoiResolutionTest::respondAsPublisher);
+        server.start();
+        ResponseCache.setDefault(new HttpResponseCache(temporaryFolder.getRoot().toPath(), 100_000, 1, TimeUnit.HOURS));
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            finder = new DoiResolution(URI.create(base));
+            entry.setField("doi", "10.1000/182");
+
+            // the second time, the article page is served from the cache
+            Optional<URL> first = finder.findFullText(entry);
+            Optional<URL> second = finder.findFullText(entry);
+
+            Assert.assertEquals(Optional.of(new URL(base + "/article/182.pdf")), first);
+            Assert.assertEquals(first, second);
+        } finally {
+            ResponseCache.setDefault(null);
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Redirects from the DOI to the article page, which links the PDF relative to itself.
+     */
+    private static void respondAsPublisher(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if ("/10.1000/182".equals(path)) {
+            exchange.getResponseHeaders().add("Location", "/article/182");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body;
+        if ("/article/182".equals(path)) {
+            body = "<html><body><a href=\"182.pdf\">PDF</a></body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+        } else if ("/article/182.pdf".equals(path)) {
+            body = "%PDF".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/pdf");
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(200, "HEAD".equals(exchange.getRequestMethod()) ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (!"HEAD".equals(exchange.getRequestMethod())) {
+                out.write(body);
+            }
+        }
+    }
 }
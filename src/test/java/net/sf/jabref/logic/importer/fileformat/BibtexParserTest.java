@@ -412,6 +412,53 @@ public class BibtexParserTest {
         }
     }
 
+    @Test
+    public void parseSetsParsedSerializationForInputLargerThanBuffer() throws IOException {
+        StringBuilder bibtex = new StringBuilder();
+        List<String> serializations = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String entry = "@article{key" + i + "," + OS.NEWLINE + "  title = {Title " + i + "}}" + OS.NEWLINE;
+            serializations.add(entry);
+            bibtex.append(entry);
+        }
+
+        ParserResult result = BibtexParser.parse(new StringReader(bibtex.toString()), importFormatPreferences);
+        List<BibEntry> parsed = result.getDatabase().getEntries();
+
+        assertEquals(5000, parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            assertEquals(serializations.get(i), parsed.get(i).getParsedSerialization());
+        }
+    }
+
+    @Test
+    public void parseWithConsumerHandsOutEntriesInOrder() throws IOException {
+        List<BibEntry> parsed = new ArrayList<>();
+        BibtexParser parser = new BibtexParser(
+                new StringReader("@string{aaa = {bbb}}" + "@article{canh05}" + "@inProceedings{foo}"),
+                importFormatPreferences);
+
+        ParserResult result = parser.parse(parsed::add);
+
+        assertEquals(2, parsed.size());
+        assertEquals(Optional.of("canh05"), parsed.get(0).getCiteKeyOptional());
+        assertEquals(Optional.of("foo"), parsed.get(1).getCiteKeyOptional());
+        assertFalse(result.getDatabase().hasEntries());
+        assertEquals(1, result.getDatabase().getStringCount());
+    }
+
+    @Test
+    public void parseWithConsumerReportsDuplicateKeys() throws IOException {
+        List<BibEntry> parsed = new ArrayList<>();
+        BibtexParser parser = new BibtexParser(new StringReader("@article{canh05}" + "@article{canh05}"),
+                importFormatPreferences);
+
+        ParserResult result = parser.parse(parsed::add);
+
+        assertEquals(2, parsed.size());
+        assertEquals(Collections.singletonList("canh05"), result.getDuplicateKeys());
+    }
+
     @Test
     public void parseRecognizesMultipleEntriesOnSameLine() throws IOException {
 
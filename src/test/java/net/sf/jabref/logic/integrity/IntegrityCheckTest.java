@@ -2,10 +2,12 @@ package net.sf.jabref.logic.integrity;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.Defaults;
@@ -220,6 +222,58 @@ public class IntegrityCheckTest {
         assertWrong(createContext("author", "Some unicode ⊕"));
     }
 
+    @Test
+    public void checkingAgainFollowsChangesOfEntries() {
+        BibDatabaseContext context = createContext("year", "abc");
+        BibEntry entry = context.getDatabase().getEntries().get(0);
+        IntegrityCheck check = IntegrityCheck.forDatabase(context);
+        assertEquals(1, check.checkBibtexDatabase().size());
+
+        entry.setField("year", "2014");
+        assertEquals(Collections.emptyList(), check.checkBibtexDatabase());
+
+        entry.setField("year", "86");
+        assertEquals(1, check.checkBibtexDatabase().size());
+    }
+
+    @Test
+    public void checkingAgainWithoutListeningFollowsChangesOfEntries() {
+        BibDatabaseContext context = createContext("year", "abc");
+        IntegrityCheck check = new IntegrityCheck(context);
+        assertEquals(1, check.checkBibtexDatabase().size());
+
+        context.getDatabase().getEntries().get(0).setField("year", "2014");
+        assertEquals(Collections.emptyList(), check.checkBibtexDatabase());
+    }
+
+    @Test
+    public void checkingAgainFollowsChangesToFieldsOfSameHashCode() {
+        BibDatabaseContext context = createContext("title", "{a}");
+        IntegrityCheck check = new IntegrityCheck(context);
+        assertEquals(Collections.emptyList(), check.checkBibtexDatabase());
+
+        // "{b^" has the same hash code as "{a}", but its brackets do not match
+        context.getDatabase().getEntries().get(0).setField("title", "{b^");
+        assertEquals(1, check.checkBibtexDatabase().size());
+    }
+
+    @Test
+    public void messagesAreReportedInOrderOfEntries() {
+        BibDatabase database = new BibDatabase();
+        for (int i = 0; i < 100; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setCiteKey("key" + i);
+            entry.setField("year", "abc");
+            database.insertEntry(entry);
+        }
+        List<IntegrityMessage> messages = new ArrayList<>();
+
+        new IntegrityCheck(new BibDatabaseContext(database, new Defaults())).checkBibtexDatabase(messages::add);
+
+        assertEquals(database.getEntries(),
+                messages.stream().map(IntegrityMessage::getEntry).collect(Collectors.toList()));
+    }
+
     private BibDatabaseContext createContext(String field, String value, String type) {
         BibEntry entry = new BibEntry();
         entry.setField(field, value);
@@ -115,4 +115,39 @@ public class LayoutTest {
                 "<font face=\"arial\"><BR><BR><b>Abstract: </b> &ntilde; &ntilde; &iacute; &imath; &imath;</font>",
                 layoutText);
     }
+
+    @Test
+    public void fieldBlockWithAllFieldsRequired() throws IOException {
+        String layoutFile = "\\begin{author&year}\\author (\\year)\\end{author&year}";
+
+        Assert.assertEquals("Doe (2005)", layout(layoutFile, "@other{bla, author={Doe}, year={2005}}"));
+        Assert.assertEquals("", layout(layoutFile, "@other{bla, author={Doe}}"));
+    }
+
+    @Test
+    public void fieldBlockWithAnyFieldRequired() throws IOException {
+        String layoutFile = "\\begin{author||editor}by someone\\end{author||editor}";
+
+        Assert.assertEquals("by someone", layout(layoutFile, "@other{bla, editor={Doe}}"));
+        Assert.assertEquals("", layout(layoutFile, "@other{bla, year={2005}}"));
+    }
+
+    @Test
+    public void layoutWithFieldsIsIndependentOfOtherEntries() throws IOException {
+        Layout layout = new LayoutHelper(new StringReader("\\begin{author}\\format[HTMLChars]{\\author}\\end{author}"),
+                prefs).getLayoutFromText();
+
+        Assert.assertTrue(layout.isIndependentOfOtherEntries());
+    }
+
+    @Test
+    public void layoutWithGroupOrNumberDependsOnOtherEntries() throws IOException {
+        Layout grouped = new LayoutHelper(new StringReader("\\begingroup{year}\\year\\endgroup{year}"), prefs)
+                .getLayoutFromText();
+        Layout numbered = new LayoutHelper(new StringReader("\\begin{title}\\format[Number]{\\title}\\end{title}"),
+                prefs).getLayoutFromText();
+
+        Assert.assertFalse(grouped.isIndependentOfOtherEntries());
+        Assert.assertFalse(numbered.isIndependentOfOtherEntries());
+    }
 }
@@ -0,0 +1,258 @@
+package net.sf.jabref.logic.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ResponseCache;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpResponseCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path cacheDirectory;
+    private HttpServer server;
+    private String baseUrl;
+    // the requests the server has received, as path and conditional header
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private String cacheControl;
+    private String version;
+
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDirectory = temporaryFolder.getRoot().toPath();
+        cacheControl = null;
+        version = "v1";
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        ResponseCache.setDefault(null);
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        requests.add(path + ((ifNoneMatch == null) ? "" : " " + ifNoneMatch));
+
+        String etag = '"' + version + '"';
+        exchange.getResponseHeaders().add("ETag", etag);
+        if (cacheControl != null) {
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        }
+        if (path.startsWith("/redirect/")) {
+            // "/redirect/<status>/<path>" redirects to "/<path>"
+            String[] parts = path.split("/", 4);
+            exchange.getResponseHeaders().add("Location", "/" + parts[3]);
+            exchange.sendResponseHeaders(Integer.parseInt(parts[2]), -1);
+            exchange.close();
+            return;
+        }
+        if (etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = (version + " of " + path + " as " + accept).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private HttpResponseCache installCache(long maxSize, long lifetime) throws IOException {
+        HttpResponseCache cache = new HttpResponseCache(cacheDirectory, maxSize, lifetime, TimeUnit.HOURS);
+        ResponseCache.setDefault(cache);
+        return cache;
+    }
+
+    private String download(String path) throws IOException {
+        URLDownload download = new URLDownload(baseUrl + path);
+        download.addParameters("Accept", "text/plain");
+        return download.downloadToString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void freshResponseIsServedWithoutRequest() throws IOException {
+        HttpResponseCache cache = installCache(100_000, 1);
+
+        String first = download("/works");
+        String second = download("/works");
+
+        assertEquals(first, second);
+        assertEquals(Collections.singletonList("/works"), requests);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void staleResponseIsRevalidatedWithETag() throws IOException {
+        HttpResponseCache cache = installCache(100_000, 0);
+
+        String first = download("/works");
+        String second = download("/works");
+
+        assertEquals(first, second);
+        assertEquals(Arrays.asList("/works", "/works \"v1\""), requests);
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void modifiedResponseIsStoredWhenRevalidating() throws IOException {
+        HttpResponseCache cache = installCache(100_000, 0);
+        download("/works");
+        version = "v2";
+
+        String modified = download("/works");
+        String revalidated = download("/works");
+
+        assertEquals("v2 of /works as text/plain\n", modified);
+        assertEquals(modified, revalidated);
+        assertEquals(Arrays.asList("/works", "/works \"v1\"", "/works \"v2\""), requests);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void maxAgeOverridesDefaultLifetime() throws IOException {
+        cacheControl = "max-age=0";
+        installCache(100_000, 1);
+
+        download("/works");
+        download("/works");
+
+        assertEquals(Arrays.asList("/works", "/works \"v1\""), requests);
+    }
+
+    @Test
+    public void noStoreResponseIsNotCached() throws IOException {
+        cacheControl = "no-store";
+        HttpResponseCache cache = installCache(100_000, 1);
+
+        download("/works");
+        download("/works");
+
+        assertEquals(Arrays.asList("/works", "/works"), requests);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void responsesForOtherAcceptHeadersAreCachedSeparately() throws IOException {
+        installCache(100_000, 1);
+        download("/works");
+
+        URLDownload download = new URLDownload(baseUrl + "/works");
+        download.addParameters("Accept", "application/x-bibtex");
+        String bibtex = download.downloadToString(StandardCharsets.UTF_8);
+
+        assertEquals("v1 of /works as application/x-bibtex\n", bibtex);
+        assertEquals(Arrays.asList("/works", "/works"), requests);
+    }
+
+    @Test
+    public void responsesAreKeptAcrossInstances() throws IOException {
+        installCache(100_000, 1);
+        download("/works");
+
+        HttpResponseCache cache = installCache(100_000, 1);
+        download("/works");
+
+        assertEquals(Collections.singletonList("/works"), requests);
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedResponsesAreEvicted() throws IOException {
+        HttpResponseCache cache = installCache(100_000, 1);
+        download("/0");
+        long entrySize = cache.getSize();
+        cache.clear();
+
+        // room for nine responses
+        cache = installCache((entrySize * 9) + (entrySize / 2), 1);
+        for (int i = 0; i < 9; i++) {
+            download("/" + i);
+        }
+        download("/0");
+        download("/9");
+        requests.clear();
+
+        download("/0");
+        download("/1");
+
+        assertEquals(Collections.singletonList("/1"), requests);
+        assertTrue(cache.getSize() <= ((entrySize * 9) + (entrySize / 2)));
+    }
+
+    @Test
+    public void redirectsAreFollowedByConnection() throws IOException {
+        installCache(100_000, 1);
+
+        download("/redirect/301/works");
+        String second = download("/redirect/301/works");
+
+        assertEquals("v1 of /works as text/plain\n", second);
+        // only the target of the redirect is stored
+        assertEquals(Arrays.asList("/redirect/301/works", "/works", "/redirect/301/works"), requests);
+    }
+
+    @Test
+    public void redirectIsPassedToConnectionNotFollowingRedirects() throws IOException {
+        installCache(100_000, 1);
+        download("/works");
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/redirect/302/works").openConnection();
+        connection.setInstanceFollowRedirects(false);
+
+        assertEquals(HttpURLConnection.HTTP_MOVED_TEMP, connection.getResponseCode());
+        assertEquals(baseUrl + "/redirect/302/works", connection.getURL().toString());
+    }
+
+    @Test
+    public void offlineModeServesStaleResponses() throws IOException {
+        HttpResponseCache cache = installCache(100_000, 0);
+        String online = download("/works");
+        cache.setOffline(true);
+
+        assertEquals(online, download("/works"));
+        assertEquals(Collections.singletonList("/works"), requests);
+    }
+
+    @Test(expected = IOException.class)
+    public void offlineModeFailsForUncachedResponses() throws IOException {
+        HttpResponseCache cache = installCache(100_000, 1);
+        cache.setOffline(true);
+
+        download("/works");
+    }
+}
@@ -0,0 +1,110 @@
+package net.sf.jabref.logic.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestLimiterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(6);
+
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNoConcurrentRequests() {
+        new RequestLimiter(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void sendReturnsResultOfRequest() throws IOException {
+        RequestLimiter limiter = new RequestLimiter(1, 0, TimeUnit.MILLISECONDS);
+
+        assertEquals("response", limiter.send("example.org", () -> "response"));
+    }
+
+    @Test
+    public void limitsConcurrentRequestsToSameHost() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(2, 0, TimeUnit.MILLISECONDS);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        runConcurrently(6, () -> limiter.send("example.org", () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            return null;
+        }));
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void requestsToDifferentHostsDoNotLimitEachOther() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(1, 0, TimeUnit.MILLISECONDS);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger hostNumber = new AtomicInteger();
+
+        runConcurrently(3, () -> limiter.send("host" + hostNumber.incrementAndGet(), () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(200);
+            running.decrementAndGet();
+            return null;
+        }));
+
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    public void startsRequestsToSameHostMinimumIntervalApart() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(4, 100, TimeUnit.MILLISECONDS);
+        List<Long> starts = new ArrayList<>();
+
+        runConcurrently(4, () -> limiter.send("example.org", () -> {
+            synchronized (starts) {
+                starts.add(System.nanoTime());
+            }
+            return null;
+        }));
+
+        starts.sort(null);
+        for (int i = 1; i < starts.size(); i++) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(starts.get(i) - starts.get(i - 1)) >= 95);
+        }
+    }
+
+    private void runConcurrently(int times, RequestLimiter.Request<Void> task)
+            throws InterruptedException, ExecutionException {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            futures.add(executor.submit(task::send));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package net.sf.jabref.logic.search;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
@@ -58,4 +60,42 @@ public class DatabaseSearcherTest {
         List<BibEntry> matches = new DatabaseSearcher(new SearchQuery("harrer", true, true), database).getMatches();
         assertEquals(Collections.singletonList(entry), matches);
     }
+
+    @Test
+    public void testGetMatchesKeepsOrderOfDatabase() {
+        BibDatabase database = new BibDatabase();
+        List<BibEntry> expectedMatches = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setField("title", i % 3 == 0 ? "match " + i : "other " + i);
+            database.insertEntry(entry);
+            if (i % 3 == 0) {
+                expectedMatches.add(entry);
+            }
+        }
+
+        List<BibEntry> partialMatches = Collections.synchronizedList(new ArrayList<>());
+        List<BibEntry> matches = new DatabaseSearcher(new SearchQuery("match", false, false), database)
+                .getMatches(partialMatches::addAll, () -> false);
+
+        assertEquals(expectedMatches, matches);
+        assertEquals(expectedMatches.size(), partialMatches.size());
+    }
+
+    @Test
+    public void testGetMatchesStopsWhenCancelled() {
+        BibDatabase database = new BibDatabase();
+        for (int i = 0; i < 5000; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setField("title", "match " + i);
+            database.insertEntry(entry);
+        }
+
+        AtomicInteger reportedChunks = new AtomicInteger();
+        List<BibEntry> matches = new DatabaseSearcher(new SearchQuery("match", false, false), database)
+                .getMatches(partialMatches -> reportedChunks.incrementAndGet(), () -> true);
+
+        assertEquals(Collections.emptyList(), matches);
+        assertEquals(0, reportedChunks.get());
+    }
 }
@@ -0,0 +1,132 @@
+package net.sf.jabref.logic.search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SearchIndexTest {
+
+    private BibDatabase database;
+    private SearchIndex index;
+    private BibEntry harrer;
+    private BibEntry knuth;
+
+
+    @Before
+    public void setUp() {
+        database = new BibDatabase();
+        index = SearchIndex.forDatabase(database);
+
+        harrer = new BibEntry();
+        harrer.setField("author", "Simon Harrer");
+        harrer.setField("title", "Java by Comparison");
+        harrer.setField("year", "2018");
+        database.insertEntry(harrer);
+
+        knuth = new BibEntry();
+        knuth.setField("author", "Donald E. Knuth");
+        knuth.setField("title", "The {T}e{X}book");
+        knuth.setField("year", "1984");
+        database.insertEntry(knuth);
+    }
+
+    @Test
+    public void getEntriesContainingFindsPartsOfTerms() {
+        assertEquals(Optional.of(Collections.singleton(harrer.getId())), index.getEntriesContaining("arre"));
+    }
+
+    @Test
+    public void getEntriesContainingIgnoresCase() {
+        assertEquals(Optional.of(Collections.singleton(harrer.getId())), index.getEntriesContaining("JAVA"));
+    }
+
+    @Test
+    public void getEntriesContainingRespectsTermBoundaries() {
+        assertEquals(Optional.of(Collections.singleton(harrer.getId())), index.getEntriesContaining("java by"));
+        assertEquals(Optional.of(Collections.emptySet()), index.getEntriesContaining("jav by"));
+    }
+
+    @Test
+    public void getEntriesContainingFindsTextWithoutLatexCommands() {
+        assertEquals(Optional.of(Collections.singleton(knuth.getId())), index.getEntriesContaining("texbook"));
+    }
+
+    @Test
+    public void getEntriesContainingWithoutTermsCannotBeLookedUp() {
+        assertFalse(index.getEntriesContaining(" - ").isPresent());
+    }
+
+    @Test
+    public void getEntriesContainingInFieldOnlySearchesField() {
+        assertEquals(Optional.of(Collections.singleton(harrer.getId())), index.getEntriesContaining("title", "java"));
+        assertEquals(Optional.of(Collections.emptySet()), index.getEntriesContaining("author", "java"));
+        assertEquals(Optional.of(Collections.emptySet()), index.getEntriesContaining("journal", "java"));
+    }
+
+    @Test
+    public void indexFollowsFieldChanges() {
+        harrer.setField("title", "Ulysses");
+
+        assertEquals(Optional.of(Collections.emptySet()), index.getEntriesContaining("java"));
+        assertEquals(Optional.of(Collections.singleton(harrer.getId())), index.getEntriesContaining("ulysses"));
+
+        harrer.clearField("title");
+
+        assertEquals(Optional.of(Collections.emptySet()), index.getEntriesContaining("ulysses"));
+    }
+
+    @Test
+    public void removedEntryIsNotFound() {
+        database.removeEntry(harrer);
+
+        assertEquals(Optional.of(Collections.emptySet()), index.getEntriesContaining("harrer"));
+    }
+
+    @Test
+    public void getMatchesOfContainBasedSearchRequiresAllWords() {
+        SearchQuery query = new SearchQuery("knuth 1984", false, false);
+
+        assertEquals(Collections.singletonList(knuth), query.getMatches(database.getEntries(), index));
+    }
+
+    @Test
+    public void getMatchesOfGrammarBasedSearchUsesIndex() {
+        SearchQuery andQuery = new SearchQuery("author=knuth and year=1984", false, false);
+        SearchQuery orQuery = new SearchQuery("author=knuth or title=java", false, false);
+        SearchQuery notQuery = new SearchQuery("not author=knuth", false, false);
+
+        assertEquals(Collections.singletonList(knuth), andQuery.getMatches(database.getEntries(), index));
+        assertEquals(Arrays.asList(harrer, knuth), orQuery.getMatches(database.getEntries(), index));
+        assertEquals(Collections.singletonList(harrer), notQuery.getMatches(database.getEntries(), index));
+    }
+
+    @Test
+    public void getMatchesOfRegexSearchScansEntries() {
+        SearchQuery query = new SearchQuery("Har+er", true, true);
+
+        assertEquals(Collections.singletonList(harrer), query.getMatches(database.getEntries(), index));
+    }
+
+    @Test
+    public void getMatchesIsCaseSensitiveIfRequested() {
+        SearchQuery query = new SearchQuery("harrer", true, false);
+
+        assertEquals(Collections.emptyList(), query.getMatches(database.getEntries(), index));
+    }
+
+    @Test
+    public void getTermsContainsTermsWithAndWithoutLatexCommands() {
+        assertEquals(new HashSet<>(Arrays.asList("the", "t", "e", "x", "book", "texbook")),
+                SearchIndex.getTerms("The {T}e{X}book"));
+    }
+}
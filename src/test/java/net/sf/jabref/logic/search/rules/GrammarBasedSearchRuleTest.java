@@ -0,0 +1,82 @@
+package net.sf.jabref.logic.search.rules;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GrammarBasedSearchRuleTest {
+
+    private BibEntry entry;
+
+
+    @Before
+    public void setUp() {
+        entry = new BibEntry();
+        entry.setType("article");
+        entry.setField("author", "Simon Harrer");
+        entry.setField("title", "Java by Comparison");
+        entry.setField("booktitle", "Proceedings");
+    }
+
+    private static boolean matches(String query, boolean caseSensitive, boolean regex, BibEntry entry) {
+        GrammarBasedSearchRule rule = new GrammarBasedSearchRule(caseSensitive, regex);
+        assertTrue(rule.validateSearchStrings(query));
+        return rule.applyRule(query, entry);
+    }
+
+    @Test
+    public void comparisonOfField() {
+        assertTrue(matches("author=harrer", false, false, entry));
+        assertTrue(matches("AUTHOR=harrer", false, false, entry));
+        assertFalse(matches("AUTHOR=Harrer", true, false, entry));
+        assertTrue(matches("title==\"Java by Comparison\"", false, false, entry));
+        assertFalse(matches("title==Java", false, false, entry));
+    }
+
+    @Test
+    public void comparisonOfMissingField() {
+        assertFalse(matches("journal=java", false, false, entry));
+        assertTrue(matches("journal!=java", false, false, entry));
+    }
+
+    @Test
+    public void comparisonOfEntryType() {
+        assertTrue(matches("entrytype=article", false, false, entry));
+        assertFalse(matches("entrytype=book", false, false, entry));
+    }
+
+    @Test
+    public void regexComparisonOfSeveralFields() {
+        assertTrue(matches(".*title=proceed", false, true, entry));
+        assertTrue(matches(".*title=java", false, true, entry));
+        assertFalse(matches(".*title=harrer", false, true, entry));
+    }
+
+    @Test
+    public void combinedComparisons() {
+        assertTrue(matches("author=harrer and title=java", false, false, entry));
+        assertFalse(matches("author=harrer and title=python", false, false, entry));
+        assertTrue(matches("author=knuth or title=java", false, false, entry));
+        assertTrue(matches("not (author=knuth or title=python)", false, false, entry));
+    }
+
+    @Test
+    public void invalidRegularExpressionMatchesNothing() {
+        assertFalse(matches("title=\"[\"", false, true, entry));
+    }
+
+    @Test
+    public void compiledQueryIsReused() {
+        GrammarBasedSearchRule first = new GrammarBasedSearchRule(false, false);
+        GrammarBasedSearchRule second = new GrammarBasedSearchRule(false, false);
+        first.validateSearchStrings("author=harrer and title=java");
+        second.validateSearchStrings("author=harrer and title=java");
+
+        assertSame(first.getTree(), second.getTree());
+    }
+}
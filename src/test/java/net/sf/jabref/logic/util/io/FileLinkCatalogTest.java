@@ -0,0 +1,223 @@
+package net.sf.jabref.logic.util.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.Defaults;
+import net.sf.jabref.Globals;
+import net.sf.jabref.MetaData;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.FieldName;
+import net.sf.jabref.preferences.JabRefPreferences;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class FileLinkCatalogTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private Path rootDir;
+    private BibDatabase database;
+    private BibDatabaseContext context;
+    private FileLinkCatalog catalog;
+
+
+    @Before
+    public void setUp() throws IOException {
+        Globals.prefs = mock(JabRefPreferences.class);
+
+        rootDir = testFolder.getRoot().toPath();
+        database = new BibDatabase();
+        context = new BibDatabaseContext(database, new MetaData(), new Defaults());
+        context.setDatabaseFile(rootDir.resolve("test.bib").toFile());
+        catalog = context.getFileLinkCatalog();
+    }
+
+    @After
+    public void tearDown() {
+        catalog.stop();
+    }
+
+    @Test
+    public void getLinkedFileResolvesRelativeLink() throws IOException {
+        Path paper = Files.write(rootDir.resolve("paper.pdf"), "content".getBytes(StandardCharsets.UTF_8));
+
+        Optional<FileLinkCatalog.LinkedFileInfo> linkedFile = catalog.getLinkedFile("paper.pdf");
+
+        assertEquals(Optional.of(paper.toFile()), linkedFile.map(FileLinkCatalog.LinkedFileInfo::getFile));
+        assertEquals(7, linkedFile.get().getSize());
+    }
+
+    @Test
+    public void getFileOfMissingFileIsEmpty() {
+        assertEquals(Optional.empty(), catalog.getFile("missing.pdf"));
+    }
+
+    @Test
+    public void getFileLooksUpDiskWhenNotRunning() throws IOException {
+        Path paper = Files.createFile(rootDir.resolve("paper.pdf"));
+        catalog.getFile("paper.pdf");
+
+        Files.delete(paper);
+
+        assertEquals(Optional.empty(), catalog.getFile("paper.pdf"));
+    }
+
+    @Test(timeout = 10000)
+    public void watchingCatalogForgetsRemovedFile() throws Exception {
+        Path paper = Files.createFile(rootDir.resolve("paper.pdf"));
+        assertTrue(catalog.startWatching());
+        assertEquals(Optional.of(paper.toFile()), catalog.getFile("paper.pdf"));
+
+        Files.delete(paper);
+        // waits for the removal to be notified
+        catalog.processNextEvents();
+
+        assertEquals(Optional.empty(), catalog.getFile("paper.pdf"));
+    }
+
+    @Test
+    public void watchingCatalogAnswersFromMemory() throws IOException {
+        Path paper = Files.createFile(rootDir.resolve("paper.pdf"));
+        assertTrue(catalog.startWatching());
+        catalog.getFile("paper.pdf");
+
+        // the removal has not been processed yet
+        Files.delete(paper);
+
+        assertEquals(Optional.of(paper.toFile()), catalog.getFile("paper.pdf"));
+    }
+
+    @Test
+    public void filesWhoseChangesMayBeMissedAreCheckedAgain() throws IOException {
+        AtomicLong time = new AtomicLong();
+        FileLinkCatalog revalidatingCatalog = new FileLinkCatalog(context, time::get) {
+
+            @Override
+            boolean mayMissChanges(Path directory, WatchService service) {
+                return true;
+            }
+        };
+        Path paper = Files.createFile(rootDir.resolve("paper.pdf"));
+        assertTrue(revalidatingCatalog.startWatching());
+        revalidatingCatalog.getFile("paper.pdf");
+        Files.delete(paper);
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Optional.of(paper.toFile()), revalidatingCatalog.getFile("paper.pdf"));
+        time.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(Optional.empty(), revalidatingCatalog.getFile("paper.pdf"));
+
+        revalidatingCatalog.stop();
+    }
+
+    @Test
+    public void stoppedCatalogCannotBeStarted() {
+        catalog.stop();
+
+        assertFalse(catalog.startWatching());
+    }
+
+    @Test
+    public void fingerprintsOfLinkedFilesAreStoredInMetaData() throws IOException {
+        Files.write(rootDir.resolve("paper.pdf"), "content".getBytes(StandardCharsets.UTF_8));
+        linkFile("paper.pdf");
+        assertTrue(catalog.startWatching());
+        catalog.getFile("paper.pdf");
+
+        fingerprintFoundFiles(catalog);
+
+        assertEquals(1, context.getMetaData().getFileFingerprints().size());
+        assertTrue(context.getMetaData().getFileFingerprints().get(0).endsWith(":paper.pdf"));
+    }
+
+    @Test
+    public void filesAreNotFingerprintedWhenNotRunning() throws IOException {
+        Files.createFile(rootDir.resolve("paper.pdf"));
+        linkFile("paper.pdf");
+        catalog.getFile("paper.pdf");
+
+        assertFalse(catalog.fingerprintNextFile());
+        assertEquals(Collections.emptyList(), context.getMetaData().getFileFingerprints());
+    }
+
+    @Test
+    public void fingerprintsOfRemovedLinksAreDropped() throws IOException {
+        Files.createFile(rootDir.resolve("paper.pdf"));
+        assertTrue(catalog.startWatching());
+        catalog.getFile("paper.pdf");
+
+        fingerprintFoundFiles(catalog);
+
+        assertEquals(Collections.emptyList(), context.getMetaData().getFileFingerprints());
+    }
+
+    @Test
+    public void findMovedFileRecognizesRenamedFileByStoredFingerprint() throws IOException {
+        Path paper = Files.write(rootDir.resolve("paper.pdf"), "content".getBytes(StandardCharsets.UTF_8));
+        Files.write(rootDir.resolve("other.pdf"), "another".getBytes(StandardCharsets.UTF_8));
+        linkFile("paper.pdf");
+        assertTrue(catalog.startWatching());
+        catalog.getFile("paper.pdf");
+        fingerprintFoundFiles(catalog);
+
+        Path renamed = Files.move(paper, Files.createDirectory(rootDir.resolve("sub")).resolve("renamed.pdf"));
+        // the fingerprints are read from the metadata, as they are after the database has been opened again
+        FileLinkCatalog reopenedCatalog = new FileLinkCatalog(context);
+
+        assertEquals(Optional.of(renamed.toFile()), reopenedCatalog.findMovedFile("paper.pdf"));
+    }
+
+    @Test
+    public void findMovedFileReturnsExistingFile() throws IOException {
+        Path paper = Files.createFile(rootDir.resolve("paper.pdf"));
+
+        assertEquals(Optional.of(paper.toFile()), catalog.findMovedFile("paper.pdf"));
+    }
+
+    @Test
+    public void findMovedFileIgnoresFilesWithOtherContent() throws IOException {
+        Path paper = Files.write(rootDir.resolve("paper.pdf"), "content".getBytes(StandardCharsets.UTF_8));
+        linkFile("paper.pdf");
+        assertTrue(catalog.startWatching());
+        catalog.getFile("paper.pdf");
+        fingerprintFoundFiles(catalog);
+
+        Files.delete(paper);
+        Files.write(rootDir.resolve("other.pdf"), "changed".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Optional.empty(), new FileLinkCatalog(context).findMovedFile("paper.pdf"));
+    }
+
+    private void linkFile(String link) {
+        BibEntry entry = new BibEntry();
+        entry.setField(FieldName.FILE, ':' + link + ":PDF");
+        database.insertEntry(entry);
+    }
+
+    private static void fingerprintFoundFiles(FileLinkCatalog catalog) {
+        // the fingerprints are stored when no file is left to fingerprint
+        while (catalog.fingerprintNextFile()) {
+            // continue with the next file
+        }
+    }
+}
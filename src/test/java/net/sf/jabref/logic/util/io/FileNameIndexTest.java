@@ -0,0 +1,133 @@
+package net.sf.jabref.logic.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FileNameIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path rootDir;
+    private List<File> directories;
+    private File newton;
+    private File newtonPostscript;
+    private File newtonSecond;
+    private File newtonNotes;
+
+
+    @Before
+    public void setUp() throws IOException {
+        rootDir = temporaryFolder.getRoot().toPath();
+        directories = Collections.singletonList(rootDir.toFile());
+
+        Path subDir = Files.createDirectories(rootDir.resolve("papers").resolve("1687"));
+        newton = Files.createFile(rootDir.resolve("Newton1687.pdf")).toFile();
+        newtonPostscript = Files.createFile(subDir.resolve("Newton1687.ps")).toFile();
+        newtonSecond = Files.createFile(subDir.resolve("Newton1687b.pdf")).toFile();
+        newtonNotes = Files.createFile(subDir.resolve("Newton1687.notes.pdf")).toFile();
+        Files.createFile(subDir.resolve("Newton1687.txt"));
+        Files.createFile(rootDir.resolve("Maxwell1865.pdf"));
+    }
+
+    @Test
+    public void buildIndexesFilesWithExtensionsOnly() {
+        FileNameIndex index = FileNameIndex.build(Arrays.asList("pdf", "ps"), directories);
+
+        assertEquals(5, index.getFiles().size());
+        assertTrue(index.getFiles().contains(newtonPostscript));
+    }
+
+    @Test
+    public void getFilesStartingWithReturnsFilesOrderedByName() {
+        FileNameIndex index = FileNameIndex.build(Arrays.asList("pdf", "ps"), directories);
+
+        assertEquals(Arrays.asList(newtonNotes, newton, newtonPostscript, newtonSecond),
+                index.getFilesStartingWith("Newton"));
+    }
+
+    @Test
+    public void getFilesWithBaseNameIgnoresLongerNames() {
+        FileNameIndex index = FileNameIndex.build(Arrays.asList("pdf", "ps"), directories);
+
+        assertEquals(Arrays.asList(newton, newtonPostscript), index.getFilesWithBaseName("Newton1687"));
+    }
+
+    @Test
+    public void buildStopsWhenCanceled() {
+        FileNameIndex index = FileNameIndex.build(Arrays.asList("pdf", "ps"), directories, () -> true);
+
+        assertEquals(Collections.emptySet(), index.getFiles());
+    }
+
+    @Test
+    public void findAssociatedFilesPrefersExactMatches() {
+        BibEntry first = new BibEntry();
+        first.setCiteKey("Newton");
+        BibEntry second = new BibEntry();
+        second.setCiteKey("Newton1687");
+        FileNameIndex index = FileNameIndex.build(Arrays.asList("pdf", "ps"), directories);
+
+        Map<BibEntry, List<File>> result = FileUtil.findAssociatedFiles(Arrays.asList(first, second), index, false);
+
+        assertEquals(Arrays.asList(newtonNotes, newtonSecond), result.get(first));
+        assertEquals(Arrays.asList(newton, newtonPostscript), result.get(second));
+    }
+
+    @Test
+    public void findAssociatedFilesWithExactKeyOnly() {
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey("Newton1687");
+        FileNameIndex index = FileNameIndex.build(Arrays.asList("pdf", "ps"), directories);
+
+        Map<BibEntry, List<File>> result = FileUtil.findAssociatedFiles(Collections.singletonList(entry), index, true);
+
+        assertEquals(Arrays.asList(newton, newtonPostscript), result.get(entry));
+    }
+
+    @Test
+    public void cacheReusesIndexOfSameExtensionsAndDirectories() {
+        FileNameIndex.Cache cache = new FileNameIndex.Cache();
+
+        FileNameIndex index = cache.get(Arrays.asList("pdf", "ps"), directories, () -> false);
+
+        assertSame(index, cache.get(Arrays.asList("ps", "pdf"), directories, () -> false));
+    }
+
+    @Test
+    public void cacheBuildsIndexOfOtherExtensions() {
+        FileNameIndex.Cache cache = new FileNameIndex.Cache();
+        cache.get(Collections.singletonList("pdf"), directories, () -> false);
+
+        FileNameIndex index = cache.get(Collections.singletonList("ps"), directories, () -> false);
+
+        assertEquals(Collections.singleton(newtonPostscript), index.getFiles());
+    }
+
+    @Test
+    public void cacheDoesNotKeepCanceledIndex() {
+        FileNameIndex.Cache cache = new FileNameIndex.Cache();
+        cache.get(Arrays.asList("pdf", "ps"), directories, () -> true);
+
+        FileNameIndex index = cache.get(Arrays.asList("pdf", "ps"), directories, () -> false);
+
+        assertEquals(5, index.getFiles().size());
+    }
+}
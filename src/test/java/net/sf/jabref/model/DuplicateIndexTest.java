@@ -0,0 +1,155 @@
+package net.sf.jabref.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.database.BibDatabaseMode;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DuplicateIndexTest {
+
+    private BibDatabase database;
+    private DuplicateIndex index;
+
+
+    @Before
+    public void setUp() {
+        database = new BibDatabase();
+        index = DuplicateIndex.forDatabase(database);
+    }
+
+    private static BibEntry createArticle(String author, String title, String year) {
+        BibEntry entry = new BibEntry();
+        entry.setType("article");
+        entry.setField("author", author);
+        entry.setField("title", title);
+        entry.setField("year", year);
+        return entry;
+    }
+
+    @Test
+    public void entriesWithSameDoiAreCandidates() {
+        BibEntry one = new BibEntry();
+        one.setField("doi", "10.1000/182");
+        BibEntry two = new BibEntry();
+        two.setField("doi", "http://dx.doi.org/10.1000/182");
+        database.insertEntry(one);
+        database.insertEntry(two);
+
+        assertEquals(Collections.singletonList(two), index.getCandidates(one));
+    }
+
+    @Test
+    public void entriesWithSameFirstAuthorAndYearAreCandidates() {
+        BibEntry one = createArticle("Bob, Billy and Joyce, James", "Something", "2005");
+        BibEntry two = createArticle("Billy Bob", "Something completely different", "2005");
+        database.insertEntry(one);
+        database.insertEntry(two);
+
+        assertEquals(Collections.singletonList(two), index.getCandidates(one));
+    }
+
+    @Test
+    public void entriesWithSimilarTitlesAreCandidates() {
+        BibEntry one = createArticle("Wirthlin, Michael", "The nano processor: a low resource reconfigurable processor",
+                "1994");
+        BibEntry two = createArticle("Hutchings, Brad", "The nano processor: a low-resource reconfigurable processor",
+                "1995");
+        database.insertEntry(one);
+        database.insertEntry(two);
+
+        assertEquals(Collections.singletonList(two), index.getCandidates(one));
+    }
+
+    @Test
+    public void unrelatedEntriesAreNoCandidates() {
+        BibEntry one = createArticle("Wirthlin, Michael", "The nano processor", "1994");
+        BibEntry two = createArticle("Joyce, James", "Ulysses", "1922");
+        database.insertEntry(one);
+        database.insertEntry(two);
+
+        assertEquals(Collections.emptyList(), index.getCandidates(one));
+        assertEquals(Collections.emptyList(), index.getCandidatePairs());
+    }
+
+    @Test
+    public void entriesOfDifferentTypesAreNoCandidates() {
+        BibEntry one = createArticle("Wirthlin, Michael", "The nano processor", "1994");
+        BibEntry two = createArticle("Wirthlin, Michael", "The nano processor", "1994");
+        two.setType("book");
+        database.insertEntry(one);
+        database.insertEntry(two);
+
+        assertEquals(Collections.emptyList(), index.getCandidates(one));
+    }
+
+    @Test
+    public void removedEntryIsNoCandidate() {
+        BibEntry one = createArticle("Bob, Billy", "A title", "2005");
+        BibEntry two = createArticle("Bob, Billy", "A title", "2005");
+        database.insertEntry(one);
+        database.insertEntry(two);
+        database.removeEntry(two);
+
+        assertEquals(Collections.emptyList(), index.getCandidates(one));
+    }
+
+    @Test
+    public void indexFollowsFieldChanges() {
+        BibEntry one = createArticle("Bob, Billy", "A title", "2005");
+        BibEntry two = createArticle("Joyce, James", "Ulysses", "1922");
+        database.insertEntry(one);
+        database.insertEntry(two);
+
+        two.setField("author", "Bob, Billy");
+        two.setField("year", "2005");
+
+        assertEquals(Collections.singletonList(two), index.getCandidates(one));
+    }
+
+    @Test
+    public void candidatesOfEntryNotInIndexAreFound() {
+        BibEntry one = createArticle("Bob, Billy", "A title", "2005");
+        database.insertEntry(one);
+
+        assertEquals(Collections.singletonList(one),
+                index.getCandidates(createArticle("Bob, Billy", "Another title", "2005")));
+    }
+
+    @Test
+    public void getDuplicateFindsDuplicate() {
+        BibEntry one = createArticle("Bob, Billy", "A title", "2005");
+        database.insertEntry(one);
+
+        assertEquals(one, index.getDuplicate(createArticle("Bob, Billy", "A title", "2005"), BibDatabaseMode.BIBTEX)
+                .get());
+        assertFalse(index.getDuplicate(createArticle("Bob, Billy", "Another subject", "2005"), BibDatabaseMode.BIBTEX)
+                .isPresent());
+    }
+
+    @Test
+    public void getDuplicatesReturnsPairsInInsertionOrder() {
+        BibEntry one = createArticle("Bob, Billy", "A title", "2005");
+        BibEntry two = createArticle("Joyce, James", "Ulysses", "1922");
+        BibEntry three = createArticle("Bob, Billy", "A title", "2005");
+        BibEntry four = createArticle("Joyce, James", "Ulysses", "1922");
+        database.insertEntry(one);
+        database.insertEntry(two);
+        database.insertEntry(three);
+        database.insertEntry(four);
+
+        List<List<BibEntry>> duplicates = index.getDuplicates(BibDatabaseMode.BIBTEX);
+
+        assertEquals(Arrays.asList(Arrays.asList(one, three), Arrays.asList(two, four)), duplicates);
+        assertTrue(duplicates.get(0).get(0) == one);
+    }
+}
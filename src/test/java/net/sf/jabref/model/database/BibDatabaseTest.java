@@ -1,6 +1,9 @@
 package net.sf.jabref.model.database;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import net.sf.jabref.model.entry.BibEntry;
@@ -161,6 +164,31 @@ public class BibDatabaseTest {
         assertEquals(expectedEntry, actualEntry);
     }
 
+    @Test
+    public void registerListenerPassesCurrentEntriesBeforeLaterRemoval() throws InterruptedException {
+        BibEntry entry = new BibEntry();
+        database.insertEntry(entry);
+        TestEventListener tel = new TestEventListener();
+        List<BibEntry> passedEntries = new ArrayList<>();
+        Thread remover = new Thread(() -> database.removeEntry(entry));
+
+        database.registerListener(tel, passedEntry -> {
+            passedEntries.add(passedEntry);
+            // the removal has to wait until all entries are passed
+            remover.start();
+            try {
+                remover.join(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertNull(tel.getBibEntry());
+        });
+        remover.join();
+
+        assertEquals(Collections.singletonList(entry), passedEntries);
+        assertEquals(entry, tel.getBibEntry());
+    }
+
     @Test
     public void changingEntryPostsChangeEntryEvent() {
         BibEntry entry = new BibEntry();
@@ -248,6 +276,60 @@ public class BibDatabaseTest {
         assertEquals(database.getNumberOfKeyOccurrences("AAA"), 1);
     }
 
+    @Test
+    public void getEntryByKeyFindsInsertedEntry() {
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey("AAA");
+        database.insertEntry(entry);
+        assertEquals(Optional.of(entry), database.getEntryByKey("AAA"));
+        assertEquals(Optional.empty(), database.getEntryByKey("BBB"));
+    }
+
+    @Test
+    public void getEntryByKeyFollowsKeyChangeOfEntry() {
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey("AAA");
+        database.insertEntry(entry);
+        entry.setCiteKey("BBB");
+        assertEquals(Optional.empty(), database.getEntryByKey("AAA"));
+        assertEquals(Optional.of(entry), database.getEntryByKey("BBB"));
+        assertEquals(database.getNumberOfKeyOccurrences("AAA"), 0);
+        assertEquals(database.getNumberOfKeyOccurrences("BBB"), 1);
+    }
+
+    @Test
+    public void getEntryByKeyIgnoresRemovedEntry() {
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey("AAA");
+        database.insertEntry(entry);
+        database.removeEntry(entry);
+        entry.setCiteKey("BBB");
+        assertEquals(Optional.empty(), database.getEntryByKey("AAA"));
+        assertEquals(Optional.empty(), database.getEntryByKey("BBB"));
+    }
+
+    @Test
+    public void getEntriesByKeyReturnsDuplicatesInDatabaseOrder() {
+        BibEntry first = new BibEntry();
+        first.setCiteKey("AAA");
+        first.setField("title", "first");
+        database.insertEntry(first);
+        BibEntry second = new BibEntry();
+        second.setCiteKey("BBB");
+        second.setField("title", "second");
+        database.insertEntry(second);
+        BibEntry third = new BibEntry();
+        third.setCiteKey("CCC");
+        third.setField("title", "third");
+        database.insertEntry(third);
+
+        third.setCiteKey("AAA");
+        second.setCiteKey("AAA");
+
+        assertEquals(Arrays.asList(first, second, third), database.getEntriesByKey("AAA"));
+        assertEquals(Optional.of(first), database.getEntryByKey("AAA"));
+    }
+
     @Test
     public void circularStringResolving() {
         BibtexString string = new BibtexString(IdGenerator.next(), "AAA", "#BBB#");
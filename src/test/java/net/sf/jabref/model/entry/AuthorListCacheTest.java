@@ -0,0 +1,53 @@
+package net.sf.jabref.model.entry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class AuthorListCacheTest {
+
+    @Test
+    public void getCountsHitsAndMisses() {
+        AuthorListCache cache = new AuthorListCache(10);
+
+        AuthorList authors = cache.get("Isaac Newton and James Maxwell");
+
+        assertSame(authors, cache.get("Isaac Newton and James Maxwell"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void getEvictsWhenFull() {
+        AuthorListCache cache = new AuthorListCache(1);
+
+        cache.get("Isaac Newton");
+        cache.get("James Maxwell");
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void equalAuthorsAreShared() {
+        AuthorListCache cache = new AuthorListCache(10);
+
+        Author newton = cache.get("Isaac Newton and James Maxwell").getAuthor(0);
+
+        assertSame(newton, cache.get("Newton, Isaac").getAuthor(0));
+        assertSame(newton, new AuthorListCache(10).get("Isaac Newton").getAuthor(0));
+    }
+
+    @Test
+    public void clearEmptiesCache() {
+        AuthorListCache cache = new AuthorListCache(10);
+        cache.get("Isaac Newton");
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals("Newton", cache.get("Isaac Newton").getAuthor(0).getLast());
+    }
+}
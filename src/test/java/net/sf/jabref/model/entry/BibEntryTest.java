@@ -1,7 +1,17 @@
 package net.sf.jabref.model.entry;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import net.sf.jabref.event.source.EntryEventSource;
+import net.sf.jabref.model.event.EntryChangedEvent;
+import net.sf.jabref.model.event.FieldChangedEvent;
+
+import com.google.common.eventbus.Subscribe;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -36,4 +46,117 @@ public class BibEntryTest {
 
         Assert.assertEquals(Optional.of("value"), entry.getFieldOptional("tEsT"));
     }
+
+    @Test
+    public void replaceFieldsSetsAndRemovesFields() {
+        entry.setField("title", "old title");
+        entry.setField("note", "to be removed");
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", "new title");
+        fields.put("Author", "Ed von Test");
+        entry.replaceFields(fields, EntryEventSource.SHARED);
+
+        Assert.assertEquals(Optional.of("new title"), entry.getFieldOptional("title"));
+        Assert.assertEquals(Optional.of("Ed von Test"), entry.getFieldOptional("author"));
+        Assert.assertFalse(entry.hasField("note"));
+    }
+
+    @Test
+    public void replaceFieldsPostsSingleEvent() {
+        entry.setField("title", "old title");
+        entry.setField("note", "to be removed");
+        EventCollector collector = new EventCollector();
+        entry.registerListener(collector);
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", "new title");
+        fields.put("author", "Ed von Test");
+        entry.replaceFields(fields, EntryEventSource.SHARED);
+
+        Assert.assertEquals(1, collector.events.size());
+    }
+
+    @Test
+    public void replaceFieldsPostsFieldChangedEventForKeyChange() {
+        entry.setCiteKey("oldKey");
+        EventCollector collector = new EventCollector();
+        entry.registerListener(collector);
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put(BibEntry.KEY_FIELD, "newKey");
+        fields.put("title", "new title");
+        entry.replaceFields(fields, EntryEventSource.SHARED);
+
+        Assert.assertEquals(2, collector.events.size());
+        FieldChangedEvent keyEvent = (FieldChangedEvent) collector.events.get(0);
+        Assert.assertEquals("oldKey", keyEvent.getOldValue());
+        Assert.assertEquals("newKey", keyEvent.getNewValue());
+    }
+
+    @Test
+    public void replaceFieldsAppliesAllFieldsBeforeKeyChangeIsPosted() {
+        entry.setCiteKey("oldKey");
+        entry.setField("title", "old title");
+        List<Optional<String>> titlesSeen = new ArrayList<>();
+        entry.registerListener(new Object() {
+
+            @Subscribe
+            public void listen(FieldChangedEvent event) {
+                titlesSeen.add(event.getBibEntry().getFieldOptional("title"));
+            }
+        });
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put(BibEntry.KEY_FIELD, "newKey");
+        fields.put("title", "new title");
+        entry.replaceFields(fields, EntryEventSource.SHARED);
+
+        Assert.assertEquals(Collections.singletonList(Optional.of("new title")), titlesSeen);
+    }
+
+    @Test
+    public void replaceFieldsWithSameFieldsPostsNoEvent() {
+        entry.setField("title", "title");
+        EventCollector collector = new EventCollector();
+        entry.registerListener(collector);
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", "title");
+        entry.replaceFields(fields, EntryEventSource.SHARED);
+
+        Assert.assertTrue(collector.events.isEmpty());
+    }
+
+    @Test
+    public void setParsedSerializationMarksEntryUnchangedIfNotChangedSinceCount() {
+        entry.setField("title", "title");
+        long changeCount = entry.getChangeCount();
+
+        Assert.assertTrue(entry.setParsedSerialization("serialization", changeCount));
+        Assert.assertFalse(entry.hasChanged());
+        Assert.assertEquals("serialization", entry.getParsedSerialization());
+    }
+
+    @Test
+    public void setParsedSerializationKeepsEntryChangedIfChangedSinceCount() {
+        long changeCount = entry.getChangeCount();
+        entry.setField("title", "title");
+
+        Assert.assertFalse(entry.setParsedSerialization("serialization", changeCount));
+        Assert.assertTrue(entry.hasChanged());
+        Assert.assertNull(entry.getParsedSerialization());
+    }
+
+
+    private static class EventCollector {
+
+        private final List<EntryChangedEvent> events = new ArrayList<>();
+
+
+        @Subscribe
+        public void listen(EntryChangedEvent event) {
+            events.add(event);
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package net.sf.jabref.shared;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DBMSProcessorNotificationListenerTest {
+
+    private final CountDownLatch checked = new CountDownLatch(1);
+    private final AtomicBoolean editorConnectionClosed = new AtomicBoolean();
+    private final AtomicBoolean listenerConnectionClosed = new AtomicBoolean();
+    private final DBMSProcessor processor = new TestProcessor(createConnection(editorConnectionClosed));
+
+
+    @After
+    public void tearDown() {
+        processor.stopNotificationListener();
+    }
+
+    @Test
+    public void listenerUsesConnectionOfItsOwn() throws Exception {
+        processor.startNotificationListener(new TestProcessor(createConnection(listenerConnectionClosed)),
+                changes -> {
+                    // not needed
+                });
+        assertTrue(checked.await(5, TimeUnit.SECONDS));
+
+        processor.stopNotificationListener();
+
+        assertTrue(listenerConnectionClosed.get());
+        assertFalse(editorConnectionClosed.get());
+    }
+
+    @Test
+    public void stopNotificationListenerEndsListenerThread() throws Exception {
+        processor.startNotificationListener(new TestProcessor(createConnection(listenerConnectionClosed)),
+                changes -> {
+                    // not needed
+                });
+        assertTrue(checked.await(5, TimeUnit.SECONDS));
+        Thread listenerThread = findListenerThread().get();
+
+        processor.stopNotificationListener();
+        listenerThread.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(listenerThread.isAlive());
+    }
+
+    private static Optional<Thread> findListenerThread() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "JabRef shared database listener".equals(thread.getName())).findFirst();
+    }
+
+    private static Connection createConnection(AtomicBoolean closed) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        closed.set(true);
+                        return null;
+                    } else if ("isClosed".equals(method.getName())) {
+                        return closed.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+
+    private class TestProcessor extends DBMSProcessor {
+
+        TestProcessor(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        protected void setUp() throws SQLException {
+            // nothing to set up
+        }
+
+        @Override
+        public String escape(String expression) {
+            return expression;
+        }
+
+        @Override
+        protected DBMSNotificationListener createNotificationListener(Consumer<Map<Integer, Integer>> changeConsumer) {
+            // checks the connection of this processor once per hour, so the thread is usually waiting
+            return new DBMSNotificationListener(connection, changeConsumer, TimeUnit.HOURS.toMillis(1)) {
+
+                @Override
+                protected void start() throws SQLException {
+                    // nothing to prepare
+                }
+
+                @Override
+                protected Map<Integer, Integer> fetchChanges() throws SQLException {
+                    if (connection.isClosed()) {
+                        throw new SQLException("closed");
+                    }
+                    checked.countDown();
+                    return Collections.emptyMap();
+                }
+            };
+        }
+    }
+}